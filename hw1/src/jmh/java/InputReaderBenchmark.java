@@ -0,0 +1,115 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.InputReader;
+import utils.Scanner;
+import utils.Token;
+
+/**
+ * Reads and scans a large generated input file, comparing the old pipeline
+ * (line-by-line StringBuilder, then scan of the whole String) with the
+ * memory-mapped InputReader feeding the streaming scanner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class InputReaderBenchmark {
+  private static final String STATEMENT = "if (!false) System.out.println(true); else { while (false) { } }\n";
+
+  @Param({ "16", "128" })
+  private int megabytes;
+
+  private Path input;
+
+  @Setup
+  public void setUp() throws IOException {
+    input = Files.createTempFile("InputReaderBenchmark", ".txt");
+    long statements = megabytes * 1024L * 1024L / STATEMENT.length();
+
+    try (java.io.Writer writer = Files.newBufferedWriter(input, StandardCharsets.US_ASCII)) {
+      writer.write("{\n");
+      for (long i = 0; i < statements; i++) {
+        writer.write(STATEMENT);
+      }
+      writer.write("}\n");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(input);
+  }
+
+  @Benchmark
+  public int lineByLineThenScan() throws IOException {
+    StringBuilder inputBuilder = new StringBuilder();
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.US_ASCII)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        inputBuilder.append(line).append("\n");
+      }
+    }
+
+    List<Token> tokens = new Scanner().scan(inputBuilder.toString());
+    return tokens.size();
+  }
+
+  @Benchmark
+  public int mappedStreamingScan() throws IOException {
+    int count = 0;
+    try (Reader reader = InputReader.open(input)) {
+      Scanner scanner = new Scanner(reader);
+      while (scanner.nextToken() != Token.EOF) {
+        count++;
+      }
+    }
+    return count + 1;
+  }
+
+  @Benchmark
+  public int lineByLineRead() throws IOException {
+    StringBuilder inputBuilder = new StringBuilder();
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.US_ASCII)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        inputBuilder.append(line).append("\n");
+      }
+    }
+    return inputBuilder.toString().length();
+  }
+
+  @Benchmark
+  public long mappedRead() throws IOException {
+    char[] chunk = new char[8192];
+    long count = 0;
+    try (Reader reader = InputReader.open(input)) {
+      int read;
+      while ((read = reader.read(chunk, 0, chunk.length)) > 0) {
+        count += read;
+      }
+    }
+    return count;
+  }
+}
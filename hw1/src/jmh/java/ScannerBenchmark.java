@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.Scanner;
+import utils.Token;
+import utils.TokenBuffer;
+
+/**
+ * Compares the dense-table scanner, collecting into a List or a packed
+ * TokenBuffer, with the original map-based one on generated statement
+ * lists. Run with "gradle jmh".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScannerBenchmark {
+  private static final String[] STATEMENTS = {
+      "System.out.println(true);",
+      "if (!false) System.out.println(false); else { }",
+      "while (!!true) { System.out.println(!true); }",
+  };
+
+  @Param({ "1000", "100000" })
+  private int statementCount;
+
+  private String input;
+  private Scanner scanner;
+  private MapScanner mapScanner;
+
+  @Setup
+  public void setUp() {
+    StringBuilder sb = new StringBuilder("{\n");
+    for (int i = 0; i < statementCount; i++) {
+      sb.append('\t').append(STATEMENTS[i % STATEMENTS.length]).append('\n');
+    }
+    input = sb.append("}\n").toString();
+
+    scanner = new Scanner();
+    mapScanner = new MapScanner();
+  }
+
+  @Benchmark
+  public List<Token> denseTableScanner() {
+    return scanner.scan(input);
+  }
+
+  @Benchmark
+  public TokenBuffer packedTokenBuffer() throws IOException {
+    return new Scanner(new StringReader(input)).scanAll();
+  }
+
+  @Benchmark
+  public List<Token> mapScanner() {
+    return mapScanner.scan(input);
+  }
+}
@@ -1,113 +1,101 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
+import parser.BatchParser;
+import parser.LL1Parser;
+import parser.LL1Table;
+import parser.ParseResult;
+import parser.StatementGrammar;
 import utils.InputReader;
 import utils.Scanner;
-import utils.Token;
 
 public class Parse {
-  private Token currentToken;
-  private int tokenIndex = -1;
-  private List<Token> tokens;
+  private static final LL1Table TABLE = LL1Table.build(StatementGrammar.create());
+
+  private static final String BATCH_OPTION = "--batch";
 
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+      System.exit(batch(args) ? 0 : 1);
+    }
+
     Parse parse = new Parse();
-    parse.parse();
+    parse.parse(args);
   }
 
-  private void parse() {
-    Scanner scanner = new Scanner();
-    tokens = null;
-
-    try {
-      String input = InputReader.readAll();
-      tokens = scanner.scan(input);
-    } catch (Exception e) {
-      printParseError();
-      return;
+  /*
+   * Parse --batch <file or directory>...
+   *
+   * Parses every file on a worker pool in this JVM and prints one result
+   * line per file, in order, followed by the overall throughput.
+   */
+  private static boolean batch(String[] args) {
+    List<Path> paths = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      paths.add(Paths.get(args[i]));
     }
 
-    currentToken = nextToken();
-    S();
-
-    if (currentToken == Token.EOF) {
-      printParseSucess();
-    } else {
-      printParseError();
+    List<ParseResult> results;
+    long startTime = System.nanoTime();
+    try {
+      List<Path> files = BatchParser.collectFiles(paths);
+      results = new BatchParser(TABLE, Runtime.getRuntime().availableProcessors()).parseAll(files);
+    } catch (IOException e) {
+      System.err.println("Could not read input: " + e.getMessage());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
     }
-  }
-
-  private Token nextToken() {
-    tokenIndex++;
-
-    if (tokenIndex >= tokens.size()) {
-      return Token.EOF;
+    long elapsed = System.nanoTime() - startTime;
+
+    int accepted = 0;
+    long bytes = 0;
+    for (ParseResult result : results) {
+      bytes += result.getSize();
+      switch (result.getStatus()) {
+        case ACCEPTED:
+          accepted++;
+          System.out.println(result.getPath() + ": Program parsed successfully");
+          break;
+        case PARSE_ERROR:
+          System.out.println(result.getPath() + ": Parse error");
+          break;
+        default:
+          System.out.println(result.getPath() + ": Could not read input: " + result.getMessage());
+          break;
+      }
     }
 
-    Token token = tokens.get(tokenIndex);
-    return token;
+    double seconds = elapsed / 1e9;
+    System.out.printf("%d files, %d accepted, %d rejected in %.3f s (%.0f files/s, %.1f MB/s)%n",
+        results.size(), accepted, results.size() - accepted, seconds,
+        results.size() / seconds, bytes / seconds / (1024 * 1024));
+    return accepted == results.size();
   }
 
-  private void eat(Token token) {
-    if (currentToken.equals(token)) {
-      currentToken = nextToken();
-    } else {
-      printParseError();
-      System.exit(1);
-    }
-  }
+  /*
+   * Tokens are pulled from the scanner on demand and matched by the
+   * table-driven LL(1) parser, so memory stays flat whatever the input
+   * size, and the nesting depth is not bounded by the Java call stack.
+   */
+  private void parse(String[] args) {
+    boolean accepted;
 
-  private void S() {
-    if (currentToken == Token.LBRACE) {
-      eat(Token.LBRACE);
-      L();
-      eat(Token.RBRACE);
-    } else if (currentToken == Token.SYSTEM_OUT_PRINTLN) {
-      eat(Token.SYSTEM_OUT_PRINTLN);
-      eat(Token.LPAREN);
-      E();
-      eat(Token.RPAREN);
-      eat(Token.SEMICOLON);
-    } else if (currentToken == Token.IF) {
-      eat(Token.IF);
-      eat(Token.LPAREN);
-      E();
-      eat(Token.RPAREN);
-      S();
-      eat(Token.ELSE);
-      S();
-    } else if (currentToken == Token.WHILE) {
-      eat(Token.WHILE);
-      eat(Token.LPAREN);
-      E();
-      eat(Token.RPAREN);
-      S();
-    } else {
-      printParseError();
-      System.exit(1);
-    }
-  }
-
-  private void L() {
-    if (currentToken == Token.LBRACE ||
-        currentToken == Token.SYSTEM_OUT_PRINTLN ||
-        currentToken == Token.IF ||
-        currentToken == Token.WHILE) {
-      S();
-      L();
+    try {
+      accepted = new LL1Parser(TABLE).parse(new Scanner(InputReader.open(args)));
+    } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+      accepted = false;
     }
-  }
 
-  private void E() {
-    if (currentToken == Token.TRUE) {
-      eat(Token.TRUE);
-    } else if (currentToken == Token.FALSE) {
-      eat(Token.FALSE);
-    } else if (currentToken == Token.NOT) {
-      eat(Token.NOT);
-      E();
+    if (accepted) {
+      printParseSucess();
     } else {
       printParseError();
-      System.exit(1);
     }
   }
 
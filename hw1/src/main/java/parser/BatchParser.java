@@ -0,0 +1,94 @@
+package parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import utils.InputReader;
+import utils.Scanner;
+
+/**
+ * Parses many files in one JVM on a fixed pool of worker threads.
+ *
+ * The LL1Table is immutable and shared; each file gets its own scanner and
+ * parser. Results come back in the order of the input files.
+ */
+public class BatchParser {
+  private final LL1Table table;
+  private final int threadCount;
+
+  public BatchParser(LL1Table table, int threadCount) {
+    this.table = table;
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Expands directories into the regular files below them, sorted by path.
+   */
+  public static List<Path> collectFiles(List<Path> paths) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (Path path : paths) {
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> walk = Files.walk(path)) {
+          List<Path> found = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+          Collections.sort(found);
+          files.addAll(found);
+        }
+      } else {
+        files.add(path);
+      }
+    }
+    return files;
+  }
+
+  public List<ParseResult> parseAll(List<Path> files) throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+    try {
+      List<Future<ParseResult>> futures = new ArrayList<>();
+      for (Path file : files) {
+        futures.add(pool.submit(() -> parseFile(file)));
+      }
+
+      List<ParseResult> results = new ArrayList<>();
+      for (Future<ParseResult> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Parser failed", e.getCause());
+        }
+      }
+      return results;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  public ParseResult parseFile(Path file) {
+    long size;
+    boolean accepted;
+
+    try (Reader reader = InputReader.open(file)) {
+      size = Files.size(file);
+      try {
+        accepted = new LL1Parser(table).parse(new Scanner(reader));
+      } catch (IllegalArgumentException e) {
+        accepted = false;
+      }
+    } catch (IOException | UncheckedIOException e) {
+      return new ParseResult(file, ParseResult.Status.IO_ERROR, 0, e.getMessage());
+    }
+
+    return new ParseResult(file, accepted ? ParseResult.Status.ACCEPTED : ParseResult.Status.PARSE_ERROR, size, null);
+  }
+}
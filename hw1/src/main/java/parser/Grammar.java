@@ -0,0 +1,257 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import utils.Token;
+
+/**
+ * A context-free grammar over Token terminals, with its nullable, FIRST and
+ * FOLLOW sets.
+ *
+ * Symbols are encoded as ints: terminals are their Token ordinal and the
+ * i-th nonterminal is TERMINAL_COUNT + i. Token.EOF is the end-of-input
+ * marker and is in FOLLOW of the start symbol.
+ *
+ * Productions are added with a mix of Token (terminal) and String
+ * (nonterminal) symbols; an empty right-hand side is an epsilon production.
+ * The left-hand side of the first production is the start symbol.
+ */
+public class Grammar {
+  public static final int TERMINAL_COUNT = Token.values().length;
+
+  private final List<String> nonterminals = new ArrayList<>();
+  private final Map<String, Integer> nonterminalIds = new HashMap<>();
+  private final List<Production> productions = new ArrayList<>();
+
+  private boolean[] nullable;
+  private BitSet[] first;
+  private BitSet[] follow;
+
+  public static class Production {
+    private final int lhs;
+    private final int[] rhs;
+
+    Production(int lhs, int[] rhs) {
+      this.lhs = lhs;
+      this.rhs = rhs;
+    }
+
+    public int getLhs() {
+      return lhs;
+    }
+
+    public int[] getRhs() {
+      return rhs;
+    }
+  }
+
+  public Grammar addProduction(String lhs, Object... rhs) {
+    int[] encoded = new int[rhs.length];
+    for (int i = 0; i < rhs.length; i++) {
+      if (rhs[i] instanceof Token) {
+        encoded[i] = ((Token) rhs[i]).ordinal();
+      } else if (rhs[i] instanceof String) {
+        encoded[i] = nonterminal((String) rhs[i]);
+      } else {
+        throw new IllegalArgumentException("Symbol must be a Token or a nonterminal name: " + rhs[i]);
+      }
+    }
+
+    productions.add(new Production(nonterminal(lhs), encoded));
+    first = null;
+    return this;
+  }
+
+  private int nonterminal(String name) {
+    Integer id = nonterminalIds.get(name);
+    if (id == null) {
+      id = TERMINAL_COUNT + nonterminals.size();
+      nonterminalIds.put(name, id);
+      nonterminals.add(name);
+    }
+    return id;
+  }
+
+  public static boolean isTerminal(int symbol) {
+    return symbol < TERMINAL_COUNT;
+  }
+
+  public int getStartSymbol() {
+    if (productions.isEmpty()) {
+      throw new IllegalStateException("Grammar has no productions");
+    }
+    return productions.get(0).getLhs();
+  }
+
+  public int getNonterminalCount() {
+    return nonterminals.size();
+  }
+
+  public String getNonterminalName(int symbol) {
+    return nonterminals.get(symbol - TERMINAL_COUNT);
+  }
+
+  public List<Production> getProductions() {
+    return productions;
+  }
+
+  public Set<Token> getFirst(String nonterminal) {
+    computeSets();
+    return toTokens(first[index(nonterminal)]);
+  }
+
+  public Set<Token> getFollow(String nonterminal) {
+    computeSets();
+    return toTokens(follow[index(nonterminal)]);
+  }
+
+  public boolean isNullable(String nonterminal) {
+    computeSets();
+    return nullable[index(nonterminal)];
+  }
+
+  /**
+   * FIRST of the symbols rhs[from..], as terminals. Returns whether the whole
+   * suffix is nullable.
+   */
+  boolean firstOfSequence(int[] rhs, int from, BitSet result) {
+    computeSets();
+    return firstOfSuffix(rhs, from, result);
+  }
+
+  BitSet followOf(int nonterminal) {
+    computeSets();
+    return follow[nonterminal - TERMINAL_COUNT];
+  }
+
+  private int index(String nonterminal) {
+    Integer id = nonterminalIds.get(nonterminal);
+    if (id == null) {
+      throw new IllegalArgumentException("Unknown nonterminal " + nonterminal);
+    }
+    return id - TERMINAL_COUNT;
+  }
+
+  private static Set<Token> toTokens(BitSet bits) {
+    Set<Token> tokens = EnumSet.noneOf(Token.class);
+    Token[] values = Token.values();
+    for (int t = bits.nextSetBit(0); t >= 0; t = bits.nextSetBit(t + 1)) {
+      tokens.add(values[t]);
+    }
+    return tokens;
+  }
+
+  /*
+   * Standard fixpoint iteration: first nullable, then FIRST, then FOLLOW.
+   */
+  private void computeSets() {
+    if (first != null) {
+      return;
+    }
+
+    int n = nonterminals.size();
+    nullable = new boolean[n];
+    first = new BitSet[n];
+    follow = new BitSet[n];
+    for (int i = 0; i < n; i++) {
+      first[i] = new BitSet(TERMINAL_COUNT);
+      follow[i] = new BitSet(TERMINAL_COUNT);
+    }
+
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Production production : productions) {
+        int lhs = production.getLhs() - TERMINAL_COUNT;
+        if (nullable[lhs]) {
+          continue;
+        }
+
+        boolean allNullable = true;
+        for (int symbol : production.getRhs()) {
+          if (isTerminal(symbol) || !nullable[symbol - TERMINAL_COUNT]) {
+            allNullable = false;
+            break;
+          }
+        }
+
+        if (allNullable) {
+          nullable[lhs] = true;
+          changed = true;
+        }
+      }
+    }
+
+    changed = true;
+    while (changed) {
+      changed = false;
+      for (Production production : productions) {
+        BitSet lhsFirst = first[production.getLhs() - TERMINAL_COUNT];
+        int before = lhsFirst.cardinality();
+
+        for (int symbol : production.getRhs()) {
+          if (isTerminal(symbol)) {
+            lhsFirst.set(symbol);
+            break;
+          }
+
+          lhsFirst.or(first[symbol - TERMINAL_COUNT]);
+          if (!nullable[symbol - TERMINAL_COUNT]) {
+            break;
+          }
+        }
+
+        changed |= lhsFirst.cardinality() != before;
+      }
+    }
+
+    follow[getStartSymbol() - TERMINAL_COUNT].set(Token.EOF.ordinal());
+
+    changed = true;
+    while (changed) {
+      changed = false;
+      for (Production production : productions) {
+        int[] rhs = production.getRhs();
+        for (int i = 0; i < rhs.length; i++) {
+          if (isTerminal(rhs[i])) {
+            continue;
+          }
+
+          BitSet symbolFollow = follow[rhs[i] - TERMINAL_COUNT];
+          int before = symbolFollow.cardinality();
+
+          BitSet rest = new BitSet(TERMINAL_COUNT);
+          boolean restNullable = firstOfSuffix(rhs, i + 1, rest);
+          symbolFollow.or(rest);
+          if (restNullable) {
+            symbolFollow.or(follow[production.getLhs() - TERMINAL_COUNT]);
+          }
+
+          changed |= symbolFollow.cardinality() != before;
+        }
+      }
+    }
+  }
+
+  private boolean firstOfSuffix(int[] rhs, int from, BitSet result) {
+    for (int i = from; i < rhs.length; i++) {
+      int symbol = rhs[i];
+      if (isTerminal(symbol)) {
+        result.set(symbol);
+        return false;
+      }
+
+      result.or(first[symbol - TERMINAL_COUNT]);
+      if (!nullable[symbol - TERMINAL_COUNT]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
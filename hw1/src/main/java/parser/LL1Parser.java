@@ -0,0 +1,80 @@
+package parser;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import utils.Token;
+import utils.TokenSource;
+
+/**
+ * Predictive parser driven by an LL1Table.
+ *
+ * Pending symbols live on an explicit int stack instead of the Java call
+ * stack, so nesting depth is limited only by heap size.
+ */
+public class LL1Parser {
+  private static final int INITIAL_STACK_SIZE = 64;
+
+  private final LL1Table table;
+  private int[] stack = new int[INITIAL_STACK_SIZE];
+  private int top = 0;
+  private int tokenIndex = 0;
+
+  public LL1Parser(LL1Table table) {
+    this.table = table;
+  }
+
+  /**
+   * Returns whether the tokens form a sentence of the grammar, followed by
+   * Token.EOF.
+   */
+  public boolean parse(TokenSource tokens) throws IOException {
+    top = 0;
+    tokenIndex = 0;
+    push(Token.EOF.ordinal());
+    push(table.getStartSymbol());
+
+    int lookahead = tokens.nextToken().ordinal();
+
+    while (true) {
+      int symbol = stack[--top];
+
+      if (Grammar.isTerminal(symbol)) {
+        if (symbol != lookahead) {
+          return false;
+        }
+        if (symbol == Token.EOF.ordinal()) {
+          return true;
+        }
+        lookahead = tokens.nextToken().ordinal();
+        tokenIndex++;
+        continue;
+      }
+
+      int production = table.getProduction(symbol, lookahead);
+      if (production == LL1Table.NO_PRODUCTION) {
+        return false;
+      }
+
+      int[] rhs = table.getRhs(production);
+      for (int i = rhs.length - 1; i >= 0; i--) {
+        push(rhs[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the lookahead token when the last parse stopped:
+   * the offending token after a rejected parse.
+   */
+  public int getTokenIndex() {
+    return tokenIndex;
+  }
+
+  private void push(int symbol) {
+    if (top == stack.length) {
+      stack = Arrays.copyOf(stack, stack.length * 2);
+    }
+    stack[top++] = symbol;
+  }
+}
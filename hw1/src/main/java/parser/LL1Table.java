@@ -0,0 +1,73 @@
+package parser;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import utils.Token;
+
+/**
+ * LL(1) parse table: for each nonterminal and lookahead terminal, the index
+ * of the production to expand, or NO_PRODUCTION.
+ *
+ * The table is immutable once built and can be shared between parsers.
+ */
+public class LL1Table {
+  public static final int NO_PRODUCTION = -1;
+
+  private final int startSymbol;
+  private final int[][] table;
+  private final int[][] productions;
+
+  private LL1Table(int startSymbol, int[][] table, int[][] productions) {
+    this.startSymbol = startSymbol;
+    this.table = table;
+    this.productions = productions;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the grammar is not LL(1)
+   */
+  public static LL1Table build(Grammar grammar) {
+    List<Grammar.Production> productions = grammar.getProductions();
+    int[][] table = new int[grammar.getNonterminalCount()][Grammar.TERMINAL_COUNT];
+    int[][] rhs = new int[productions.size()][];
+    for (int[] row : table) {
+      Arrays.fill(row, NO_PRODUCTION);
+    }
+
+    for (int p = 0; p < productions.size(); p++) {
+      Grammar.Production production = productions.get(p);
+      int lhs = production.getLhs();
+      rhs[p] = production.getRhs();
+
+      BitSet lookahead = new BitSet(Grammar.TERMINAL_COUNT);
+      if (grammar.firstOfSequence(rhs[p], 0, lookahead)) {
+        lookahead.or(grammar.followOf(lhs));
+      }
+
+      int[] row = table[lhs - Grammar.TERMINAL_COUNT];
+      for (int t = lookahead.nextSetBit(0); t >= 0; t = lookahead.nextSetBit(t + 1)) {
+        if (row[t] != NO_PRODUCTION) {
+          throw new IllegalArgumentException("Grammar is not LL(1): " + grammar.getNonterminalName(lhs)
+              + " has two productions for lookahead " + Token.values()[t]);
+        }
+        row[t] = p;
+      }
+    }
+
+    return new LL1Table(grammar.getStartSymbol(), table, rhs);
+  }
+
+  public int getStartSymbol() {
+    return startSymbol;
+  }
+
+  public int getProduction(int nonterminal, int terminal) {
+    return table[nonterminal - Grammar.TERMINAL_COUNT][terminal];
+  }
+
+  public int[] getRhs(int production) {
+    return productions[production];
+  }
+}
@@ -0,0 +1,53 @@
+package parser;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of parsing one input: accepted, rejected with a parse error, or
+ * unreadable.
+ */
+public class ParseResult {
+  public enum Status {
+    ACCEPTED,
+    PARSE_ERROR,
+    IO_ERROR,
+  }
+
+  private final Path path;
+  private final Status status;
+  private final long size;
+  private final String message;
+
+  public ParseResult(Path path, Status status, long size, String message) {
+    this.path = path;
+    this.status = status;
+    this.size = size;
+    this.message = message;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public boolean isAccepted() {
+    return status == Status.ACCEPTED;
+  }
+
+  /**
+   * Returns the input size in bytes, or 0 if it could not be read.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the I/O error message, or null.
+   */
+  public String getMessage() {
+    return message;
+  }
+}
@@ -0,0 +1,28 @@
+package parser;
+
+import utils.Token;
+
+/**
+ * The hw1 statement grammar:
+ *
+ * S -> { L } | System.out.println ( E ) ; | if ( E ) S else S | while ( E ) S
+ * L -> S L | epsilon
+ * E -> true | false | ! E
+ */
+public class StatementGrammar {
+  public static Grammar create() {
+    return new Grammar()
+        .addProduction("S", Token.LBRACE, "L", Token.RBRACE)
+        .addProduction("S", Token.SYSTEM_OUT_PRINTLN, Token.LPAREN, "E", Token.RPAREN, Token.SEMICOLON)
+        .addProduction("S", Token.IF, Token.LPAREN, "E", Token.RPAREN, "S", Token.ELSE, "S")
+        .addProduction("S", Token.WHILE, Token.LPAREN, "E", Token.RPAREN, "S")
+        .addProduction("L", "S", "L")
+        .addProduction("L")
+        .addProduction("E", Token.TRUE)
+        .addProduction("E", Token.FALSE)
+        .addProduction("E", Token.NOT, "E");
+  }
+
+  private StatementGrammar() {
+  }
+}
@@ -0,0 +1,128 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Re-lexes an edited input by scanning only around the edit.
+ *
+ * Scanning restarts at the last token that starts before the edit, which is
+ * the earliest token the edit can change. It stops at the first new token
+ * past the edit that starts where an old token started (shifted by the
+ * change in length) with the same kind: the scanner is back in its start
+ * state on the same remaining text there, so every following token is
+ * unchanged apart from its offset. The new tokens are then spliced into the
+ * old buffer.
+ */
+public class IncrementalScanner {
+  // Characters handed to the scanner per read, which bounds how far past the
+  // resynchronization point the text is read
+  private static final int READ_SIZE = 256;
+
+  /**
+   * Updates tokens, the buffer for text, to match text with removedLength
+   * characters at offset replaced by insertedText. The buffer is left
+   * unchanged if the edited text does not scan.
+   *
+   * @return the number of tokens scanned
+   * @throws IllegalArgumentException if the edited text does not scan
+   */
+  public static int relex(TokenBuffer tokens, CharSequence text, int offset, int removedLength,
+      CharSequence insertedText) {
+    if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+      throw new IndexOutOfBoundsException("Edit [" + offset + ", " + (offset + removedLength) + ") of "
+          + text.length() + " characters");
+    }
+
+    int shift = insertedText.length() - removedLength;
+    int editEnd = offset + insertedText.length();
+
+    int from = Math.max(tokens.lastTokenBefore(offset), 0);
+    int restart = from < tokens.size() ? Math.min(tokens.getStart(from), offset) : 0;
+
+    Scanner scanner = new Scanner(new EditedTextReader(text, offset, removedLength, insertedText, restart), restart);
+    TokenBuffer scanned = new TokenBuffer();
+    int to = from;
+    int scannedCount = 0;
+
+    try {
+      while (true) {
+        Token token = scanner.nextToken();
+        int start = scanner.getTokenStart();
+        scannedCount++;
+
+        if (start >= editEnd) {
+          while (to < tokens.size() && tokens.getStart(to) < start - shift) {
+            to++;
+          }
+          if (to < tokens.size() && tokens.getStart(to) == start - shift && tokens.getToken(to) == token) {
+            break;
+          }
+        }
+
+        scanned.add(token, start);
+        if (token == Token.EOF) {
+          to = tokens.size();
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    tokens.replace(from, to, scanned, shift);
+    return scannedCount;
+  }
+
+  /*
+   * The edited text from a given offset, read without building it.
+   */
+  private static class EditedTextReader extends Reader {
+    private final CharSequence text;
+    private final int offset;
+    private final int removedLength;
+    private final CharSequence insertedText;
+    private final int length;
+    private int position;
+
+    EditedTextReader(CharSequence text, int offset, int removedLength, CharSequence insertedText, int position) {
+      this.text = text;
+      this.offset = offset;
+      this.removedLength = removedLength;
+      this.insertedText = insertedText;
+      this.length = text.length() - removedLength + insertedText.length();
+      this.position = position;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+      if (position == length) {
+        return -1;
+      }
+
+      int count = Math.min(Math.min(len, READ_SIZE), length - position);
+      for (int i = 0; i < count; i++) {
+        cbuf[off + i] = charAt(position++);
+      }
+      return count;
+    }
+
+    private char charAt(int index) {
+      if (index < offset) {
+        return text.charAt(index);
+      }
+      if (index < offset + insertedText.length()) {
+        return insertedText.charAt(index - offset);
+      }
+      return text.charAt(index - insertedText.length() + removedLength);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private IncrementalScanner() {
+  }
+}
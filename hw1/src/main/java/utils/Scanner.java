@@ -1,181 +1,153 @@
 package utils;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-public class Scanner {
-  private final Map<StateCharPair, Integer> stateTransitionTable = createStateTransitionTable();
-  private final Map<Integer, Token> stateAcceptanceTable = createStateAcceptanceTable();
-
-  public List<Token> scan(String input) {
-    List<Token> tokens = new ArrayList<>();
-    int state = 0;
-
-    for (char c : input.toCharArray()) {
-      StateCharPair pair = new StateCharPair(state, c);
-
-      if (state == 0 && (c == ' ' || c == '\n' || c == '\t')) {
-        continue;
-      }
-
-      if (stateTransitionTable.containsKey(pair)) {
-        state = stateTransitionTable.get(pair);
+/**
+ * Table-driven scanner. The automaton is the minimized DFA generated from the
+ * token patterns into ScannerTables; see utils.generator.ScannerGenerator.
+ *
+ * Tokens are pulled one at a time with nextToken(), which reads the input
+ * through a fixed-size buffer, so memory use does not depend on the input
+ * size.
+ */
+public class Scanner implements TokenSource {
+  private static final int START_STATE = ScannerTables.START_STATE;
+  private static final int DEAD_STATE = ScannerTables.DEAD_STATE;
+  private static final int ALPHABET_SIZE = ScannerTables.CHAR_CLASSES.length;
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int[] charClassTable = ScannerTables.CHAR_CLASSES;
+  private final int[][] stateTransitionTable = ScannerTables.TRANSITIONS;
+  private final Token[] stateAcceptanceTable = ScannerTables.ACCEPTING_TOKENS;
+
+  private final Reader reader;
+  private final char[] buffer;
+  private int bufferPosition = 0;
+  private int bufferLength = 0;
+  private int bufferOffset; // Input offset of buffer[0]
+  private int tokenStart;
+
+  public Scanner() {
+    this(new StringReader(""));
+  }
 
-        if (stateAcceptanceTable.containsKey(state)) {
-          tokens.add(stateAcceptanceTable.get(state));
-          state = 0;
-        }
+  public Scanner(Reader reader) {
+    this(reader, 0);
+  }
 
-      } else {
-        throw new IllegalArgumentException("Invalid character: " + c);
-      }
-    }
+  /**
+   * Scans from the middle of an input: startOffset is the input offset of
+   * the first character the reader returns, and token start offsets are
+   * reported relative to the whole input.
+   */
+  public Scanner(Reader reader, int startOffset) {
+    this.reader = reader;
+    this.buffer = new char[BUFFER_SIZE];
+    this.bufferOffset = startOffset;
+    this.tokenStart = startOffset;
+  }
 
-    if (state != 0) {
-      throw new IllegalArgumentException("Undetermined token");
+  /**
+   * Scans a whole string at once. Convenience wrapper around nextToken().
+   */
+  public List<Token> scan(String input) {
+    Scanner scanner = new Scanner(new StringReader(input));
+    List<Token> tokens = new ArrayList<>();
+    Token token;
+
+    try {
+      do {
+        token = scanner.nextToken();
+        tokens.add(token);
+      } while (token != Token.EOF);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
 
-    tokens.add(Token.EOF);
-
     return tokens;
   }
 
-  class StateCharPair {
-    private final int state;
-    private final char c;
-
-    public StateCharPair(int state, char c) {
-      this.state = state;
-      this.c = c;
-    }
-
-    public int getState() {
-      return state;
-    }
+  /**
+   * Scans the rest of the input into a packed TokenBuffer, ending with
+   * Token.EOF.
+   */
+  public TokenBuffer scanAll() throws IOException {
+    TokenBuffer tokens = new TokenBuffer();
+    Token token;
 
-    public char getChar() {
-      return c;
-    }
-
-    @Override
-    public boolean equals(Object obj) {
-      if (this == obj)
-        return true;
-      if (obj == null || getClass() != obj.getClass())
-        return false;
-      StateCharPair other = (StateCharPair) obj;
-      return state == other.state && c == other.c;
-    }
+    do {
+      token = nextToken();
+      tokens.add(token, tokenStart);
+    } while (token != Token.EOF);
 
-    @Override
-    public int hashCode() {
-      return 31 * state + c;
-    }
+    return tokens;
   }
 
-  private Map<StateCharPair, Integer> createStateTransitionTable() {
-    Map<StateCharPair, Integer> stateTransitionTable = new HashMap<>();
-
-    // System.out.println
-    stateTransitionTable.put(new StateCharPair(0, 'S'), 1);
-    stateTransitionTable.put(new StateCharPair(1, 'y'), 2);
-    stateTransitionTable.put(new StateCharPair(2, 's'), 3);
-    stateTransitionTable.put(new StateCharPair(3, 't'), 4);
-    stateTransitionTable.put(new StateCharPair(4, 'e'), 5);
-    stateTransitionTable.put(new StateCharPair(5, 'm'), 6);
-    stateTransitionTable.put(new StateCharPair(6, '.'), 7);
-    stateTransitionTable.put(new StateCharPair(7, 'o'), 8);
-    stateTransitionTable.put(new StateCharPair(8, 'u'), 9);
-    stateTransitionTable.put(new StateCharPair(9, 't'), 10);
-    stateTransitionTable.put(new StateCharPair(10, '.'), 11);
-    stateTransitionTable.put(new StateCharPair(11, 'p'), 12);
-    stateTransitionTable.put(new StateCharPair(12, 'r'), 13);
-    stateTransitionTable.put(new StateCharPair(13, 'i'), 14);
-    stateTransitionTable.put(new StateCharPair(14, 'n'), 15);
-    stateTransitionTable.put(new StateCharPair(15, 't'), 16);
-    stateTransitionTable.put(new StateCharPair(16, 'l'), 17);
-    stateTransitionTable.put(new StateCharPair(17, 'n'), 18);
-
-    // {}
-    stateTransitionTable.put(new StateCharPair(0, '{'), 19);
-    stateTransitionTable.put(new StateCharPair(0, '}'), 20);
-
-    // ()
-    stateTransitionTable.put(new StateCharPair(0, '('), 21);
-    stateTransitionTable.put(new StateCharPair(0, ')'), 22);
-
-    // !;
-    stateTransitionTable.put(new StateCharPair(0, '!'), 23);
-    stateTransitionTable.put(new StateCharPair(0, ';'), 24);
-
-    // if
-    stateTransitionTable.put(new StateCharPair(0, 'i'), 25);
-    stateTransitionTable.put(new StateCharPair(25, 'f'), 26);
-
-    // else
-    stateTransitionTable.put(new StateCharPair(0, 'e'), 27);
-    stateTransitionTable.put(new StateCharPair(27, 'l'), 28);
-    stateTransitionTable.put(new StateCharPair(28, 's'), 29);
-    stateTransitionTable.put(new StateCharPair(29, 'e'), 30);
-
-    // while
-    stateTransitionTable.put(new StateCharPair(0, 'w'), 31);
-    stateTransitionTable.put(new StateCharPair(31, 'h'), 32);
-    stateTransitionTable.put(new StateCharPair(32, 'i'), 33);
-    stateTransitionTable.put(new StateCharPair(33, 'l'), 34);
-    stateTransitionTable.put(new StateCharPair(34, 'e'), 35);
-
-    // true
-    stateTransitionTable.put(new StateCharPair(0, 't'), 36);
-    stateTransitionTable.put(new StateCharPair(36, 'r'), 37);
-    stateTransitionTable.put(new StateCharPair(37, 'u'), 38);
-    stateTransitionTable.put(new StateCharPair(38, 'e'), 39);
-
-    // false
-    stateTransitionTable.put(new StateCharPair(0, 'f'), 40);
-    stateTransitionTable.put(new StateCharPair(40, 'a'), 41);
-    stateTransitionTable.put(new StateCharPair(41, 'l'), 42);
-    stateTransitionTable.put(new StateCharPair(42, 's'), 43);
-    stateTransitionTable.put(new StateCharPair(43, 'e'), 44);
-
-    return stateTransitionTable;
+  /**
+   * Returns the input offset of the first character of the token last
+   * returned by nextToken().
+   */
+  public int getTokenStart() {
+    return tokenStart;
   }
 
-  public Map<Integer, Token> createStateAcceptanceTable() {
-    Map<Integer, Token> stateAcceptanceTable = new HashMap<>();
-
-    // System.out.println
-    stateAcceptanceTable.put(18, Token.SYSTEM_OUT_PRINTLN);
-
-    // {}
-    stateAcceptanceTable.put(19, Token.LBRACE);
-    stateAcceptanceTable.put(20, Token.RBRACE);
+  /**
+   * Returns the next token, or Token.EOF once the input is exhausted.
+   *
+   * @throws IllegalArgumentException on a character no token can continue
+   *                                  with, or input ending inside a token
+   */
+  @Override
+  public Token nextToken() throws IOException {
+    int state = START_STATE;
+
+    while (true) {
+      if (bufferPosition == bufferLength && !fillBuffer()) {
+        if (state != START_STATE) {
+          throw new IllegalArgumentException("Undetermined token");
+        }
+        tokenStart = bufferOffset + bufferPosition;
+        return Token.EOF;
+      }
 
-    // ()
-    stateAcceptanceTable.put(21, Token.LPAREN);
-    stateAcceptanceTable.put(22, Token.RPAREN);
+      char c = buffer[bufferPosition++];
 
-    // !;
-    stateAcceptanceTable.put(23, Token.NOT);
-    stateAcceptanceTable.put(24, Token.SEMICOLON);
+      if (state == START_STATE) {
+        if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+          continue;
+        }
+        tokenStart = bufferOffset + bufferPosition - 1;
+      }
 
-    // if
-    stateAcceptanceTable.put(26, Token.IF);
+      int nextState = c < ALPHABET_SIZE ? stateTransitionTable[state][charClassTable[c]] : DEAD_STATE;
 
-    // else
-    stateAcceptanceTable.put(30, Token.ELSE);
+      if (nextState == DEAD_STATE) {
+        throw new IllegalArgumentException("Invalid character: " + c);
+      }
 
-    // while
-    stateAcceptanceTable.put(35, Token.WHILE);
+      state = nextState;
+      Token token = stateAcceptanceTable[state];
 
-    // true
-    stateAcceptanceTable.put(39, Token.TRUE);
+      if (token != null) {
+        return token;
+      }
+    }
+  }
 
-    // false
-    stateAcceptanceTable.put(44, Token.FALSE);
+  private boolean fillBuffer() throws IOException {
+    int read = reader.read(buffer, 0, buffer.length);
+    if (read <= 0) {
+      return false;
+    }
 
-    return stateAcceptanceTable;
+    bufferOffset += bufferLength;
+    bufferPosition = 0;
+    bufferLength = read;
+    return true;
   }
 }
@@ -0,0 +1,257 @@
+package utils;
+
+/*
+ * Generated by utils.generator.ScannerGenerator from the patterns in Token.
+ * Do not edit by hand; run "gradle generateScannerTables" instead.
+ *
+ * 45 states, 25 character classes.
+ */
+final class ScannerTables {
+  static final int START_STATE = 0;
+  static final int DEAD_STATE = -1;
+
+  static final int[] CHAR_CLASSES = {
+      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+      0, 1, 0, 0, 0, 0, 0, 0, 2, 3, 0, 0, 0, 0, 4, 0,
+      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 5, 0, 0, 0, 0,
+      0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+      0, 0, 0, 6, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+      0, 7, 0, 0, 0, 8, 9, 0, 10, 11, 0, 0, 12, 13, 14, 15,
+      16, 0, 17, 18, 19, 20, 0, 21, 0, 22, 0, 23, 0, 24, 0, 0,
+  };
+
+  static final int[][] TRANSITIONS = {
+      {
+          -1, 1, 2, 3, -1, 4, 5, -1, 6, 7, -1, 8, -1, -1, -1, -1,
+          -1, -1, -1, 9, -1, 10, -1, 11, 12,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, 13, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 14, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, 15, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, 16, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, 17, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 18, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, 19, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, 20, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 21, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, 22, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 23, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, 24, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, 25, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, 26, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, 27, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 28, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, 29, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, 30, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, 31, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 32, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, 33, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 34,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, 35, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, 36, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, 37, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          38, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, 39, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 40, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 41, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, 42, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 43, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 44, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+      {
+          -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+          -1, -1, -1, -1, -1, -1, -1, -1, -1,
+      },
+  };
+
+  static final Token[] ACCEPTING_TOKENS = {
+      null,
+      Token.NOT,
+      Token.LPAREN,
+      Token.RPAREN,
+      Token.SEMICOLON,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      Token.LBRACE,
+      Token.RBRACE,
+      null,
+      null,
+      null,
+      Token.IF,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      Token.ELSE,
+      null,
+      Token.TRUE,
+      null,
+      null,
+      Token.FALSE,
+      Token.WHILE,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      null,
+      Token.SYSTEM_OUT_PRINTLN,
+  };
+
+  private ScannerTables() {
+  }
+}
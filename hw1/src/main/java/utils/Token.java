@@ -1,12 +1,27 @@
 package utils;
 
+/**
+ * Every token carries the regular expression it is lexed from. The scanner
+ * tables in ScannerTables are generated from these patterns by
+ * utils.generator.ScannerGenerator.
+ */
 public enum Token {
-  LBRACE, RBRACE,
-  LPAREN, RPAREN,
-  SEMICOLON,
-  NOT,
-  IF, ELSE, WHILE,
-  TRUE, FALSE,
-  SYSTEM_OUT_PRINTLN,
-  EOF
+  LBRACE("\\{"), RBRACE("\\}"),
+  LPAREN("\\("), RPAREN("\\)"),
+  SEMICOLON(";"),
+  NOT("!"),
+  IF("if"), ELSE("else"), WHILE("while"),
+  TRUE("true"), FALSE("false"),
+  SYSTEM_OUT_PRINTLN("System\\.out\\.println"),
+  EOF(null);
+
+  private final String pattern;
+
+  Token(String pattern) {
+    this.pattern = pattern;
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
 }
@@ -0,0 +1,177 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Packed, growable token stream: the kind (Token ordinal) and start offset
+ * of every token in two parallel int arrays.
+ *
+ * Storage is split into fixed-size chunks, so growing allocates one new
+ * chunk instead of copying everything seen so far. Tokens are addressed by
+ * index, which makes it cheap to look back at an earlier token for error
+ * reporting or backtracking without scanning again.
+ */
+public class TokenBuffer {
+  private static final int CHUNK_SHIFT = 12;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final Token[] TOKENS = Token.values();
+
+  private int[][] kinds = new int[1][];
+  private int[][] starts = new int[1][];
+  private int size = 0;
+
+  public void add(Token token, int start) {
+    ensureCapacity(size + 1);
+    kinds[size >>> CHUNK_SHIFT][size & CHUNK_MASK] = token.ordinal();
+    starts[size >>> CHUNK_SHIFT][size & CHUNK_MASK] = start;
+    size++;
+  }
+
+  /**
+   * Replaces the tokens in [from, to) with all tokens of replacement, and
+   * adds shift to the start offsets of the tokens after them.
+   */
+  public void replace(int from, int to, TokenBuffer replacement, int shift) {
+    if (from < 0 || from > to || to > size) {
+      throw new IndexOutOfBoundsException("Range [" + from + ", " + to + "), size " + size);
+    }
+
+    int tail = size - to;
+    int newTo = from + replacement.size;
+    ensureCapacity(newTo + tail);
+    move(to, newTo, tail);
+    size = newTo + tail;
+
+    for (int i = 0; i < replacement.size; i++) {
+      int index = from + i;
+      kinds[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = replacement.getKind(i);
+      starts[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = replacement.getStart(i);
+    }
+
+    if (shift != 0) {
+      for (int i = newTo; i < size; ) {
+        int[] chunk = starts[i >>> CHUNK_SHIFT];
+        int end = Math.min(size - (i & ~CHUNK_MASK), CHUNK_SIZE);
+        for (int j = i & CHUNK_MASK; j < end; j++) {
+          chunk[j] += shift;
+        }
+        i = (i & ~CHUNK_MASK) + CHUNK_SIZE;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the index of the last token starting before offset, or -1 if
+   * there is none.
+   */
+  public int lastTokenBefore(int offset) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (getStart(mid) < offset) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  /**
+   * Returns the Token ordinal of the token at index.
+   */
+  public int getKind(int index) {
+    checkIndex(index);
+    return kinds[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  public Token getToken(int index) {
+    return TOKENS[getKind(index)];
+  }
+
+  /**
+   * Returns the offset in the input of the first character of the token at
+   * index. For Token.EOF this is the input length.
+   */
+  public int getStart(int index) {
+    checkIndex(index);
+    return starts[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  /**
+   * Returns a TokenSource over the buffered tokens, from index 0.
+   */
+  public TokenSource source() {
+    return new TokenSource() {
+      private int position = 0;
+
+      @Override
+      public Token nextToken() {
+        return position < size ? getToken(position++) : Token.EOF;
+      }
+    };
+  }
+
+  private void ensureCapacity(int capacity) {
+    int chunkCount = (capacity + CHUNK_MASK) >>> CHUNK_SHIFT;
+    if (chunkCount > kinds.length) {
+      int length = Math.max(chunkCount, kinds.length * 2);
+      kinds = Arrays.copyOf(kinds, length);
+      starts = Arrays.copyOf(starts, length);
+    }
+
+    for (int chunk = size >>> CHUNK_SHIFT; chunk < chunkCount; chunk++) {
+      if (kinds[chunk] == null) {
+        kinds[chunk] = new int[CHUNK_SIZE];
+        starts[chunk] = new int[CHUNK_SIZE];
+      }
+    }
+  }
+
+  /*
+   * Copies length tokens from index src to index dst, chunk segment by chunk
+   * segment. The ranges may overlap.
+   */
+  private void move(int src, int dst, int length) {
+    if (src == dst || length == 0) {
+      return;
+    }
+
+    if (dst < src) {
+      while (length > 0) {
+        int n = Math.min(length, Math.min(CHUNK_SIZE - (src & CHUNK_MASK), CHUNK_SIZE - (dst & CHUNK_MASK)));
+        copySegment(src, dst, n);
+        src += n;
+        dst += n;
+        length -= n;
+      }
+    } else {
+      int srcEnd = src + length;
+      int dstEnd = dst + length;
+      while (length > 0) {
+        int n = Math.min(length, Math.min(((srcEnd - 1) & CHUNK_MASK) + 1, ((dstEnd - 1) & CHUNK_MASK) + 1));
+        srcEnd -= n;
+        dstEnd -= n;
+        copySegment(srcEnd, dstEnd, n);
+        length -= n;
+      }
+    }
+  }
+
+  private void copySegment(int src, int dst, int n) {
+    System.arraycopy(kinds[src >>> CHUNK_SHIFT], src & CHUNK_MASK, kinds[dst >>> CHUNK_SHIFT], dst & CHUNK_MASK, n);
+    System.arraycopy(starts[src >>> CHUNK_SHIFT], src & CHUNK_MASK, starts[dst >>> CHUNK_SHIFT], dst & CHUNK_MASK, n);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Token index " + index + ", size " + size);
+    }
+  }
+}
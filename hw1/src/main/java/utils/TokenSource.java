@@ -0,0 +1,10 @@
+package utils;
+
+import java.io.IOException;
+
+/**
+ * Anything that hands out tokens one at a time, ending with Token.EOF.
+ */
+public interface TokenSource {
+  Token nextToken() throws IOException;
+}
@@ -0,0 +1,126 @@
+package utils.generator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A deterministic automaton over the ASCII alphabet. State 0 is the start
+ * state and a missing transition is DEAD_STATE.
+ */
+public class Dfa {
+  public static final int ALPHABET_SIZE = 128;
+  public static final int DEAD_STATE = -1;
+
+  private final int[][] transitions;
+  private final int[] acceptingTokens;
+
+  public Dfa(int[][] transitions, int[] acceptingTokens) {
+    this.transitions = transitions;
+    this.acceptingTokens = acceptingTokens;
+  }
+
+  /**
+   * Subset construction. When a DFA state contains accepting NFA states for
+   * several tokens, the token with the lowest id wins, so earlier tokens in
+   * the specification take priority.
+   */
+  public static Dfa fromNfa(Nfa nfa) {
+    Map<BitSet, Integer> stateIds = new HashMap<>();
+    List<BitSet> states = new ArrayList<>();
+    List<int[]> transitions = new ArrayList<>();
+    Deque<BitSet> worklist = new ArrayDeque<>();
+
+    BitSet start = new BitSet();
+    start.set(0);
+    start = epsilonClosure(nfa, start);
+    stateIds.put(start, 0);
+    states.add(start);
+    worklist.add(start);
+
+    while (!worklist.isEmpty()) {
+      BitSet current = worklist.poll();
+      int[] row = new int[ALPHABET_SIZE];
+      Arrays.fill(row, DEAD_STATE);
+
+      for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+        BitSet next = new BitSet();
+        for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+          for (int[] edge : nfa.getEdges(s)) {
+            if (edge[0] == symbol) {
+              next.set(edge[1]);
+            }
+          }
+        }
+
+        if (next.isEmpty()) {
+          continue;
+        }
+
+        next = epsilonClosure(nfa, next);
+        Integer id = stateIds.get(next);
+        if (id == null) {
+          id = states.size();
+          stateIds.put(next, id);
+          states.add(next);
+          worklist.add(next);
+        }
+        row[symbol] = id;
+      }
+
+      transitions.add(row);
+    }
+
+    int[] acceptingTokens = new int[states.size()];
+    for (int i = 0; i < states.size(); i++) {
+      int token = Nfa.NO_TOKEN;
+      BitSet set = states.get(i);
+      for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+        int candidate = nfa.getAcceptingToken(s);
+        if (candidate != Nfa.NO_TOKEN && (token == Nfa.NO_TOKEN || candidate < token)) {
+          token = candidate;
+        }
+      }
+      acceptingTokens[i] = token;
+    }
+
+    return new Dfa(transitions.toArray(new int[0][]), acceptingTokens);
+  }
+
+  private static BitSet epsilonClosure(Nfa nfa, BitSet states) {
+    BitSet closure = (BitSet) states.clone();
+    Deque<Integer> worklist = new ArrayDeque<>();
+    for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+      worklist.push(s);
+    }
+
+    while (!worklist.isEmpty()) {
+      int s = worklist.pop();
+      for (int[] edge : nfa.getEdges(s)) {
+        if (edge[0] == Nfa.EPSILON && !closure.get(edge[1])) {
+          closure.set(edge[1]);
+          worklist.push(edge[1]);
+        }
+      }
+    }
+
+    return closure;
+  }
+
+  public int getStateCount() {
+    return transitions.length;
+  }
+
+  public int getTransition(int state, int symbol) {
+    return transitions[state][symbol];
+  }
+
+  public int getAcceptingToken(int state) {
+    return acceptingTokens[state];
+  }
+}
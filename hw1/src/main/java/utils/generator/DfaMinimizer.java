@@ -0,0 +1,238 @@
+package utils.generator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hopcroft's partition-refinement minimization.
+ *
+ * The automaton is first completed with an explicit sink state so every
+ * state has a transition on every symbol. States start out partitioned by
+ * the token they accept, and blocks are split until no symbol distinguishes
+ * two states of the same block. The block holding the sink becomes
+ * DEAD_STATE again in the result, and the surviving blocks are numbered in
+ * breadth-first order from the start state so the output is deterministic.
+ */
+public class DfaMinimizer {
+  private final int stateCount;
+  private final int[][] delta;
+  private final int[] acceptingTokens;
+
+  // Inverse transitions in compressed rows: the sources reaching state t on
+  // symbol c are inverseSources[c][inverseStart[c][t] .. inverseStart[c][t+1])
+  private final int[][] inverseStart;
+  private final int[][] inverseSources;
+
+  // Blocks are contiguous ranges of elements; the first marked[b] entries of
+  // block b are the states marked for the split in progress
+  private final int[] elements;
+  private final int[] location;
+  private final int[] blockOf;
+  private final int[] blockFirst;
+  private final int[] blockEnd;
+  private final int[] marked;
+  private int blockCount = 0;
+
+  private final boolean[][] inWorklist;
+  private final Deque<int[]> worklist = new ArrayDeque<>();
+
+  private DfaMinimizer(Dfa dfa) {
+    int sink = dfa.getStateCount();
+    stateCount = sink + 1;
+    delta = new int[stateCount][Dfa.ALPHABET_SIZE];
+    acceptingTokens = new int[stateCount];
+
+    for (int s = 0; s < stateCount; s++) {
+      acceptingTokens[s] = s == sink ? Nfa.NO_TOKEN : dfa.getAcceptingToken(s);
+      for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+        int target = s == sink ? Dfa.DEAD_STATE : dfa.getTransition(s, c);
+        delta[s][c] = target == Dfa.DEAD_STATE ? sink : target;
+      }
+    }
+
+    inverseStart = new int[Dfa.ALPHABET_SIZE][stateCount + 1];
+    inverseSources = new int[Dfa.ALPHABET_SIZE][stateCount];
+    for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+      int[] start = inverseStart[c];
+      for (int s = 0; s < stateCount; s++) {
+        start[delta[s][c] + 1]++;
+      }
+      for (int t = 0; t < stateCount; t++) {
+        start[t + 1] += start[t];
+      }
+      int[] fill = Arrays.copyOf(start, stateCount);
+      for (int s = 0; s < stateCount; s++) {
+        inverseSources[c][fill[delta[s][c]]++] = s;
+      }
+    }
+
+    elements = new int[stateCount];
+    location = new int[stateCount];
+    blockOf = new int[stateCount];
+    blockFirst = new int[stateCount];
+    blockEnd = new int[stateCount];
+    marked = new int[stateCount];
+    inWorklist = new boolean[stateCount][Dfa.ALPHABET_SIZE];
+
+    // Initial partition: one block per accepted token, one for everything else
+    Map<Integer, List<Integer>> groups = new HashMap<>();
+    List<Integer> groupOrder = new ArrayList<>();
+    for (int s = 0; s < stateCount; s++) {
+      int token = acceptingTokens[s];
+      List<Integer> group = groups.get(token);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(token, group);
+        groupOrder.add(token);
+      }
+      group.add(s);
+    }
+
+    int position = 0;
+    for (int token : groupOrder) {
+      int block = blockCount++;
+      blockFirst[block] = position;
+      for (int s : groups.get(token)) {
+        elements[position] = s;
+        location[s] = position;
+        blockOf[s] = block;
+        position++;
+      }
+      blockEnd[block] = position;
+
+      for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+        addToWorklist(block, c);
+      }
+    }
+  }
+
+  public static Dfa minimize(Dfa dfa) {
+    DfaMinimizer minimizer = new DfaMinimizer(dfa);
+    minimizer.refine();
+    return minimizer.buildMinimalDfa();
+  }
+
+  private void refine() {
+    List<Integer> touched = new ArrayList<>();
+
+    while (!worklist.isEmpty()) {
+      int[] splitter = worklist.poll();
+      int splitterBlock = splitter[0];
+      int symbol = splitter[1];
+      inWorklist[splitterBlock][symbol] = false;
+
+      // Copy first: marking reorders elements inside the splitter block too
+      int[] splitterStates = Arrays.copyOfRange(elements, blockFirst[splitterBlock], blockEnd[splitterBlock]);
+      for (int target : splitterStates) {
+        for (int i = inverseStart[symbol][target]; i < inverseStart[symbol][target + 1]; i++) {
+          mark(inverseSources[symbol][i], touched);
+        }
+      }
+
+      for (int block : touched) {
+        split(block);
+      }
+      touched.clear();
+    }
+  }
+
+  private void mark(int state, List<Integer> touched) {
+    int block = blockOf[state];
+    int markedEnd = blockFirst[block] + marked[block];
+    int i = location[state];
+
+    if (i < markedEnd) {
+      return;
+    }
+
+    int other = elements[markedEnd];
+    elements[markedEnd] = state;
+    location[state] = markedEnd;
+    elements[i] = other;
+    location[other] = i;
+
+    if (marked[block]++ == 0) {
+      touched.add(block);
+    }
+  }
+
+  private void split(int block) {
+    int markedCount = marked[block];
+    marked[block] = 0;
+
+    if (markedCount == blockEnd[block] - blockFirst[block]) {
+      return;
+    }
+
+    int newBlock = blockCount++;
+    blockFirst[newBlock] = blockFirst[block];
+    blockEnd[newBlock] = blockFirst[block] + markedCount;
+    blockFirst[block] = blockEnd[newBlock];
+
+    for (int i = blockFirst[newBlock]; i < blockEnd[newBlock]; i++) {
+      blockOf[elements[i]] = newBlock;
+    }
+
+    int newSize = blockEnd[newBlock] - blockFirst[newBlock];
+    int oldSize = blockEnd[block] - blockFirst[block];
+    for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+      if (inWorklist[block][c] || newSize <= oldSize) {
+        addToWorklist(newBlock, c);
+      } else {
+        addToWorklist(block, c);
+      }
+    }
+  }
+
+  private void addToWorklist(int block, int symbol) {
+    if (!inWorklist[block][symbol]) {
+      inWorklist[block][symbol] = true;
+      worklist.add(new int[] { block, symbol });
+    }
+  }
+
+  private Dfa buildMinimalDfa() {
+    int deadBlock = blockOf[stateCount - 1];
+    int startBlock = blockOf[0];
+
+    if (startBlock == deadBlock) {
+      int[][] transitions = new int[1][Dfa.ALPHABET_SIZE];
+      Arrays.fill(transitions[0], Dfa.DEAD_STATE);
+      return new Dfa(transitions, new int[] { Nfa.NO_TOKEN });
+    }
+
+    int[] newIds = new int[blockCount];
+    Arrays.fill(newIds, Dfa.DEAD_STATE);
+    List<Integer> order = new ArrayList<>();
+    newIds[startBlock] = 0;
+    order.add(startBlock);
+
+    for (int i = 0; i < order.size(); i++) {
+      int representative = elements[blockFirst[order.get(i)]];
+      for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+        int target = blockOf[delta[representative][c]];
+        if (target != deadBlock && newIds[target] == Dfa.DEAD_STATE) {
+          newIds[target] = order.size();
+          order.add(target);
+        }
+      }
+    }
+
+    int[][] transitions = new int[order.size()][Dfa.ALPHABET_SIZE];
+    int[] minimalAcceptingTokens = new int[order.size()];
+    for (int i = 0; i < order.size(); i++) {
+      int representative = elements[blockFirst[order.get(i)]];
+      minimalAcceptingTokens[i] = acceptingTokens[representative];
+      for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+        transitions[i][c] = newIds[blockOf[delta[representative][c]]];
+      }
+    }
+
+    return new Dfa(transitions, minimalAcceptingTokens);
+  }
+}
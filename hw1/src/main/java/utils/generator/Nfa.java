@@ -0,0 +1,60 @@
+package utils.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Thompson-style NFA over the ASCII alphabet. State 0 is the start state.
+ * Edges labelled EPSILON consume no input. Accepting states carry the id of
+ * the token they recognize.
+ */
+public class Nfa {
+  public static final int EPSILON = -1;
+  public static final int NO_TOKEN = -1;
+
+  private final List<List<int[]>> edges = new ArrayList<>();
+  private final List<Integer> acceptingTokens = new ArrayList<>();
+
+  public Nfa() {
+    addState();
+  }
+
+  public int addState() {
+    edges.add(new ArrayList<>());
+    acceptingTokens.add(NO_TOKEN);
+    return edges.size() - 1;
+  }
+
+  public void addEdge(int fromState, int symbol, int toState) {
+    edges.get(fromState).add(new int[] { symbol, toState });
+  }
+
+  public void setAcceptingToken(int state, int tokenId) {
+    acceptingTokens.set(state, tokenId);
+  }
+
+  public int getAcceptingToken(int state) {
+    return acceptingTokens.get(state);
+  }
+
+  /**
+   * Each edge is a {symbol, target} pair.
+   */
+  public List<int[]> getEdges(int state) {
+    return edges.get(state);
+  }
+
+  public int getStateCount() {
+    return edges.size();
+  }
+
+  /**
+   * Adds an alternative to the start state that recognizes the given pattern
+   * and accepts with tokenId.
+   */
+  public void addPattern(String pattern, int tokenId) {
+    int[] fragment = new RegexParser(this, pattern).parse();
+    addEdge(0, EPSILON, fragment[0]);
+    setAcceptingToken(fragment[1], tokenId);
+  }
+}
@@ -0,0 +1,194 @@
+package utils.generator;
+
+/**
+ * Recursive-descent parser for the small regular expression dialect used by
+ * token patterns, building Thompson fragments directly into an Nfa.
+ *
+ * Supported syntax: literals, "\" escapes, "." (any character but newline),
+ * character classes such as [a-z_], grouping with (), alternation with |,
+ * and the *, + and ? operators.
+ *
+ * A fragment is an int pair {start, end}; end is the single exit state.
+ */
+class RegexParser {
+  private static final int ALPHABET_SIZE = 128;
+
+  private final Nfa nfa;
+  private final String pattern;
+  private int position = 0;
+
+  RegexParser(Nfa nfa, String pattern) {
+    this.nfa = nfa;
+    this.pattern = pattern;
+  }
+
+  int[] parse() {
+    if (pattern.isEmpty()) {
+      throw new IllegalArgumentException("Empty pattern");
+    }
+
+    int[] fragment = alternation();
+    if (position != pattern.length()) {
+      throw error("Unexpected '" + pattern.charAt(position) + "'");
+    }
+    return fragment;
+  }
+
+  private int[] alternation() {
+    int[] fragment = concatenation();
+
+    while (peek('|')) {
+      position++;
+      int[] other = concatenation();
+      int start = nfa.addState();
+      int end = nfa.addState();
+      nfa.addEdge(start, Nfa.EPSILON, fragment[0]);
+      nfa.addEdge(start, Nfa.EPSILON, other[0]);
+      nfa.addEdge(fragment[1], Nfa.EPSILON, end);
+      nfa.addEdge(other[1], Nfa.EPSILON, end);
+      fragment = new int[] { start, end };
+    }
+
+    return fragment;
+  }
+
+  private int[] concatenation() {
+    int[] fragment = null;
+
+    while (position < pattern.length() && !peek('|') && !peek(')')) {
+      int[] next = repetition();
+      if (fragment == null) {
+        fragment = next;
+      } else {
+        nfa.addEdge(fragment[1], Nfa.EPSILON, next[0]);
+        fragment = new int[] { fragment[0], next[1] };
+      }
+    }
+
+    if (fragment == null) {
+      throw error("Empty alternative");
+    }
+    return fragment;
+  }
+
+  private int[] repetition() {
+    int[] fragment = atom();
+
+    while (peek('*') || peek('+') || peek('?')) {
+      char operator = pattern.charAt(position++);
+      int start = nfa.addState();
+      int end = nfa.addState();
+      nfa.addEdge(start, Nfa.EPSILON, fragment[0]);
+      nfa.addEdge(fragment[1], Nfa.EPSILON, end);
+
+      if (operator != '+') {
+        nfa.addEdge(start, Nfa.EPSILON, end);
+      }
+      if (operator != '?') {
+        nfa.addEdge(fragment[1], Nfa.EPSILON, fragment[0]);
+      }
+
+      fragment = new int[] { start, end };
+    }
+
+    return fragment;
+  }
+
+  private int[] atom() {
+    char c = pattern.charAt(position++);
+    int start = nfa.addState();
+    int end = nfa.addState();
+
+    switch (c) {
+      case '(': {
+        int[] inner = alternation();
+        expect(')');
+        nfa.addEdge(start, Nfa.EPSILON, inner[0]);
+        nfa.addEdge(inner[1], Nfa.EPSILON, end);
+        break;
+      }
+      case '[': {
+        boolean[] members = characterClass();
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+          if (members[symbol]) {
+            nfa.addEdge(start, symbol, end);
+          }
+        }
+        break;
+      }
+      case '.':
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+          if (symbol != '\n') {
+            nfa.addEdge(start, symbol, end);
+          }
+        }
+        break;
+      case '*':
+      case '+':
+      case '?':
+      case ')':
+      case '|':
+        throw error("Unexpected '" + c + "'");
+      default:
+        nfa.addEdge(start, literal(c), end);
+    }
+
+    return new int[] { start, end };
+  }
+
+  private boolean[] characterClass() {
+    boolean[] members = new boolean[ALPHABET_SIZE];
+
+    while (!peek(']')) {
+      if (position >= pattern.length()) {
+        throw error("Unterminated character class");
+      }
+
+      int low = literal(pattern.charAt(position++));
+      int high = low;
+      if (peek('-') && position + 1 < pattern.length() && pattern.charAt(position + 1) != ']') {
+        position++;
+        high = literal(pattern.charAt(position++));
+      }
+
+      if (low > high) {
+        throw error("Inverted range in character class");
+      }
+      for (int symbol = low; symbol <= high; symbol++) {
+        members[symbol] = true;
+      }
+    }
+
+    expect(']');
+    return members;
+  }
+
+  private int literal(char c) {
+    if (c == '\\') {
+      if (position >= pattern.length()) {
+        throw error("Dangling escape");
+      }
+      c = pattern.charAt(position++);
+    }
+
+    if (c >= ALPHABET_SIZE) {
+      throw error("Non-ASCII character '" + c + "'");
+    }
+    return c;
+  }
+
+  private boolean peek(char c) {
+    return position < pattern.length() && pattern.charAt(position) == c;
+  }
+
+  private void expect(char c) {
+    if (!peek(c)) {
+      throw error("Expected '" + c + "'");
+    }
+    position++;
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at " + position + " in pattern \"" + pattern + "\"");
+  }
+}
@@ -0,0 +1,174 @@
+package utils.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import utils.Token;
+
+/**
+ * Builds the scanner tables from the patterns in Token and writes them out
+ * as utils/ScannerTables.java:
+ *
+ * patterns -> NFA -> DFA (subset construction) -> minimal DFA (Hopcroft)
+ * -> character classes -> Java source
+ *
+ * Run with "gradle generateScannerTables" after changing a token pattern.
+ */
+public class ScannerGenerator {
+  private static final int DEAD_CHAR_CLASS = 0;
+  private static final int VALUES_PER_LINE = 16;
+
+  public static void main(String[] args) throws IOException {
+    String source = generate();
+
+    if (args.length == 0) {
+      System.out.print(source);
+    } else {
+      Files.write(Paths.get(args[0]), source.getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+
+  public static String generate() {
+    return writeTables(buildDfa(Token.values()));
+  }
+
+  public static Dfa buildDfa(Token[] tokens) {
+    Nfa nfa = new Nfa();
+    for (Token token : tokens) {
+      if (token.getPattern() != null) {
+        nfa.addPattern(token.getPattern(), token.ordinal());
+      }
+    }
+
+    Dfa dfa = DfaMinimizer.minimize(Dfa.fromNfa(nfa));
+    checkAcceptOnEntry(dfa, tokens);
+    return dfa;
+  }
+
+  /*
+   * The scanner emits a token as soon as it enters an accepting state, so an
+   * accepting state must not have outgoing transitions. Otherwise one
+   * token's match would be a prefix of a longer one and could never be
+   * extended.
+   */
+  private static void checkAcceptOnEntry(Dfa dfa, Token[] tokens) {
+    for (int state = 0; state < dfa.getStateCount(); state++) {
+      int token = dfa.getAcceptingToken(state);
+      if (token == Nfa.NO_TOKEN) {
+        continue;
+      }
+
+      for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+        if (dfa.getTransition(state, c) != Dfa.DEAD_STATE) {
+          throw new IllegalArgumentException(
+              "Token " + tokens[token] + " can be extended by '" + (char) c + "'; longer matches are not supported");
+        }
+      }
+    }
+
+    if (dfa.getAcceptingToken(0) != Nfa.NO_TOKEN) {
+      throw new IllegalArgumentException("Token " + tokens[dfa.getAcceptingToken(0)] + " matches the empty string");
+    }
+  }
+
+  private static String writeTables(Dfa dfa) {
+    // Characters with identical columns in every state share a class
+    int[] charClasses = new int[Dfa.ALPHABET_SIZE];
+    List<Integer> classRepresentatives = new ArrayList<>();
+    classRepresentatives.add(-1);
+
+    for (int c = 0; c < Dfa.ALPHABET_SIZE; c++) {
+      int charClass = DEAD_CHAR_CLASS;
+
+      if (!isDeadColumn(dfa, c)) {
+        for (int k = 1; k < classRepresentatives.size() && charClass == DEAD_CHAR_CLASS; k++) {
+          if (sameColumn(dfa, c, classRepresentatives.get(k))) {
+            charClass = k;
+          }
+        }
+
+        if (charClass == DEAD_CHAR_CLASS) {
+          charClass = classRepresentatives.size();
+          classRepresentatives.add(c);
+        }
+      }
+
+      charClasses[c] = charClass;
+    }
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("package utils;\n\n");
+    sb.append("/*\n");
+    sb.append(" * Generated by utils.generator.ScannerGenerator from the patterns in Token.\n");
+    sb.append(" * Do not edit by hand; run \"gradle generateScannerTables\" instead.\n");
+    sb.append(" *\n");
+    sb.append(" * ").append(dfa.getStateCount()).append(" states, ")
+        .append(classRepresentatives.size()).append(" character classes.\n");
+    sb.append(" */\n");
+    sb.append("final class ScannerTables {\n");
+    sb.append("  static final int START_STATE = 0;\n");
+    sb.append("  static final int DEAD_STATE = ").append(Dfa.DEAD_STATE).append(";\n\n");
+
+    sb.append("  static final int[] CHAR_CLASSES = {\n");
+    appendValues(sb, charClasses, "      ");
+    sb.append("  };\n\n");
+
+    sb.append("  static final int[][] TRANSITIONS = {\n");
+    for (int state = 0; state < dfa.getStateCount(); state++) {
+      int[] row = new int[classRepresentatives.size()];
+      row[DEAD_CHAR_CLASS] = Dfa.DEAD_STATE;
+      for (int k = 1; k < row.length; k++) {
+        row[k] = dfa.getTransition(state, classRepresentatives.get(k));
+      }
+      sb.append("      {\n");
+      appendValues(sb, row, "          ");
+      sb.append("      },\n");
+    }
+    sb.append("  };\n\n");
+
+    sb.append("  static final Token[] ACCEPTING_TOKENS = {\n");
+    Token[] tokens = Token.values();
+    for (int state = 0; state < dfa.getStateCount(); state++) {
+      int token = dfa.getAcceptingToken(state);
+      sb.append("      ").append(token == Nfa.NO_TOKEN ? "null" : "Token." + tokens[token]).append(",\n");
+    }
+    sb.append("  };\n\n");
+
+    sb.append("  private ScannerTables() {\n");
+    sb.append("  }\n");
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  private static void appendValues(StringBuilder sb, int[] values, String indent) {
+    for (int i = 0; i < values.length; i += VALUES_PER_LINE) {
+      sb.append(indent);
+      for (int j = i; j < Math.min(i + VALUES_PER_LINE, values.length); j++) {
+        sb.append(values[j]).append(j + 1 < Math.min(i + VALUES_PER_LINE, values.length) ? ", " : ",");
+      }
+      sb.append("\n");
+    }
+  }
+
+  private static boolean isDeadColumn(Dfa dfa, int c) {
+    for (int state = 0; state < dfa.getStateCount(); state++) {
+      if (dfa.getTransition(state, c) != Dfa.DEAD_STATE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean sameColumn(Dfa dfa, int c1, int c2) {
+    for (int state = 0; state < dfa.getStateCount(); state++) {
+      if (dfa.getTransition(state, c1) != dfa.getTransition(state, c2)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,82 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import parser.BatchParser;
+import parser.LL1Table;
+import parser.ParseResult;
+import parser.StatementGrammar;
+
+public class BatchParserTest {
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("batch");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    Files.walk(directory).forEach(paths::add);
+    Collections.reverse(paths);
+    for (Path path : paths) {
+      Files.delete(path);
+    }
+  }
+
+  private Path write(String name, String content) throws IOException {
+    Path path = directory.resolve(name);
+    Files.createDirectories(path.getParent());
+    return Files.write(path, content.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void testResultsInInputOrder() throws IOException, InterruptedException {
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      files.add(write("f" + i, i % 3 == 0 ? "{ System.out.println(true); }" : "{ if (true) {} }"));
+    }
+
+    List<ParseResult> results = new BatchParser(LL1Table.build(StatementGrammar.create()), 4).parseAll(files);
+
+    assertEquals(files.size(), results.size());
+    for (int i = 0; i < files.size(); i++) {
+      assertEquals(files.get(i), results.get(i).getPath());
+      assertEquals(i % 3 == 0 ? ParseResult.Status.ACCEPTED : ParseResult.Status.PARSE_ERROR,
+          results.get(i).getStatus());
+    }
+  }
+
+  @Test
+  public void testErrorsAreResults() throws IOException, InterruptedException {
+    Path invalid = write("invalid", "{ x }");
+    Path missing = directory.resolve("missing");
+
+    List<ParseResult> results = new BatchParser(LL1Table.build(StatementGrammar.create()), 2)
+        .parseAll(Arrays.asList(invalid, missing));
+
+    assertEquals(ParseResult.Status.PARSE_ERROR, results.get(0).getStatus());
+    assertEquals(ParseResult.Status.IO_ERROR, results.get(1).getStatus());
+  }
+
+  @Test
+  public void testCollectFiles() throws IOException {
+    Path b = write("sub/b", "{}");
+    Path a = write("sub/a", "{}");
+    Path c = write("c", "{}");
+
+    assertEquals(Arrays.asList(a, b, c), BatchParser.collectFiles(Arrays.asList(directory.resolve("sub"), c)));
+  }
+}
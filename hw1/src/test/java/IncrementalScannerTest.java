@@ -0,0 +1,117 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.IncrementalScanner;
+import utils.Scanner;
+import utils.Token;
+import utils.TokenBuffer;
+
+public class IncrementalScannerTest {
+  private static final String[] FRAGMENTS = {
+      "{", "}", "(", ")", ";", "!", "if", "else", "while", "true", "false", "System.out.println", " ", "\n", "\t",
+  };
+
+  private static TokenBuffer scan(String text) throws IOException {
+    return new Scanner(new StringReader(text)).scanAll();
+  }
+
+  private static void assertSameTokens(TokenBuffer expected, TokenBuffer actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getToken(i), actual.getToken(i));
+      assertEquals(expected.getStart(i), actual.getStart(i));
+    }
+  }
+
+  private static String edit(String text, int offset, int removedLength, String insertedText) {
+    return text.substring(0, offset) + insertedText + text.substring(offset + removedLength);
+  }
+
+  @Test
+  public void testInsertBeforeToken() throws IOException {
+    String text = "if (true) {} else {}";
+    TokenBuffer tokens = scan(text);
+
+    IncrementalScanner.relex(tokens, text, 4, 0, "!");
+    assertSameTokens(scan(edit(text, 4, 0, "!")), tokens);
+  }
+
+  @Test
+  public void testAppend() throws IOException {
+    String text = "while (";
+    TokenBuffer tokens = scan(text);
+
+    IncrementalScanner.relex(tokens, text, text.length(), 0, "true) {}");
+    assertSameTokens(scan("while (true) {}"), tokens);
+  }
+
+  @Test
+  public void testReplaceToken() throws IOException {
+    String text = "while (true) System.out.println(false);";
+    TokenBuffer tokens = scan(text);
+
+    IncrementalScanner.relex(tokens, text, 7, 4, "false");
+    assertSameTokens(scan(edit(text, 7, 4, "false")), tokens);
+  }
+
+  @Test
+  public void testDeleteAcrossTokens() throws IOException {
+    String text = "{ {} System.out.println(true); }";
+    TokenBuffer tokens = scan(text);
+
+    IncrementalScanner.relex(tokens, text, 2, 3, "");
+    assertSameTokens(scan(edit(text, 2, 3, "")), tokens);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidEdit() throws IOException {
+    String text = "{ }";
+    IncrementalScanner.relex(scan(text), text, 1, 0, "x");
+  }
+
+  @Test
+  public void testRandomEdits() throws IOException {
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]).append(' ');
+    }
+    String text = sb.toString();
+    TokenBuffer tokens = scan(text);
+
+    for (int i = 0; i < 500; i++) {
+      // Whole-token edits so the text always scans
+      int from = random.nextInt(tokens.size());
+      int to = Math.min(tokens.size() - 1, from + random.nextInt(3));
+      int offset = tokens.getStart(from);
+      int removedLength = tokens.getStart(to) - offset;
+      String insertedText = FRAGMENTS[random.nextInt(FRAGMENTS.length)] + " ";
+
+      IncrementalScanner.relex(tokens, text, offset, removedLength, insertedText);
+      text = edit(text, offset, removedLength, insertedText);
+      assertSameTokens(scan(text), tokens);
+    }
+  }
+
+  @Test
+  public void testSmallEditScansFewTokens() throws IOException {
+    StringBuilder sb = new StringBuilder("{\n");
+    for (int i = 0; i < 100000; i++) {
+      sb.append("\tSystem.out.println(true);\n");
+    }
+    String text = sb.append("}\n").toString();
+    TokenBuffer tokens = scan(text);
+
+    int offset = text.indexOf("true", text.length() / 2);
+    int scanned = IncrementalScanner.relex(tokens, text, offset, 4, "!false");
+
+    assertTrue(scanned < 10);
+    assertSameTokens(scan(edit(text, offset, 4, "!false")), tokens);
+  }
+}
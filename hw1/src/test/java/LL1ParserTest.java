@@ -0,0 +1,114 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import parser.Grammar;
+import parser.LL1Parser;
+import parser.LL1Table;
+import parser.StatementGrammar;
+import utils.Scanner;
+import utils.Token;
+import utils.TokenSource;
+
+public class LL1ParserTest {
+  private static final LL1Table TABLE = LL1Table.build(StatementGrammar.create());
+
+  private static boolean parse(String input) throws IOException {
+    return new LL1Parser(TABLE).parse(new Scanner(new StringReader(input)));
+  }
+
+  @Test
+  public void testFirstAndFollowSets() {
+    Grammar grammar = StatementGrammar.create();
+
+    assertEquals(EnumSet.of(Token.LBRACE, Token.SYSTEM_OUT_PRINTLN, Token.IF, Token.WHILE),
+        grammar.getFirst("S"));
+    assertEquals(EnumSet.of(Token.TRUE, Token.FALSE, Token.NOT), grammar.getFirst("E"));
+    assertTrue(grammar.isNullable("L"));
+    assertFalse(grammar.isNullable("S"));
+
+    assertEquals(EnumSet.of(Token.RBRACE), grammar.getFollow("L"));
+    assertEquals(EnumSet.of(Token.RPAREN), grammar.getFollow("E"));
+    assertEquals(EnumSet.of(Token.EOF, Token.ELSE, Token.RBRACE, Token.LBRACE, Token.SYSTEM_OUT_PRINTLN,
+        Token.IF, Token.WHILE), grammar.getFollow("S"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConflictIsRejected() {
+    // Dangling else: both S productions start with IF
+    LL1Table.build(new Grammar()
+        .addProduction("S", Token.IF, "E", "S")
+        .addProduction("S", Token.IF, "E", "S", Token.ELSE, "S")
+        .addProduction("S", Token.SEMICOLON)
+        .addProduction("E", Token.TRUE));
+  }
+
+  @Test
+  public void testAccepts() throws IOException {
+    assertTrue(parse("{}"));
+    assertTrue(parse("System.out.println(true);"));
+    assertTrue(parse("if (!false) { System.out.println(true); } else while (!!true) {}"));
+    assertTrue(parse("{ {} { System.out.println(false); } }"));
+  }
+
+  @Test
+  public void testRejects() throws IOException {
+    assertFalse(parse(""));
+    assertFalse(parse("{"));
+    assertFalse(parse("{}}"));
+    assertFalse(parse("{} {}"));
+    assertFalse(parse("if (true) {}"));
+    assertFalse(parse("System.out.println(true)"));
+    assertFalse(parse("System.out.println(!);"));
+  }
+
+  @Test
+  public void testDeepNesting() throws IOException {
+    int depth = 1000000;
+    assertTrue(new LL1Parser(TABLE).parse(new RepeatingSource(depth, Token.LBRACE, depth, Token.RBRACE)));
+  }
+
+  @Test
+  public void testDeepNegation() throws IOException {
+    int depth = 1000000;
+    StringBuilder sb = new StringBuilder("System.out.println(");
+    for (int i = 0; i < depth; i++) {
+      sb.append('!');
+    }
+    sb.append("true);");
+    assertTrue(parse(sb.toString()));
+  }
+
+  /*
+   * count1 copies of first, then count2 copies of second, then EOF.
+   */
+  private static class RepeatingSource implements TokenSource {
+    private final int count1;
+    private final Token first;
+    private final int count2;
+    private final Token second;
+    private int position = 0;
+
+    RepeatingSource(int count1, Token first, int count2, Token second) {
+      this.count1 = count1;
+      this.first = first;
+      this.count2 = count2;
+      this.second = second;
+    }
+
+    @Override
+    public Token nextToken() {
+      int i = position++;
+      if (i < count1) {
+        return first;
+      }
+      return i < count1 + count2 ? second : Token.EOF;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import utils.Token;
+import utils.generator.Dfa;
+import utils.generator.DfaMinimizer;
+import utils.generator.Nfa;
+import utils.generator.ScannerGenerator;
+
+public class ScannerGeneratorTest {
+  @Test
+  public void testCommittedTablesAreUpToDate() throws IOException {
+    String committed = new String(Files.readAllBytes(Paths.get("src/main/java/utils/ScannerTables.java")),
+        StandardCharsets.US_ASCII);
+    assertEquals(ScannerGenerator.generate(), committed);
+  }
+
+  @Test
+  public void testKeywordAutomatonIsMinimal() {
+    // One state per keyword character plus the start state
+    Dfa dfa = ScannerGenerator.buildDfa(Token.values());
+    assertEquals(45, dfa.getStateCount());
+  }
+
+  @Test
+  public void testMinimizationMergesSharedSuffixes() {
+    Nfa nfa = new Nfa();
+    nfa.addPattern("abc|xbc|ybc", 0);
+    Dfa dfa = Dfa.fromNfa(nfa);
+    assertEquals(10, dfa.getStateCount());
+
+    Dfa minimal = DfaMinimizer.minimize(dfa);
+    assertEquals(4, minimal.getStateCount());
+    assertEquals(minimal.getTransition(0, 'a'), minimal.getTransition(0, 'x'));
+    assertEquals(0, minimal.getAcceptingToken(3));
+  }
+
+  @Test
+  public void testMinimizationKeepsTokensApart() {
+    Nfa nfa = new Nfa();
+    nfa.addPattern("ab", 0);
+    nfa.addPattern("cb", 1);
+    Dfa minimal = DfaMinimizer.minimize(Dfa.fromNfa(nfa));
+    assertEquals(5, minimal.getStateCount());
+  }
+
+  @Test
+  public void testRegexOperators() {
+    Nfa nfa = new Nfa();
+    nfa.addPattern("[a-c]+(x|y)?z*", 0);
+    Dfa dfa = DfaMinimizer.minimize(Dfa.fromNfa(nfa));
+
+    assertEquals(true, accepts(dfa, "a"));
+    assertEquals(true, accepts(dfa, "cabx"));
+    assertEquals(true, accepts(dfa, "byzzz"));
+    assertEquals(false, accepts(dfa, "xz"));
+    assertEquals(false, accepts(dfa, "axy"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMalformedPattern() {
+    new Nfa().addPattern("(ab", 0);
+  }
+
+  private static boolean accepts(Dfa dfa, String input) {
+    int state = 0;
+    for (char c : input.toCharArray()) {
+      state = dfa.getTransition(state, c);
+      if (state == Dfa.DEAD_STATE) {
+        return false;
+      }
+    }
+    return dfa.getAcceptingToken(state) != Nfa.NO_TOKEN;
+  }
+}
@@ -1,5 +1,8 @@
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.List;
 
@@ -142,6 +145,23 @@ public class ScannerTest {
     assertEquals(expectedTokens, tokens);
   }
 
+  @Test
+  public void testCrlfLineEndings() {
+    String input = "{\r\n System.out.println(true);\r\n}\r\n";
+    List<Token> tokens = scanner.scan(input);
+
+    List<Token> expectedTokens = Arrays.asList(
+        Token.LBRACE,
+        Token.SYSTEM_OUT_PRINTLN,
+        Token.LPAREN,
+        Token.TRUE,
+        Token.RPAREN,
+        Token.SEMICOLON,
+        Token.RBRACE,
+        Token.EOF);
+    assertEquals(expectedTokens, tokens);
+  }
+
   @Test
   public void testMultipleExclamation() {
     String input = "!!true";
@@ -154,4 +174,70 @@ public class ScannerTest {
         Token.EOF);
     assertEquals(expectedTokens, tokens);
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCharacter() {
+    scanner.scan("System.out.println(maybe);");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonAsciiCharacter() {
+    scanner.scan("{ System.out.println(tru\u00e9); }");
+  }
+
+  @Test
+  public void testNextTokenAcrossBufferBoundaries() throws IOException {
+    StringBuilder input = new StringBuilder();
+    int statements = 5000; // Well past one 8K buffer
+    for (int i = 0; i < statements; i++) {
+      input.append("System.out.println(!true); ");
+    }
+
+    Scanner streamingScanner = new Scanner(new StringReader(input.toString()));
+    int count = 0;
+    Token token;
+    while ((token = streamingScanner.nextToken()) != Token.EOF) {
+      count++;
+      if (count % 6 == 1) {
+        assertEquals(Token.SYSTEM_OUT_PRINTLN, token);
+      }
+    }
+
+    assertEquals(statements * 6, count);
+    assertEquals(Token.EOF, streamingScanner.nextToken());
+  }
+
+  @Test
+  public void testNextTokenWithShortReads() throws IOException {
+    Reader oneCharAtATime = new StringReader("{ while (false) System.out.println(true); }") {
+      @Override
+      public int read(char[] cbuf, int off, int len) throws IOException {
+        return super.read(cbuf, off, Math.min(len, 1));
+      }
+    };
+
+    Scanner streamingScanner = new Scanner(oneCharAtATime);
+    List<Token> expectedTokens = Arrays.asList(
+        Token.LBRACE,
+        Token.WHILE,
+        Token.LPAREN,
+        Token.FALSE,
+        Token.RPAREN,
+        Token.SYSTEM_OUT_PRINTLN,
+        Token.LPAREN,
+        Token.TRUE,
+        Token.RPAREN,
+        Token.SEMICOLON,
+        Token.RBRACE,
+        Token.EOF);
+
+    for (Token expected : expectedTokens) {
+      assertEquals(expected, streamingScanner.nextToken());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnterminatedToken() {
+    scanner.scan("System.out.print");
+  }
 }
@@ -0,0 +1,86 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import parser.LL1Parser;
+import parser.LL1Table;
+import parser.StatementGrammar;
+import utils.Scanner;
+import utils.Token;
+import utils.TokenBuffer;
+import utils.TokenSource;
+
+public class TokenBufferTest {
+  @Test
+  public void testKindsAndOffsets() throws IOException {
+    TokenBuffer tokens = new Scanner(new StringReader("{ \tSystem.out.println(!true);\n}")).scanAll();
+
+    Token[] expectedTokens = {
+        Token.LBRACE, Token.SYSTEM_OUT_PRINTLN, Token.LPAREN, Token.NOT, Token.TRUE,
+        Token.RPAREN, Token.SEMICOLON, Token.RBRACE, Token.EOF };
+    int[] expectedStarts = { 0, 3, 21, 22, 23, 27, 28, 30, 31 };
+
+    assertEquals(expectedTokens.length, tokens.size());
+    for (int i = 0; i < tokens.size(); i++) {
+      assertEquals(expectedTokens[i], tokens.getToken(i));
+      assertEquals(expectedTokens[i].ordinal(), tokens.getKind(i));
+      assertEquals(expectedStarts[i], tokens.getStart(i));
+    }
+  }
+
+  @Test
+  public void testGrowsAcrossChunks() throws IOException {
+    int count = 100000;
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append(i % 2 == 0 ? "if " : "else ");
+    }
+
+    TokenBuffer tokens = new Scanner(new StringReader(sb.toString())).scanAll();
+    assertEquals(count + 1, tokens.size());
+
+    int offset = 0;
+    for (int i = 0; i < count; i++) {
+      assertEquals(i % 2 == 0 ? Token.IF : Token.ELSE, tokens.getToken(i));
+      assertEquals(offset, tokens.getStart(i));
+      offset += i % 2 == 0 ? 3 : 5;
+    }
+    assertEquals(Token.EOF, tokens.getToken(count));
+    assertEquals(sb.length(), tokens.getStart(count));
+  }
+
+  @Test
+  public void testSourceReplaysTokens() {
+    TokenBuffer tokens = new TokenBuffer();
+    tokens.add(Token.TRUE, 0);
+    tokens.add(Token.EOF, 4);
+
+    TokenSource source = tokens.source();
+    try {
+      assertEquals(Token.TRUE, source.nextToken());
+      assertEquals(Token.EOF, source.nextToken());
+      assertEquals(Token.EOF, source.nextToken());
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  public void testErrorOffset() throws IOException {
+    String input = "{ System.out.println(true) }";
+    TokenBuffer tokens = new Scanner(new StringReader(input)).scanAll();
+    LL1Parser parser = new LL1Parser(LL1Table.build(StatementGrammar.create()));
+
+    assertFalse(parser.parse(tokens.source()));
+    assertEquals(input.indexOf('}'), tokens.getStart(parser.getTokenIndex()));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testIndexOutOfBounds() {
+    new TokenBuffer().getKind(0);
+  }
+}
@@ -0,0 +1,142 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ast.JtbAdapter;
+import ast.Program;
+import minijava.MiniJavaParser;
+import minijava.ParseException;
+import minijava.syntaxtree.Goal;
+import parser.MiniJavaAstParser;
+
+/**
+ * Parses MiniJava sources with the JavaCC parser and with the hand-written
+ * MiniJavaAstParser, with and without rebuilding the JTB tree from the AST.
+ *
+ * The "testcases" input is every program under testcases/hw2 and
+ * testcases/hw3, parsed one after the other; "synthetic" is a single
+ * generated program of several megabytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Xss64m" })
+public class MiniJavaParserBenchmark {
+  private static final int SYNTHETIC_CLASSES = 200;
+  private static final int SYNTHETIC_METHODS = 40;
+
+  @Param({ "testcases", "synthetic" })
+  private String input;
+
+  private List<String> sources;
+
+  @Setup
+  public void setUp() throws IOException {
+    // The JavaCC parser in the jar is static: construct it once, then ReInit
+    new MiniJavaParser(new StringReader(""));
+
+    sources = new ArrayList<>();
+    if (input.equals("synthetic")) {
+      sources.add(syntheticProgram());
+      return;
+    }
+
+    for (String directory : new String[] { "testcases/hw2", "testcases/hw3" }) {
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "*.java")) {
+        for (Path file : files) {
+          sources.add(new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public int javaccParser() throws ParseException {
+    int count = 0;
+    for (String source : sources) {
+      MiniJavaParser.ReInit(new StringReader(source));
+      Goal goal = MiniJavaParser.Goal();
+      count += goal.f1.size();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int astParser() throws ParseException {
+    int count = 0;
+    for (String source : sources) {
+      Program program = MiniJavaAstParser.parse(source);
+      count += program.classes.size();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int astParserToJtb() throws ParseException {
+    int count = 0;
+    for (String source : sources) {
+      Goal goal = JtbAdapter.toGoal(MiniJavaAstParser.parse(source));
+      count += goal.f1.size();
+    }
+    return count;
+  }
+
+  private static String syntheticProgram() {
+    StringBuilder source = new StringBuilder();
+    source.append("class Main {\n")
+        .append("  public static void main(String[] args) {\n")
+        .append("    System.out.println(new C0().m0(1));\n")
+        .append("  }\n")
+        .append("}\n");
+
+    for (int c = 0; c < SYNTHETIC_CLASSES; c++) {
+      source.append("class C").append(c);
+      if (c > 0) {
+        source.append(" extends C").append(c - 1);
+      }
+      source.append(" {\n  int[] a").append(c).append(";\n  boolean b").append(c).append(";\n");
+
+      for (int m = 0; m < SYNTHETIC_METHODS; m++) {
+        source.append("  public int m").append(m).append("(int x) {\n")
+            .append("    int i;\n    int s;\n    C").append(c).append(" o;\n")
+            .append("    i = 0;\n    s = 0;\n    o = this;\n")
+            .append("    a").append(c).append(" = new int[x + 10];\n")
+            .append("    while (i < (a").append(c).append(".length)) {\n")
+            .append("      a").append(c).append("[i] = (i * 3) - (s + 1);\n")
+            .append("      if ((i < x) && (!b").append(c).append(")) {\n")
+            .append("        s = s + (a").append(c).append("[i]);\n")
+            .append("      } else {\n")
+            .append("        System.out.println(s);\n")
+            .append("      }\n")
+            .append("      i = i + 1;\n")
+            .append("    }\n")
+            .append("    /* keep the call chain busy */\n")
+            .append("    return (o.m").append((m + 1) % SYNTHETIC_METHODS).append("(s)) + 1; // recursion\n")
+            .append("  }\n");
+      }
+      source.append("}\n");
+    }
+    return source.toString();
+  }
+}
@@ -1,18 +1,48 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import ast.ArenaJtbBridge;
+import ast.AstArena;
 import constant.OutputMessage;
 import context.TypecheckContext;
-import minijava.MiniJavaParser;
 import minijava.ParseException;
-import minijava.syntaxtree.Goal;
+import myVisitor.IncrementalTypechecker;
+import myVisitor.ParallelTypechecker;
 import myVisitor.SymbolTableBuilderVisitor;
 import myVisitor.TypecheckVisitor;
+import parser.MiniJavaAstParser;
 import symbolTable.SymbolTable;
+import utils.InputReader;
 
 public class Typecheck {
+  private static final String PARALLEL_OPTION = "--parallel";
+  private static final String DAEMON_OPTION = "--daemon";
+
+  /**
+   * Typecheck [--parallel] [file]
+   * Typecheck --daemon
+   *
+   * With --parallel, the methods are checked concurrently against a frozen
+   * symbol table; the output is the same as for a sequential run.
+   */
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals(DAEMON_OPTION)) {
+      daemon();
+      return;
+    }
+
+    boolean parallel = args.length > 0 && args[0].equals(PARALLEL_OPTION);
+    if (parallel) {
+      args = Arrays.copyOfRange(args, 1, args.length);
+    }
+
     try {
-      Goal root = new MiniJavaParser(System.in).Goal();
-      SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor();
-      root.accept(symbolTableBuilderVisitor, null);
+      AstArena ast = AstArena.build(MiniJavaAstParser.parse(InputReader.open(args)));
+      SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+      ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
 
       SymbolTable symbolTable = symbolTableBuilderVisitor.getSymbolTable();
       System.err.println(symbolTable);
@@ -31,14 +61,53 @@ public class Typecheck {
         System.err.println("Symbol table contains an undefined class.");
         OutputMessage.outputErrorAndExit();
       }
+      symbolTable.resolveInheritance();
 
-      TypecheckVisitor typecheckVisitor = new TypecheckVisitor();
-      TypecheckContext typecheckContext = new TypecheckContext(symbolTable, null, null);
-      root.accept(typecheckVisitor, typecheckContext);
+      if (parallel) {
+        symbolTable.freeze();
+        ParallelTypechecker.typecheck(ast, symbolTable);
+      } else {
+        TypecheckVisitor typecheckVisitor = new TypecheckVisitor();
+        TypecheckContext typecheckContext = new TypecheckContext(symbolTable, null, null);
+        ArenaJtbBridge.visitClasses(ast, typecheckVisitor, typecheckContext);
+      }
     } catch (ParseException e) {
       System.out.println(e.toString());
+    } catch (IOException e) {
+      System.err.println("Could not read input: " + e.getMessage());
+      System.exit(1);
     }
 
     OutputMessage.outputSuccess();
   }
+
+  /*
+   * Reads one path per line from stdin, each holding a new version of the
+   * same program, and prints one result line per version. Only the methods
+   * a version's changes can affect are checked again.
+   */
+  private static void daemon() {
+    IncrementalTypechecker typechecker = new IncrementalTypechecker();
+    BufferedReader paths = new BufferedReader(new InputStreamReader(System.in));
+    try {
+      for (String path = paths.readLine(); path != null; path = paths.readLine()) {
+        if (path.isEmpty()) {
+          continue;
+        }
+
+        try {
+          AstArena ast = AstArena.build(MiniJavaAstParser.parse(InputReader.open(Paths.get(path))));
+          System.out.println(typechecker.update(ast) ? OutputMessage.SUCCESS : OutputMessage.ERROR);
+        } catch (ParseException e) {
+          System.out.println(e.toString());
+        } catch (IOException e) {
+          System.out.println("Could not read " + path + ": " + e.getMessage());
+        }
+        System.out.flush();
+      }
+    } catch (IOException e) {
+      System.err.println("Could not read input: " + e.getMessage());
+      System.exit(1);
+    }
+  }
 }
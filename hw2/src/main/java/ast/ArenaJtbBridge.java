@@ -0,0 +1,224 @@
+package ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import minijava.syntaxtree.Node;
+import minijava.visitor.GJVisitor;
+import minijava.visitor.GJVoidVisitor;
+
+/**
+ * Runs JTB visitors over an AstArena.
+ *
+ * Instead of converting the whole program, the bridge rebuilds the JTB tree
+ * of one top-level class at a time (the main class, then each
+ * TypeDeclaration in order) and hands it to the visitor, so only the arena
+ * and a single class's JTB nodes are alive at once. This matches visiting a
+ * Goal for any visitor whose visit(Goal) just visits f0 and then each
+ * element of f1.
+ */
+public class ArenaJtbBridge {
+  /**
+   * Returns the visitor's result for the main class followed by the result
+   * for each class declaration.
+   */
+  public static <R, A> List<R> visitClasses(AstArena arena, GJVisitor<R, A> visitor, A argument) {
+    List<R> results = new ArrayList<>();
+    for (int node = arena.getFirstChild(arena.getRoot()); node != AstArena.NONE; node = arena.getNextSibling(node)) {
+      results.add(toJtb(arena, node).accept(visitor, argument));
+    }
+    return results;
+  }
+
+  public static <A> void visitClasses(AstArena arena, GJVoidVisitor<A> visitor, A argument) {
+    for (int node = arena.getFirstChild(arena.getRoot()); node != AstArena.NONE; node = arena.getNextSibling(node)) {
+      toJtb(arena, node).accept(visitor, argument);
+    }
+  }
+
+  /**
+   * Rebuilds the JTB tree of one top-level class, a child of the arena's
+   * root: a MainClass or a TypeDeclaration.
+   */
+  public static Node toJtb(AstArena arena, int node) {
+    if (arena.getKind(node) == AstArena.MAIN_CLASS) {
+      return JtbAdapter.toMainClass(mainClass(arena, node), arena.getSymbols());
+    }
+    return JtbAdapter.toTypeDeclaration(classDecl(arena, node), arena.getSymbols());
+  }
+
+  private static MainClass mainClass(AstArena arena, int node) {
+    int child = arena.getFirstChild(node);
+    String argsName = arena.getSymbol(child);
+    child = arena.getNextSibling(child);
+
+    List<VarDecl> locals = new ArrayList<>();
+    for (; child != AstArena.NONE && arena.getKind(child) == AstArena.VAR; child = arena.getNextSibling(child)) {
+      locals.add(varDecl(arena, child));
+    }
+
+    List<Statement> body = new ArrayList<>();
+    for (; child != AstArena.NONE; child = arena.getNextSibling(child)) {
+      body.add(statement(arena, child));
+    }
+
+    return new MainClass(arena.getSymbol(node), argsName, locals, body);
+  }
+
+  private static ClassDecl classDecl(AstArena arena, int node) {
+    int child = arena.getFirstChild(node);
+    String superName = null;
+    if (child != AstArena.NONE && arena.getKind(child) == AstArena.EXTENDS) {
+      superName = arena.getSymbol(child);
+      child = arena.getNextSibling(child);
+    }
+
+    List<VarDecl> fields = new ArrayList<>();
+    for (; child != AstArena.NONE && arena.getKind(child) == AstArena.VAR; child = arena.getNextSibling(child)) {
+      fields.add(varDecl(arena, child));
+    }
+
+    List<MethodDecl> methods = new ArrayList<>();
+    for (; child != AstArena.NONE; child = arena.getNextSibling(child)) {
+      methods.add(methodDecl(arena, child));
+    }
+
+    return new ClassDecl(arena.getSymbol(node), superName, fields, methods);
+  }
+
+  private static MethodDecl methodDecl(AstArena arena, int node) {
+    int child = arena.getFirstChild(node);
+    TypeRef returnType = type(arena, child);
+    child = arena.getNextSibling(child);
+
+    List<VarDecl> parameters = new ArrayList<>();
+    for (; arena.getKind(child) == AstArena.PARAMETER; child = arena.getNextSibling(child)) {
+      parameters.add(varDecl(arena, child));
+    }
+
+    List<VarDecl> locals = new ArrayList<>();
+    for (; arena.getKind(child) == AstArena.VAR; child = arena.getNextSibling(child)) {
+      locals.add(varDecl(arena, child));
+    }
+
+    // Statements, then the return expression as the last child
+    List<Statement> body = new ArrayList<>();
+    for (; arena.getNextSibling(child) != AstArena.NONE; child = arena.getNextSibling(child)) {
+      body.add(statement(arena, child));
+    }
+
+    return new MethodDecl(returnType, arena.getSymbol(node), parameters, locals, body, expression(arena, child));
+  }
+
+  private static VarDecl varDecl(AstArena arena, int node) {
+    return new VarDecl(type(arena, arena.getFirstChild(node)), arena.getSymbol(node));
+  }
+
+  private static TypeRef type(AstArena arena, int node) {
+    switch (arena.getKind(node)) {
+      case AstArena.TYPE_INT_ARRAY:
+        return TypeRef.INT_ARRAY;
+      case AstArena.TYPE_BOOLEAN:
+        return TypeRef.BOOLEAN;
+      case AstArena.TYPE_INT:
+        return TypeRef.INT;
+      default:
+        return TypeRef.ofClass(arena.getSymbol(node));
+    }
+  }
+
+  private static Statement statement(AstArena arena, int node) {
+    int first = arena.getFirstChild(node);
+    switch (arena.getKind(node)) {
+      case AstArena.BLOCK: {
+        List<Statement> statements = new ArrayList<>();
+        for (int child = first; child != AstArena.NONE; child = arena.getNextSibling(child)) {
+          statements.add(statement(arena, child));
+        }
+        return new Statement.Block(statements);
+      }
+      case AstArena.ASSIGN:
+        return new Statement.Assign(arena.getSymbol(node), expression(arena, first));
+      case AstArena.ARRAY_ASSIGN:
+        return new Statement.ArrayAssign(arena.getSymbol(node), expression(arena, first),
+            expression(arena, arena.getNextSibling(first)));
+      case AstArena.IF: {
+        int thenBranch = arena.getNextSibling(first);
+        return new Statement.If(expression(arena, first), statement(arena, thenBranch),
+            statement(arena, arena.getNextSibling(thenBranch)));
+      }
+      case AstArena.WHILE:
+        return new Statement.While(expression(arena, first), statement(arena, arena.getNextSibling(first)));
+      case AstArena.PRINT:
+        return new Statement.Print(expression(arena, first));
+      default:
+        throw new IllegalArgumentException("Not a statement node: " + node);
+    }
+  }
+
+  /*
+   * Builds the expression bottom-up without recursion. The subtree is stored
+   * in preorder, so scanning it backwards reaches every node after all of
+   * its operands; their results are then on top of the stack, first operand
+   * topmost.
+   */
+  private static Expression expression(AstArena arena, int node) {
+    List<Expression> built = new ArrayList<>();
+    for (int n = arena.getSubtreeEnd(node) - 1; n >= node; n--) {
+      built.add(buildExpression(arena, n, built));
+    }
+    return built.get(0);
+  }
+
+  private static Expression buildExpression(AstArena arena, int node, List<Expression> built) {
+    switch (arena.getKind(node)) {
+      case AstArena.AND:
+        return new Expression.Binary(Expression.Operator.AND, pop(built), pop(built));
+      case AstArena.LESS_THAN:
+        return new Expression.Binary(Expression.Operator.LESS_THAN, pop(built), pop(built));
+      case AstArena.PLUS:
+        return new Expression.Binary(Expression.Operator.PLUS, pop(built), pop(built));
+      case AstArena.MINUS:
+        return new Expression.Binary(Expression.Operator.MINUS, pop(built), pop(built));
+      case AstArena.TIMES:
+        return new Expression.Binary(Expression.Operator.TIMES, pop(built), pop(built));
+      case AstArena.ARRAY_LOOKUP:
+        return new Expression.ArrayLookup(pop(built), pop(built));
+      case AstArena.ARRAY_LENGTH:
+        return new Expression.ArrayLength(pop(built));
+      case AstArena.CALL: {
+        Expression receiver = pop(built);
+        int count = arena.getChildCount(node) - 1;
+        List<Expression> arguments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          arguments.add(pop(built));
+        }
+        return new Expression.Call(receiver, arena.getSymbol(node), arguments);
+      }
+      case AstArena.INTEGER:
+        return new Expression.IntegerLiteral(arena.getSymbol(node));
+      case AstArena.TRUE:
+        return Expression.BooleanLiteral.TRUE;
+      case AstArena.FALSE:
+        return Expression.BooleanLiteral.FALSE;
+      case AstArena.IDENTIFIER:
+        return new Expression.Identifier(arena.getSymbol(node));
+      case AstArena.THIS:
+        return Expression.This.INSTANCE;
+      case AstArena.NEW_INT_ARRAY:
+        return new Expression.NewIntArray(pop(built));
+      case AstArena.NEW_OBJECT:
+        return new Expression.NewObject(arena.getSymbol(node));
+      case AstArena.NOT:
+        return new Expression.Not(pop(built));
+      case AstArena.BRACKET:
+        return new Expression.Bracket(pop(built));
+      default:
+        throw new IllegalArgumentException("Not an expression node: " + node);
+    }
+  }
+
+  private static Expression pop(List<Expression> built) {
+    return built.remove(built.size() - 1);
+  }
+}
@@ -0,0 +1,533 @@
+package ast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compact AST flattened into one int array.
+ *
+ * Each node takes NODE_SIZE consecutive ints: its kind (plus a flag telling
+ * whether it has a next sibling), a value, and the index one past the end of
+ * its subtree. Nodes are stored in preorder, so the first child of node n,
+ * if any, is n + 1, the next sibling of a child c is subtreeEnd(c), and a
+ * whole subtree is one contiguous range.
+ *
+ * Identifiers and integer literals are interned: the value of a node that
+ * carries a name is its id in the program's SymbolInterner, shared by every
+ * occurrence of the same name. Node handles are plain ints; NONE stands for
+ * a missing node.
+ *
+ * Children by kind, in order ([x] optional, x* repeated):
+ *
+ *   PROGRAM          MAIN_CLASS CLASS*
+ *   MAIN_CLASS       NAME(args) VAR* statement*                 value: name
+ *   CLASS            [EXTENDS] VAR* METHOD*                     value: name
+ *   EXTENDS          -                                          value: superclass name
+ *   METHOD           type PARAMETER* VAR* statement* expression value: name
+ *   VAR, PARAMETER   type                                       value: name
+ *   TYPE_CLASS       -                                          value: class name
+ *   BLOCK            statement*
+ *   ASSIGN           expression                                 value: variable name
+ *   ARRAY_ASSIGN     expression(index) expression(value)        value: variable name
+ *   IF               expression statement statement
+ *   WHILE            expression statement
+ *   PRINT            expression
+ *   AND .. TIMES     expression expression
+ *   ARRAY_LOOKUP     expression expression
+ *   ARRAY_LENGTH     expression
+ *   CALL             expression(receiver) expression*           value: method name
+ *   INTEGER, IDENTIFIER, NEW_OBJECT  -                          value: literal or name
+ *   NEW_INT_ARRAY, NOT, BRACKET      expression
+ */
+public class AstArena {
+  public static final int NONE = -1;
+
+  public static final int PROGRAM = 0;
+  public static final int MAIN_CLASS = 1;
+  public static final int CLASS = 2;
+  public static final int EXTENDS = 3;
+  public static final int METHOD = 4;
+  public static final int VAR = 5;
+  public static final int PARAMETER = 6;
+  public static final int NAME = 7;
+
+  public static final int TYPE_INT_ARRAY = 8;
+  public static final int TYPE_BOOLEAN = 9;
+  public static final int TYPE_INT = 10;
+  public static final int TYPE_CLASS = 11;
+
+  public static final int BLOCK = 12;
+  public static final int ASSIGN = 13;
+  public static final int ARRAY_ASSIGN = 14;
+  public static final int IF = 15;
+  public static final int WHILE = 16;
+  public static final int PRINT = 17;
+
+  public static final int AND = 18;
+  public static final int LESS_THAN = 19;
+  public static final int PLUS = 20;
+  public static final int MINUS = 21;
+  public static final int TIMES = 22;
+  public static final int ARRAY_LOOKUP = 23;
+  public static final int ARRAY_LENGTH = 24;
+  public static final int CALL = 25;
+  public static final int INTEGER = 26;
+  public static final int TRUE = 27;
+  public static final int FALSE = 28;
+  public static final int IDENTIFIER = 29;
+  public static final int THIS = 30;
+  public static final int NEW_INT_ARRAY = 31;
+  public static final int NEW_OBJECT = 32;
+  public static final int NOT = 33;
+  public static final int BRACKET = 34;
+
+  private static final int NODE_SIZE = 3;
+  private static final int KIND = 0;
+  private static final int VALUE = 1;
+  private static final int END = 2;
+  private static final int KIND_MASK = 0xff;
+  private static final int HAS_NEXT_SIBLING = 0x100;
+
+  private final int[] nodes;
+  private final int nodeCount;
+  private final SymbolInterner symbols;
+
+  private AstArena(int[] nodes, int nodeCount, SymbolInterner symbols) {
+    this.nodes = nodes;
+    this.nodeCount = nodeCount;
+    this.symbols = symbols;
+  }
+
+  public static AstArena build(Program program) {
+    return new Builder().build(program);
+  }
+
+  public int getRoot() {
+    return 0;
+  }
+
+  public int size() {
+    return nodeCount;
+  }
+
+  public int getKind(int node) {
+    return nodes[node * NODE_SIZE + KIND] & KIND_MASK;
+  }
+
+  public int getValue(int node) {
+    return nodes[node * NODE_SIZE + VALUE];
+  }
+
+  /**
+   * The name or literal carried by the node.
+   */
+  public String getSymbol(int node) {
+    return symbols.getName(getValue(node));
+  }
+
+  public SymbolInterner getSymbols() {
+    return symbols;
+  }
+
+  public int getSubtreeEnd(int node) {
+    return nodes[node * NODE_SIZE + END];
+  }
+
+  public int getFirstChild(int node) {
+    return getSubtreeEnd(node) > node + 1 ? node + 1 : NONE;
+  }
+
+  public int getNextSibling(int node) {
+    return (nodes[node * NODE_SIZE + KIND] & HAS_NEXT_SIBLING) != 0 ? getSubtreeEnd(node) : NONE;
+  }
+
+  public int getChild(int node, int index) {
+    int child = getFirstChild(node);
+    for (int i = 0; i < index && child != NONE; i++) {
+      child = getNextSibling(child);
+    }
+    return child;
+  }
+
+  public int getChildCount(int node) {
+    int count = 0;
+    for (int child = getFirstChild(node); child != NONE; child = getNextSibling(child)) {
+      count++;
+    }
+    return count;
+  }
+
+  public static boolean isType(int kind) {
+    return kind >= TYPE_INT_ARRAY && kind <= TYPE_CLASS;
+  }
+
+  public static boolean isStatement(int kind) {
+    return kind >= BLOCK && kind <= PRINT;
+  }
+
+  public static boolean isExpression(int kind) {
+    return kind >= AND && kind <= BRACKET;
+  }
+
+  /**
+   * Whether the value of nodes of this kind is a symbol; for the others it
+   * is 0.
+   */
+  public static boolean hasSymbol(int kind) {
+    switch (kind) {
+      case MAIN_CLASS:
+      case CLASS:
+      case EXTENDS:
+      case METHOD:
+      case VAR:
+      case PARAMETER:
+      case NAME:
+      case TYPE_CLASS:
+      case ASSIGN:
+      case ARRAY_ASSIGN:
+      case CALL:
+      case INTEGER:
+      case IDENTIFIER:
+      case NEW_OBJECT:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Bytes held by the node array and the symbol table, not counting the
+   * arena object itself.
+   */
+  public long getFootprint() {
+    return 16 + 4L * nodes.length + symbols.getFootprint();
+  }
+
+  /**
+   * Walks the subtree rooted at node in preorder without recursion, calling
+   * enter before and leave after the children of each node. Children are
+   * skipped when enter returns false.
+   */
+  public void accept(int node, ArenaVisitor visitor) {
+    int[] pending = new int[16];
+    int top = 0;
+    int current = node;
+
+    while (true) {
+      if (visitor.enter(this, current) && getFirstChild(current) != NONE) {
+        if (top == pending.length) {
+          pending = Arrays.copyOf(pending, top * 2);
+        }
+        pending[top++] = current;
+        current = current + 1;
+        continue;
+      }
+
+      // Leave finished nodes until one has a next sibling
+      while (true) {
+        visitor.leave(this, current);
+        if (current == node) {
+          return;
+        }
+        int next = getNextSibling(current);
+        if (next != NONE) {
+          current = next;
+          break;
+        }
+        current = pending[--top];
+      }
+    }
+  }
+
+  public void accept(ArenaVisitor visitor) {
+    accept(getRoot(), visitor);
+  }
+
+  /*
+   * Appends nodes in preorder. Each node is opened before its children and
+   * closed after them, which records its subtree end and marks the previous
+   * child of its parent as having a next sibling.
+   */
+  private static class Builder implements AstVisitor<Void> {
+    private int[] nodes = new int[NODE_SIZE * 1024];
+    private int count = 0;
+    private SymbolInterner symbols;
+
+    // Open nodes from the root down, and the last closed child of each
+    private int[] openNodes = new int[64];
+    private int[] lastChild = new int[64];
+    private int depth = 0;
+
+    private final List<Expression> pending = new ArrayList<>();
+
+    AstArena build(Program program) {
+      symbols = program.symbols;
+      open(PROGRAM, 0);
+      mainClass(program.mainClass);
+      for (ClassDecl decl : program.classes) {
+        classDecl(decl);
+      }
+      close();
+
+      return new AstArena(Arrays.copyOf(nodes, count * NODE_SIZE), count, symbols);
+    }
+
+    private int intern(String symbol) {
+      return symbols.intern(symbol);
+    }
+
+    private void open(int kind, int value) {
+      if ((count + 1) * NODE_SIZE > nodes.length) {
+        nodes = Arrays.copyOf(nodes, nodes.length * 2);
+      }
+      if (depth == openNodes.length) {
+        openNodes = Arrays.copyOf(openNodes, depth * 2);
+        lastChild = Arrays.copyOf(lastChild, depth * 2);
+      }
+
+      if (depth > 0 && lastChild[depth - 1] != NONE) {
+        nodes[lastChild[depth - 1] * NODE_SIZE + KIND] |= HAS_NEXT_SIBLING;
+      }
+
+      int offset = count * NODE_SIZE;
+      nodes[offset + KIND] = kind;
+      nodes[offset + VALUE] = value;
+      openNodes[depth] = count;
+      lastChild[depth++] = NONE;
+      count++;
+    }
+
+    private void close() {
+      depth--;
+      int node = openNodes[depth];
+      nodes[node * NODE_SIZE + END] = count;
+      if (depth > 0) {
+        lastChild[depth - 1] = node;
+      }
+    }
+
+    private void leaf(int kind, int value) {
+      open(kind, value);
+      close();
+    }
+
+    private void mainClass(MainClass main) {
+      open(MAIN_CLASS, intern(main.name));
+      leaf(NAME, intern(main.argsName));
+      varDecls(VAR, main.locals);
+      statements(main.body);
+      close();
+    }
+
+    private void classDecl(ClassDecl decl) {
+      open(CLASS, intern(decl.name));
+      if (decl.superName != null) {
+        leaf(EXTENDS, intern(decl.superName));
+      }
+      varDecls(VAR, decl.fields);
+      for (MethodDecl method : decl.methods) {
+        open(METHOD, intern(method.name));
+        type(method.returnType);
+        varDecls(PARAMETER, method.parameters);
+        varDecls(VAR, method.locals);
+        statements(method.body);
+        expression(method.returnValue);
+        close();
+      }
+      close();
+    }
+
+    private void varDecls(int kind, List<VarDecl> decls) {
+      for (VarDecl decl : decls) {
+        open(kind, intern(decl.name));
+        type(decl.type);
+        close();
+      }
+    }
+
+    private void type(TypeRef type) {
+      switch (type.kind) {
+        case INT_ARRAY:
+          leaf(TYPE_INT_ARRAY, 0);
+          break;
+        case BOOLEAN:
+          leaf(TYPE_BOOLEAN, 0);
+          break;
+        case INT:
+          leaf(TYPE_INT, 0);
+          break;
+        default:
+          leaf(TYPE_CLASS, intern(type.className));
+      }
+    }
+
+    private void statements(List<Statement> statements) {
+      for (Statement statement : statements) {
+        statement.accept(this);
+      }
+    }
+
+    @Override
+    public Void visit(Statement.Block n) {
+      open(BLOCK, 0);
+      statements(n.statements);
+      close();
+      return null;
+    }
+
+    @Override
+    public Void visit(Statement.Assign n) {
+      open(ASSIGN, intern(n.name));
+      expression(n.value);
+      close();
+      return null;
+    }
+
+    @Override
+    public Void visit(Statement.ArrayAssign n) {
+      open(ARRAY_ASSIGN, intern(n.name));
+      expression(n.index);
+      expression(n.value);
+      close();
+      return null;
+    }
+
+    @Override
+    public Void visit(Statement.If n) {
+      open(IF, 0);
+      expression(n.condition);
+      n.thenBranch.accept(this);
+      n.elseBranch.accept(this);
+      close();
+      return null;
+    }
+
+    @Override
+    public Void visit(Statement.While n) {
+      open(WHILE, 0);
+      expression(n.condition);
+      n.body.accept(this);
+      close();
+      return null;
+    }
+
+    @Override
+    public Void visit(Statement.Print n) {
+      open(PRINT, 0);
+      expression(n.value);
+      close();
+      return null;
+    }
+
+    /*
+     * Expressions are emitted from an explicit stack: each expression is
+     * opened by its visit method, then its operands are emitted, then it is
+     * closed (a null entry on the stack).
+     */
+    private void expression(Expression root) {
+      int base = pending.size();
+      pending.add(root);
+      while (pending.size() > base) {
+        Expression expression = pending.remove(pending.size() - 1);
+        if (expression == null) {
+          close();
+          continue;
+        }
+
+        expression.accept(this);
+        pending.add(null);
+        for (int i = expression.getOperandCount() - 1; i >= 0; i--) {
+          pending.add(expression.getOperand(i));
+        }
+      }
+    }
+
+    @Override
+    public Void visit(Expression.Binary n) {
+      switch (n.operator) {
+        case AND:
+          open(AND, 0);
+          break;
+        case LESS_THAN:
+          open(LESS_THAN, 0);
+          break;
+        case PLUS:
+          open(PLUS, 0);
+          break;
+        case MINUS:
+          open(MINUS, 0);
+          break;
+        default:
+          open(TIMES, 0);
+      }
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.ArrayLookup n) {
+      open(ARRAY_LOOKUP, 0);
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.ArrayLength n) {
+      open(ARRAY_LENGTH, 0);
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.Call n) {
+      open(CALL, intern(n.method));
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.IntegerLiteral n) {
+      open(INTEGER, intern(n.value));
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.BooleanLiteral n) {
+      open(n.value ? TRUE : FALSE, 0);
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.Identifier n) {
+      open(IDENTIFIER, intern(n.name));
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.This n) {
+      open(THIS, 0);
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.NewIntArray n) {
+      open(NEW_INT_ARRAY, 0);
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.NewObject n) {
+      open(NEW_OBJECT, intern(n.className));
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.Not n) {
+      open(NOT, 0);
+      return null;
+    }
+
+    @Override
+    public Void visit(Expression.Bracket n) {
+      open(BRACKET, 0);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package ast;
+
+import java.util.List;
+
+public class ClassDecl {
+  public final String name;
+  public final String superName; // Null without an extends clause
+  public final List<VarDecl> fields;
+  public final List<MethodDecl> methods;
+
+  public ClassDecl(String name, String superName, List<VarDecl> fields, List<MethodDecl> methods) {
+    this.name = name;
+    this.superName = superName;
+    this.fields = fields;
+    this.methods = methods;
+  }
+}
@@ -0,0 +1,22 @@
+package ast;
+
+import java.util.List;
+
+public class MethodDecl {
+  public final TypeRef returnType;
+  public final String name;
+  public final List<VarDecl> parameters;
+  public final List<VarDecl> locals;
+  public final List<Statement> body;
+  public final Expression returnValue;
+
+  public MethodDecl(TypeRef returnType, String name, List<VarDecl> parameters, List<VarDecl> locals,
+      List<Statement> body, Expression returnValue) {
+    this.returnType = returnType;
+    this.name = name;
+    this.parameters = parameters;
+    this.locals = locals;
+    this.body = body;
+    this.returnValue = returnValue;
+  }
+}
@@ -0,0 +1,97 @@
+package ast;
+
+import java.util.List;
+
+public abstract class Statement {
+  public abstract <R> R accept(AstVisitor<R> visitor);
+
+  public static class Block extends Statement {
+    public final List<Statement> statements;
+
+    public Block(List<Statement> statements) {
+      this.statements = statements;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class Assign extends Statement {
+    public final String name;
+    public final Expression value;
+
+    public Assign(String name, Expression value) {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class ArrayAssign extends Statement {
+    public final String name;
+    public final Expression index;
+    public final Expression value;
+
+    public ArrayAssign(String name, Expression index, Expression value) {
+      this.name = name;
+      this.index = index;
+      this.value = value;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class If extends Statement {
+    public final Expression condition;
+    public final Statement thenBranch;
+    public final Statement elseBranch;
+
+    public If(Expression condition, Statement thenBranch, Statement elseBranch) {
+      this.condition = condition;
+      this.thenBranch = thenBranch;
+      this.elseBranch = elseBranch;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class While extends Statement {
+    public final Expression condition;
+    public final Statement body;
+
+    public While(Expression condition, Statement body) {
+      this.condition = condition;
+      this.body = body;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class Print extends Statement {
+    public final Expression value;
+
+    public Print(Expression value) {
+      this.value = value;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package ast;
+
+import java.util.Arrays;
+
+import minijava.syntaxtree.NodeToken;
+
+/**
+ * Gives every distinct identifier of a program a dense int id, starting at
+ * 0, and one shared String.
+ *
+ * MiniJavaAstParser interns identifiers straight from the source characters,
+ * so repeated names are neither copied nor re-hashed later: the symbol
+ * tables are keyed on the ids, and the JTB tokens built by JtbAdapter carry
+ * them as SymbolTokens.
+ *
+ * Once frozen, the interner only answers for names it already has, and may
+ * then be read from several threads.
+ */
+public class SymbolInterner {
+  public static final int NONE = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private String[] names = new String[INITIAL_CAPACITY];
+  private int[] hashes = new int[INITIAL_CAPACITY];
+  private int size = 0;
+  // Open addressing over id + 1; 0 marks an empty slot
+  private int[] table = new int[INITIAL_CAPACITY * 2];
+  private boolean frozen = false;
+
+  public int intern(String name) {
+    int hash = name.hashCode();
+    int slot = find(hash, name);
+    if (table[slot] != 0) {
+      return table[slot] - 1;
+    }
+    return add(slot, hash, name);
+  }
+
+  /**
+   * Interns the characters text[start, end) without allocating a String
+   * unless the name is new.
+   */
+  public int intern(char[] text, int start, int end) {
+    int hash = hash(text, start, end);
+    int slot = find(hash, text, start, end);
+    if (table[slot] != 0) {
+      return table[slot] - 1;
+    }
+    return add(slot, hash, new String(text, start, end - start));
+  }
+
+  /**
+   * Returns the id of the characters text[start, end), or NONE if they were
+   * never interned.
+   */
+  public int lookup(char[] text, int start, int end) {
+    return table[find(hash(text, start, end), text, start, end)] - 1;
+  }
+
+  /**
+   * Returns the id of name, or NONE if it was never interned.
+   */
+  public int lookup(String name) {
+    int slot = find(name.hashCode(), name);
+    return table[slot] - 1;
+  }
+
+  /**
+   * Returns the id of an identifier token: the one it carries if it was
+   * built from this interner, and otherwise the id of its image, which is
+   * interned if needed.
+   */
+  public int symbolOf(NodeToken token) {
+    if (token instanceof SymbolToken && ((SymbolToken) token).getSymbols() == this) {
+      return ((SymbolToken) token).getSymbol();
+    }
+    return intern(token.tokenImage);
+  }
+
+  public String getName(int id) {
+    return names[id];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Bytes held by the interner's arrays and names, not counting the
+   * interner object itself.
+   */
+  public long getFootprint() {
+    long bytes = 16 + 4L * names.length + 16 + 4L * hashes.length + 16 + 4L * table.length;
+    for (int id = 0; id < size; id++) {
+      bytes += 24 + 16 + names[id].length();
+    }
+    return bytes;
+  }
+
+  private int find(int hash, String name) {
+    int mask = table.length - 1;
+    int slot = hash & mask;
+    while (table[slot] != 0) {
+      int id = table[slot] - 1;
+      if (hashes[id] == hash && names[id].equals(name)) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private int find(int hash, char[] text, int start, int end) {
+    int mask = table.length - 1;
+    int slot = hash & mask;
+    while (table[slot] != 0) {
+      int id = table[slot] - 1;
+      if (hashes[id] == hash && regionEquals(names[id], text, start, end)) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Makes interning a new name an error from now on.
+   */
+  public void freeze() {
+    frozen = true;
+  }
+
+  private int add(int slot, int hash, String name) {
+    if (frozen) {
+      throw new IllegalStateException("Cannot intern '" + name + "' into a frozen SymbolInterner");
+    }
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size * 2);
+      hashes = Arrays.copyOf(hashes, size * 2);
+    }
+    names[size] = name;
+    hashes[size] = hash;
+    table[slot] = size + 1;
+    size++;
+
+    // Keep the table at most half full
+    if (size * 2 > table.length) {
+      rehash();
+    }
+    return size - 1;
+  }
+
+  private void rehash() {
+    table = new int[table.length * 2];
+    int mask = table.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = hashes[id] & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = id + 1;
+    }
+  }
+
+  // Same as String.hashCode
+  private static int hash(char[] text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + text[i];
+    }
+    return hash;
+  }
+
+  private static boolean regionEquals(String name, char[] text, int start, int end) {
+    if (name.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (name.charAt(i) != text[start + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,14 @@
+package ast;
+
+/**
+ * A field, local variable or parameter declaration.
+ */
+public class VarDecl {
+  public final TypeRef type;
+  public final String name;
+
+  public VarDecl(TypeRef type, String name) {
+    this.type = type;
+    this.name = name;
+  }
+}
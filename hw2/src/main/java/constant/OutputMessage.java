@@ -4,12 +4,35 @@ public class OutputMessage {
   public static String SUCCESS = "Program type checked successfully";
   public static String ERROR = "Type error";
 
+  // Set on threads that check part of a program for a parallel run
+  private static final ThreadLocal<Boolean> throwOnError = ThreadLocal.withInitial(() -> false);
+
+  /**
+   * Thrown by outputErrorAndExit on threads that report type errors to
+   * their caller instead of exiting.
+   */
+  public static class TypeError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TypeError() {
+      super(ERROR, null, false, false);
+    }
+  }
+
   public static void outputSuccess() {
     System.out.println(SUCCESS);
   }
 
   public static void outputErrorAndExit() {
+    if (throwOnError.get()) {
+      throw new TypeError();
+    }
+
     System.out.println(ERROR);
     System.exit(1);
   }
+
+  public static void setThrowOnError(boolean throwOnError) {
+    OutputMessage.throwOnError.set(throwOnError);
+  }
 }
@@ -0,0 +1,253 @@
+package myVisitor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ast.ArenaJtbBridge;
+import ast.AstArena;
+import ast.SymbolInterner;
+import constant.OutputMessage;
+import context.TypecheckContext;
+import minijava.syntaxtree.ClassDeclaration;
+import minijava.syntaxtree.ClassExtendsDeclaration;
+import minijava.syntaxtree.Node;
+import minijava.syntaxtree.NodeListOptional;
+import minijava.syntaxtree.TypeDeclaration;
+import symbolTable.ClassInfo;
+import symbolTable.MethodInfo;
+import symbolTable.SymbolTable;
+import type.MJType;
+
+/**
+ * Typechecks successive versions of one program, re-checking only the
+ * method bodies an edit can affect.
+ *
+ * Each version is parsed, its symbol table is built and validated, and the
+ * signature of every class (superclass, fields and method signatures) is
+ * compared with the previous version; a class counts as changed if its own
+ * signature or that of any superclass did. A method body (or the main
+ * class) keeps its previous result if its source is unchanged and none of
+ * the classes it depended on changed: its own class and every class
+ * TypecheckVisitor looked up while checking it. Everything else is checked
+ * again, and only the classes holding such methods are converted to JTB.
+ */
+public class IncrementalTypechecker {
+  private static class UnitResult {
+    final String source;
+    final boolean typeError;
+    final List<String> dependencies;
+
+    UnitResult(String source, boolean typeError, List<String> dependencies) {
+      this.source = source;
+      this.typeError = typeError;
+      this.dependencies = dependencies;
+    }
+  }
+
+  // Of the last version that got past the symbol table checks
+  private Map<String, String> classSignatures = new HashMap<>();
+  // By class name, or class name + "." + method name
+  private Map<String, UnitResult> results = new HashMap<>();
+  private int checkedCount = 0;
+
+  /**
+   * Typechecks the next version of the program and returns whether it is
+   * well typed. Type errors are reported on System.err as usual, but do
+   * not exit.
+   */
+  public boolean update(AstArena ast) {
+    checkedCount = 0;
+    OutputMessage.setThrowOnError(true);
+    try {
+      SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+      ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
+      SymbolTable symbolTable = symbolTableBuilderVisitor.getSymbolTable();
+      if (symbolTable.containsCycle() || symbolTable.containsOverload() || !symbolTable.allTypesExist()) {
+        System.err.println("Symbol table contains a cycle, an overload or an undefined class.");
+        return false;
+      }
+      symbolTable.resolveInheritance();
+
+      return checkUnits(ast, symbolTable);
+    } catch (OutputMessage.TypeError e) {
+      return false;
+    } finally {
+      OutputMessage.setThrowOnError(false);
+    }
+  }
+
+  /**
+   * The number of method bodies, counting the main class as one, that the
+   * last update checked rather than reused.
+   */
+  public int getCheckedCount() {
+    return checkedCount;
+  }
+
+  private boolean checkUnits(AstArena ast, SymbolTable symbolTable) {
+    Map<String, String> signatures = new HashMap<>();
+    for (ClassInfo classInfo : symbolTable.getClasses()) {
+      signatures.put(classInfo.getClassName(), signature(classInfo, symbolTable.getSymbols()));
+    }
+    Map<String, Boolean> changed = changedClasses(symbolTable, signatures);
+
+    Map<String, UnitResult> newResults = new HashMap<>();
+    boolean wellTyped = true;
+    for (int node = ast.getFirstChild(ast.getRoot()); node != AstArena.NONE; node = ast.getNextSibling(node)) {
+      String className = ast.getSymbol(node);
+      ClassInfo classInfo = symbolTable.getClassInfo(className);
+      Node jtb = null;
+
+      if (ast.getKind(node) == AstArena.MAIN_CLASS) {
+        String source = encode(ast, node);
+        UnitResult result = reuse(className, source, signatures, changed);
+        if (result == null) {
+          jtb = ArenaJtbBridge.toJtb(ast, node);
+          result = check(jtb, source, new TypecheckContext(symbolTable, null, null), classInfo);
+        }
+        newResults.put(className, result);
+        wellTyped &= !result.typeError;
+        continue;
+      }
+
+      int methodIndex = 0;
+      for (int child = ast.getFirstChild(node); child != AstArena.NONE; child = ast.getNextSibling(child)) {
+        if (ast.getKind(child) != AstArena.METHOD) {
+          continue;
+        }
+
+        String key = className + "." + ast.getSymbol(child);
+        String source = encode(ast, child);
+        UnitResult result = reuse(key, source, signatures, changed);
+        if (result == null) {
+          if (jtb == null) {
+            jtb = ArenaJtbBridge.toJtb(ast, node);
+          }
+          Node method = methods((TypeDeclaration) jtb).elementAt(methodIndex);
+          result = check(method, source, new TypecheckContext(symbolTable, classInfo, null), classInfo);
+        }
+        newResults.put(key, result);
+        wellTyped &= !result.typeError;
+        methodIndex++;
+      }
+    }
+
+    classSignatures = signatures;
+    results = newResults;
+    return wellTyped;
+  }
+
+  private UnitResult reuse(String key, String source, Map<String, String> signatures, Map<String, Boolean> changed) {
+    UnitResult previous = results.get(key);
+    if (previous == null || !previous.source.equals(source)) {
+      return null;
+    }
+
+    for (String className : previous.dependencies) {
+      Boolean classChanged = changed.get(className);
+      if (classChanged == null) {
+        // Gone from this version, or still missing
+        classChanged = classSignatures.containsKey(className) != signatures.containsKey(className);
+      }
+      if (classChanged) {
+        return null;
+      }
+    }
+    return previous;
+  }
+
+  private UnitResult check(Node unit, String source, TypecheckContext typecheckContext, ClassInfo classInfo) {
+    checkedCount++;
+    BitSet dependencies = new BitSet();
+    boolean typeError = false;
+    try {
+      unit.accept(new TypecheckVisitor(dependencies), typecheckContext);
+    } catch (OutputMessage.TypeError e) {
+      typeError = true;
+    }
+
+    SymbolInterner symbols = typecheckContext.getSymbolTable().getSymbols();
+    List<String> classNames = new ArrayList<>();
+    classNames.add(classInfo.getClassName());
+    for (int symbol = dependencies.nextSetBit(0); symbol >= 0; symbol = dependencies.nextSetBit(symbol + 1)) {
+      classNames.add(symbols.getName(symbol));
+    }
+    return new UnitResult(source, typeError, classNames);
+  }
+
+  /*
+   * A class changed if its signature differs from the previous version's
+   * or a superclass changed. Superclasses are settled first, walking up
+   * from each class to the first one already known.
+   */
+  private Map<String, Boolean> changedClasses(SymbolTable symbolTable, Map<String, String> signatures) {
+    Map<String, Boolean> changed = new HashMap<>();
+    List<ClassInfo> chain = new ArrayList<>();
+    for (ClassInfo classInfo : symbolTable.getClasses()) {
+      ClassInfo current = classInfo;
+      while (current != null && !changed.containsKey(current.getClassName())) {
+        chain.add(current);
+        current = current.getSuperClassName() != null ? symbolTable.getClassInfo(current.getSuperClassSymbol()) : null;
+      }
+
+      boolean superChanged = current != null && changed.get(current.getClassName());
+      for (int i = chain.size() - 1; i >= 0; i--) {
+        String className = chain.get(i).getClassName();
+        superChanged |= !signatures.get(className).equals(classSignatures.get(className));
+        changed.put(className, superChanged);
+      }
+      chain.clear();
+    }
+    return changed;
+  }
+
+  private static NodeListOptional methods(TypeDeclaration declaration) {
+    Node choice = declaration.f0.choice;
+    if (choice instanceof ClassDeclaration) {
+      return ((ClassDeclaration) choice).f4;
+    }
+    return ((ClassExtendsDeclaration) choice).f6;
+  }
+
+  /*
+   * The superclass, fields and method signatures of the class, as they are
+   * seen by code in other classes.
+   */
+  private static String signature(ClassInfo classInfo, SymbolInterner symbols) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(classInfo.getSuperClassName()).append(';');
+    for (int i = 0; i < classInfo.getFields().size(); i++) {
+      sb.append(symbols.getName(classInfo.getFields().keyAt(i))).append(':').append(classInfo.getFields().valueAt(i))
+          .append(';');
+    }
+    for (int i = 0; i < classInfo.getMethods().size(); i++) {
+      MethodInfo methodInfo = classInfo.getMethods().valueAt(i);
+      sb.append(methodInfo.getMethodName()).append('(');
+      for (MJType parameterType : methodInfo.getParameterTypes()) {
+        sb.append(parameterType).append(',');
+      }
+      sb.append(')').append(methodInfo.getReturnType()).append(';');
+    }
+    return sb.toString();
+  }
+
+  /*
+   * The subtree of node, kinds and names, in a form that is equal for two
+   * versions exactly when the subtrees are.
+   */
+  private static String encode(AstArena ast, int node) {
+    StringBuilder sb = new StringBuilder();
+    int end = ast.getSubtreeEnd(node);
+    for (int n = node; n < end; n++) {
+      sb.append(ast.getKind(n)).append(',').append(ast.getSubtreeEnd(n) - n);
+      if (AstArena.hasSymbol(ast.getKind(n))) {
+        sb.append(',').append(ast.getSymbol(n));
+      }
+      sb.append(';');
+    }
+    return sb.toString();
+  }
+}
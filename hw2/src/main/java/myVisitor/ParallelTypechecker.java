@@ -0,0 +1,226 @@
+package myVisitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import ast.ArenaJtbBridge;
+import ast.AstArena;
+import constant.OutputMessage;
+import context.TypecheckContext;
+import minijava.syntaxtree.ClassDeclaration;
+import minijava.syntaxtree.ClassExtendsDeclaration;
+import minijava.syntaxtree.Identifier;
+import minijava.syntaxtree.MainClass;
+import minijava.syntaxtree.Node;
+import minijava.syntaxtree.NodeListOptional;
+import minijava.syntaxtree.TypeDeclaration;
+import symbolTable.ClassInfo;
+import symbolTable.SymbolTable;
+
+/**
+ * Typechecks the main class and every method of a program as separate
+ * tasks on a fork-join pool, against a frozen SymbolTable.
+ *
+ * Each task reports a type error by throwing instead of exiting, and what
+ * it prints to System.err is kept apart. The results come back in source
+ * order, so replaying them up to the first error prints what a sequential
+ * TypecheckVisitor run would have printed before stopping.
+ */
+public class ParallelTypechecker {
+  /**
+   * What checking the main class, or one method, printed and whether it
+   * found a type error.
+   */
+  public static class Result {
+    private final String diagnostics;
+    private final boolean typeError;
+
+    Result(String diagnostics, boolean typeError) {
+      this.diagnostics = diagnostics;
+      this.typeError = typeError;
+    }
+
+    public String getDiagnostics() {
+      return diagnostics;
+    }
+
+    public boolean hasTypeError() {
+      return typeError;
+    }
+  }
+
+  /**
+   * Checks the program and prints the diagnostics of each method in source
+   * order. Exits like TypecheckVisitor at the first method with an error.
+   */
+  public static void typecheck(AstArena ast, SymbolTable symbolTable) {
+    for (Result result : check(ast, symbolTable, ForkJoinPool.commonPool())) {
+      System.err.print(result.getDiagnostics());
+      if (result.hasTypeError()) {
+        OutputMessage.outputErrorAndExit();
+      }
+    }
+  }
+
+  /**
+   * Returns one Result for the main class and then one per method, in
+   * source order. The symbol table must already be frozen. System.err is
+   * replaced while the tasks run, so only one check may run at a time.
+   */
+  public static synchronized List<Result> check(AstArena ast, SymbolTable symbolTable, ForkJoinPool pool) {
+    PrintStream err = System.err;
+    PerThreadOutputStream capture = new PerThreadOutputStream(err);
+    System.setErr(new PrintStream(capture, true));
+    try {
+      List<ClassTask> classTasks = new ArrayList<>();
+      for (int node = ast.getFirstChild(ast.getRoot()); node != AstArena.NONE; node = ast.getNextSibling(node)) {
+        classTasks.add(new ClassTask(ast, node, symbolTable, capture));
+      }
+
+      return pool.invoke(new RecursiveTask<List<Result>>() {
+        @Override
+        protected List<Result> compute() {
+          List<Result> results = new ArrayList<>();
+          for (ClassTask classTask : ForkJoinTask.invokeAll(classTasks)) {
+            results.addAll(classTask.join());
+          }
+          return results;
+        }
+      });
+    } finally {
+      System.setErr(err);
+    }
+  }
+
+  /*
+   * Rebuilds the JTB tree of one class, then checks each of its methods as
+   * a subtask.
+   */
+  private static class ClassTask extends RecursiveTask<List<Result>> {
+    private static final long serialVersionUID = 1L;
+
+    private final AstArena ast;
+    private final int node;
+    private final SymbolTable symbolTable;
+    private final PerThreadOutputStream capture;
+
+    ClassTask(AstArena ast, int node, SymbolTable symbolTable, PerThreadOutputStream capture) {
+      this.ast = ast;
+      this.node = node;
+      this.symbolTable = symbolTable;
+      this.capture = capture;
+    }
+
+    @Override
+    protected List<Result> compute() {
+      Node jtb = ArenaJtbBridge.toJtb(ast, node);
+      List<Result> results = new ArrayList<>();
+      if (jtb instanceof MainClass) {
+        results.add(new UnitTask(jtb, new TypecheckContext(symbolTable, null, null), capture).compute());
+        return results;
+      }
+
+      Node declaration = ((TypeDeclaration) jtb).f0.choice;
+      Identifier className;
+      NodeListOptional methods;
+      if (declaration instanceof ClassDeclaration) {
+        className = ((ClassDeclaration) declaration).f1;
+        methods = ((ClassDeclaration) declaration).f4;
+      } else {
+        className = ((ClassExtendsDeclaration) declaration).f1;
+        methods = ((ClassExtendsDeclaration) declaration).f6;
+      }
+
+      ClassInfo classInfo = symbolTable.getClassInfo(symbolTable.getSymbols().symbolOf(className.f0));
+      TypecheckContext classContext = new TypecheckContext(symbolTable, classInfo, null);
+      List<UnitTask> methodTasks = new ArrayList<>();
+      for (Node method : methods.nodes) {
+        methodTasks.add(new UnitTask(method, classContext, capture));
+      }
+
+      for (UnitTask methodTask : ForkJoinTask.invokeAll(methodTasks)) {
+        results.add(methodTask.join());
+      }
+      return results;
+    }
+  }
+
+  /*
+   * Checks the main class or one method declaration with its own
+   * TypecheckVisitor.
+   */
+  private static class UnitTask extends RecursiveTask<Result> {
+    private static final long serialVersionUID = 1L;
+
+    private final Node unit;
+    private final TypecheckContext typecheckContext;
+    private final PerThreadOutputStream capture;
+
+    UnitTask(Node unit, TypecheckContext typecheckContext, PerThreadOutputStream capture) {
+      this.unit = unit;
+      this.typecheckContext = typecheckContext;
+      this.capture = capture;
+    }
+
+    @Override
+    protected Result compute() {
+      ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+      capture.redirect(diagnostics);
+      OutputMessage.setThrowOnError(true);
+      boolean typeError = false;
+      try {
+        unit.accept(new TypecheckVisitor(), typecheckContext);
+      } catch (OutputMessage.TypeError e) {
+        typeError = true;
+      } finally {
+        OutputMessage.setThrowOnError(false);
+        capture.redirect(null);
+      }
+      return new Result(diagnostics.toString(), typeError);
+    }
+  }
+
+  /*
+   * Writes to the current thread's buffer, if it has one, and otherwise to
+   * the original stream.
+   */
+  private static class PerThreadOutputStream extends OutputStream {
+    private final OutputStream fallback;
+    private final ThreadLocal<OutputStream> target = new ThreadLocal<>();
+
+    PerThreadOutputStream(OutputStream fallback) {
+      this.fallback = fallback;
+    }
+
+    void redirect(OutputStream out) {
+      target.set(out);
+    }
+
+    private OutputStream current() {
+      OutputStream out = target.get();
+      return out != null ? out : fallback;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      current().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      current().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      current().flush();
+    }
+  }
+}
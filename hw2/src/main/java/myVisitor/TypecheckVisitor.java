@@ -1,6 +1,6 @@
 package myVisitor;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import constant.OutputMessage;
@@ -17,8 +17,6 @@ import minijava.syntaxtree.ClassDeclaration;
 import minijava.syntaxtree.ClassExtendsDeclaration;
 import minijava.syntaxtree.CompareExpression;
 import minijava.syntaxtree.Expression;
-import minijava.syntaxtree.ExpressionList;
-import minijava.syntaxtree.ExpressionRest;
 import minijava.syntaxtree.FalseLiteral;
 import minijava.syntaxtree.Goal;
 import minijava.syntaxtree.Identifier;
@@ -30,7 +28,6 @@ import minijava.syntaxtree.MethodDeclaration;
 import minijava.syntaxtree.MinusExpression;
 import minijava.syntaxtree.Node;
 import minijava.syntaxtree.NodeListOptional;
-import minijava.syntaxtree.NodeOptional;
 import minijava.syntaxtree.NotExpression;
 import minijava.syntaxtree.PlusExpression;
 import minijava.syntaxtree.PrimaryExpression;
@@ -50,6 +47,38 @@ import type.MJType;
 import type.PrimitiveType;
 
 public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
+  // Symbols of the classes the checked code relied on, or null
+  private final BitSet dependencies;
+
+  public TypecheckVisitor() {
+    this(null);
+  }
+
+  /**
+   * Also records in dependencies the symbol of every class whose existence,
+   * members or superclasses the checks look at, other than the class being
+   * checked.
+   */
+  public TypecheckVisitor(BitSet dependencies) {
+    this.dependencies = dependencies;
+  }
+
+  private static int symbol(Identifier identifier, TypecheckContext typecheckContext) {
+    return typecheckContext.getSymbolTable().getSymbols().symbolOf(identifier.f0);
+  }
+
+  private void dependOn(MJType type) {
+    if (dependencies != null && type instanceof ClassType) {
+      dependencies.set(((ClassType) type).getSymbol());
+    }
+  }
+
+  private boolean isSubtype(SymbolTable symbolTable, MJType subType, MJType superType) {
+    dependOn(subType);
+    dependOn(superType);
+    return symbolTable.isSubtype(subType, superType);
+  }
+
   @Override
   public MJType visit(Goal n, TypecheckContext typecheckContext) {
     MainClass mainclass = n.f0;
@@ -64,10 +93,9 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
   @Override
   public MJType visit(MainClass n, TypecheckContext typecheckContext) {
     SymbolTable symbolTable = typecheckContext.getSymbolTable();
-    String className = n.f1.f0.toString();
     NodeListOptional statements = n.f15;
 
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, typecheckContext));
     MethodInfo mainMethodInfo = classInfo.getMainMethodInfo();
 
     TypecheckContext newTypeCheckContext = new TypecheckContext(symbolTable, classInfo, mainMethodInfo);
@@ -84,10 +112,9 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
   @Override
   public MJType visit(ClassDeclaration n, TypecheckContext typecheckContext) {
     SymbolTable symbolTable = typecheckContext.getSymbolTable();
-    String className = n.f1.f0.toString();
     NodeListOptional methodDeclarations = n.f4;
 
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, typecheckContext));
 
     TypecheckContext newTypeCheckContext = new TypecheckContext(symbolTable, classInfo, null);
     methodDeclarations.accept(this, newTypeCheckContext);
@@ -98,10 +125,9 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
   @Override
   public MJType visit(ClassExtendsDeclaration n, TypecheckContext typecheckContext) {
     SymbolTable symbolTable = typecheckContext.getSymbolTable();
-    String className = n.f1.f0.toString();
     NodeListOptional methodDeclarations = n.f6;
 
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, typecheckContext));
 
     TypecheckContext newTypeCheckContext = new TypecheckContext(symbolTable, classInfo, null);
     methodDeclarations.accept(this, newTypeCheckContext);
@@ -117,13 +143,13 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     NodeListOptional statements = n.f8;
     Expression expression = n.f10;
 
-    MethodInfo methodInfo = classInfo.getMethodInfo(methodName);
+    MethodInfo methodInfo = classInfo.getMethodInfo(symbol(n.f2, typecheckContext));
     MJType returnType = methodInfo.getReturnType();
 
     TypecheckContext newTypeCheckContext = new TypecheckContext(symbolTable, classInfo, methodInfo);
     statements.accept(this, newTypeCheckContext);
     MJType type = expression.accept(this, newTypeCheckContext);
-    if (!symbolTable.isSubtype(type, returnType)) {
+    if (!isSubtype(symbolTable, type, returnType)) {
       System.err.println("Return type mismatch in method " + methodName + " in class " + classInfo.getClassName());
       OutputMessage.outputErrorAndExit();
     }
@@ -145,7 +171,7 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     MJType identifierType = identifier.accept(this, typecheckContext);
     MJType expressionType = expression.accept(this, typecheckContext);
 
-    if (!symbolTable.isSubtype(expressionType, identifierType)) {
+    if (!isSubtype(symbolTable, expressionType, identifierType)) {
       System.err.println("Type mismatch in assignment statement. Identifier type: " + identifierType
           + ", expression type: " + expressionType);
       OutputMessage.outputErrorAndExit();
@@ -168,8 +194,8 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     MJType expression1Type = expression1.accept(this, typecheckContext);
     MJType expression2Type = expression2.accept(this, typecheckContext);
 
-    if (!(identifierType.equals(PrimitiveType.INT_ARRAY)) || !(expression1Type.equals(PrimitiveType.INT))
-        || !(expression2Type.equals(PrimitiveType.INT))) {
+    if (identifierType != PrimitiveType.INT_ARRAY || expression1Type != PrimitiveType.INT
+        || expression2Type != PrimitiveType.INT) {
       System.err.println("Type mismatch in array assignment statement. Identifier type: " + identifierType
           + ", expression1 type: " + expression1Type + ", expression2 type: " + expression2Type);
       OutputMessage.outputErrorAndExit();
@@ -189,7 +215,7 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     statement1.accept(this, typecheckContext);
     statement2.accept(this, typecheckContext);
 
-    if (!expressionType.equals(PrimitiveType.BOOLEAN)) {
+    if (expressionType != PrimitiveType.BOOLEAN) {
       System.err.println("Type mismatch in if statement. Expression type: " + expressionType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -206,7 +232,7 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     MJType expressionType = expression.accept(this, typecheckContext);
     statement.accept(this, typecheckContext);
 
-    if (!expressionType.equals(PrimitiveType.BOOLEAN)) {
+    if (expressionType != PrimitiveType.BOOLEAN) {
       System.err.println("Type mismatch in while statement. Expression type: " + expressionType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -221,7 +247,7 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
     MJType expressionType = expression.accept(this, typecheckContext);
 
-    if (!expressionType.equals(PrimitiveType.INT)) {
+    if (expressionType != PrimitiveType.INT) {
       System.err.println("Type mismatch in print statement. Expression type: " + expressionType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -230,20 +256,74 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     return null;
   }
 
+  /*
+   * Expressions are checked by an ExpressionWalker, which visits the leaves
+   * through this visitor and combines operand types with the check* methods
+   * below, without recursing once per nesting level.
+   */
+  private class ExpressionChecker extends ExpressionWalker<MJType> {
+    private final TypecheckContext typecheckContext;
+
+    ExpressionChecker(TypecheckContext typecheckContext) {
+      this.typecheckContext = typecheckContext;
+    }
+
+    @Override
+    protected MJType leaf(Node node) {
+      return node.accept(TypecheckVisitor.this, typecheckContext);
+    }
+
+    @Override
+    protected MJType combine(Node node, List<MJType> operands) {
+      if (node instanceof AndExpression) {
+        return checkAnd(operands.get(0), operands.get(1));
+      }
+      if (node instanceof CompareExpression) {
+        return checkCompare(operands.get(0), operands.get(1));
+      }
+      if (node instanceof PlusExpression) {
+        return checkArithmetic("plus", operands.get(0), operands.get(1));
+      }
+      if (node instanceof MinusExpression) {
+        return checkArithmetic("minus", operands.get(0), operands.get(1));
+      }
+      if (node instanceof TimesExpression) {
+        return checkArithmetic("times", operands.get(0), operands.get(1));
+      }
+      if (node instanceof ArrayLookup) {
+        return checkArrayLookup(operands.get(0), operands.get(1));
+      }
+      if (node instanceof ArrayLength) {
+        return checkArrayLength(operands.get(0));
+      }
+      if (node instanceof ArrayAllocationExpression) {
+        return checkArrayAllocation(operands.get(0));
+      }
+      if (node instanceof NotExpression) {
+        return checkNot(operands.get(0));
+      }
+      MessageSend messageSend = (MessageSend) node;
+      return checkMessageSend(symbol(messageSend.f2, typecheckContext), operands.get(0),
+          operands.subList(1, operands.size()), typecheckContext);
+    }
+  }
+
+  private MJType checkExpression(Node n, TypecheckContext typecheckContext) {
+    return new ExpressionChecker(typecheckContext).walk(n);
+  }
+
   @Override
   public MJType visit(Expression n, TypecheckContext typecheckContext) {
-    return n.f0.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
   }
 
   @Override
   public MJType visit(AndExpression n, TypecheckContext typecheckContext) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
-
-    MJType leftType = leftExpression.accept(this, typecheckContext);
-    MJType rightType = rightExpression.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!leftType.equals(PrimitiveType.BOOLEAN) || !rightType.equals(PrimitiveType.BOOLEAN)) {
+  private MJType checkAnd(MJType leftType, MJType rightType) {
+    if (leftType != PrimitiveType.BOOLEAN || rightType != PrimitiveType.BOOLEAN) {
       System.err.println("Type mismatch in and expression. Left type: " + leftType + ", right type: " + rightType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -254,13 +334,11 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(CompareExpression n, TypecheckContext typecheckContext) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
-
-    MJType leftType = leftExpression.accept(this, typecheckContext);
-    MJType rightType = rightExpression.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!leftType.equals(PrimitiveType.INT) || !rightType.equals(PrimitiveType.INT)) {
+  private MJType checkCompare(MJType leftType, MJType rightType) {
+    if (leftType != PrimitiveType.INT || rightType != PrimitiveType.INT) {
       System.err.println("Type mismatch in and expression. Left type: " + leftType + ", right type: " + rightType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -271,48 +349,23 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(PlusExpression n, TypecheckContext typecheckContext) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
-
-    MJType leftType = leftExpression.accept(this, typecheckContext);
-    MJType rightType = rightExpression.accept(this, typecheckContext);
-
-    if (!leftType.equals(PrimitiveType.INT) || !rightType.equals(PrimitiveType.INT)) {
-      System.err.println("Type mismatch in plus expression. Left type: " + leftType + ", right type: " + rightType);
-      OutputMessage.outputErrorAndExit();
-      throw new AssertionError("Unreachable");
-    }
-
-    return PrimitiveType.INT;
+    return checkExpression(n, typecheckContext);
   }
 
   @Override
   public MJType visit(MinusExpression n, TypecheckContext typecheckContext) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
-
-    MJType leftType = leftExpression.accept(this, typecheckContext);
-    MJType rightType = rightExpression.accept(this, typecheckContext);
-
-    if (!leftType.equals(PrimitiveType.INT) || !rightType.equals(PrimitiveType.INT)) {
-      System.err.println("Type mismatch in minus expression. Left type: " + leftType + ", right type: " + rightType);
-      OutputMessage.outputErrorAndExit();
-      throw new AssertionError("Unreachable");
-    }
-
-    return PrimitiveType.INT;
+    return checkExpression(n, typecheckContext);
   }
 
   @Override
   public MJType visit(TimesExpression n, TypecheckContext typecheckContext) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
-
-    MJType leftType = leftExpression.accept(this, typecheckContext);
-    MJType rightType = rightExpression.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!leftType.equals(PrimitiveType.INT) || !rightType.equals(PrimitiveType.INT)) {
-      System.err.println("Type mismatch in times expression. Left type: " + leftType + ", right type: " + rightType);
+  private MJType checkArithmetic(String operator, MJType leftType, MJType rightType) {
+    if (leftType != PrimitiveType.INT || rightType != PrimitiveType.INT) {
+      System.err.println("Type mismatch in " + operator + " expression. Left type: " + leftType + ", right type: "
+          + rightType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
     }
@@ -322,13 +375,11 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(ArrayLookup n, TypecheckContext typecheckContext) {
-    PrimaryExpression arrayExpression = n.f0;
-    PrimaryExpression indexExpression = n.f2;
-
-    MJType arrayType = arrayExpression.accept(this, typecheckContext);
-    MJType indexType = indexExpression.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!arrayType.equals(PrimitiveType.INT_ARRAY) || !indexType.equals(PrimitiveType.INT)) {
+  private MJType checkArrayLookup(MJType arrayType, MJType indexType) {
+    if (arrayType != PrimitiveType.INT_ARRAY || indexType != PrimitiveType.INT) {
       System.err.println("Type mismatch in array lookup. Array type: " + arrayType + ", index type: " + indexType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -339,11 +390,11 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(ArrayLength n, TypecheckContext typecheckContext) {
-    PrimaryExpression arrayExpression = n.f0;
-
-    MJType arrayType = arrayExpression.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!arrayType.equals(PrimitiveType.INT_ARRAY)) {
+  private MJType checkArrayLength(MJType arrayType) {
+    if (arrayType != PrimitiveType.INT_ARRAY) {
       System.err.println("Type mismatch in array length. Array type: " + arrayType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -354,31 +405,23 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(MessageSend n, TypecheckContext typecheckContext) {
-    PrimaryExpression object = n.f0;
-    String methodName = n.f2.f0.toString();
-    NodeOptional argumentList = n.f4;
+    return checkExpression(n, typecheckContext);
+  }
+
+  private MJType checkMessageSend(int methodSymbol, MJType objectType, List<MJType> argumentTypes,
+      TypecheckContext typecheckContext) {
     SymbolTable symbolTable = typecheckContext.getSymbolTable();
+    String methodName = symbolTable.getSymbols().getName(methodSymbol);
 
-    MJType objectType = object.accept(this, typecheckContext);
     if (!(objectType instanceof ClassType)) {
       System.err.println("Type mismatch in message send. Object type: " + objectType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
     }
 
-    String objectClassName = ((ClassType) objectType).getName();
-    MethodInfo objectMethodInfo = null;
-
-    while (objectClassName != null) {
-      ClassInfo objectClassInfo = symbolTable.getClassInfo(objectClassName);
-
-      if (objectClassInfo.containsMethod(methodName)) {
-        objectMethodInfo = objectClassInfo.getMethodInfo(methodName);
-        break;
-      }
-
-      objectClassName = objectClassInfo.getSuperClassName();
-    }
+    dependOn(objectType);
+    ClassInfo objectClassInfo = symbolTable.getClassInfo(((ClassType) objectType).getSymbol());
+    MethodInfo objectMethodInfo = objectClassInfo.getResolvedMethodInfo(methodSymbol);
 
     if (objectMethodInfo == null) {
       System.err.println("Method " + methodName + " not found in class " + objectType);
@@ -389,20 +432,6 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
     MJType returnType = objectMethodInfo.getReturnType();
     List<MJType> parameterTypes = objectMethodInfo.getParameterTypes();
 
-    List<MJType> argumentTypes = new ArrayList<>();
-    if (argumentList.present()) {
-      ExpressionList exprList = (ExpressionList) argumentList.node;
-
-      MJType firstArg = exprList.f0.accept(this, typecheckContext);
-      argumentTypes.add(firstArg);
-
-      for (Node node : exprList.f1.nodes) {
-        ExpressionRest rest = (ExpressionRest) node;
-        MJType arg = rest.f1.accept(this, typecheckContext);
-        argumentTypes.add(arg);
-      }
-    }
-
     if (parameterTypes.size() != argumentTypes.size()) {
       System.err.println("Argument count mismatch in message send...");
       OutputMessage.outputErrorAndExit();
@@ -413,7 +442,7 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
       MJType expected = parameterTypes.get(i);
       MJType actual = argumentTypes.get(i);
 
-      if (!symbolTable.isSubtype(actual, expected)) {
+      if (!isSubtype(symbolTable, actual, expected)) {
         System.err.println("Argument type mismatch at index " + i +
             " in method '" + methodName + "': expected " + expected + ", got " + actual);
         OutputMessage.outputErrorAndExit();
@@ -426,7 +455,7 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(PrimaryExpression n, TypecheckContext typecheckContext) {
-    return n.f0.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
   }
 
   @Override
@@ -446,44 +475,32 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(Identifier n, TypecheckContext typecheckContext) {
-    String identifierName = n.f0.toString();
+    int identifierSymbol = symbol(n, typecheckContext);
     ClassInfo classInfo = typecheckContext.getCurrentClassInfo();
     MethodInfo methodInfo = typecheckContext.getCurrentMethodInfo();
     SymbolTable symbolTable = typecheckContext.getSymbolTable();
 
     MJType type = null;
 
-    type = methodInfo.getLocalVariableType(identifierName);
+    type = methodInfo.getLocalVariableType(identifierSymbol);
 
     if (type != null) {
       return type;
     }
 
-    type = methodInfo.getParameterType(identifierName);
+    type = methodInfo.getParameterType(identifierSymbol);
 
     if (type != null) {
       return type;
     }
 
-    type = classInfo.getFieldType(identifierName);
+    type = classInfo.getResolvedFieldType(identifierSymbol);
 
     if (type != null) {
       return type;
     }
 
-    String superClassName = classInfo.getSuperClassName();
-    while (superClassName != null) {
-      ClassInfo superClassInfo = symbolTable.getClassInfo(superClassName);
-      type = superClassInfo.getFieldType(identifierName);
-
-      if (type != null) {
-        return type;
-      }
-
-      superClassName = superClassInfo.getSuperClassName();
-    }
-
-    System.err.println("Identifier " + identifierName + " not found in method " + methodInfo.getMethodName()
+    System.err.println("Identifier " + n.f0 + " not found in method " + methodInfo.getMethodName()
         + " and class " + classInfo.getClassName());
     OutputMessage.outputErrorAndExit();
     throw new AssertionError("Unreachable");
@@ -492,17 +509,16 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
   @Override
   public MJType visit(ThisExpression n, TypecheckContext typecheckContext) {
     ClassInfo classInfo = typecheckContext.getCurrentClassInfo();
-    String className = classInfo.getClassName();
-    ClassType classType = new ClassType(className);
-
-    return classType;
+    return typecheckContext.getSymbolTable().getTypeFactory().getClassType(classInfo.getClassSymbol());
   }
 
   @Override
   public MJType visit(ArrayAllocationExpression n, TypecheckContext typecheckContext) {
-    MJType expressionType = n.f3.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!expressionType.equals(PrimitiveType.INT)) {
+  private MJType checkArrayAllocation(MJType expressionType) {
+    if (expressionType != PrimitiveType.INT) {
       System.err.println("Type mismatch in array allocation expression. Expression type: " + expressionType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -513,20 +529,23 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(AllocationExpression n, TypecheckContext typecheckContext) {
-    String className = n.f1.f0.toString();
     SymbolTable symbolTable = typecheckContext.getSymbolTable();
 
-    symbolTable.getClassInfo(className);
-    ClassType classType = new ClassType(className);
-
-    return classType;
+    int classSymbol = symbol(n.f1, typecheckContext);
+    if (dependencies != null) {
+      dependencies.set(classSymbol);
+    }
+    ClassInfo classInfo = symbolTable.getClassInfo(classSymbol);
+    return symbolTable.getTypeFactory().getClassType(classInfo.getClassSymbol());
   }
 
   @Override
   public MJType visit(NotExpression n, TypecheckContext typecheckContext) {
-    MJType expressionType = n.f1.accept(this, typecheckContext);
+    return checkExpression(n, typecheckContext);
+  }
 
-    if (!expressionType.equals(PrimitiveType.BOOLEAN)) {
+  private MJType checkNot(MJType expressionType) {
+    if (expressionType != PrimitiveType.BOOLEAN) {
       System.err.println("Type mismatch in not expression. Expression type: " + expressionType);
       OutputMessage.outputErrorAndExit();
       throw new AssertionError("Unreachable");
@@ -537,8 +556,6 @@ public class TypecheckVisitor extends GJDepthFirst<MJType, TypecheckContext> {
 
   @Override
   public MJType visit(BracketExpression n, TypecheckContext typecheckContext) {
-    MJType expressionType = n.f1.accept(this, typecheckContext);
-
-    return expressionType;
+    return checkExpression(n, typecheckContext);
   }
 }
@@ -0,0 +1,232 @@
+package parser;
+
+import java.util.Arrays;
+
+import ast.SymbolInterner;
+import minijava.MiniJavaParserConstants;
+import minijava.ParseException;
+
+/**
+ * Hand-written lexer for MiniJavaAstParser, accepting the same tokens as the
+ * JavaCC grammar except that Unicode escapes in the source are not decoded.
+ *
+ * The whole input is split up front into packed arrays of token kinds (the
+ * MiniJavaParserConstants values) and start offsets, with an image String
+ * only for identifiers and integer literals. Identifiers are interned into
+ * symbols, so every occurrence of a name shares one String. The last token
+ * is always EOF.
+ */
+class MiniJavaLexer implements MiniJavaParserConstants {
+  // Kinds of the anonymous "," and "*" tokens in the grammar
+  static final int COMMA = 47;
+  static final int TIMES = 48;
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final char[] LETTER_RANGES = {
+      '\u00c0', '\u00d6', '\u00d8', '\u00f6', '\u00f8', '\u00ff', '\u0100', '\u1fff', '\u3040', '\u318f',
+      '\u3300', '\u337f', '\u3400', '\u3d2d', '\u4e00', '\u9fff', '\uf900', '\ufaff',
+  };
+  private static final char[] DIGIT_RANGES = {
+      '\u0660', '\u0669', '\u06f0', '\u06f9', '\u0966', '\u096f', '\u09e6', '\u09ef', '\u0a66', '\u0a6f',
+      '\u0ae6', '\u0aef', '\u0b66', '\u0b6f', '\u0be7', '\u0bef', '\u0c66', '\u0c6f', '\u0ce6', '\u0cef',
+      '\u0d66', '\u0d6f', '\u0e50', '\u0e59', '\u0ed0', '\u0ed9', '\u1040', '\u1049',
+  };
+  private static final String PRINT_IMAGE = "System.out.println";
+  private static final int[] KEYWORDS = { BOOLEAN, CLASS, INTERFACE, ELSE, EXTENDS, FALSE, IF, WHILE, INTEGER,
+      LENGTH, MAIN, NEW, PUBLIC, RETURN, STATIC, STRING, THIS, TRUE, VOID };
+  // Keyword i has id i
+  private static final SymbolInterner KEYWORD_SYMBOLS = new SymbolInterner();
+
+  static {
+    for (int kind : KEYWORDS) {
+      KEYWORD_SYMBOLS.intern(tokenImage[kind].substring(1, tokenImage[kind].length() - 1));
+    }
+  }
+
+  private final char[] text;
+  private final int length;
+
+  // Identifier images are the interned names
+  final SymbolInterner symbols = new SymbolInterner();
+  int[] kinds = new int[INITIAL_CAPACITY];
+  int[] starts = new int[INITIAL_CAPACITY];
+  String[] images = new String[INITIAL_CAPACITY];
+  int count = 0;
+
+  MiniJavaLexer(char[] text, int length) throws ParseException {
+    this.text = text;
+    this.length = length;
+    tokenize();
+  }
+
+  private void tokenize() throws ParseException {
+    int pos = 0;
+
+    while (true) {
+      pos = skipWhitespaceAndComments(pos);
+      if (pos == length) {
+        add(EOF, pos, null);
+        return;
+      }
+
+      int start = pos;
+      char c = text[pos++];
+      int kind;
+      String image = null;
+
+      switch (c) {
+        case '(': kind = LPAREN; break;
+        case ')': kind = RPAREN; break;
+        case '[': kind = LSQPAREN; break;
+        case ']': kind = RSQPAREN; break;
+        case '{': kind = LBRACE; break;
+        case '}': kind = RBRACE; break;
+        case ';': kind = SEMICOLON; break;
+        case '.': kind = DOT; break;
+        case '=': kind = ASSIGN; break;
+        case '<': kind = LT; break;
+        case '+': kind = PLUS; break;
+        case '-': kind = MINUS; break;
+        case '*': kind = TIMES; break;
+        case '!': kind = NOT; break;
+        case ',': kind = COMMA; break;
+        case '&':
+          if (pos == length || text[pos] != '&') {
+            throw error(start);
+          }
+          pos++;
+          kind = AND;
+          break;
+        default:
+          if (c >= '0' && c <= '9') {
+            if (c != '0') {
+              while (pos < length && text[pos] >= '0' && text[pos] <= '9') {
+                pos++;
+              }
+            }
+            kind = INTEGER_LITERAL;
+            image = new String(text, start, pos - start);
+          } else if (c == 'S' && regionMatches(start, PRINT_IMAGE)) {
+            pos = start + PRINT_IMAGE.length();
+            kind = PRINT;
+          } else if (isLetter(c)) {
+            while (pos < length && (isLetter(text[pos]) || isDigit(text[pos]))) {
+              pos++;
+            }
+            int keyword = KEYWORD_SYMBOLS.lookup(text, start, pos);
+            if (keyword != SymbolInterner.NONE) {
+              kind = KEYWORDS[keyword];
+            } else {
+              kind = IDENTIFIER;
+              image = symbols.getName(symbols.intern(text, start, pos));
+            }
+          } else {
+            throw error(start);
+          }
+      }
+
+      add(kind, start, image);
+    }
+  }
+
+  private int skipWhitespaceAndComments(int pos) throws ParseException {
+    while (pos < length) {
+      char c = text[pos];
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+        pos++;
+      } else if (c == '/' && pos + 1 < length && text[pos + 1] == '/') {
+        while (pos < length && text[pos] != '\n' && text[pos] != '\r') {
+          pos++;
+        }
+      } else if (c == '/' && pos + 1 < length && text[pos + 1] == '*') {
+        int start = pos;
+        pos += 2;
+        while (pos + 1 < length && !(text[pos] == '*' && text[pos + 1] == '/')) {
+          pos++;
+        }
+        if (pos + 1 >= length) {
+          throw error(start);
+        }
+        pos += 2;
+      } else {
+        break;
+      }
+    }
+    return pos;
+  }
+
+  private boolean regionMatches(int start, String s) {
+    if (start + s.length() > length) {
+      return false;
+    }
+    for (int i = 0; i < s.length(); i++) {
+      if (text[start + i] != s.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Character classes of the LETTER and DIGIT tokens in the grammar
+  private static boolean isLetter(char c) {
+    if (c < 0x80) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$';
+    }
+    return inRanges(c, LETTER_RANGES);
+  }
+
+  private static boolean isDigit(char c) {
+    if (c < 0x80) {
+      return c >= '0' && c <= '9';
+    }
+    return inRanges(c, DIGIT_RANGES);
+  }
+
+  private static boolean inRanges(char c, char[] ranges) {
+    for (int i = 0; i < ranges.length; i += 2) {
+      if (c >= ranges[i] && c <= ranges[i + 1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void add(int kind, int start, String image) {
+    if (count == kinds.length) {
+      kinds = Arrays.copyOf(kinds, count * 2);
+      starts = Arrays.copyOf(starts, count * 2);
+      images = Arrays.copyOf(images, count * 2);
+    }
+    kinds[count] = kind;
+    starts[count] = start;
+    images[count] = image;
+    count++;
+  }
+
+  /**
+   * Describes the token at index for error messages.
+   */
+  String describe(int index) {
+    String image = images[index];
+    return image == null ? tokenImage[kinds[index]] : tokenImage[kinds[index]] + " \"" + image + "\"";
+  }
+
+  ParseException error(int offset) {
+    return new ParseException("Lexical error at " + position(offset) + ". Encountered: \"" + text[offset] + "\"");
+  }
+
+  /**
+   * Returns "line L, column C" for an input offset, counting from 1.
+   */
+  String position(int offset) {
+    int line = 1;
+    int lineStart = 0;
+    for (int i = 0; i < offset; i++) {
+      if (text[i] == '\n' || (text[i] == '\r' && (i + 1 == length || text[i + 1] != '\n'))) {
+        line++;
+        lineStart = i + 1;
+      }
+    }
+    return "line " + line + ", column " + (offset - lineStart + 1);
+  }
+}
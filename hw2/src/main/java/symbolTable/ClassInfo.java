@@ -1,47 +1,79 @@
 package symbolTable;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import ast.SymbolInterner;
 import type.MJType;
+import utils.IntMap;
 import constant.OutputMessage;
 
+/**
+ * Fields and methods are keyed by their SymbolInterner ids.
+ *
+ * fields and methods hold what the class itself declares. The resolved
+ * tables add everything inherited, with each name mapped to its nearest
+ * declaration, once SymbolTable.resolveInheritance has run.
+ */
 public class ClassInfo {
-  private String className;
+  private final SymbolInterner symbols;
+  private final String className;
+  private final int classSymbol;
   private String superClassName = null;
-  private Map<String, MJType> fields = new HashMap<String, MJType>();
-  private Map<String, MethodInfo> methods = new HashMap<String, MethodInfo>();
-
-  public ClassInfo(String className) {
+  private int superClassSymbol = SymbolInterner.NONE;
+  private IntMap<MJType> fields = new IntMap<>();
+  private IntMap<MethodInfo> methods = new IntMap<>();
+  private IntMap<MJType> resolvedFields = new IntMap<>();
+  private IntMap<MethodInfo> resolvedMethods = new IntMap<>();
+
+  public ClassInfo(String className, SymbolInterner symbols) {
+    this.symbols = symbols;
     this.className = className;
+    this.classSymbol = symbols.intern(className);
   }
 
   public void addField(String fieldName, MJType fieldType) {
-    if (fields.containsKey(fieldName)) {
-      System.err.println("Field " + fieldName + " already exists in class " + className);
+    addField(symbols.intern(fieldName), fieldType);
+  }
+
+  public void addField(int fieldSymbol, MJType fieldType) {
+    if (fields.containsKey(fieldSymbol)) {
+      System.err.println("Field " + symbols.getName(fieldSymbol) + " already exists in class " + className);
       OutputMessage.outputErrorAndExit();
     }
 
-    fields.put(fieldName, fieldType);
+    fields.put(fieldSymbol, fieldType);
   }
 
   public void addMethod(String methodName, MethodInfo methodInfo) {
-    if (methods.containsKey(methodName)) {
-      System.err.println("Method " + methodName + " already exists in class " + className);
+    addMethod(symbols.intern(methodName), methodInfo);
+  }
+
+  public void addMethod(int methodSymbol, MethodInfo methodInfo) {
+    if (methods.containsKey(methodSymbol)) {
+      System.err.println("Method " + symbols.getName(methodSymbol) + " already exists in class " + className);
       OutputMessage.outputErrorAndExit();
     }
 
-    methods.put(methodName, methodInfo);
+    methods.put(methodSymbol, methodInfo);
   }
 
   public String getClassName() {
     return className;
   }
 
+  public int getClassSymbol() {
+    return classSymbol;
+  }
+
   public String getSuperClassName() {
     return superClassName;
   }
 
+  /**
+   * SymbolInterner.NONE if the class extends nothing.
+   */
+  public int getSuperClassSymbol() {
+    return superClassSymbol;
+  }
+
   public void setSuperClassName(String superClassName) {
     if (this.superClassName != null) {
       System.err
@@ -51,32 +83,45 @@ public class ClassInfo {
     }
 
     this.superClassName = superClassName;
+    this.superClassSymbol = symbols.intern(superClassName);
   }
 
-  public Map<String, MJType> getFields() {
+  public IntMap<MJType> getFields() {
     return fields;
   }
 
   public MJType getFieldType(String fieldName) {
-    if (fields.containsKey(fieldName)) {
-      return fields.get(fieldName);
+    MJType type = fields.get(symbols.lookup(fieldName));
+    if (type == null) {
+      System.err.println("Field " + fieldName + " not found in class " + className);
     }
+    return type;
+  }
 
-    System.err.println("Field " + fieldName + " not found in class " + className);
-    return null;
+  public MJType getFieldType(int fieldSymbol) {
+    MJType type = fields.get(fieldSymbol);
+    if (type == null) {
+      System.err.println("Field " + symbols.getName(fieldSymbol) + " not found in class " + className);
+    }
+    return type;
   }
 
   public boolean containsField(String fieldName) {
-    return fields.containsKey(fieldName);
+    return fields.containsKey(symbols.lookup(fieldName));
+  }
+
+  public boolean containsField(int fieldSymbol) {
+    return fields.containsKey(fieldSymbol);
   }
 
-  public Map<String, MethodInfo> getMethods() {
+  public IntMap<MethodInfo> getMethods() {
     return methods;
   }
 
   public MethodInfo getMethodInfo(String methodName) {
-    if (methods.containsKey(methodName)) {
-      return methods.get(methodName);
+    MethodInfo methodInfo = methods.get(symbols.lookup(methodName));
+    if (methodInfo != null) {
+      return methodInfo;
     }
 
     System.err.println("Method " + methodName + " not found in class " + className);
@@ -84,9 +129,21 @@ public class ClassInfo {
     throw new AssertionError("Unreachable");
   }
 
+  public MethodInfo getMethodInfo(int methodSymbol) {
+    MethodInfo methodInfo = methods.get(methodSymbol);
+    if (methodInfo != null) {
+      return methodInfo;
+    }
+
+    System.err.println("Method " + symbols.getName(methodSymbol) + " not found in class " + className);
+    OutputMessage.outputErrorAndExit();
+    throw new AssertionError("Unreachable");
+  }
+
   public MethodInfo getMainMethodInfo() {
-    if (methods.containsKey("main")) {
-      return methods.get("main");
+    MethodInfo methodInfo = methods.get(symbols.lookup("main"));
+    if (methodInfo != null) {
+      return methodInfo;
     }
 
     System.err.println("Main method not found in class " + className);
@@ -94,8 +151,54 @@ public class ClassInfo {
     throw new AssertionError("Unreachable");
   }
 
+  /**
+   * The type of a field declared here or in a superclass, or null.
+   */
+  public MJType getResolvedFieldType(int fieldSymbol) {
+    return resolvedFields.get(fieldSymbol);
+  }
+
+  /**
+   * The nearest declaration of a method here or in a superclass, or null.
+   */
+  public MethodInfo getResolvedMethodInfo(int methodSymbol) {
+    return resolvedMethods.get(methodSymbol);
+  }
+
+  /*
+   * Rebuilds the resolved tables from those of the superclass, which must
+   * already be resolved, or from nothing if superClassInfo is null.
+   */
+  void resolveMembers(ClassInfo superClassInfo) {
+    resolvedFields = new IntMap<>();
+    resolvedMethods = new IntMap<>();
+    if (superClassInfo != null) {
+      resolvedFields.putAll(superClassInfo.resolvedFields);
+      resolvedMethods.putAll(superClassInfo.resolvedMethods);
+    }
+    resolvedFields.putAll(fields);
+    resolvedMethods.putAll(methods);
+  }
+
   public boolean containsMethod(String methodName) {
-    return methods.containsKey(methodName);
+    return methods.containsKey(symbols.lookup(methodName));
+  }
+
+  public boolean containsMethod(int methodSymbol) {
+    return methods.containsKey(methodSymbol);
+  }
+
+  /**
+   * Bytes held by the member tables and the declared methods, not counting
+   * the ClassInfo object itself.
+   */
+  public long getFootprint() {
+    long bytes = fields.getFootprint() + methods.getFootprint() + resolvedFields.getFootprint()
+        + resolvedMethods.getFootprint();
+    for (int i = 0; i < methods.size(); i++) {
+      bytes += 32 + methods.valueAt(i).getFootprint();
+    }
+    return bytes;
   }
 
   @Override
@@ -106,12 +209,16 @@ public class ClassInfo {
       sb.append("', extends='").append(superClassName);
     }
     sb.append("', fields={");
-    fields.forEach((fieldName, fieldType) -> sb.append(fieldName).append(": ").append(fieldType).append(", "));
+    for (int i = 0; i < fields.size(); i++) {
+      sb.append(symbols.getName(fields.keyAt(i))).append(": ").append(fields.valueAt(i)).append(", ");
+    }
     if (!fields.isEmpty()) {
       sb.setLength(sb.length() - 2);
     }
     sb.append("}, methods={");
-    methods.forEach((methodName, methodInfo) -> sb.append(methodName).append(": ").append(methodInfo).append(", "));
+    for (int i = 0; i < methods.size(); i++) {
+      sb.append(symbols.getName(methods.keyAt(i))).append(": ").append(methods.valueAt(i)).append(", ");
+    }
     if (!methods.isEmpty()) {
       sb.setLength(sb.length() - 2);
     }
@@ -1,21 +1,25 @@
 package symbolTable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
+import ast.SymbolInterner;
 import constant.OutputMessage;
 import type.MJType;
+import utils.IntMap;
 
+/**
+ * Parameters and local variables are keyed by their SymbolInterner ids;
+ * parameters keep their declaration order.
+ */
 public class MethodInfo {
+  private final SymbolInterner symbols;
   private String methodName;
   private MJType returnType;
-  private LinkedHashMap<String, MJType> parameters = new LinkedHashMap<String, MJType>();
-  private Map<String, MJType> localVariables = new HashMap<String, MJType>();
+  private IntMap<MJType> parameters = new IntMap<>();
+  private IntMap<MJType> localVariables = new IntMap<>();
 
-  public MethodInfo(String methodName, MJType returnType) {
+  public MethodInfo(String methodName, MJType returnType, SymbolInterner symbols) {
+    this.symbols = symbols;
     this.methodName = methodName;
     this.returnType = returnType;
   }
@@ -28,55 +32,86 @@ public class MethodInfo {
     return returnType;
   }
 
-  public LinkedHashMap<String, MJType> getParameters() {
+  public IntMap<MJType> getParameters() {
     return parameters;
   }
 
   public List<MJType> getParameterTypes() {
-    return new ArrayList<>(parameters.values());
+    return parameters.values();
   }
 
   public MJType getParameterType(String paramName) {
-    if (parameters.containsKey(paramName)) {
-      return parameters.get(paramName);
+    MJType type = parameters.get(symbols.lookup(paramName));
+    if (type == null) {
+      System.err.println("Parameter " + paramName + " does not exist in method " + methodName);
     }
+    return type;
+  }
 
-    System.err.println("Parameter " + paramName + " does not exist in method " + methodName);
-    return null;
+  public MJType getParameterType(int paramSymbol) {
+    MJType type = parameters.get(paramSymbol);
+    if (type == null) {
+      System.err.println("Parameter " + symbols.getName(paramSymbol) + " does not exist in method " + methodName);
+    }
+    return type;
   }
 
   public void addParameter(String paramName, MJType paramType) {
-    if (parameters.containsKey(paramName)) {
-      System.err.println("Parameter " + paramName + " already exists in method " + methodName);
+    addParameter(symbols.intern(paramName), paramType);
+  }
+
+  public void addParameter(int paramSymbol, MJType paramType) {
+    if (parameters.containsKey(paramSymbol)) {
+      System.err.println("Parameter " + symbols.getName(paramSymbol) + " already exists in method " + methodName);
       OutputMessage.outputErrorAndExit();
     }
-    parameters.put(paramName, paramType);
+    parameters.put(paramSymbol, paramType);
   }
 
-  public Map<String, MJType> getLocalVariables() {
+  public IntMap<MJType> getLocalVariables() {
     return localVariables;
   }
 
   public MJType getLocalVariableType(String varName) {
-    if (localVariables.containsKey(varName)) {
-      return localVariables.get(varName);
+    MJType type = localVariables.get(symbols.lookup(varName));
+    if (type == null) {
+      System.err.println("Local variable " + varName + " does not exist in method " + methodName);
     }
+    return type;
+  }
 
-    System.err.println("Local variable " + varName + " does not exist in method " + methodName);
-    return null;
+  public MJType getLocalVariableType(int varSymbol) {
+    MJType type = localVariables.get(varSymbol);
+    if (type == null) {
+      System.err.println("Local variable " + symbols.getName(varSymbol) + " does not exist in method " + methodName);
+    }
+    return type;
   }
 
   public void addLocalVariable(String varName, MJType varType) {
-    if (parameters.containsKey(varName)) {
-      System.err.println("Local variable " + varName + " already exists in method parameters" + methodName);
+    addLocalVariable(symbols.intern(varName), varType);
+  }
+
+  public void addLocalVariable(int varSymbol, MJType varType) {
+    if (parameters.containsKey(varSymbol)) {
+      System.err.println("Local variable " + symbols.getName(varSymbol) + " already exists in method parameters"
+          + methodName);
       OutputMessage.outputErrorAndExit();
     }
 
-    if (localVariables.containsKey(varName)) {
-      System.err.println("Local variable " + varName + " already exists in method " + methodName);
+    if (localVariables.containsKey(varSymbol)) {
+      System.err.println("Local variable " + symbols.getName(varSymbol) + " already exists in method " + methodName);
       OutputMessage.outputErrorAndExit();
     }
-    localVariables.put(varName, varType);
+    localVariables.put(varSymbol, varType);
+  }
+
+  /**
+   * Bytes held by the parameter and local variable tables, not counting
+   * the MethodInfo object itself or the shared types and names.
+   */
+  public long getFootprint() {
+    return parameters.getFootprint() + localVariables.getFootprint();
   }
 
   @Override
@@ -86,7 +121,9 @@ public class MethodInfo {
         .append("', returnType='").append(returnType)
         .append("', parameters={");
 
-    parameters.forEach((paramName, paramType) -> sb.append(paramName).append(": ").append(paramType).append(", "));
+    for (int i = 0; i < parameters.size(); i++) {
+      sb.append(symbols.getName(parameters.keyAt(i))).append(": ").append(parameters.valueAt(i)).append(", ");
+    }
 
     if (!parameters.isEmpty()) {
       sb.setLength(sb.length() - 2);
@@ -94,7 +131,10 @@ public class MethodInfo {
 
     sb.append("}, localVariables={");
 
-    localVariables.forEach((varName, varType) -> sb.append(varName).append(": ").append(varType).append(", "));
+    for (int i = 0; i < localVariables.size(); i++) {
+      sb.append(symbols.getName(localVariables.keyAt(i))).append(": ").append(localVariables.valueAt(i))
+          .append(", ");
+    }
 
     if (!localVariables.isEmpty()) {
       sb.setLength(sb.length() - 2);
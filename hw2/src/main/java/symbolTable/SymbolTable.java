@@ -1,30 +1,111 @@
 package symbolTable;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
+import ast.SymbolInterner;
 import constant.OutputMessage;
 import type.ClassType;
 import type.MJType;
+import type.TypeFactory;
+import utils.IntMap;
 
+/**
+ * Classes are stored in an array indexed by the SymbolInterner id of their
+ * name, so resolving a class symbol is an array access.
+ *
+ * Subtype queries use a preorder and postorder numbering of the class
+ * hierarchy forest: A is a subclass of B exactly when B's interval
+ * [preorder, postorder] contains A's. The numbering is computed on the
+ * first query, so it must only happen once every class has been added.
+ */
 public class SymbolTable {
-  private Map<String, ClassInfo> symbolTable = new HashMap<>();
+  // Colors of a class during containsCycle
+  private static final byte UNVISITED = 0;
+  private static final byte ON_CHAIN = 1;
+  private static final byte DONE = 2;
+
+  private final SymbolInterner symbols;
+  private final TypeFactory types;
+  private ClassInfo[] classesBySymbol = new ClassInfo[16];
+  // In the order they were added
+  private final List<ClassInfo> classes = new ArrayList<>();
+  // By class symbol; null until the first subtype query
+  private int[] preorder;
+  private int[] postorder;
+  private boolean frozen = false;
+
+  public SymbolTable() {
+    this(new SymbolInterner());
+  }
+
+  public SymbolTable(SymbolInterner symbols) {
+    this.symbols = symbols;
+    this.types = new TypeFactory(symbols);
+  }
+
+  public SymbolInterner getSymbols() {
+    return symbols;
+  }
+
+  public TypeFactory getTypeFactory() {
+    return types;
+  }
+
+  /**
+   * Computes everything the table would otherwise compute on demand and
+   * makes adding classes or symbols an error. The table, its classes and
+   * their methods are then only read, so several threads can typecheck
+   * against it at once.
+   */
+  public void freeze() {
+    if (preorder == null) {
+      numberHierarchy();
+    }
+    symbols.freeze();
+    frozen = true;
+  }
 
   public void addClass(String className, ClassInfo classInfo) {
-    if (symbolTable.containsKey(className)) {
+    if (frozen) {
+      throw new IllegalStateException("Cannot add class " + className + " to a frozen symbol table");
+    }
+    int classSymbol = classInfo.getClassSymbol();
+    if (containsClass(classSymbol)) {
       System.err.println("Class " + className + " already exists in the symbol table.");
       OutputMessage.outputErrorAndExit();
     }
 
-    symbolTable.put(className, classInfo);
+    if (classSymbol >= classesBySymbol.length) {
+      classesBySymbol = Arrays.copyOf(classesBySymbol, Math.max(classesBySymbol.length * 2, classSymbol + 1));
+    }
+    classesBySymbol[classSymbol] = classInfo;
+    classes.add(classInfo);
+    // Create the class's type up front, so later lookups only read
+    types.getClassType(classSymbol);
+    preorder = null;
+  }
+
+  /**
+   * The classes in the order they were added.
+   */
+  public List<ClassInfo> getClasses() {
+    return classes;
+  }
+
+  public boolean containsClass(String className) {
+    return containsClass(symbols.lookup(className));
+  }
+
+  public boolean containsClass(int classSymbol) {
+    return classSymbol >= 0 && classSymbol < classesBySymbol.length && classesBySymbol[classSymbol] != null;
   }
 
   public ClassInfo getClassInfo(String className) {
-    if (symbolTable.containsKey(className)) {
-      return symbolTable.get(className);
+    int classSymbol = symbols.lookup(className);
+    if (containsClass(classSymbol)) {
+      return classesBySymbol[classSymbol];
     }
 
     System.err.println("Class " + className + " not found in the symbol table.");
@@ -32,20 +113,39 @@ public class SymbolTable {
     throw new AssertionError("Unreachable");
   }
 
+  public ClassInfo getClassInfo(int classSymbol) {
+    if (containsClass(classSymbol)) {
+      return classesBySymbol[classSymbol];
+    }
+
+    System.err.println("Class " + symbols.getName(classSymbol) + " not found in the symbol table.");
+    OutputMessage.outputErrorAndExit();
+    throw new AssertionError("Unreachable");
+  }
+
   public boolean containsCycle() {
-    for (ClassInfo current : symbolTable.values()) {
-      Set<String> visited = new HashSet<>();
-      String className = current.getClassName();
-      visited.add(className);
-
-      String superClassName = current.getSuperClassName();
-      while (superClassName != null) {
-        if (visited.contains(superClassName)) {
-          return true;
-        }
-        visited.add(superClassName);
-        ClassInfo parent = getClassInfo(superClassName);
-        superClassName = parent.getSuperClassName();
+    // Three colors over the superclass links: a class is unvisited, on the
+    // chain being walked, or known to lead to a class without a superclass
+    byte[] color = new byte[classesBySymbol.length];
+    int[] chain = new int[classes.size()];
+
+    for (ClassInfo start : classes) {
+      int length = 0;
+      int symbol = start.getClassSymbol();
+      while (symbol != SymbolInterner.NONE && color[symbol] == UNVISITED) {
+        color[symbol] = ON_CHAIN;
+        chain[length++] = symbol;
+
+        int superClassSymbol = classesBySymbol[symbol].getSuperClassSymbol();
+        symbol = superClassSymbol == SymbolInterner.NONE ? SymbolInterner.NONE
+            : getClassInfo(superClassSymbol).getClassSymbol();
+      }
+
+      if (symbol != SymbolInterner.NONE && color[symbol] == ON_CHAIN) {
+        return true;
+      }
+      for (int i = 0; i < length; i++) {
+        color[chain[i]] = DONE;
       }
     }
     return false;
@@ -55,43 +155,132 @@ public class SymbolTable {
     // Overloading per class is taken care of by making sure the new method
     // names don't overlap with the exisiting. We need to check for
     // overloading when extending another class.
+    //
+    // The hierarchy is walked depth-first from each class without a
+    // superclass. inherited maps each method name to its nearest declaration
+    // among the superclasses of the class being entered; leaving a class
+    // restores the entries it replaced. Classes on an inheritance cycle are
+    // never reached, so containsCycle must be checked first.
+    int size = classesBySymbol.length;
+    int[] firstChild = new int[size];
+    int[] nextSibling = new int[size];
+    linkSubclasses(firstChild, nextSibling);
 
-    for (ClassInfo currentClass : symbolTable.values()) {
-      for (MethodInfo currentMethod : currentClass.getMethods().values()) {
-        String methodName = currentMethod.getMethodName();
-        String superClassName = currentClass.getSuperClassName();
+    IntMap<MethodInfo> inherited = new IntMap<>();
+    int[] undoSymbols = new int[16];
+    List<MethodInfo> undoMethods = new ArrayList<>();
+    int[] stack = new int[classes.size()];
+    int[] undoMark = new int[classes.size()];
 
-        while (superClassName != null) {
-          ClassInfo parent = getClassInfo(superClassName);
-
-          if (parent.containsMethod(methodName)) {
-            MethodInfo parentMethod = parent.getMethodInfo(methodName);
+    for (ClassInfo root : classes) {
+      if (containsClass(root.getSuperClassSymbol())) {
+        continue;
+      }
 
-            List<MJType> currentParams = currentMethod.getParameterTypes();
-            List<MJType> parentParams = parentMethod.getParameterTypes();
-            if (!currentParams.equals(parentParams)) {
+      int top = 0;
+      stack[0] = root.getClassSymbol();
+      boolean entering = true;
+      while (top >= 0) {
+        int node = stack[top];
+        if (entering) {
+          undoMark[top] = undoMethods.size();
+          IntMap<MethodInfo> methods = classesBySymbol[node].getMethods();
+          for (int i = 0; i < methods.size(); i++) {
+            int methodSymbol = methods.keyAt(i);
+            MethodInfo parentMethod = inherited.get(methodSymbol);
+            if (parentMethod != null && !sameSignature(methods.valueAt(i), parentMethod)) {
               return true;
             }
 
-            MJType currentReturnType = currentMethod.getReturnType();
-            MJType parentReturnType = parentMethod.getReturnType();
-
-            if (!currentReturnType.equals(parentReturnType)) {
-              return true;
+            if (undoMethods.size() == undoSymbols.length) {
+              undoSymbols = Arrays.copyOf(undoSymbols, undoSymbols.length * 2);
             }
-
-            break;
+            undoSymbols[undoMethods.size()] = methodSymbol;
+            undoMethods.add(parentMethod);
+            inherited.put(methodSymbol, methods.valueAt(i));
           }
+        }
 
-          superClassName = parent.getSuperClassName();
+        int child = firstChild[node];
+        if (child != SymbolInterner.NONE) {
+          firstChild[node] = nextSibling[child];
+          stack[++top] = child;
+          entering = true;
+        } else {
+          for (int i = undoMethods.size() - 1; i >= undoMark[top]; i--) {
+            inherited.put(undoSymbols[i], undoMethods.remove(i));
+          }
+          top--;
+          entering = false;
         }
       }
     }
     return false;
   }
 
+  private static boolean sameSignature(MethodInfo currentMethod, MethodInfo parentMethod) {
+    List<MJType> currentParams = currentMethod.getParameterTypes();
+    List<MJType> parentParams = parentMethod.getParameterTypes();
+    if (!currentParams.equals(parentParams)) {
+      return false;
+    }
+
+    MJType currentReturnType = currentMethod.getReturnType();
+    MJType parentReturnType = parentMethod.getReturnType();
+    return currentReturnType == parentReturnType;
+  }
+
+  /**
+   * Fills in the resolved member tables of every class, superclasses first.
+   * The hierarchy must be free of cycles.
+   */
+  public void resolveInheritance() {
+    int size = classesBySymbol.length;
+    int[] firstChild = new int[size];
+    int[] nextSibling = new int[size];
+    linkSubclasses(firstChild, nextSibling);
+
+    int[] stack = new int[classes.size()];
+    for (ClassInfo root : classes) {
+      if (containsClass(root.getSuperClassSymbol())) {
+        continue;
+      }
+
+      root.resolveMembers(null);
+      int top = 0;
+      stack[top++] = root.getClassSymbol();
+      while (top > 0) {
+        int node = stack[top - 1];
+        int child = firstChild[node];
+        if (child != SymbolInterner.NONE) {
+          firstChild[node] = nextSibling[child];
+          classesBySymbol[child].resolveMembers(classesBySymbol[node]);
+          stack[top++] = child;
+        } else {
+          top--;
+        }
+      }
+    }
+  }
+
+  /*
+   * Links every class into the list of subclasses of its superclass, in the
+   * order the classes were added. Both arrays are indexed by class symbol.
+   */
+  private void linkSubclasses(int[] firstChild, int[] nextSibling) {
+    Arrays.fill(firstChild, SymbolInterner.NONE);
+    for (int i = classes.size() - 1; i >= 0; i--) {
+      int classSymbol = classes.get(i).getClassSymbol();
+      int superClassSymbol = classes.get(i).getSuperClassSymbol();
+      if (containsClass(superClassSymbol)) {
+        nextSibling[classSymbol] = firstChild[superClassSymbol];
+        firstChild[superClassSymbol] = classSymbol;
+      }
+    }
+  }
+
   public boolean isSubtype(MJType subType, MJType superType) {
-    if (subType.equals(superType)) {
+    if (subType == superType) {
       return true;
     }
 
@@ -99,28 +288,65 @@ public class SymbolTable {
       return false;
     }
 
-    String subName = ((ClassType) subType).getName();
-    String superName = ((ClassType) superType).getName();
+    int subSymbol = getClassInfo(((ClassType) subType).getSymbol()).getClassSymbol();
+    int superSymbol = ((ClassType) superType).getSymbol();
+    if (!containsClass(superSymbol)) {
+      return false;
+    }
 
-    while (subName != null) {
-      if (subName.equals(superName)) {
-        return true;
+    if (preorder == null) {
+      numberHierarchy();
+    }
+    // Classes on or below an inheritance cycle are never numbered
+    if (preorder[subSymbol] == SymbolInterner.NONE || preorder[superSymbol] == SymbolInterner.NONE) {
+      return false;
+    }
+    return preorder[superSymbol] <= preorder[subSymbol] && postorder[subSymbol] <= postorder[superSymbol];
+  }
+
+  /*
+   * Numbers the hierarchy depth-first from each class without a superclass,
+   * with an explicit stack so deep hierarchies cannot overflow.
+   */
+  private void numberHierarchy() {
+    int size = classesBySymbol.length;
+    int[] firstChild = new int[size];
+    int[] nextSibling = new int[size];
+    linkSubclasses(firstChild, nextSibling);
+    preorder = new int[size];
+    postorder = new int[size];
+    Arrays.fill(preorder, SymbolInterner.NONE);
+
+    int counter = 0;
+    int[] stack = new int[classes.size()];
+    for (ClassInfo root : classes) {
+      if (containsClass(root.getSuperClassSymbol())) {
+        continue;
       }
 
-      ClassInfo info = getClassInfo(subName);
-      if (info == null)
-        return false;
-      subName = info.getSuperClassName();
+      int top = 0;
+      stack[top++] = root.getClassSymbol();
+      preorder[root.getClassSymbol()] = counter++;
+      while (top > 0) {
+        int node = stack[top - 1];
+        int child = firstChild[node];
+        if (child != SymbolInterner.NONE) {
+          firstChild[node] = nextSibling[child];
+          preorder[child] = counter++;
+          stack[top++] = child;
+        } else {
+          postorder[node] = counter++;
+          top--;
+        }
+      }
     }
-    return false;
   }
 
   public boolean allTypesExist() {
-    for (ClassInfo classInfo : symbolTable.values()) {
+    for (ClassInfo classInfo : classes) {
       for (MJType fieldType : classInfo.getFields().values()) {
         if (fieldType instanceof ClassType) {
-          String name = ((ClassType) fieldType).getName();
-          if (!symbolTable.containsKey(name)) {
+          if (!containsClass(((ClassType) fieldType).getSymbol())) {
             return false;
           }
         }
@@ -128,16 +354,14 @@ public class SymbolTable {
       for (MethodInfo method : classInfo.getMethods().values()) {
         MJType returnType = method.getReturnType();
         if (returnType instanceof ClassType) {
-          String name = ((ClassType) returnType).getName();
-          if (!symbolTable.containsKey(name)) {
+          if (!containsClass(((ClassType) returnType).getSymbol())) {
             return false;
           }
         }
 
         for (MJType paramType : method.getParameterTypes()) {
           if (paramType instanceof ClassType) {
-            String name = ((ClassType) paramType).getName();
-            if (!symbolTable.containsKey(name)) {
+            if (!containsClass(((ClassType) paramType).getSymbol())) {
               return false;
             }
           }
@@ -145,8 +369,7 @@ public class SymbolTable {
 
         for (MJType localType : method.getLocalVariables().values()) {
           if (localType instanceof ClassType) {
-            String name = ((ClassType) localType).getName();
-            if (!symbolTable.containsKey(name)) {
+            if (!containsClass(((ClassType) localType).getSymbol())) {
               return false;
             }
           }
@@ -157,13 +380,28 @@ public class SymbolTable {
     return true;
   }
 
+  /**
+   * Bytes held by the class tables and every class, not counting the
+   * SymbolTable object itself or the SymbolInterner, which AstArena counts.
+   */
+  public long getFootprint() {
+    long bytes = 16 + 4L * classesBySymbol.length + 24 + 16 + 4L * classes.size();
+    if (preorder != null) {
+      bytes += 2 * (16 + 4L * preorder.length);
+    }
+    for (ClassInfo classInfo : classes) {
+      bytes += 48 + classInfo.getFootprint();
+    }
+    return bytes;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
     sb.append("Symbol Table:\n");
-    for (Map.Entry<String, ClassInfo> entry : symbolTable.entrySet()) {
-      sb.append("Class: ").append(entry.getKey()).append("\n");
-      sb.append(entry.getValue()).append("\n");
+    for (ClassInfo classInfo : classes) {
+      sb.append("Class: ").append(classInfo.getClassName()).append("\n");
+      sb.append(classInfo).append("\n");
     }
     return sb.toString();
   }
@@ -0,0 +1,90 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input for a compiler stage: the file named by the first command line
+ * argument, or stdin when there is none.
+ *
+ * Files are memory-mapped; stdin is read through one fixed-size byte buffer.
+ * Either way the bytes are handed out as ASCII characters straight from the
+ * buffer, without charset decoding, line splitting or intermediate Strings.
+ */
+public class InputReader {
+  private static final int STDIN_BUFFER_SIZE = 64 * 1024;
+
+  public static Reader open(String[] args) throws IOException {
+    if (args.length > 0) {
+      return open(Paths.get(args[0]));
+    }
+
+    ReadableByteChannel stdin = Channels.newChannel(System.in);
+    ByteBuffer buffer = ByteBuffer.allocate(STDIN_BUFFER_SIZE);
+    buffer.flip();
+    return new AsciiReader(buffer, stdin);
+  }
+
+  public static Reader open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new AsciiReader(mapped, null);
+    }
+  }
+
+  private static class AsciiReader extends Reader {
+    private final ByteBuffer bytes;
+    private final ReadableByteChannel channel; // Null when bytes holds the whole input
+
+    AsciiReader(ByteBuffer bytes, ReadableByteChannel channel) {
+      this.bytes = bytes;
+      this.channel = channel;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+
+      if (!bytes.hasRemaining() && !refill()) {
+        return -1;
+      }
+
+      int count = Math.min(len, bytes.remaining());
+      for (int i = 0; i < count; i++) {
+        cbuf[off + i] = (char) (bytes.get() & 0xff);
+      }
+      return count;
+    }
+
+    private boolean refill() throws IOException {
+      if (channel == null) {
+        return false;
+      }
+
+      bytes.clear();
+      int read;
+      do {
+        read = channel.read(bytes);
+      } while (read == 0);
+      bytes.flip();
+
+      return read > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (channel != null) {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ast.ArenaJtbBridge;
+import ast.ArenaVisitor;
+import ast.AstArena;
+import ast.JtbAdapter;
+import ast.Program;
+import minijava.ParseException;
+import minijava.syntaxtree.NodeToken;
+import minijava.visitor.GJVoidDepthFirst;
+import parser.MiniJavaAstParser;
+
+public class AstArenaTest {
+  private static class TokenRecorder extends GJVoidDepthFirst<StringBuilder> {
+    @Override
+    public void visit(NodeToken n, StringBuilder tokens) {
+      tokens.append(n.tokenImage).append(' ');
+    }
+  }
+
+  @Test
+  public void bridgeVisitsSameTreeAsAdapter() throws IOException, ParseException {
+    int checked = 0;
+    for (String directory : new String[] { "testcases/hw2", "testcases/hw3" }) {
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "*.java")) {
+        for (Path file : files) {
+          Program program = MiniJavaAstParser.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+          StringBuilder expected = new StringBuilder();
+          JtbAdapter.toGoal(program).accept(new TokenRecorder(), expected);
+
+          StringBuilder actual = new StringBuilder();
+          ArenaJtbBridge.visitClasses(AstArena.build(program), new TokenRecorder(), actual);
+          actual.append(' '); // Goal's empty EOF token
+
+          assertEquals(file.toString(), expected.toString(), actual.toString());
+          checked++;
+        }
+      }
+    }
+    assertTrue(checked > 0);
+  }
+
+  @Test
+  public void nodesAreInPreorderWithInternedSymbols() throws ParseException {
+    AstArena arena = AstArena.build(MiniJavaAstParser.parse("class Main { public static void main(String[] a) {"
+        + " System.out.println(new A().f(a)); } }"
+        + " class A extends B { int a; public int f(int a) { return !a; } }"));
+
+    List<Integer> kinds = new ArrayList<>();
+    int[] depth = new int[2];
+    arena.accept(new ArenaVisitor() {
+      @Override
+      public boolean enter(AstArena arena, int node) {
+        kinds.add(arena.getKind(node));
+        depth[0]++;
+        depth[1] = Math.max(depth[1], depth[0]);
+        return true;
+      }
+
+      @Override
+      public void leave(AstArena arena, int node) {
+        depth[0]--;
+      }
+    });
+
+    int[] expected = { AstArena.PROGRAM,
+        AstArena.MAIN_CLASS, AstArena.NAME,
+        AstArena.PRINT, AstArena.CALL, AstArena.NEW_OBJECT, AstArena.IDENTIFIER,
+        AstArena.CLASS, AstArena.EXTENDS, AstArena.VAR, AstArena.TYPE_INT,
+        AstArena.METHOD, AstArena.TYPE_INT, AstArena.PARAMETER, AstArena.TYPE_INT,
+        AstArena.NOT, AstArena.IDENTIFIER };
+    assertEquals(expected.length, arena.size());
+    assertEquals(expected.length, kinds.size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], (int) kinds.get(i));
+    }
+    assertEquals(0, depth[0]);
+    assertEquals(5, depth[1]);
+
+    int root = arena.getRoot();
+    assertEquals(2, arena.getChildCount(root));
+    int classNode = arena.getChild(root, 1);
+    assertEquals("A", arena.getSymbol(classNode));
+    assertEquals("B", arena.getSymbol(arena.getFirstChild(classNode)));
+    assertEquals(AstArena.NONE, arena.getNextSibling(classNode));
+    assertEquals(arena.size(), arena.getSubtreeEnd(root));
+
+    // Every "a" shares one symbol id
+    int argument = arena.getChild(arena.getChild(arena.getChild(arena.getChild(root, 0), 1), 0), 1);
+    int field = arena.getChild(classNode, 1);
+    assertEquals(arena.getValue(arena.getFirstChild(arena.getChild(root, 0))), arena.getValue(argument));
+    assertEquals(arena.getValue(argument), arena.getValue(field));
+    assertEquals("a", arena.getSymbols().getName(arena.getValue(field)));
+  }
+
+  @Test
+  public void skippedChildrenAreNotVisited() throws ParseException {
+    AstArena arena = AstArena.build(MiniJavaAstParser.parse(
+        "class Main { public static void main(String[] a) { if (true) { x = 1; } else x = (2 + 3); } }"));
+
+    int[] visited = new int[1];
+    arena.accept(new ArenaVisitor() {
+      @Override
+      public boolean enter(AstArena arena, int node) {
+        visited[0]++;
+        return !AstArena.isExpression(arena.getKind(node));
+      }
+
+      @Override
+      public void leave(AstArena arena, int node) {
+      }
+    });
+
+    // PROGRAM MAIN_CLASS NAME IF TRUE BLOCK ASSIGN INTEGER ASSIGN BRACKET
+    assertEquals(10, visited[0]);
+    assertEquals(13, arena.size());
+  }
+}
@@ -0,0 +1,78 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import ast.ArenaJtbBridge;
+import ast.AstArena;
+import context.TypecheckContext;
+import myVisitor.SymbolTableBuilderVisitor;
+import myVisitor.TypecheckVisitor;
+import parser.MiniJavaAstParser;
+import symbolTable.SymbolTable;
+
+public class DeepExpressionTest {
+  private static final int DEPTH = 200000;
+  // Far too small to recurse once per nesting level
+  private static final long STACK_SIZE = 512 * 1024;
+
+  private static String nested(String open, String leaf, String close) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < DEPTH; i++) {
+      sb.append(open);
+    }
+    sb.append(leaf);
+    for (int i = 0; i < DEPTH; i++) {
+      sb.append(close);
+    }
+    return sb.toString();
+  }
+
+  /*
+   * Parses and typechecks a program whose method f returns the given
+   * expression, on a thread with a small stack. A type error would exit.
+   */
+  private static void typecheck(String returnType, String expression) throws Throwable {
+    String source = "class Main { public static void main(String[] a) { System.out.println(1); } }"
+        + " class A { int[] arr; public int g(int x, boolean b) { return x; }"
+        + " public " + returnType + " f() { return " + expression + "; } }";
+
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread thread = new Thread(null, () -> {
+      try {
+        AstArena ast = AstArena.build(MiniJavaAstParser.parse(source));
+
+        SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+        ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
+        SymbolTable symbolTable = symbolTableBuilderVisitor.getSymbolTable();
+        symbolTable.resolveInheritance();
+
+        ArenaJtbBridge.visitClasses(ast, new TypecheckVisitor(), new TypecheckContext(symbolTable, null, null));
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    }, "deep-expression", STACK_SIZE);
+    thread.start();
+    thread.join();
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
+  @Test
+  public void deepArithmeticDoesNotOverflow() throws Throwable {
+    typecheck("int", nested("1 + (", "2", ")"));
+  }
+
+  @Test
+  public void deepNotAndAndDoNotOverflow() throws Throwable {
+    typecheck("boolean", nested("!", "true", ""));
+    typecheck("boolean", nested("true && (", "false", ")"));
+  }
+
+  @Test
+  public void deepCallsAndLookupsDoNotOverflow() throws Throwable {
+    typecheck("int", nested("this.g(1 - (", "arr[(arr.length)]", "), true)"));
+    typecheck("int", nested("arr[(", "0", ")]"));
+  }
+}
@@ -0,0 +1,69 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ast.AstArena;
+import myVisitor.IncrementalTypechecker;
+import parser.MiniJavaAstParser;
+
+public class IncrementalTypecheckerTest {
+  private static final String MAIN =
+      "class Main { public static void main(String[] a) { System.out.println(new B().get()); } }";
+
+  private final IncrementalTypechecker typechecker = new IncrementalTypechecker();
+
+  private boolean update(String classes) throws Exception {
+    return typechecker.update(AstArena.build(MiniJavaAstParser.parse(MAIN + classes)));
+  }
+
+  private static String classA(String fieldType, String getBody) {
+    return " class A { " + fieldType + " x; public int get() { return " + getBody + "; }"
+        + " public int set(int v) { x = v; return v; } }";
+  }
+
+  private static final String CLASS_B = " class B extends A { public int twice() { return (this.get()) * 2; } }";
+  private static final String CLASS_C = " class C { public int use(A a) { return a.get(); } }";
+
+  @Test
+  public void onlyAffectedMethodsAreChecked() throws Exception {
+    assertTrue(update(classA("int", "x") + CLASS_B + CLASS_C));
+    assertEquals(5, typechecker.getCheckedCount());
+
+    // Same program: nothing to do
+    assertTrue(update(classA("int", "x") + CLASS_B + CLASS_C));
+    assertEquals(0, typechecker.getCheckedCount());
+
+    // A body edit rechecks just that method
+    assertTrue(update(classA("int", "x + 1") + CLASS_B + CLASS_C));
+    assertEquals(1, typechecker.getCheckedCount());
+
+    // A field type change reaches A's methods, B's through inheritance and
+    // the callers of A and B
+    assertFalse(update(classA("boolean", "x + 1") + CLASS_B + CLASS_C));
+    assertEquals(5, typechecker.getCheckedCount());
+
+    assertTrue(update(classA("int", "x + 1") + CLASS_B + CLASS_C));
+    assertEquals(5, typechecker.getCheckedCount());
+  }
+
+  @Test
+  public void errorsAreKeptUntilFixed() throws Exception {
+    assertFalse(update(classA("int", "true") + CLASS_B + CLASS_C));
+
+    // The broken method is reused, so the program is still ill typed
+    assertFalse(update(classA("int", "true") + CLASS_B + CLASS_C));
+    assertEquals(0, typechecker.getCheckedCount());
+
+    assertTrue(update(classA("int", "x") + CLASS_B + CLASS_C));
+    assertEquals(1, typechecker.getCheckedCount());
+  }
+
+  @Test
+  public void removingAClassRechecksItsUsers() throws Exception {
+    assertTrue(update(classA("int", "x") + CLASS_B + CLASS_C));
+    assertFalse(update(" class B { public int get() { return 1; } }" + CLASS_C));
+    assertTrue(update(classA("int", "x") + CLASS_B));
+  }
+}
@@ -0,0 +1,53 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import utils.IntMap;
+
+public class IntMapTest {
+  @Test
+  public void emptyMapFindsNothing() {
+    IntMap<String> map = new IntMap<>();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(0));
+    assertNull(map.get(7));
+    assertEquals(-1, map.indexOf(7));
+  }
+
+  /*
+   * The map switches from linear search to a hash table as it grows; keys
+   * must keep their values and insertion order across the switch.
+   */
+  @Test
+  public void growingPastSmallSizeKeepsEntries() {
+    IntMap<String> map = new IntMap<>();
+    for (int n = 1; n <= 200; n++) {
+      int key = n * 37 % 211;
+      assertNull(map.put(key, "v" + key));
+      assertEquals(n, map.size());
+      for (int i = 0; i < n; i++) {
+        int previous = (i + 1) * 37 % 211;
+        assertEquals(i, map.indexOf(previous));
+        assertEquals("v" + previous, map.get(previous));
+      }
+      assertFalse(map.containsKey(211 + key));
+    }
+  }
+
+  @Test
+  public void putReplacesInPlace() {
+    IntMap<String> map = new IntMap<>();
+    for (int key = 0; key < 20; key++) {
+      map.put(key, "a");
+    }
+    assertEquals("a", map.put(3, "b"));
+    assertEquals("a", map.putIfAbsent(4, "c"));
+    assertEquals(20, map.size());
+    assertEquals(3, map.keyAt(3));
+    assertEquals("b", map.valueAt(3));
+    assertEquals("a", map.get(4));
+  }
+}
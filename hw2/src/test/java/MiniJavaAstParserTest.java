@@ -0,0 +1,178 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import ast.JtbAdapter;
+import minijava.MiniJavaParser;
+import minijava.ParseException;
+import minijava.syntaxtree.Goal;
+import minijava.syntaxtree.Node;
+import minijava.syntaxtree.NodeChoice;
+import minijava.syntaxtree.NodeListInterface;
+import minijava.syntaxtree.NodeOptional;
+import minijava.syntaxtree.NodeToken;
+import parser.MiniJavaAstParser;
+
+public class MiniJavaAstParserTest {
+  private static final int THREADS = 8;
+  private static final int ROUNDS = 20;
+
+  private static boolean javaccCreated = false;
+
+  /*
+   * The JavaCC parser in the jar is static, so it is constructed once and
+   * re-initialized for every later input.
+   */
+  private static Goal parseWithJavaCC(String source) throws ParseException {
+    if (javaccCreated) {
+      MiniJavaParser.ReInit(new StringReader(source));
+    } else {
+      new MiniJavaParser(new StringReader(source));
+      javaccCreated = true;
+    }
+    return MiniJavaParser.Goal();
+  }
+
+  private static List<String> readTestcases() throws IOException {
+    List<String> sources = new ArrayList<>();
+    for (String directory : new String[] { "testcases/hw2", "testcases/hw3" }) {
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "*.java")) {
+        for (Path file : files) {
+          sources.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return sources;
+  }
+
+  /*
+   * Node classes, choice indices and token images, ignoring token positions
+   * and whether identifier tokens carry symbol ids.
+   */
+  private static void dump(Node node, StringBuilder sb) {
+    sb.append(node instanceof NodeToken ? "NodeToken" : node.getClass().getSimpleName()).append('(');
+    if (node instanceof NodeToken) {
+      sb.append(((NodeToken) node).tokenImage);
+    } else if (node instanceof NodeChoice) {
+      sb.append(((NodeChoice) node).which).append(' ');
+      dump(((NodeChoice) node).choice, sb);
+    } else if (node instanceof NodeOptional) {
+      if (((NodeOptional) node).present()) {
+        dump(((NodeOptional) node).node, sb);
+      }
+    } else if (node instanceof NodeListInterface) {
+      NodeListInterface list = (NodeListInterface) node;
+      for (int i = 0; i < list.size(); i++) {
+        dump(list.elementAt(i), sb);
+      }
+    } else {
+      try {
+        for (int i = 0;; i++) {
+          Field field = node.getClass().getField("f" + i);
+          dump((Node) field.get(node), sb);
+        }
+      } catch (NoSuchFieldException e) {
+        // Past the last child
+      } catch (IllegalAccessException e) {
+        throw new AssertionError(e);
+      }
+    }
+    sb.append(')');
+  }
+
+  private static String dump(Node node) {
+    StringBuilder sb = new StringBuilder();
+    dump(node, sb);
+    return sb.toString();
+  }
+
+  @Test
+  public void testAdaptedTreeMatchesJavaCC() throws Exception {
+    List<String> sources = readTestcases();
+    assertTrue(sources.size() > 0);
+
+    for (String source : sources) {
+      String expected = dump(parseWithJavaCC(source));
+      assertEquals(expected, dump(JtbAdapter.toGoal(MiniJavaAstParser.parse(source))));
+    }
+  }
+
+  @Test
+  public void testExpressionForms() throws Exception {
+    String source = "class Main { public static void main(String[] a) {"
+        + " int[] x; boolean b; Main m; int i;"
+        + " x = new int[(3 + 4)]; x[0] = x.length; i = i * 2; i = x[i];"
+        + " b = !b && (i < 3); b = !i < 3;"
+        + " i = m.f(1, this.g(), new Main()); i = i - 0;"
+        + " // comment\n /* block */ if (true) while (false) {} else System.out.println(m.h());"
+        + " } }"
+        + " class A extends Main { int y; public int f(int a, boolean b, A c) { return y; } }";
+
+    String expected = dump(parseWithJavaCC(source));
+    assertEquals(expected, dump(JtbAdapter.toGoal(MiniJavaAstParser.parse(source))));
+  }
+
+  @Test
+  public void testConcurrentParsesMatchSequential() throws Exception {
+    List<String> sources = readTestcases();
+    List<String> expected = new ArrayList<>();
+    for (String source : sources) {
+      expected.add(dump(JtbAdapter.toGoal(MiniJavaAstParser.parse(source))));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int round = 0; round < ROUNDS; round++) {
+        for (String source : sources) {
+          results.add(executor.submit(() -> dump(JtbAdapter.toGoal(MiniJavaAstParser.parse(source)))));
+        }
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(expected.get(i % sources.size()), results.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testRejectsWhatJavaCCRejects() {
+    String[] invalid = {
+        "class Main { public static void main(String[] a) { x = 1 + 2 + 3; } }",
+        "class Main { public static void main(String[] a) { x = a.b().c(); } }",
+        "class Main { public static void main(String[] a) { x = a.length * 2; } }",
+        "class Main { public static void main(String[] a) { x = 02; } }",
+        "class Main { public static void main(String[] a) { int x; x = 1 } }",
+        "class Main { public static void main(String[] a) { } } class B { public int f() { } }",
+        "class Main { public static void main(String[] a) { x = 1 & 2; } }",
+        "class Main { public static void main(String[] a) { } } interface",
+    };
+
+    for (String source : invalid) {
+      try {
+        MiniJavaAstParser.parse(source);
+        fail("Accepted " + source);
+      } catch (ParseException e) {
+        // Expected
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import ast.ArenaJtbBridge;
+import ast.AstArena;
+import myVisitor.ParallelTypechecker;
+import myVisitor.SymbolTableBuilderVisitor;
+import parser.MiniJavaAstParser;
+import symbolTable.SymbolTable;
+
+public class ParallelTypecheckerTest {
+  private static List<ParallelTypechecker.Result> check(String source) throws Exception {
+    AstArena ast = AstArena.build(MiniJavaAstParser.parse(source));
+    SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+    ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
+    SymbolTable symbolTable = symbolTableBuilderVisitor.getSymbolTable();
+    symbolTable.resolveInheritance();
+    symbolTable.freeze();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      return ParallelTypechecker.check(ast, symbolTable, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void resultsComeBackInSourceOrder() throws Exception {
+    StringBuilder source = new StringBuilder(
+        "class Main { public static void main(String[] a) { System.out.println(new A().m0()); } }");
+    source.append(" class A { int x;");
+    for (int i = 0; i < 50; i++) {
+      // Only m17 returns the wrong type
+      String value = i == 17 ? "true" : "x + " + i;
+      source.append(" public int m").append(i).append("() { x = ").append(i).append("; return ").append(value)
+          .append("; }");
+    }
+    source.append(" } class B extends A { public int m3() { return this.m4(); } }");
+
+    List<ParallelTypechecker.Result> results = check(source.toString());
+
+    assertEquals(1 + 50 + 1, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals("result " + i, i == 1 + 17, results.get(i).hasTypeError());
+    }
+    assertTrue(results.get(1 + 17).getDiagnostics().contains("Return type mismatch in method m17"));
+  }
+
+  @Test
+  public void wellTypedProgramHasNoErrors() throws Exception {
+    List<ParallelTypechecker.Result> results = check(
+        "class Main { public static void main(String[] a) { System.out.println(1); } }"
+            + " class A { public int f(A a) { return a.g(new B()); } public int g(A a) { return 1; } }"
+            + " class B extends A { public int g(A a) { return 2; } }");
+
+    assertEquals(4, results.size());
+    for (ParallelTypechecker.Result result : results) {
+      assertFalse(result.hasTypeError());
+    }
+  }
+}
@@ -0,0 +1,158 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import symbolTable.ClassInfo;
+import symbolTable.MethodInfo;
+import symbolTable.SymbolTable;
+import type.ClassType;
+import type.PrimitiveType;
+
+public class SymbolTableTest {
+  private static final int DEPTH = 10000;
+
+  private static ClassType type(SymbolTable symbolTable, String name) {
+    return symbolTable.getTypeFactory().getClassType(name);
+  }
+
+  private static ClassInfo addClass(SymbolTable symbolTable, String name, String superName) {
+    ClassInfo classInfo = new ClassInfo(name, symbolTable.getSymbols());
+    if (superName != null) {
+      classInfo.setSuperClassName(superName);
+    }
+    symbolTable.addClass(name, classInfo);
+    return classInfo;
+  }
+
+  private static void addMethod(SymbolTable symbolTable, ClassInfo classInfo, String name, PrimitiveType parameter) {
+    MethodInfo methodInfo = new MethodInfo(name, PrimitiveType.INT, symbolTable.getSymbols());
+    methodInfo.addParameter("p", parameter);
+    classInfo.addMethod(name, methodInfo);
+  }
+
+  @Test
+  public void subtypesFollowTheHierarchy() {
+    SymbolTable symbolTable = new SymbolTable();
+    // Subclasses first, so they are added before their superclasses
+    addClass(symbolTable, "C", "B");
+    addClass(symbolTable, "D", "A");
+    addClass(symbolTable, "B", "A");
+    addClass(symbolTable, "A", null);
+    addClass(symbolTable, "E", null);
+
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "C"), type(symbolTable, "A")));
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "C"), type(symbolTable, "B")));
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "D"), type(symbolTable, "A")));
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "A"), type(symbolTable, "A")));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "A"), type(symbolTable, "C")));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "C"), type(symbolTable, "D")));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "D"), type(symbolTable, "B")));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "E"), type(symbolTable, "A")));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "A"), type(symbolTable, "Missing")));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "A"), PrimitiveType.INT));
+    assertSame(type(symbolTable, "A"), symbolTable.getTypeFactory().getClassType(symbolTable.getSymbols().lookup("A")));
+  }
+
+  @Test
+  public void addingAClassRenumbersTheHierarchy() {
+    SymbolTable symbolTable = new SymbolTable();
+    addClass(symbolTable, "A", null);
+    addClass(symbolTable, "X", null);
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "X"), type(symbolTable, "A")));
+
+    addClass(symbolTable, "B", "A");
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "B"), type(symbolTable, "A")));
+  }
+
+  @Test
+  public void deepHierarchy() {
+    SymbolTable symbolTable = new SymbolTable();
+    addClass(symbolTable, "C0", null);
+    for (int i = 1; i < DEPTH; i++) {
+      addClass(symbolTable, "C" + i, "C" + (i - 1));
+    }
+
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "C" + (DEPTH - 1)), type(symbolTable, "C0")));
+    assertTrue(symbolTable.isSubtype(type(symbolTable, "C" + (DEPTH / 2)), type(symbolTable, "C" + (DEPTH / 3))));
+    assertFalse(symbolTable.isSubtype(type(symbolTable, "C0"), type(symbolTable, "C1")));
+  }
+
+  @Test
+  public void cycles() {
+    SymbolTable symbolTable = new SymbolTable();
+    addClass(symbolTable, "A", null);
+    addClass(symbolTable, "B", "A");
+    addClass(symbolTable, "C", "B");
+    assertFalse(symbolTable.containsCycle());
+
+    addClass(symbolTable, "D", "F");
+    addClass(symbolTable, "E", "D");
+    addClass(symbolTable, "F", "E");
+    assertTrue(symbolTable.containsCycle());
+
+    SymbolTable selfLoop = new SymbolTable();
+    addClass(selfLoop, "A", "A");
+    assertTrue(selfLoop.containsCycle());
+  }
+
+  @Test
+  public void overloads() {
+    SymbolTable symbolTable = new SymbolTable();
+    ClassInfo a = addClass(symbolTable, "A", null);
+    ClassInfo b = addClass(symbolTable, "B", "A");
+    ClassInfo c = addClass(symbolTable, "C", "B");
+    ClassInfo d = addClass(symbolTable, "D", "A");
+    addMethod(symbolTable, a, "f", PrimitiveType.INT);
+    addMethod(symbolTable, b, "g", PrimitiveType.BOOLEAN);
+    addMethod(symbolTable, c, "f", PrimitiveType.INT);
+    // Siblings may declare the same name with different signatures
+    addMethod(symbolTable, d, "g", PrimitiveType.INT);
+    assertFalse(symbolTable.containsOverload());
+
+    addMethod(symbolTable, c, "g", PrimitiveType.INT);
+    assertTrue(symbolTable.containsOverload());
+  }
+
+  @Test
+  public void deepHierarchyValidates() {
+    SymbolTable symbolTable = new SymbolTable();
+    addClass(symbolTable, "C0", null);
+    for (int i = 1; i < DEPTH; i++) {
+      ClassInfo classInfo = addClass(symbolTable, "C" + i, "C" + (i - 1));
+      addMethod(symbolTable, classInfo, "f", PrimitiveType.INT);
+    }
+
+    assertFalse(symbolTable.containsCycle());
+    assertFalse(symbolTable.containsOverload());
+  }
+
+  @Test
+  public void resolvedMembersIncludeInheritedOnes() {
+    SymbolTable symbolTable = new SymbolTable();
+    ClassInfo c = addClass(symbolTable, "C", "B");
+    ClassInfo b = addClass(symbolTable, "B", "A");
+    ClassInfo a = addClass(symbolTable, "A", null);
+    a.addField("x", PrimitiveType.INT);
+    b.addField("x", PrimitiveType.BOOLEAN);
+    a.addField("y", PrimitiveType.INT_ARRAY);
+    addMethod(symbolTable, a, "f", PrimitiveType.INT);
+    addMethod(symbolTable, b, "f", PrimitiveType.INT);
+    addMethod(symbolTable, a, "g", PrimitiveType.INT);
+    symbolTable.resolveInheritance();
+
+    int x = symbolTable.getSymbols().lookup("x");
+    int y = symbolTable.getSymbols().lookup("y");
+    int f = symbolTable.getSymbols().lookup("f");
+    int g = symbolTable.getSymbols().lookup("g");
+    assertEquals(PrimitiveType.BOOLEAN, c.getResolvedFieldType(x));
+    assertEquals(PrimitiveType.INT, a.getResolvedFieldType(x));
+    assertEquals(PrimitiveType.INT_ARRAY, c.getResolvedFieldType(y));
+    assertEquals(b.getMethodInfo(f), c.getResolvedMethodInfo(f));
+    assertEquals(a.getMethodInfo(g), c.getResolvedMethodInfo(g));
+    assertNull(a.getResolvedMethodInfo(symbolTable.getSymbols().intern("h")));
+  }
+}
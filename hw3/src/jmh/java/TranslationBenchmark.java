@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ast.ArenaJtbBridge;
+import ast.AstArena;
+import context.TranslationContext;
+import minijava.ParseException;
+import myVisitor.SymbolTableBuilderVisitor;
+import myVisitor.TranslationVisitor;
+import parser.MiniJavaAstParser;
+import sparrow.Program;
+import symbolTable.SymbolTable;
+import utils.SparrowWriter;
+
+/**
+ * Translates one large MiniJava method to Sparrow, and writes the result
+ * out, the way J2S does after parsing.
+ *
+ * The "nested" method is a chain of if statements, each nested in the
+ * previous one's then branch; "sequential" is the same number of if
+ * statements one after the other inside a while loop. Both produce about
+ * eleven instructions per statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Xss512m" })
+public class TranslationBenchmark {
+  @Param({ "nested", "sequential" })
+  private String shape;
+
+  @Param({ "2000", "8000" })
+  private int statements;
+
+  private AstArena ast;
+  private SymbolTable symbolTable;
+
+  @Setup
+  public void setUp() throws ParseException {
+    ast = AstArena.build(MiniJavaAstParser.parse(program()));
+    SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+    ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
+    symbolTable = symbolTableBuilderVisitor.getSymbolTable();
+    symbolTable.resolveInheritance();
+  }
+
+  @Benchmark
+  public int translate() {
+    return translateProgram().funDecls.get(1).block.instructions.size();
+  }
+
+  @Benchmark
+  public long translateAndWrite() throws IOException {
+    CountingWriter out = new CountingWriter();
+    SparrowWriter.write(translateProgram(), out);
+    return out.count;
+  }
+
+  private Program translateProgram() {
+    TranslationVisitor translationVisitor = new TranslationVisitor();
+    TranslationContext translationContext = new TranslationContext(symbolTable, null, null);
+    return translationVisitor.buildProgram(ArenaJtbBridge.visitClasses(ast, translationVisitor, translationContext));
+  }
+
+  private String program() {
+    StringBuilder source = new StringBuilder();
+    source.append("class Main {\n")
+        .append("  public static void main(String[] args) {\n")
+        .append("    System.out.println(new A().f(10));\n")
+        .append("  }\n")
+        .append("}\n")
+        .append("class A {\n")
+        .append("  public int f(int x) {\n")
+        .append("    int s;\n")
+        .append("    s = 0;\n");
+
+    if (shape.equals("nested")) {
+      for (int i = 0; i < statements; i++) {
+        source.append("    if (s < x) { s = s + 1;\n");
+      }
+      for (int i = 0; i < statements; i++) {
+        source.append("    } else { s = s - 1; }\n");
+      }
+    } else {
+      source.append("    while (s < x) {\n");
+      for (int i = 0; i < statements; i++) {
+        source.append("      if (s < x) { s = s + 1; } else { s = s - 1; }\n");
+      }
+      source.append("    }\n");
+    }
+
+    source.append("    return s;\n")
+        .append("  }\n")
+        .append("}\n");
+    return source.toString();
+  }
+
+  private static class CountingWriter extends Writer {
+    long count = 0;
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+      count += length;
+    }
+
+    @Override
+    public void write(String text) {
+      count += text.length();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -1,18 +1,29 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import algorithm.BoundsCheckElimination;
+import algorithm.NullCheckElimination;
+import ast.ArenaJtbBridge;
+import ast.AstArena;
 import context.TranslationContext;
-import minijava.MiniJavaParser;
 import minijava.ParseException;
-import minijava.syntaxtree.Goal;
 import myVisitor.SymbolTableBuilderVisitor;
 import myVisitor.TranslationVisitor;
+import parser.MiniJavaAstParser;
+import sparrow.FunctionDecl;
 import sparrow.Program;
 import symbolTable.SymbolTable;
+import utils.InputReader;
+import utils.SparrowWriter;
 
 public class J2S {
   public static void main(String[] args) {
     try {
-      Goal root = new MiniJavaParser(System.in).Goal();
-      SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor();
-      root.accept(symbolTableBuilderVisitor, null);
+      AstArena ast = AstArena.build(MiniJavaAstParser.parse(InputReader.open(args)));
+      SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+      ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
 
       SymbolTable symbolTable = symbolTableBuilderVisitor.getSymbolTable();
       symbolTable.resolveInheritance();
@@ -20,14 +31,33 @@ public class J2S {
 
       TranslationVisitor translationVisitor = new TranslationVisitor();
       TranslationContext translationContext = new TranslationContext(symbolTable, null, null);
-      root.accept(translationVisitor, translationContext);
+      Program prog = translationVisitor.buildProgram(
+          ArenaJtbBridge.visitClasses(ast, translationVisitor, translationContext));
+      System.err.println("Devirtualized " + translationVisitor.getDevirtualizedCount() + " of "
+          + translationVisitor.getCallCount() + " call sites");
 
-      Program prog = translationVisitor.getProgram();
+      NullCheckElimination nullCheckElimination = new NullCheckElimination();
+      BoundsCheckElimination boundsCheckElimination = new BoundsCheckElimination();
+      for (FunctionDecl function : prog.funDecls) {
+        nullCheckElimination.run(function);
+        boundsCheckElimination.run(function);
+      }
+      System.err.println("Removed " + nullCheckElimination.getRemovedCount() + " of "
+          + nullCheckElimination.getCheckCount() + " null checks");
+      System.err.println("Removed " + boundsCheckElimination.getRemovedCount() + " and narrowed "
+          + boundsCheckElimination.getNarrowedCount() + " of " + boundsCheckElimination.getCheckCount()
+          + " bounds checks");
 
-      System.out.println(prog.toString());
+      PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+      SparrowWriter.write(prog, out);
+      out.println();
+      out.flush();
     } catch (ParseException e) {
       System.err.println("Parse error: " + e.getMessage());
       return;
+    } catch (IOException e) {
+      System.err.println("Could not read input: " + e.getMessage());
+      System.exit(1);
     }
   }
 }
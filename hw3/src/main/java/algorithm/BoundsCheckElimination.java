@@ -0,0 +1,690 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import IR.token.Identifier;
+import sparrow.Add;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Store;
+import sparrow.Subtract;
+
+/**
+ * Removes the array bounds checks J2S emits whose outcome is already
+ * known, and narrows those where only one half is.
+ *
+ * A bounds check computes (-1 < index) * (index < length) and jumps to
+ * error("array index out of bounds") when that is 0. A forward dataflow
+ * over the function tracks, at each point:
+ *
+ * - the value of variables as terms over other variables, constants,
+ *   fields of this and array lengths, so that two computations of j - 1,
+ *   or two loads of the same field or length, are recognised as equal;
+ * - the comparisons known to hold, from conditions whose jump was not
+ *   taken, which includes every bounds check already passed and loop
+ *   conditions such as i < a.length;
+ * - a range for each integer variable, which for a loop counter that
+ *   starts at 0 and only counts up proves it non-negative.
+ *
+ * A check whose two comparisons are both known is removed, along with
+ * the code computing them; one with just one of them known only tests the
+ * other. The analysis relies on J2S's own output: fields are only stored
+ * through this, and calls may change any of them.
+ */
+public class BoundsCheckElimination {
+  private int checkCount = 0;
+  private int removedCount = 0;
+  private int narrowedCount = 0;
+
+  public int getCheckCount() {
+    return checkCount;
+  }
+
+  public int getRemovedCount() {
+    return removedCount;
+  }
+
+  public int getNarrowedCount() {
+    return narrowedCount;
+  }
+
+  public void run(FunctionDecl function) {
+    List<Instruction> instructions = function.block.instructions;
+    CheckSite[] sites = findCheckSites(instructions);
+    boolean anySites = false;
+    for (CheckSite site : sites) {
+      if (site != null) {
+        checkCount++;
+        anySites = true;
+      }
+    }
+    if (!anySites) {
+      return;
+    }
+
+    Analysis analysis = new Analysis(function);
+    ControlFlowGraph cfg = new ControlFlowGraph(instructions);
+    State[] in = analysis.solve(cfg);
+
+    Instruction[] replacements = new Instruction[instructions.size()];
+    boolean[] removed = new boolean[instructions.size()];
+    Set<Instruction> safeLoads = Collections.newSetFromMap(new IdentityHashMap<>());
+    boolean changed = false;
+    for (int block = 0; block < cfg.getBlockCount(); block++) {
+      if (in[block] == null) {
+        continue;
+      }
+      State state = in[block].copy();
+      for (int i = cfg.getStart(block); i < cfg.getEnd(block); i++) {
+        CheckSite site = sites[i];
+        if (site != null) {
+          Term index = state.termOf(site.index);
+          boolean lowerKnown = state.rangeOf(site.index).lo >= 0;
+          boolean upperKnown = state.relations.containsKey(Term.binary('<', index, state.termOf(site.length)).text);
+          IfGoto check = (IfGoto) instructions.get(i);
+          if (lowerKnown && upperKnown) {
+            removed[i] = true;
+            safeLoads.add(site.lengthLoad);
+            removedCount++;
+            changed = true;
+          } else if (lowerKnown || upperKnown) {
+            replacements[i] = new IfGoto(lowerKnown ? site.upper : site.lower, check.label);
+            narrowedCount++;
+            changed = true;
+          }
+        }
+        analysis.transfer(instructions.get(i), state);
+      }
+    }
+    if (!changed) {
+      return;
+    }
+
+    List<Instruction> kept = new ArrayList<>(instructions.size());
+    for (int i = 0; i < instructions.size(); i++) {
+      if (!removed[i]) {
+        kept.add(replacements[i] != null ? replacements[i] : instructions.get(i));
+      }
+    }
+    function.block.instructions = JumpCleanup.run(kept);
+    DeadCodeElimination.run(function.block, safeLoads);
+  }
+
+  /*
+   * The bounds checks, by the index of their if0. Only checks in the exact
+   * shape J2S emits are recognised.
+   */
+  private static CheckSite[] findCheckSites(List<Instruction> instructions) {
+    Set<String> errorLabels = new HashSet<>();
+    for (int i = 0; i + 1 < instructions.size(); i++) {
+      Instruction next = instructions.get(i + 1);
+      if (instructions.get(i) instanceof LabelInstr && next instanceof ErrorMessage
+          && ((ErrorMessage) next).msg.equals(constant.ErrorMessage.arrayIndexOutOfBounds)) {
+        errorLabels.add(((LabelInstr) instructions.get(i)).label.toString());
+      }
+    }
+
+    CheckSite[] sites = new CheckSite[instructions.size()];
+    for (int i = 0; i < instructions.size(); i++) {
+      Instruction instruction = instructions.get(i);
+      if (instruction instanceof IfGoto && errorLabels.contains(((IfGoto) instruction).label.toString())) {
+        sites[i] = matchCheckSite(instructions, i);
+      }
+    }
+    return sites;
+  }
+
+  private static CheckSite matchCheckSite(List<Instruction> instructions, int check) {
+    Instruction product = definitionBefore(instructions, check, ((IfGoto) instructions.get(check)).condition);
+    if (!(product instanceof Multiply)) {
+      return null;
+    }
+    Identifier lower = ((Multiply) product).arg1;
+    Identifier upper = ((Multiply) product).arg2;
+    Instruction lowerTest = definitionBefore(instructions, check, lower);
+    Instruction upperTest = definitionBefore(instructions, check, upper);
+    if (!(lowerTest instanceof LessThan) || !(upperTest instanceof LessThan)) {
+      return null;
+    }
+    Identifier index = ((LessThan) upperTest).arg1;
+    Identifier length = ((LessThan) upperTest).arg2;
+    Instruction lengthLoad = definitionBefore(instructions, check, length);
+    if (!((LessThan) lowerTest).arg2.toString().equals(index.toString()) || !(lengthLoad instanceof Load)
+        || ((Load) lengthLoad).offset != 0) {
+      return null;
+    }
+
+    // The lower test must be -1 < index, or dropping it when the index is
+    // known non-negative would not be sound
+    int upperTestIndex = instructions.lastIndexOf(upperTest);
+    int lowerTestIndex = instructions.lastIndexOf(lowerTest);
+    Integer lowerBound = constantBefore(instructions, lowerTestIndex, ((LessThan) lowerTest).arg1);
+    if (lowerBound == null || lowerBound != -1) {
+      return null;
+    }
+
+    // The index and length must still hold the values the two tests compared
+    if (definedBetween(instructions, Math.min(lowerTestIndex, upperTestIndex), check, index)
+        || definedBetween(instructions, upperTestIndex, check, length)) {
+      return null;
+    }
+    return new CheckSite(lower, upper, index, length, (Load) lengthLoad);
+  }
+
+  /*
+   * The constant the variable holds just before the given instruction, when
+   * it is set in the same block by an integer move or a subtraction of two
+   * such, as J2S computes -1; otherwise null.
+   */
+  private static Integer constantBefore(List<Instruction> instructions, int end, Identifier variable) {
+    Instruction definition = definitionBefore(instructions, end, variable);
+    if (definition instanceof Move_Id_Integer) {
+      return ((Move_Id_Integer) definition).rhs;
+    }
+    if (definition instanceof Subtract) {
+      int at = instructions.lastIndexOf(definition);
+      Integer left = constantBefore(instructions, at, ((Subtract) definition).arg1);
+      Integer right = constantBefore(instructions, at, ((Subtract) definition).arg2);
+      if (left != null && right != null) {
+        return left - right;
+      }
+    }
+    return null;
+  }
+
+  /*
+   * The last assignment to the variable in the same block before the given
+   * instruction, or null.
+   */
+  private static Instruction definitionBefore(List<Instruction> instructions, int end, Identifier variable) {
+    for (int i = end - 1; i >= 0; i--) {
+      Instruction instruction = instructions.get(i);
+      if (instruction instanceof LabelInstr || ControlFlowGraph.endsBlock(instruction)) {
+        return null;
+      }
+      Identifier defined = ControlFlowGraph.getDefinition(instruction);
+      if (defined != null && defined.toString().equals(variable.toString())) {
+        return instruction;
+      }
+    }
+    return null;
+  }
+
+  private static boolean definedBetween(List<Instruction> instructions, int start, int end, Identifier variable) {
+    for (int i = start + 1; i < end; i++) {
+      Identifier defined = ControlFlowGraph.getDefinition(instructions.get(i));
+      if (defined != null && defined.toString().equals(variable.toString())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class CheckSite {
+    final Identifier lower;
+    final Identifier upper;
+    final Identifier index;
+    final Identifier length;
+    final Load lengthLoad;
+
+    CheckSite(Identifier lower, Identifier upper, Identifier index, Identifier length, Load lengthLoad) {
+      this.lower = lower;
+      this.upper = upper;
+      this.index = index;
+      this.length = length;
+      this.lengthLoad = lengthLoad;
+    }
+  }
+
+  private static class Analysis {
+    private final List<Instruction> instructions;
+    private final String receiver;
+    // Variables assigned in more than one place, such as loop counters
+    private final Set<String> reassigned = new HashSet<>();
+    // Variables assigned a sum, as every array element address J2S computes is
+    private final Set<String> elementAddresses = new HashSet<>();
+
+    Analysis(FunctionDecl function) {
+      this.instructions = function.block.instructions;
+      this.receiver = function.formalParameters.isEmpty() ? null : function.formalParameters.get(0).toString();
+
+      Set<String> assigned = new HashSet<>();
+      for (Identifier parameter : function.formalParameters) {
+        assigned.add(parameter.toString());
+      }
+      for (Instruction instruction : instructions) {
+        Identifier defined = ControlFlowGraph.getDefinition(instruction);
+        if (defined != null && !assigned.add(defined.toString())) {
+          reassigned.add(defined.toString());
+        }
+        if (instruction instanceof Add) {
+          elementAddresses.add(defined.toString());
+        }
+      }
+    }
+
+    /*
+     * The state on entry to each block, or null for blocks no path from
+     * the function's entry reaches. Ranges are widened along jumps
+     * backwards, which in J2S's output are exactly the loops' back edges.
+     */
+    State[] solve(ControlFlowGraph cfg) {
+      State[] in = new State[cfg.getBlockCount()];
+      if (cfg.getBlockCount() == 0) {
+        return in;
+      }
+      Liveness liveness = new Liveness(cfg);
+
+      // Blocks waiting to be visited, earliest first, so that a block is
+      // usually only visited once everything before it has settled
+      BitSet worklist = new BitSet(cfg.getBlockCount());
+      in[0] = new State();
+      worklist.set(0);
+
+      for (int block = 0; block >= 0; block = worklist.nextSetBit(0)) {
+        worklist.clear(block);
+
+        State out = in[block].copy();
+        for (int i = cfg.getStart(block); i < cfg.getEnd(block); i++) {
+          transfer(instructions.get(i), out);
+        }
+
+        State notTaken = out;
+        Instruction last = instructions.get(cfg.getEnd(block) - 1);
+        if (last instanceof IfGoto) {
+          notTaken = out.copy();
+          notTaken.assume(notTaken.termOf(((IfGoto) last).condition));
+        }
+
+        int[] successors = { cfg.getFallThrough(block), cfg.getJumpTarget(block) };
+        State[] states = { notTaken, out };
+        for (int s = 0; s < successors.length; s++) {
+          int successor = successors[s];
+          if (successor == ControlFlowGraph.NONE) {
+            continue;
+          }
+          State incoming = states[s].liveAt(liveness, successor);
+          boolean changed;
+          if (in[successor] == null) {
+            in[successor] = incoming;
+            changed = true;
+          } else {
+            changed = in[successor].merge(incoming, successor <= block);
+          }
+          if (changed) {
+            worklist.set(successor);
+          }
+        }
+      }
+      return in;
+    }
+
+    void transfer(Instruction instruction, State state) {
+      if (instruction instanceof Call
+          || instruction instanceof Store && state.termOf(((Store) instruction).base).text.equals(receiver)) {
+        state.forgetFields();
+      }
+
+      Identifier defined = ControlFlowGraph.getDefinition(instruction);
+      if (defined == null) {
+        return;
+      }
+      String variable = defined.toString();
+      Term value = valueOf(instruction, state);
+      Interval range = rangeOf(instruction, state);
+
+      /*
+       * A variable assigned in several places is left as a term of its
+       * own, so that facts about it read the same on every path, and on
+       * every trip around a loop.
+       */
+      state.forget(variable);
+      if (value != null && !reassigned.contains(variable) && !value.variables.contains(variable)) {
+        state.values.put(variable, value);
+      }
+      if (!range.isFull()) {
+        state.ranges.put(variable, range);
+      }
+    }
+
+    private Term valueOf(Instruction instruction, State state) {
+      if (instruction instanceof Move_Id_Integer) {
+        return Term.constant(((Move_Id_Integer) instruction).rhs);
+      }
+      if (instruction instanceof Move_Id_Id) {
+        return state.termOf(((Move_Id_Id) instruction).rhs);
+      }
+      if (instruction instanceof Add) {
+        return Term.binary('+', state.termOf(((Add) instruction).arg1), state.termOf(((Add) instruction).arg2));
+      }
+      if (instruction instanceof Subtract) {
+        Subtract subtract = (Subtract) instruction;
+        return Term.binary('-', state.termOf(subtract.arg1), state.termOf(subtract.arg2));
+      }
+      if (instruction instanceof Multiply) {
+        Multiply multiply = (Multiply) instruction;
+        return Term.binary('*', state.termOf(multiply.arg1), state.termOf(multiply.arg2));
+      }
+      if (instruction instanceof LessThan) {
+        LessThan lessThan = (LessThan) instruction;
+        return Term.binary('<', state.termOf(lessThan.arg1), state.termOf(lessThan.arg2));
+      }
+      if (instruction instanceof Load) {
+        Load load = (Load) instruction;
+        Term base = state.termOf(load.base);
+        // J2S only writes the word at offset 0 of an array or object when
+        // allocating it, so apart from an element it is an array's length
+        // or an object's vtable, and never changes
+        if (load.offset == 0 && !elementAddresses.contains(load.base.toString())) {
+          return Term.length(base);
+        }
+        if (base.text.equals(receiver)) {
+          return Term.field(base, load.offset);
+        }
+      }
+      return null;
+    }
+
+    private Interval rangeOf(Instruction instruction, State state) {
+      if (instruction instanceof Move_Id_Integer) {
+        int value = ((Move_Id_Integer) instruction).rhs;
+        return new Interval(value, value);
+      }
+      if (instruction instanceof Move_Id_Id) {
+        return state.rangeOf(((Move_Id_Id) instruction).rhs);
+      }
+      if (instruction instanceof Add) {
+        Interval a = state.rangeOf(((Add) instruction).arg1);
+        Interval b = state.rangeOf(((Add) instruction).arg2);
+        return Interval.of(a.lo + b.lo, a.hi + b.hi);
+      }
+      if (instruction instanceof Subtract) {
+        Interval a = state.rangeOf(((Subtract) instruction).arg1);
+        Interval b = state.rangeOf(((Subtract) instruction).arg2);
+        return Interval.of(a.lo - b.hi, a.hi - b.lo);
+      }
+      if (instruction instanceof Multiply) {
+        Interval a = state.rangeOf(((Multiply) instruction).arg1);
+        Interval b = state.rangeOf(((Multiply) instruction).arg2);
+        long p1 = a.lo * b.lo;
+        long p2 = a.lo * b.hi;
+        long p3 = a.hi * b.lo;
+        long p4 = a.hi * b.hi;
+        return Interval.of(Math.min(Math.min(p1, p2), Math.min(p3, p4)), Math.max(Math.max(p1, p2), Math.max(p3, p4)));
+      }
+      if (instruction instanceof LessThan) {
+        return new Interval(0, 1);
+      }
+      return Interval.FULL;
+    }
+  }
+
+  /*
+   * What is known at one point of the function. Variables missing from
+   * values hold an unknown value of their own; those missing from ranges
+   * may hold any int.
+   */
+  private static class State {
+    final Map<String, Term> values;
+    final Map<String, Term> relations;
+    final Map<String, Interval> ranges;
+
+    State() {
+      this(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    private State(Map<String, Term> values, Map<String, Term> relations, Map<String, Interval> ranges) {
+      this.values = values;
+      this.relations = relations;
+      this.ranges = ranges;
+    }
+
+    State copy() {
+      return new State(new HashMap<>(values), new HashMap<>(relations), new HashMap<>(ranges));
+    }
+
+    /*
+     * A copy keeping only the values and ranges of variables live on
+     * entry to the block, which is what keeps the states of a long
+     * function from growing with every temporary it assigns.
+     */
+    State liveAt(Liveness liveness, int block) {
+      State live = new State(new HashMap<>(), new HashMap<>(relations), new HashMap<>());
+      for (Map.Entry<String, Term> entry : values.entrySet()) {
+        if (liveness.isLiveIn(block, entry.getKey())) {
+          live.values.put(entry.getKey(), entry.getValue());
+        }
+      }
+      for (Map.Entry<String, Interval> entry : ranges.entrySet()) {
+        if (liveness.isLiveIn(block, entry.getKey())) {
+          live.ranges.put(entry.getKey(), entry.getValue());
+        }
+      }
+      return live;
+    }
+
+    Term termOf(Identifier variable) {
+      Term value = values.get(variable.toString());
+      return value != null ? value : Term.variable(variable.toString());
+    }
+
+    /*
+     * The variable's range, narrowed by the comparisons known to hold on
+     * it. Any x < y also means x + 1 cannot overflow.
+     */
+    Interval rangeOf(Identifier variable) {
+      Interval range = ranges.getOrDefault(variable.toString(), Interval.FULL);
+      long lo = range.lo;
+      long hi = range.hi;
+      String term = termOf(variable).text;
+      for (Term relation : relations.values()) {
+        if (relation.left.text.equals(term)) {
+          hi = Math.min(hi, relation.right.isConstant() ? relation.right.constant - 1L : Integer.MAX_VALUE - 1L);
+        }
+        if (relation.right.text.equals(term) && relation.left.isConstant()) {
+          lo = Math.max(lo, relation.left.constant + 1L);
+        }
+      }
+      return lo > hi ? range : new Interval(lo, hi);
+    }
+
+    /*
+     * Records what a condition being nonzero means: a comparison holds,
+     * and both factors of a nonzero product are nonzero.
+     */
+    void assume(Term condition) {
+      if (condition.operator == '<') {
+        relations.put(condition.text, condition);
+      } else if (condition.operator == '*') {
+        assume(condition.left);
+        assume(condition.right);
+      }
+    }
+
+    void forget(String variable) {
+      values.remove(variable);
+      ranges.remove(variable);
+      values.values().removeIf(term -> term.variables.contains(variable));
+      relations.values().removeIf(term -> term.variables.contains(variable));
+    }
+
+    void forgetFields() {
+      values.values().removeIf(term -> term.readsFields);
+      relations.values().removeIf(term -> term.readsFields);
+    }
+
+    /*
+     * Keeps only what holds in both states, and reports whether anything
+     * was lost.
+     */
+    boolean merge(State other, boolean widen) {
+      boolean changed = values.entrySet().removeIf(entry -> !entry.getValue().equals(other.values.get(entry.getKey())));
+      changed |= relations.keySet().retainAll(other.relations.keySet());
+
+      Iterator<Map.Entry<String, Interval>> it = ranges.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<String, Interval> entry = it.next();
+        Interval mine = entry.getValue();
+        Interval merged = mine.join(other.ranges.getOrDefault(entry.getKey(), Interval.FULL), widen);
+        if (merged.isFull()) {
+          it.remove();
+          changed = true;
+        } else if (!merged.equals(mine)) {
+          entry.setValue(merged);
+          changed = true;
+        }
+      }
+      return changed;
+    }
+  }
+
+  /*
+   * A value built from variables, constants, fields of this and array
+   * lengths. Two terms with the same text have the same value, as long as
+   * none of their variables has been assigned since, and no field read
+   * since stored to.
+   */
+  private static class Term {
+    final String text;
+    final char operator;
+    final Term left;
+    final Term right;
+    final int constant;
+    final Set<String> variables;
+    final boolean readsFields;
+
+    private Term(String text, char operator, Term left, Term right, int constant, Set<String> variables,
+        boolean readsFields) {
+      this.text = text;
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+      this.constant = constant;
+      this.variables = variables;
+      this.readsFields = readsFields;
+    }
+
+    static Term variable(String name) {
+      return new Term(name, 'v', null, null, 0, Collections.singleton(name), false);
+    }
+
+    static Term constant(int value) {
+      return new Term("#" + value, '#', null, null, value, Collections.emptySet(), false);
+    }
+
+    static Term field(Term object, int offset) {
+      return new Term("[" + object.text + "+" + offset + "]", '[', object, null, offset, object.variables, true);
+    }
+
+    static Term length(Term array) {
+      return new Term("|" + array.text + "|", '|', array, null, 0, array.variables, array.readsFields);
+    }
+
+    static Term binary(char operator, Term left, Term right) {
+      if (left.isConstant() && right.isConstant()) {
+        return constant(fold(operator, left.constant, right.constant));
+      }
+      Set<String> variables = new HashSet<>(left.variables);
+      variables.addAll(right.variables);
+      return new Term("(" + left.text + operator + right.text + ")", operator, left, right, 0, variables,
+          left.readsFields || right.readsFields);
+    }
+
+    private static int fold(char operator, int a, int b) {
+      switch (operator) {
+        case '+':
+          return a + b;
+        case '-':
+          return a - b;
+        case '*':
+          return a * b;
+        default:
+          return a < b ? 1 : 0;
+      }
+    }
+
+    boolean isConstant() {
+      return operator == '#';
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Term && ((Term) other).text.equals(text);
+    }
+
+    @Override
+    public int hashCode() {
+      return text.hashCode();
+    }
+  }
+
+  /*
+   * The ints from lo to hi. Bounds are kept as longs so that arithmetic
+   * which could overflow an int can be detected and given up on.
+   */
+  private static class Interval {
+    static final Interval FULL = new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    final long lo;
+    final long hi;
+
+    Interval(long lo, long hi) {
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    /*
+     * The interval, or FULL if the result of the arithmetic that produced
+     * these bounds might have wrapped around.
+     */
+    static Interval of(long lo, long hi) {
+      return lo < Integer.MIN_VALUE || hi > Integer.MAX_VALUE ? FULL : new Interval(lo, hi);
+    }
+
+    boolean isFull() {
+      return lo == Integer.MIN_VALUE && hi == Integer.MAX_VALUE;
+    }
+
+    /*
+     * The smallest interval holding both; when widening, a bound that
+     * moved goes straight to the end of the int range instead.
+     */
+    Interval join(Interval other, boolean widen) {
+      long newLo = Math.min(lo, other.lo);
+      long newHi = Math.max(hi, other.hi);
+      if (widen) {
+        newLo = newLo < lo ? Integer.MIN_VALUE : newLo;
+        newHi = newHi > hi ? Integer.MAX_VALUE : newHi;
+      }
+      return new Interval(newLo, newHi);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Interval && ((Interval) other).lo == lo && ((Interval) other).hi == hi;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(lo) * 31 + Long.hashCode(hi);
+    }
+  }
+}
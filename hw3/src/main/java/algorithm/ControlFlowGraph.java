@@ -0,0 +1,214 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import IR.token.Identifier;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Store;
+import sparrow.Subtract;
+
+/**
+ * The basic blocks of one Sparrow function body.
+ *
+ * A block starts at the first instruction, at every label and after every
+ * jump or error, and ends before the next such point. Blocks are numbered
+ * in instruction order, and each has at most two successors: the block
+ * after it, if control falls through, and the target of the jump that
+ * ends it, if any. For an if0, falling through is the edge on which the
+ * condition is nonzero.
+ */
+public class ControlFlowGraph {
+  public static final int NONE = -1;
+
+  private final List<Instruction> instructions;
+  // Block b covers instructions [starts[b], starts[b + 1])
+  private int[] starts;
+  private int blockCount = 0;
+  private int[] fallThrough;
+  private int[] jumpTarget;
+
+  public ControlFlowGraph(List<Instruction> instructions) {
+    this.instructions = instructions;
+    findBlocks();
+    linkBlocks();
+  }
+
+  public List<Instruction> getInstructions() {
+    return instructions;
+  }
+
+  public int getBlockCount() {
+    return blockCount;
+  }
+
+  public int getStart(int block) {
+    return starts[block];
+  }
+
+  /**
+   * One past the block's last instruction.
+   */
+  public int getEnd(int block) {
+    return starts[block + 1];
+  }
+
+  /**
+   * The block control falls through to, or NONE.
+   */
+  public int getFallThrough(int block) {
+    return fallThrough[block];
+  }
+
+  /**
+   * The block the jump ending this block goes to, or NONE.
+   */
+  public int getJumpTarget(int block) {
+    return jumpTarget[block];
+  }
+
+  /**
+   * The variable the instruction assigns, or null.
+   */
+  public static Identifier getDefinition(Instruction instruction) {
+    if (instruction instanceof Move_Id_Integer) {
+      return ((Move_Id_Integer) instruction).lhs;
+    }
+    if (instruction instanceof Move_Id_FuncName) {
+      return ((Move_Id_FuncName) instruction).lhs;
+    }
+    if (instruction instanceof Move_Id_Id) {
+      return ((Move_Id_Id) instruction).lhs;
+    }
+    if (instruction instanceof Add) {
+      return ((Add) instruction).lhs;
+    }
+    if (instruction instanceof Subtract) {
+      return ((Subtract) instruction).lhs;
+    }
+    if (instruction instanceof Multiply) {
+      return ((Multiply) instruction).lhs;
+    }
+    if (instruction instanceof LessThan) {
+      return ((LessThan) instruction).lhs;
+    }
+    if (instruction instanceof Load) {
+      return ((Load) instruction).lhs;
+    }
+    if (instruction instanceof Alloc) {
+      return ((Alloc) instruction).lhs;
+    }
+    if (instruction instanceof Call) {
+      return ((Call) instruction).lhs;
+    }
+    return null;
+  }
+
+  /**
+   * The variables the instruction reads.
+   */
+  public static List<Identifier> getUses(Instruction instruction) {
+    List<Identifier> uses = new ArrayList<>(2);
+    if (instruction instanceof Move_Id_Id) {
+      uses.add(((Move_Id_Id) instruction).rhs);
+    } else if (instruction instanceof Add) {
+      uses.add(((Add) instruction).arg1);
+      uses.add(((Add) instruction).arg2);
+    } else if (instruction instanceof Subtract) {
+      uses.add(((Subtract) instruction).arg1);
+      uses.add(((Subtract) instruction).arg2);
+    } else if (instruction instanceof Multiply) {
+      uses.add(((Multiply) instruction).arg1);
+      uses.add(((Multiply) instruction).arg2);
+    } else if (instruction instanceof LessThan) {
+      uses.add(((LessThan) instruction).arg1);
+      uses.add(((LessThan) instruction).arg2);
+    } else if (instruction instanceof Load) {
+      uses.add(((Load) instruction).base);
+    } else if (instruction instanceof Store) {
+      uses.add(((Store) instruction).base);
+      uses.add(((Store) instruction).rhs);
+    } else if (instruction instanceof Alloc) {
+      uses.add(((Alloc) instruction).size);
+    } else if (instruction instanceof Call) {
+      uses.add(((Call) instruction).callee);
+      uses.addAll(((Call) instruction).args);
+    } else if (instruction instanceof IfGoto) {
+      uses.add(((IfGoto) instruction).condition);
+    } else if (instruction instanceof Print) {
+      uses.add(((Print) instruction).content);
+    }
+    return uses;
+  }
+
+  /**
+   * Whether the instruction jumps or stops, ending its block.
+   */
+  public static boolean endsBlock(Instruction instruction) {
+    return instruction instanceof Goto || instruction instanceof IfGoto || instruction instanceof ErrorMessage;
+  }
+
+  private void findBlocks() {
+    starts = new int[16];
+    for (int i = 0; i < instructions.size(); i++) {
+      Instruction instruction = instructions.get(i);
+      boolean afterJump = i > 0 && endsBlock(instructions.get(i - 1));
+      if (i == 0 || afterJump || instruction instanceof LabelInstr) {
+        addStart(i);
+      }
+    }
+    addStart(instructions.size());
+    blockCount--;
+  }
+
+  private void addStart(int index) {
+    if (blockCount > 0 && starts[blockCount - 1] == index) {
+      return;
+    }
+    if (blockCount == starts.length) {
+      starts = Arrays.copyOf(starts, blockCount * 2);
+    }
+    starts[blockCount++] = index;
+  }
+
+  private void linkBlocks() {
+    Map<String, Integer> labelBlocks = new HashMap<>();
+    for (int block = 0; block < blockCount; block++) {
+      Instruction first = instructions.get(starts[block]);
+      if (first instanceof LabelInstr) {
+        labelBlocks.put(((LabelInstr) first).label.toString(), block);
+      }
+    }
+
+    fallThrough = new int[blockCount];
+    jumpTarget = new int[blockCount];
+    for (int block = 0; block < blockCount; block++) {
+      Instruction last = instructions.get(starts[block + 1] - 1);
+      int next = block + 1 < blockCount ? block + 1 : NONE;
+      fallThrough[block] = last instanceof Goto || last instanceof ErrorMessage ? NONE : next;
+      jumpTarget[block] = NONE;
+      if (last instanceof Goto) {
+        jumpTarget[block] = labelBlocks.get(((Goto) last).label.toString());
+      } else if (last instanceof IfGoto) {
+        jumpTarget[block] = labelBlocks.get(((IfGoto) last).label.toString());
+      }
+    }
+  }
+}
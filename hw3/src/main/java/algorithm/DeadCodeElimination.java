@@ -0,0 +1,68 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import IR.token.Identifier;
+import sparrow.Add;
+import sparrow.Block;
+import sparrow.Instruction;
+import sparrow.LessThan;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Subtract;
+
+/**
+ * Removes assignments to variables nothing in the function reads.
+ *
+ * Only instructions that cannot fail are removed: moves and arithmetic,
+ * plus whichever loads the caller knows to be safe. Removing one can leave
+ * the assignments to its operands unread in turn, so this repeats until
+ * nothing changes.
+ */
+public class DeadCodeElimination {
+  public static void run(Block block, Set<Instruction> safeLoads) {
+    Map<String, int[]> uses = new HashMap<>();
+    for (Instruction instruction : block.instructions) {
+      for (Identifier use : ControlFlowGraph.getUses(instruction)) {
+        uses.computeIfAbsent(use.toString(), name -> new int[1])[0]++;
+      }
+    }
+    uses.computeIfAbsent(block.return_id.toString(), name -> new int[1])[0]++;
+
+    List<Instruction> instructions = block.instructions;
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      List<Instruction> kept = new ArrayList<>(instructions.size());
+      for (Instruction instruction : instructions) {
+        Identifier defined = ControlFlowGraph.getDefinition(instruction);
+        boolean removable = isPure(instruction) || safeLoads.contains(instruction);
+        if (defined != null && removable && !uses.containsKey(defined.toString())) {
+          for (Identifier use : ControlFlowGraph.getUses(instruction)) {
+            int[] count = uses.get(use.toString());
+            if (--count[0] == 0) {
+              uses.remove(use.toString());
+            }
+          }
+          changed = true;
+        } else {
+          kept.add(instruction);
+        }
+      }
+      instructions = kept;
+    }
+    block.instructions = instructions;
+  }
+
+  private static boolean isPure(Instruction instruction) {
+    return instruction instanceof Move_Id_Integer || instruction instanceof Move_Id_FuncName
+        || instruction instanceof Move_Id_Id || instruction instanceof Add || instruction instanceof Subtract
+        || instruction instanceof Multiply || instruction instanceof LessThan;
+  }
+}
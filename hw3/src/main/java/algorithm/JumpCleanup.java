@@ -0,0 +1,112 @@
+package algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sparrow.ErrorMessage;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+
+/**
+ * Tidies a function body after passes that delete jumps: drops labels
+ * nothing jumps to, code that can no longer be reached, and gotos to the
+ * label right after them.
+ */
+public class JumpCleanup {
+  public static List<Instruction> run(List<Instruction> instructions) {
+    Map<String, int[]> references = countReferences(instructions);
+    return removeJumpsToNext(removeUnreachable(instructions, references), references);
+  }
+
+  /*
+   * Code after a goto or an error is unreachable up to the next label
+   * something still jumps to. A jump removed with it no longer counts as a
+   * reference to its label.
+   */
+  private static List<Instruction> removeUnreachable(List<Instruction> instructions, Map<String, int[]> references) {
+    List<Instruction> reachable = new ArrayList<>(instructions.size());
+    boolean live = true;
+    for (Instruction instruction : instructions) {
+      if (instruction instanceof LabelInstr) {
+        if (count(references, ((LabelInstr) instruction).label.toString()) == 0) {
+          continue;
+        }
+        live = true;
+      }
+
+      if (!live) {
+        String target = jumpTarget(instruction);
+        if (target != null) {
+          references.get(target)[0]--;
+        }
+        continue;
+      }
+
+      reachable.add(instruction);
+      if (instruction instanceof Goto || instruction instanceof ErrorMessage) {
+        live = false;
+      }
+    }
+    return reachable;
+  }
+
+  private static List<Instruction> removeJumpsToNext(List<Instruction> instructions, Map<String, int[]> references) {
+    List<Instruction> result = new ArrayList<>(instructions.size());
+    for (int i = 0; i < instructions.size(); i++) {
+      Instruction instruction = instructions.get(i);
+      if (instruction instanceof Goto && jumpsPastLabelsOnly(instructions, i)) {
+        references.get(((Goto) instruction).label.toString())[0]--;
+        continue;
+      }
+      if (instruction instanceof LabelInstr && count(references, ((LabelInstr) instruction).label.toString()) == 0) {
+        continue;
+      }
+      result.add(instruction);
+    }
+    return result;
+  }
+
+  /*
+   * Whether the goto at index targets one of the labels directly after
+   * it, so that falling through does the same.
+   */
+  private static boolean jumpsPastLabelsOnly(List<Instruction> instructions, int index) {
+    String target = ((Goto) instructions.get(index)).label.toString();
+    for (int i = index + 1; i < instructions.size() && instructions.get(i) instanceof LabelInstr; i++) {
+      if (((LabelInstr) instructions.get(i)).label.toString().equals(target)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Map<String, int[]> countReferences(List<Instruction> instructions) {
+    Map<String, int[]> references = new HashMap<>();
+    for (Instruction instruction : instructions) {
+      String target = jumpTarget(instruction);
+      if (target != null) {
+        references.computeIfAbsent(target, label -> new int[1])[0]++;
+      }
+    }
+    return references;
+  }
+
+  private static int count(Map<String, int[]> references, String label) {
+    int[] count = references.get(label);
+    return count == null ? 0 : count[0];
+  }
+
+  private static String jumpTarget(Instruction instruction) {
+    if (instruction instanceof Goto) {
+      return ((Goto) instruction).label.toString();
+    }
+    if (instruction instanceof IfGoto) {
+      return ((IfGoto) instruction).label.toString();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,96 @@
+package algorithm;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import IR.token.Identifier;
+import sparrow.Instruction;
+
+/**
+ * The variables live on entry to each block of a function: those read
+ * later on some path before being assigned again.
+ *
+ * Only variables read in a block other than the one assigning them are
+ * numbered; the rest, which are most of J2S's temporaries, are never live
+ * on entry to any block.
+ */
+public class Liveness {
+  private final Map<String, Integer> numbers = new HashMap<>();
+  private final BitSet[] liveIn;
+
+  public Liveness(ControlFlowGraph cfg) {
+    List<Instruction> instructions = cfg.getInstructions();
+    int blockCount = cfg.getBlockCount();
+
+    // Variables read in each block before any assignment in it
+    BitSet[] used = new BitSet[blockCount];
+    for (int block = 0; block < blockCount; block++) {
+      used[block] = new BitSet();
+      Set<String> assignedHere = new HashSet<>();
+      for (int i = cfg.getStart(block); i < cfg.getEnd(block); i++) {
+        for (Identifier use : ControlFlowGraph.getUses(instructions.get(i))) {
+          if (!assignedHere.contains(use.toString())) {
+            used[block].set(number(use.toString()));
+          }
+        }
+        Identifier defined = ControlFlowGraph.getDefinition(instructions.get(i));
+        if (defined != null) {
+          assignedHere.add(defined.toString());
+        }
+      }
+    }
+
+    BitSet[] assigned = new BitSet[blockCount];
+    for (int block = 0; block < blockCount; block++) {
+      assigned[block] = new BitSet();
+      for (int i = cfg.getStart(block); i < cfg.getEnd(block); i++) {
+        Identifier defined = ControlFlowGraph.getDefinition(instructions.get(i));
+        Integer number = defined == null ? null : numbers.get(defined.toString());
+        if (number != null) {
+          assigned[block].set(number);
+        }
+      }
+    }
+
+    liveIn = new BitSet[blockCount];
+    for (int block = 0; block < blockCount; block++) {
+      liveIn[block] = (BitSet) used[block].clone();
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int block = blockCount - 1; block >= 0; block--) {
+        BitSet live = new BitSet();
+        for (int successor : new int[] { cfg.getFallThrough(block), cfg.getJumpTarget(block) }) {
+          if (successor != ControlFlowGraph.NONE) {
+            live.or(liveIn[successor]);
+          }
+        }
+        live.andNot(assigned[block]);
+        live.or(used[block]);
+        if (!live.equals(liveIn[block])) {
+          liveIn[block] = live;
+          changed = true;
+        }
+      }
+    }
+  }
+
+  public boolean isLiveIn(int block, String variable) {
+    Integer number = numbers.get(variable);
+    return number != null && liveIn[block].get(number);
+  }
+
+  private int number(String variable) {
+    Integer number = numbers.get(variable);
+    if (number == null) {
+      number = numbers.size();
+      numbers.put(variable, number);
+    }
+    return number;
+  }
+}
@@ -0,0 +1,243 @@
+package algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import IR.token.Identifier;
+import sparrow.Alloc;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+
+/**
+ * Removes the null checks in front of method calls whose receiver is
+ * known not to be null.
+ *
+ * A null check is an if0 on the receiver jumping to a label followed by
+ * error("null pointer"). A variable is known to be non-null where every
+ * path to it passes through an allocation into it, a nonzero constant or
+ * function name moved into it, or an if0 on it that fell through, with no
+ * other assignment since; copies carry the fact along. A method's this is
+ * non-null on entry, since a method is only ever called after its
+ * receiver has been checked.
+ */
+public class NullCheckElimination {
+  private int checkCount = 0;
+  private int removedCount = 0;
+
+  public int getCheckCount() {
+    return checkCount;
+  }
+
+  public int getRemovedCount() {
+    return removedCount;
+  }
+
+  public void run(FunctionDecl function) {
+    List<Instruction> instructions = function.block.instructions;
+    Set<String> errorLabels = findErrorLabels(instructions);
+    if (errorLabels.isEmpty()) {
+      return;
+    }
+
+    Map<String, Integer> variables = trackedVariables(instructions, errorLabels);
+    ControlFlowGraph cfg = new ControlFlowGraph(instructions);
+    BitSet[] in = solve(cfg, variables, entryFacts(function, variables));
+
+    boolean[] redundant = new boolean[instructions.size()];
+    boolean removedAny = false;
+    for (int block = 0; block < cfg.getBlockCount(); block++) {
+      if (in[block] == null) {
+        continue;
+      }
+      BitSet facts = (BitSet) in[block].clone();
+      for (int i = cfg.getStart(block); i < cfg.getEnd(block); i++) {
+        Instruction instruction = instructions.get(i);
+        if (isNullCheck(instruction, errorLabels) && facts.get(variables.get(conditionOf(instruction)))) {
+          redundant[i] = true;
+          removedAny = true;
+        }
+        transfer(instruction, facts, variables);
+      }
+    }
+
+    for (Instruction instruction : instructions) {
+      if (isNullCheck(instruction, errorLabels)) {
+        checkCount++;
+      }
+    }
+    if (!removedAny) {
+      return;
+    }
+
+    List<Instruction> kept = new ArrayList<>(instructions.size());
+    for (int i = 0; i < instructions.size(); i++) {
+      if (redundant[i]) {
+        removedCount++;
+      } else {
+        kept.add(instructions.get(i));
+      }
+    }
+    function.block.instructions = JumpCleanup.run(kept);
+  }
+
+  /*
+   * The labels directly followed by a null pointer error.
+   */
+  private static Set<String> findErrorLabels(List<Instruction> instructions) {
+    Set<String> labels = new HashSet<>();
+    for (int i = 0; i + 1 < instructions.size(); i++) {
+      Instruction next = instructions.get(i + 1);
+      if (instructions.get(i) instanceof LabelInstr && next instanceof ErrorMessage
+          && ((ErrorMessage) next).msg.equals(constant.ErrorMessage.nullPointer)) {
+        labels.add(((LabelInstr) instructions.get(i)).label.toString());
+      }
+    }
+    return labels;
+  }
+
+  private static boolean isNullCheck(Instruction instruction, Set<String> errorLabels) {
+    return instruction instanceof IfGoto && errorLabels.contains(((IfGoto) instruction).label.toString());
+  }
+
+  private static String conditionOf(Instruction instruction) {
+    return ((IfGoto) instruction).condition.toString();
+  }
+
+  /*
+   * Numbers the variables whose facts can matter: those null checks test,
+   * and anything copied into one of them.
+   */
+  private static Map<String, Integer> trackedVariables(List<Instruction> instructions, Set<String> errorLabels) {
+    Map<String, Integer> variables = new HashMap<>();
+    for (Instruction instruction : instructions) {
+      if (isNullCheck(instruction, errorLabels)) {
+        variables.putIfAbsent(conditionOf(instruction), variables.size());
+      }
+    }
+
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Instruction instruction : instructions) {
+        if (instruction instanceof Move_Id_Id) {
+          Move_Id_Id move = (Move_Id_Id) instruction;
+          if (variables.containsKey(move.lhs.toString()) && !variables.containsKey(move.rhs.toString())) {
+            variables.put(move.rhs.toString(), variables.size());
+            changed = true;
+          }
+        }
+      }
+    }
+    return variables;
+  }
+
+  private static BitSet entryFacts(FunctionDecl function, Map<String, Integer> variables) {
+    BitSet facts = new BitSet(variables.size());
+    if (!function.formalParameters.isEmpty()) {
+      Integer receiver = variables.get(function.formalParameters.get(0).toString());
+      if (receiver != null) {
+        facts.set(receiver);
+      }
+    }
+    return facts;
+  }
+
+  /*
+   * The facts holding on entry to each block, or null for blocks no path
+   * from the function's entry reaches.
+   */
+  private static BitSet[] solve(ControlFlowGraph cfg, Map<String, Integer> variables, BitSet entry) {
+    List<Instruction> instructions = cfg.getInstructions();
+    BitSet[] in = new BitSet[cfg.getBlockCount()];
+    if (cfg.getBlockCount() == 0) {
+      return in;
+    }
+
+    Deque<Integer> worklist = new ArrayDeque<>();
+    boolean[] queued = new boolean[cfg.getBlockCount()];
+    in[0] = entry;
+    worklist.add(0);
+    queued[0] = true;
+
+    while (!worklist.isEmpty()) {
+      int block = worklist.poll();
+      queued[block] = false;
+
+      BitSet out = (BitSet) in[block].clone();
+      for (int i = cfg.getStart(block); i < cfg.getEnd(block); i++) {
+        transfer(instructions.get(i), out, variables);
+      }
+
+      Instruction last = instructions.get(cfg.getEnd(block) - 1);
+      BitSet taken = out;
+      BitSet notTaken = out;
+      if (last instanceof IfGoto) {
+        Integer condition = variables.get(conditionOf(last));
+        if (condition != null) {
+          taken = (BitSet) out.clone();
+          taken.clear(condition);
+          notTaken = (BitSet) out.clone();
+          notTaken.set(condition);
+        }
+      }
+
+      int[] successors = { cfg.getFallThrough(block), cfg.getJumpTarget(block) };
+      BitSet[] facts = { notTaken, taken };
+      for (int s = 0; s < successors.length; s++) {
+        int successor = successors[s];
+        if (successor == ControlFlowGraph.NONE) {
+          continue;
+        }
+        boolean changed;
+        if (in[successor] == null) {
+          in[successor] = (BitSet) facts[s].clone();
+          changed = true;
+        } else {
+          int before = in[successor].cardinality();
+          in[successor].and(facts[s]);
+          changed = in[successor].cardinality() != before;
+        }
+        if (changed && !queued[successor]) {
+          worklist.add(successor);
+          queued[successor] = true;
+        }
+      }
+    }
+    return in;
+  }
+
+  private static void transfer(Instruction instruction, BitSet facts, Map<String, Integer> variables) {
+    Identifier defined = ControlFlowGraph.getDefinition(instruction);
+    if (defined == null) {
+      return;
+    }
+    Integer variable = variables.get(defined.toString());
+    if (variable == null) {
+      return;
+    }
+
+    boolean nonNull = false;
+    if (instruction instanceof Alloc || instruction instanceof Move_Id_FuncName) {
+      nonNull = true;
+    } else if (instruction instanceof Move_Id_Integer) {
+      nonNull = ((Move_Id_Integer) instruction).rhs != 0;
+    } else if (instruction instanceof Move_Id_Id) {
+      Integer source = variables.get(((Move_Id_Id) instruction).rhs.toString());
+      nonNull = source != null && facts.get(source);
+    }
+    facts.set(variable, nonNull);
+  }
+}
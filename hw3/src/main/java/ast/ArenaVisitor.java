@@ -0,0 +1,17 @@
+package ast;
+
+/**
+ * Callbacks for AstArena.accept, which walks the arena without recursion.
+ */
+public interface ArenaVisitor {
+  /**
+   * Called before the children of node; returns whether to visit them.
+   */
+  boolean enter(AstArena arena, int node);
+
+  /**
+   * Called after the children of node, or right after enter when they are
+   * skipped.
+   */
+  void leave(AstArena arena, int node);
+}
@@ -0,0 +1,39 @@
+package ast;
+
+public interface AstVisitor<R> {
+  R visit(Statement.Block n);
+
+  R visit(Statement.Assign n);
+
+  R visit(Statement.ArrayAssign n);
+
+  R visit(Statement.If n);
+
+  R visit(Statement.While n);
+
+  R visit(Statement.Print n);
+
+  R visit(Expression.Binary n);
+
+  R visit(Expression.ArrayLookup n);
+
+  R visit(Expression.ArrayLength n);
+
+  R visit(Expression.Call n);
+
+  R visit(Expression.IntegerLiteral n);
+
+  R visit(Expression.BooleanLiteral n);
+
+  R visit(Expression.Identifier n);
+
+  R visit(Expression.This n);
+
+  R visit(Expression.NewIntArray n);
+
+  R visit(Expression.NewObject n);
+
+  R visit(Expression.Not n);
+
+  R visit(Expression.Bracket n);
+}
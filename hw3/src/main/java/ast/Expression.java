@@ -0,0 +1,297 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * An expression. Following the MiniJava grammar, the operands of binary
+ * operators, array lookups, length and calls are primary expressions;
+ * parenthesized expressions are kept as Bracket nodes.
+ */
+public abstract class Expression {
+  public abstract <R> R accept(AstVisitor<R> visitor);
+
+  /**
+   * Whether this is a PrimaryExpression in the grammar.
+   */
+  public boolean isPrimary() {
+    return true;
+  }
+
+  /**
+   * The direct subexpressions, in source order, for walking expressions
+   * without recursion.
+   */
+  public int getOperandCount() {
+    return 0;
+  }
+
+  public Expression getOperand(int index) {
+    throw new IndexOutOfBoundsException("Operand " + index);
+  }
+
+  public enum Operator {
+    AND,
+    LESS_THAN,
+    PLUS,
+    MINUS,
+    TIMES,
+  }
+
+  public static class Binary extends Expression {
+    public final Operator operator;
+    public final Expression left;
+    public final Expression right;
+
+    public Binary(Operator operator, Expression left, Expression right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public boolean isPrimary() {
+      return false;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 2;
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return index == 0 ? left : right;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class ArrayLookup extends Expression {
+    public final Expression array;
+    public final Expression index;
+
+    public ArrayLookup(Expression array, Expression index) {
+      this.array = array;
+      this.index = index;
+    }
+
+    @Override
+    public boolean isPrimary() {
+      return false;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 2;
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return index == 0 ? array : this.index;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class ArrayLength extends Expression {
+    public final Expression array;
+
+    public ArrayLength(Expression array) {
+      this.array = array;
+    }
+
+    @Override
+    public boolean isPrimary() {
+      return false;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 1;
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return array;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class Call extends Expression {
+    public final Expression receiver;
+    public final String method;
+    public final List<Expression> arguments;
+
+    public Call(Expression receiver, String method, List<Expression> arguments) {
+      this.receiver = receiver;
+      this.method = method;
+      this.arguments = arguments;
+    }
+
+    @Override
+    public boolean isPrimary() {
+      return false;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 1 + arguments.size();
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return index == 0 ? receiver : arguments.get(index - 1);
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class IntegerLiteral extends Expression {
+    public final String value; // As written; range checks are left to later stages
+
+    public IntegerLiteral(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class BooleanLiteral extends Expression {
+    public static final BooleanLiteral TRUE = new BooleanLiteral(true);
+    public static final BooleanLiteral FALSE = new BooleanLiteral(false);
+
+    public final boolean value;
+
+    private BooleanLiteral(boolean value) {
+      this.value = value;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class Identifier extends Expression {
+    public final String name;
+
+    public Identifier(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class This extends Expression {
+    public static final This INSTANCE = new This();
+
+    private This() {
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class NewIntArray extends Expression {
+    public final Expression size;
+
+    public NewIntArray(Expression size) {
+      this.size = size;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 1;
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return size;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class NewObject extends Expression {
+    public final String className;
+
+    public NewObject(String className) {
+      this.className = className;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class Not extends Expression {
+    public final Expression operand;
+
+    public Not(Expression operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 1;
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return operand;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static class Bracket extends Expression {
+    public final Expression inner;
+
+    public Bracket(Expression inner) {
+      this.inner = inner;
+    }
+
+    @Override
+    public int getOperandCount() {
+      return 1;
+    }
+
+    @Override
+    public Expression getOperand(int index) {
+      return inner;
+    }
+
+    @Override
+    public <R> R accept(AstVisitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+}
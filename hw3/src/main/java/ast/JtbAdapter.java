@@ -0,0 +1,369 @@
+package ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import minijava.syntaxtree.AllocationExpression;
+import minijava.syntaxtree.AndExpression;
+import minijava.syntaxtree.ArrayAllocationExpression;
+import minijava.syntaxtree.ArrayAssignmentStatement;
+import minijava.syntaxtree.ArrayLength;
+import minijava.syntaxtree.ArrayLookup;
+import minijava.syntaxtree.ArrayType;
+import minijava.syntaxtree.AssignmentStatement;
+import minijava.syntaxtree.Block;
+import minijava.syntaxtree.BooleanType;
+import minijava.syntaxtree.BracketExpression;
+import minijava.syntaxtree.ClassDeclaration;
+import minijava.syntaxtree.ClassExtendsDeclaration;
+import minijava.syntaxtree.CompareExpression;
+import minijava.syntaxtree.ExpressionList;
+import minijava.syntaxtree.ExpressionRest;
+import minijava.syntaxtree.FalseLiteral;
+import minijava.syntaxtree.FormalParameter;
+import minijava.syntaxtree.FormalParameterList;
+import minijava.syntaxtree.FormalParameterRest;
+import minijava.syntaxtree.Goal;
+import minijava.syntaxtree.IfStatement;
+import minijava.syntaxtree.IntegerType;
+import minijava.syntaxtree.MessageSend;
+import minijava.syntaxtree.MethodDeclaration;
+import minijava.syntaxtree.MinusExpression;
+import minijava.syntaxtree.Node;
+import minijava.syntaxtree.NodeChoice;
+import minijava.syntaxtree.NodeListOptional;
+import minijava.syntaxtree.NodeOptional;
+import minijava.syntaxtree.NodeToken;
+import minijava.syntaxtree.NotExpression;
+import minijava.syntaxtree.PlusExpression;
+import minijava.syntaxtree.PrimaryExpression;
+import minijava.syntaxtree.PrintStatement;
+import minijava.syntaxtree.ThisExpression;
+import minijava.syntaxtree.TimesExpression;
+import minijava.syntaxtree.TrueLiteral;
+import minijava.syntaxtree.Type;
+import minijava.syntaxtree.TypeDeclaration;
+import minijava.syntaxtree.VarDeclaration;
+import minijava.syntaxtree.WhileStatement;
+
+/**
+ * Converts the compact AST into the JTB syntax tree that the JavaCC parser
+ * would have built for the same program, so that GJDepthFirst visitors run
+ * unchanged. Choice indices follow the grammar; tokens carry their images
+ * but no source positions, and identifier tokens are SymbolTokens with the
+ * program's symbol ids.
+ */
+public class JtbAdapter implements AstVisitor<Node> {
+  // NodeChoice indices of the alternatives in the grammar
+  private static final int EXPRESSION_AND = 0;
+  private static final int EXPRESSION_COMPARE = 1;
+  private static final int EXPRESSION_PLUS = 2;
+  private static final int EXPRESSION_MINUS = 3;
+  private static final int EXPRESSION_TIMES = 4;
+  private static final int EXPRESSION_ARRAY_LOOKUP = 5;
+  private static final int EXPRESSION_ARRAY_LENGTH = 6;
+  private static final int EXPRESSION_MESSAGE_SEND = 7;
+  private static final int EXPRESSION_PRIMARY = 8;
+
+  private static final int PRIMARY_INTEGER = 0;
+  private static final int PRIMARY_TRUE = 1;
+  private static final int PRIMARY_FALSE = 2;
+  private static final int PRIMARY_IDENTIFIER = 3;
+  private static final int PRIMARY_THIS = 4;
+  private static final int PRIMARY_NEW_ARRAY = 5;
+  private static final int PRIMARY_NEW_OBJECT = 6;
+  private static final int PRIMARY_NOT = 7;
+  private static final int PRIMARY_BRACKET = 8;
+
+  private static final int STATEMENT_BLOCK = 0;
+  private static final int STATEMENT_ASSIGN = 1;
+  private static final int STATEMENT_ARRAY_ASSIGN = 2;
+  private static final int STATEMENT_IF = 3;
+  private static final int STATEMENT_WHILE = 4;
+  private static final int STATEMENT_PRINT = 5;
+
+  private static final int TYPE_ARRAY = 0;
+  private static final int TYPE_BOOLEAN = 1;
+  private static final int TYPE_INTEGER = 2;
+  private static final int TYPE_IDENTIFIER = 3;
+
+  private static final int TYPE_DECLARATION_CLASS = 0;
+  private static final int TYPE_DECLARATION_EXTENDS = 1;
+
+  private final SymbolInterner symbols;
+  private final List<Node> converted = new ArrayList<>();
+
+  private JtbAdapter(SymbolInterner symbols) {
+    this.symbols = symbols;
+  }
+
+  public static Goal toGoal(Program program) {
+    return new JtbAdapter(program.symbols).goal(program);
+  }
+
+  static minijava.syntaxtree.MainClass toMainClass(MainClass main, SymbolInterner symbols) {
+    return new JtbAdapter(symbols).mainClass(main);
+  }
+
+  static TypeDeclaration toTypeDeclaration(ClassDecl decl, SymbolInterner symbols) {
+    return new JtbAdapter(symbols).typeDeclaration(decl);
+  }
+
+  private Goal goal(Program program) {
+    NodeListOptional typeDeclarations = new NodeListOptional();
+    for (ClassDecl decl : program.classes) {
+      typeDeclarations.addNode(typeDeclaration(decl));
+    }
+
+    return new Goal(mainClass(program.mainClass), typeDeclarations);
+  }
+
+  private minijava.syntaxtree.MainClass mainClass(MainClass main) {
+    return new minijava.syntaxtree.MainClass(identifier(main.name), identifier(main.argsName),
+        varDeclarations(main.locals), statements(main.body));
+  }
+
+  private TypeDeclaration typeDeclaration(ClassDecl decl) {
+    NodeListOptional fields = varDeclarations(decl.fields);
+    NodeListOptional methods = new NodeListOptional();
+    for (MethodDecl method : decl.methods) {
+      methods.addNode(methodDeclaration(method));
+    }
+
+    NodeChoice choice;
+    if (decl.superName == null) {
+      choice = new NodeChoice(new ClassDeclaration(identifier(decl.name), fields, methods), TYPE_DECLARATION_CLASS);
+    } else {
+      choice = new NodeChoice(new ClassExtendsDeclaration(identifier(decl.name), identifier(decl.superName),
+          fields, methods), TYPE_DECLARATION_EXTENDS);
+    }
+    return new TypeDeclaration(choice);
+  }
+
+  private MethodDeclaration methodDeclaration(MethodDecl method) {
+    NodeOptional parameters = new NodeOptional();
+    if (!method.parameters.isEmpty()) {
+      NodeListOptional rest = new NodeListOptional();
+      for (int i = 1; i < method.parameters.size(); i++) {
+        rest.addNode(new FormalParameterRest(formalParameter(method.parameters.get(i))));
+      }
+      parameters.addNode(new FormalParameterList(formalParameter(method.parameters.get(0)), rest));
+    }
+
+    return new MethodDeclaration(type(method.returnType), identifier(method.name), parameters,
+        varDeclarations(method.locals), statements(method.body), expression(method.returnValue));
+  }
+
+  private FormalParameter formalParameter(VarDecl decl) {
+    return new FormalParameter(type(decl.type), identifier(decl.name));
+  }
+
+  private NodeListOptional varDeclarations(List<VarDecl> decls) {
+    NodeListOptional list = new NodeListOptional();
+    for (VarDecl decl : decls) {
+      list.addNode(new VarDeclaration(type(decl.type), identifier(decl.name)));
+    }
+    return list;
+  }
+
+  private Type type(TypeRef type) {
+    switch (type.kind) {
+      case INT_ARRAY:
+        return new Type(new NodeChoice(new ArrayType(), TYPE_ARRAY));
+      case BOOLEAN:
+        return new Type(new NodeChoice(new BooleanType(), TYPE_BOOLEAN));
+      case INT:
+        return new Type(new NodeChoice(new IntegerType(), TYPE_INTEGER));
+      default:
+        return new Type(new NodeChoice(identifier(type.className), TYPE_IDENTIFIER));
+    }
+  }
+
+  private minijava.syntaxtree.Identifier identifier(String name) {
+    return new minijava.syntaxtree.Identifier(new SymbolToken(symbols, symbols.intern(name)));
+  }
+
+  private NodeListOptional statements(List<Statement> statements) {
+    NodeListOptional list = new NodeListOptional();
+    for (Statement statement : statements) {
+      list.addNode(statement(statement));
+    }
+    return list;
+  }
+
+  private minijava.syntaxtree.Statement statement(Statement statement) {
+    return (minijava.syntaxtree.Statement) statement.accept(this);
+  }
+
+  /*
+   * Expressions are converted bottom-up without recursion. The expression
+   * tree is first listed root first, operands last to first; walking that
+   * list backwards visits each expression after all its operands, and each
+   * visit method takes its converted operands off the converted stack, last
+   * operand first. Converted primary expressions stay PrimaryExpression
+   * nodes until a parent needs them as an Expression.
+   */
+  private minijava.syntaxtree.Expression expression(Expression expression) {
+    List<Expression> order = new ArrayList<>();
+    List<Expression> pending = new ArrayList<>();
+    pending.add(expression);
+    while (!pending.isEmpty()) {
+      Expression next = pending.remove(pending.size() - 1);
+      order.add(next);
+      for (int i = 0; i < next.getOperandCount(); i++) {
+        pending.add(next.getOperand(i));
+      }
+    }
+
+    for (int i = order.size() - 1; i >= 0; i--) {
+      converted.add(order.get(i).accept(this));
+    }
+    return takeExpression();
+  }
+
+  private minijava.syntaxtree.Expression takeExpression() {
+    Node node = converted.remove(converted.size() - 1);
+    if (node instanceof PrimaryExpression) {
+      return new minijava.syntaxtree.Expression(new NodeChoice(node, EXPRESSION_PRIMARY));
+    }
+    return (minijava.syntaxtree.Expression) node;
+  }
+
+  private PrimaryExpression takePrimary() {
+    return (PrimaryExpression) converted.remove(converted.size() - 1);
+  }
+
+  private static minijava.syntaxtree.Statement statement(Node node, int which) {
+    return new minijava.syntaxtree.Statement(new NodeChoice(node, which));
+  }
+
+  private static minijava.syntaxtree.Expression expression(Node node, int which) {
+    return new minijava.syntaxtree.Expression(new NodeChoice(node, which));
+  }
+
+  private static PrimaryExpression primary(Node node, int which) {
+    return new PrimaryExpression(new NodeChoice(node, which));
+  }
+
+  @Override
+  public Node visit(Statement.Block n) {
+    return statement(new Block(statements(n.statements)), STATEMENT_BLOCK);
+  }
+
+  @Override
+  public Node visit(Statement.Assign n) {
+    return statement(new AssignmentStatement(identifier(n.name), expression(n.value)), STATEMENT_ASSIGN);
+  }
+
+  @Override
+  public Node visit(Statement.ArrayAssign n) {
+    return statement(new ArrayAssignmentStatement(identifier(n.name), expression(n.index), expression(n.value)),
+        STATEMENT_ARRAY_ASSIGN);
+  }
+
+  @Override
+  public Node visit(Statement.If n) {
+    return statement(new IfStatement(expression(n.condition), statement(n.thenBranch), statement(n.elseBranch)),
+        STATEMENT_IF);
+  }
+
+  @Override
+  public Node visit(Statement.While n) {
+    return statement(new WhileStatement(expression(n.condition), statement(n.body)), STATEMENT_WHILE);
+  }
+
+  @Override
+  public Node visit(Statement.Print n) {
+    return statement(new PrintStatement(expression(n.value)), STATEMENT_PRINT);
+  }
+
+  @Override
+  public Node visit(Expression.Binary n) {
+    PrimaryExpression right = takePrimary();
+    PrimaryExpression left = takePrimary();
+
+    switch (n.operator) {
+      case AND:
+        return expression(new AndExpression(left, right), EXPRESSION_AND);
+      case LESS_THAN:
+        return expression(new CompareExpression(left, right), EXPRESSION_COMPARE);
+      case PLUS:
+        return expression(new PlusExpression(left, right), EXPRESSION_PLUS);
+      case MINUS:
+        return expression(new MinusExpression(left, right), EXPRESSION_MINUS);
+      default:
+        return expression(new TimesExpression(left, right), EXPRESSION_TIMES);
+    }
+  }
+
+  @Override
+  public Node visit(Expression.ArrayLookup n) {
+    PrimaryExpression index = takePrimary();
+    return expression(new ArrayLookup(takePrimary(), index), EXPRESSION_ARRAY_LOOKUP);
+  }
+
+  @Override
+  public Node visit(Expression.ArrayLength n) {
+    return expression(new ArrayLength(takePrimary()), EXPRESSION_ARRAY_LENGTH);
+  }
+
+  @Override
+  public Node visit(Expression.Call n) {
+    NodeOptional arguments = new NodeOptional();
+    if (!n.arguments.isEmpty()) {
+      minijava.syntaxtree.Expression[] values = new minijava.syntaxtree.Expression[n.arguments.size()];
+      for (int i = values.length - 1; i >= 0; i--) {
+        values[i] = takeExpression();
+      }
+
+      NodeListOptional rest = new NodeListOptional();
+      for (int i = 1; i < values.length; i++) {
+        rest.addNode(new ExpressionRest(values[i]));
+      }
+      arguments.addNode(new ExpressionList(values[0], rest));
+    }
+
+    return expression(new MessageSend(takePrimary(), identifier(n.method), arguments),
+        EXPRESSION_MESSAGE_SEND);
+  }
+
+  @Override
+  public Node visit(Expression.IntegerLiteral n) {
+    return primary(new minijava.syntaxtree.IntegerLiteral(new NodeToken(n.value)), PRIMARY_INTEGER);
+  }
+
+  @Override
+  public Node visit(Expression.BooleanLiteral n) {
+    return n.value ? primary(new TrueLiteral(), PRIMARY_TRUE) : primary(new FalseLiteral(), PRIMARY_FALSE);
+  }
+
+  @Override
+  public Node visit(Expression.Identifier n) {
+    return primary(identifier(n.name), PRIMARY_IDENTIFIER);
+  }
+
+  @Override
+  public Node visit(Expression.This n) {
+    return primary(new ThisExpression(), PRIMARY_THIS);
+  }
+
+  @Override
+  public Node visit(Expression.NewIntArray n) {
+    return primary(new ArrayAllocationExpression(takeExpression()), PRIMARY_NEW_ARRAY);
+  }
+
+  @Override
+  public Node visit(Expression.NewObject n) {
+    return primary(new AllocationExpression(identifier(n.className)), PRIMARY_NEW_OBJECT);
+  }
+
+  @Override
+  public Node visit(Expression.Not n) {
+    return primary(new NotExpression(takeExpression()), PRIMARY_NOT);
+  }
+
+  @Override
+  public Node visit(Expression.Bracket n) {
+    return primary(new BracketExpression(takeExpression()), PRIMARY_BRACKET);
+  }
+}
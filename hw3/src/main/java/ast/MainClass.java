@@ -0,0 +1,17 @@
+package ast;
+
+import java.util.List;
+
+public class MainClass {
+  public final String name;
+  public final String argsName;
+  public final List<VarDecl> locals;
+  public final List<Statement> body;
+
+  public MainClass(String name, String argsName, List<VarDecl> locals, List<Statement> body) {
+    this.name = name;
+    this.argsName = argsName;
+    this.locals = locals;
+    this.body = body;
+  }
+}
@@ -0,0 +1,25 @@
+package ast;
+
+import java.util.List;
+
+/**
+ * Root of the compact MiniJava AST built by parser.MiniJavaAstParser.
+ *
+ * Unlike the JTB syntax tree, the AST keeps no token nodes, sequence
+ * wrappers or choice indices: identifiers and literals are plain Strings and
+ * each construct is a single object. JtbAdapter turns it back into a JTB
+ * tree for the existing visitors.
+ *
+ * Every identifier String in the tree is the one interned in symbols.
+ */
+public class Program {
+  public final MainClass mainClass;
+  public final List<ClassDecl> classes;
+  public final SymbolInterner symbols;
+
+  public Program(MainClass mainClass, List<ClassDecl> classes, SymbolInterner symbols) {
+    this.mainClass = mainClass;
+    this.classes = classes;
+    this.symbols = symbols;
+  }
+}
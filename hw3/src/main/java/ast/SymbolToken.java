@@ -0,0 +1,28 @@
+package ast;
+
+import minijava.syntaxtree.NodeToken;
+
+/**
+ * An identifier token that also carries its SymbolInterner id, so visitors
+ * resolve it without hashing its image.
+ */
+public class SymbolToken extends NodeToken {
+  private static final long serialVersionUID = 1L;
+
+  private final SymbolInterner symbols;
+  private final int symbol;
+
+  public SymbolToken(SymbolInterner symbols, int symbol) {
+    super(symbols.getName(symbol));
+    this.symbols = symbols;
+    this.symbol = symbol;
+  }
+
+  public SymbolInterner getSymbols() {
+    return symbols;
+  }
+
+  public int getSymbol() {
+    return symbol;
+  }
+}
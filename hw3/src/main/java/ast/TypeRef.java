@@ -0,0 +1,29 @@
+package ast;
+
+/**
+ * A type as written in a declaration: int[], boolean, int or a class name.
+ */
+public class TypeRef {
+  public enum Kind {
+    INT_ARRAY,
+    BOOLEAN,
+    INT,
+    CLASS,
+  }
+
+  public static final TypeRef INT_ARRAY = new TypeRef(Kind.INT_ARRAY, null);
+  public static final TypeRef BOOLEAN = new TypeRef(Kind.BOOLEAN, null);
+  public static final TypeRef INT = new TypeRef(Kind.INT, null);
+
+  public final Kind kind;
+  public final String className; // Null unless kind is CLASS
+
+  private TypeRef(Kind kind, String className) {
+    this.kind = kind;
+    this.className = className;
+  }
+
+  public static TypeRef ofClass(String className) {
+    return new TypeRef(Kind.CLASS, className);
+  }
+}
@@ -1,26 +1,38 @@
 package context;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import IR.token.Identifier;
 import IR.token.Label;
+import ast.SymbolInterner;
+import model.InstructionBuffer;
+import sparrow.Instruction;
 import symbolTable.ClassInfo;
 import symbolTable.MethodInfo;
 import symbolTable.SymbolTable;
 import type.MJType;
-
+import utils.IntMap;
+
+/**
+ * Local variables are keyed by the SymbolInterner id of their name; the
+ * String overloads resolve the name first.
+ *
+ * A method's context also collects the method's instructions, which every
+ * statement and expression in it emits in order.
+ */
 public class TranslationContext {
   private final SymbolTable symbolTable;
+  private final SymbolInterner symbols;
   private final ClassInfo currentClassInfo;
   private final MethodInfo currentMethodInfo;
-  private final Map<String, Identifier> localVarMap = new HashMap<>();
-  private final Map<String, MJType> localTypeMap = new HashMap<>();
+  private final IntMap<Identifier> localVarMap = new IntMap<>();
+  private final IntMap<MJType> localTypeMap = new IntMap<>();
+  private final InstructionBuffer instructions = new InstructionBuffer();
+  private Identifier classTable = null;
   private int variableCounter = 0;
   private static int labelCounter = 0;
 
   public TranslationContext(SymbolTable symbolTable, ClassInfo classInfo, MethodInfo methodInfo) {
     this.symbolTable = symbolTable;
+    this.symbols = symbolTable.getSymbols();
     this.currentClassInfo = classInfo;
     this.currentMethodInfo = methodInfo;
   }
@@ -37,6 +49,26 @@ public class TranslationContext {
     return currentMethodInfo;
   }
 
+  public InstructionBuffer getInstructions() {
+    return instructions;
+  }
+
+  public void emit(Instruction instruction) {
+    instructions.add(instruction);
+  }
+
+  /**
+   * The variable holding the class table in main, or null in the methods,
+   * which reach it through the vtable of this.
+   */
+  public Identifier getClassTable() {
+    return classTable;
+  }
+
+  public void setClassTable(Identifier classTable) {
+    this.classTable = classTable;
+  }
+
   public static Label getNextUniqueLabel(String base) {
     return new Label(base + "_" + (labelCounter++));
   }
@@ -50,47 +82,67 @@ public class TranslationContext {
    * Gets the next variable by default
    */
   public Identifier addLocalVar(String name) {
-    return addLocalVar(name, null);
+    return addLocalVar(symbols.intern(name), null);
+  }
+
+  public Identifier addLocalVar(String name, MJType type) {
+    return addLocalVar(symbols.intern(name), type);
   }
 
   /**
    * Gets the next variable by default
    */
-  public Identifier addLocalVar(String name, MJType type) {
+  public Identifier addLocalVar(int symbol, MJType type) {
     Identifier id = getNextVariable();
-    localVarMap.put(name, id);
-    localTypeMap.put(name, type);
+    localVarMap.put(symbol, id);
+    localTypeMap.put(symbol, type);
     return id;
   }
 
   public Identifier lookupVar(String name) {
-    Identifier id = localVarMap.get(name);
+    return lookupVar(symbols.lookup(name));
+  }
+
+  public Identifier lookupVar(int symbol) {
+    Identifier id = localVarMap.get(symbol);
     if (id == null) {
-      throw new IllegalStateException("Variable '" + name + "' not found in current method context.");
+      throw new IllegalStateException("Variable '" + nameOf(symbol) + "' not found in current method context.");
     }
     return id;
   }
 
   public MJType getVarType(String name) {
-    MJType t = localTypeMap.get(name); // check translator’s own map first
+    return getVarType(symbols.lookup(name));
+  }
+
+  public MJType getVarType(int symbol) {
+    MJType t = localTypeMap.get(symbol); // check translator’s own map first
     if (t != null)
       return t;
 
     MethodInfo method = currentMethodInfo;
 
-    if (method != null && method.hasLocalVariable(name)) {
-      return method.getLocalVariableType(name);
+    if (method != null && method.hasLocalVariable(symbol)) {
+      return method.getLocalVariableType(symbol);
     }
-    if (method != null && method.hasParameter(name)) {
-      return method.getParameterType(name);
+    if (method != null && method.hasParameter(symbol)) {
+      return method.getParameterType(symbol);
     }
-    if (currentClassInfo.containsField(name)) {
-      return currentClassInfo.getFieldType(name);
+    if (currentClassInfo.containsField(symbol)) {
+      return currentClassInfo.getFieldType(symbol);
     }
-    throw new RuntimeException("No type found for variable: " + name);
+    throw new RuntimeException("No type found for variable: " + nameOf(symbol));
   }
 
   public boolean hasVar(String name) {
-    return localVarMap.containsKey(name);
+    return hasVar(symbols.lookup(name));
+  }
+
+  public boolean hasVar(int symbol) {
+    return localVarMap.containsKey(symbol);
+  }
+
+  private String nameOf(int symbol) {
+    return symbol == SymbolInterner.NONE ? "?" : symbols.getName(symbol);
   }
 }
@@ -0,0 +1,61 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import sparrow.Instruction;
+
+/**
+ * The instructions of one function, in order, as the translation emits
+ * them.
+ *
+ * Instructions are stored in fixed-size chunks, so growing the buffer
+ * never copies what is already in it; toList copies everything once. A
+ * slot can be reserved and filled in later, for jumps to labels that only
+ * exist once the code after the jump has been emitted.
+ */
+public class InstructionBuffer {
+  private static final int CHUNK_SHIFT = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+  private Instruction[][] chunks = new Instruction[4][];
+  private int size = 0;
+
+  public int size() {
+    return size;
+  }
+
+  public void add(Instruction instruction) {
+    int chunk = size >>> CHUNK_SHIFT;
+    if (chunk == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunk * 2);
+    }
+    if (chunks[chunk] == null) {
+      chunks[chunk] = new Instruction[CHUNK_SIZE];
+    }
+    chunks[chunk][size & (CHUNK_SIZE - 1)] = instruction;
+    size++;
+  }
+
+  /**
+   * Appends an empty slot and returns its index, to be filled with set.
+   */
+  public int reserve() {
+    add(null);
+    return size - 1;
+  }
+
+  public void set(int index, Instruction instruction) {
+    chunks[index >>> CHUNK_SHIFT][index & (CHUNK_SIZE - 1)] = instruction;
+  }
+
+  public List<Instruction> toList() {
+    List<Instruction> list = new ArrayList<>(size);
+    for (int chunk = 0; chunk << CHUNK_SHIFT < size; chunk++) {
+      int count = Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT));
+      list.addAll(Arrays.asList(chunks[chunk]).subList(0, count));
+    }
+    return list;
+  }
+}
@@ -2,22 +2,18 @@ package model;
 
 import IR.token.Identifier;
 import constant.OutputMessage;
-import sparrow.Instruction;
 import type.MJType;
 
-import java.util.List;
-
 /**
  * Represents the result of translating a MiniJava expression
- * into Sparrow instructions.
+ * into Sparrow instructions: the variable holding its value. The
+ * instructions themselves go straight to the function's InstructionBuffer.
  */
 public class SparrowResult {
-  private final List<Instruction> instructions;
   private final Identifier result;
   private MJType type = null;
 
-  public SparrowResult(List<Instruction> instructions, Identifier result) {
-    this.instructions = instructions;
+  public SparrowResult(Identifier result) {
     this.result = result;
   }
 
@@ -26,14 +22,14 @@ public class SparrowResult {
     return this;
   }
 
-  public List<Instruction> getInstructions() {
-    return instructions;
-  }
-
   public Identifier getResult() {
     return result;
   }
 
+  public boolean hasType() {
+    return type != null;
+  }
+
   public MJType getType() {
     if (type == null) {
       throw new IllegalStateException("Type has not been set for " + result);
@@ -0,0 +1,171 @@
+package myVisitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import minijava.syntaxtree.AndExpression;
+import minijava.syntaxtree.ArrayAllocationExpression;
+import minijava.syntaxtree.ArrayLength;
+import minijava.syntaxtree.ArrayLookup;
+import minijava.syntaxtree.BracketExpression;
+import minijava.syntaxtree.CompareExpression;
+import minijava.syntaxtree.Expression;
+import minijava.syntaxtree.ExpressionList;
+import minijava.syntaxtree.ExpressionRest;
+import minijava.syntaxtree.MessageSend;
+import minijava.syntaxtree.MinusExpression;
+import minijava.syntaxtree.Node;
+import minijava.syntaxtree.NodeChoice;
+import minijava.syntaxtree.NotExpression;
+import minijava.syntaxtree.PlusExpression;
+import minijava.syntaxtree.PrimaryExpression;
+import minijava.syntaxtree.TimesExpression;
+
+/**
+ * Evaluates a JTB expression bottom-up with an explicit stack instead of
+ * recursion, so the Java stack depth does not grow with expression nesting.
+ *
+ * The Expression, PrimaryExpression and BracketExpression wrappers are
+ * skipped. Every other node is either a leaf (literals, identifiers, this,
+ * new C()) or has operands: the two sides of a binary operator or array
+ * lookup, the array of a length, the receiver and then the arguments of a
+ * message send, and the operand of new int[] and of !.
+ */
+public abstract class ExpressionWalker<R> {
+  private static final int INITIAL_DEPTH = 32;
+
+  private Node[] frames = new Node[INITIAL_DEPTH];
+  private int[] nextOperand = new int[INITIAL_DEPTH];
+  private final List<R> results = new ArrayList<>();
+
+  protected abstract R leaf(Node node);
+
+  /**
+   * Called with the results of the operands of node, in order, once they
+   * have all been evaluated.
+   */
+  protected abstract R combine(Node node, List<R> operands);
+
+  /**
+   * Called before the operand at index is evaluated.
+   */
+  protected void beforeOperand(Node node, int index) {
+  }
+
+  public R walk(Node root) {
+    int top = 0;
+    int base = results.size();
+    Node current = unwrap(root);
+
+    while (true) {
+      if (operandCount(current) > 0) {
+        if (top == frames.length) {
+          frames = Arrays.copyOf(frames, top * 2);
+          nextOperand = Arrays.copyOf(nextOperand, top * 2);
+        }
+        frames[top] = current;
+        nextOperand[top] = 0;
+        top++;
+      } else {
+        results.add(leaf(current));
+      }
+
+      // Finish nodes whose operands are done, up to one with an operand left
+      while (true) {
+        if (top == 0) {
+          return results.remove(base);
+        }
+
+        Node node = frames[top - 1];
+        int index = nextOperand[top - 1];
+        if (index < operandCount(node)) {
+          nextOperand[top - 1]++;
+          beforeOperand(node, index);
+          current = unwrap(operand(node, index));
+          break;
+        }
+
+        top--;
+        List<R> operands = results.subList(results.size() - index, results.size());
+        R result = combine(node, operands);
+        operands.clear();
+        results.add(result);
+      }
+    }
+  }
+
+  private static Node unwrap(Node node) {
+    while (true) {
+      if (node instanceof Expression) {
+        node = ((Expression) node).f0.choice;
+      } else if (node instanceof PrimaryExpression) {
+        node = ((PrimaryExpression) node).f0.choice;
+      } else if (node instanceof BracketExpression) {
+        node = ((BracketExpression) node).f1;
+      } else if (node instanceof NodeChoice) {
+        node = ((NodeChoice) node).choice;
+      } else {
+        return node;
+      }
+    }
+  }
+
+  static int operandCount(Node node) {
+    if (node instanceof AndExpression || node instanceof CompareExpression || node instanceof PlusExpression
+        || node instanceof MinusExpression || node instanceof TimesExpression || node instanceof ArrayLookup) {
+      return 2;
+    }
+    if (node instanceof ArrayLength || node instanceof ArrayAllocationExpression || node instanceof NotExpression) {
+      return 1;
+    }
+    if (node instanceof MessageSend) {
+      MessageSend send = (MessageSend) node;
+      if (!send.f4.present()) {
+        return 1;
+      }
+      return 2 + ((ExpressionList) send.f4.node).f1.size();
+    }
+    return 0;
+  }
+
+  static Node operand(Node node, int index) {
+    if (node instanceof AndExpression) {
+      return index == 0 ? ((AndExpression) node).f0 : ((AndExpression) node).f2;
+    }
+    if (node instanceof CompareExpression) {
+      return index == 0 ? ((CompareExpression) node).f0 : ((CompareExpression) node).f2;
+    }
+    if (node instanceof PlusExpression) {
+      return index == 0 ? ((PlusExpression) node).f0 : ((PlusExpression) node).f2;
+    }
+    if (node instanceof MinusExpression) {
+      return index == 0 ? ((MinusExpression) node).f0 : ((MinusExpression) node).f2;
+    }
+    if (node instanceof TimesExpression) {
+      return index == 0 ? ((TimesExpression) node).f0 : ((TimesExpression) node).f2;
+    }
+    if (node instanceof ArrayLookup) {
+      return index == 0 ? ((ArrayLookup) node).f0 : ((ArrayLookup) node).f2;
+    }
+    if (node instanceof ArrayLength) {
+      return ((ArrayLength) node).f0;
+    }
+    if (node instanceof ArrayAllocationExpression) {
+      return ((ArrayAllocationExpression) node).f3;
+    }
+    if (node instanceof NotExpression) {
+      return ((NotExpression) node).f1;
+    }
+
+    MessageSend send = (MessageSend) node;
+    if (index == 0) {
+      return send.f0;
+    }
+    ExpressionList arguments = (ExpressionList) send.f4.node;
+    if (index == 1) {
+      return arguments.f0;
+    }
+    return ((ExpressionRest) arguments.f1.elementAt(index - 2)).f1;
+  }
+}
@@ -1,9 +1,11 @@
 package myVisitor;
 
+import ast.SymbolInterner;
 import context.ClassMethodContext;
 import minijava.syntaxtree.ClassDeclaration;
 import minijava.syntaxtree.ClassExtendsDeclaration;
 import minijava.syntaxtree.FormalParameter;
+import minijava.syntaxtree.Identifier;
 import minijava.syntaxtree.MainClass;
 import minijava.syntaxtree.MethodDeclaration;
 import minijava.syntaxtree.NodeListOptional;
@@ -15,11 +17,22 @@ import symbolTable.MethodInfo;
 import symbolTable.SymbolTable;
 import type.MJType;
 import type.PrimitiveType;
-import type.TypeFactory;
 import type.VoidType;
 
 public class SymbolTableBuilderVisitor extends GJVoidDepthFirst<ClassMethodContext> {
-  private SymbolTable symbolTable = new SymbolTable();
+  private final SymbolTable symbolTable;
+
+  public SymbolTableBuilderVisitor() {
+    this(new SymbolInterner());
+  }
+
+  /**
+   * Keys the symbol table on symbols, the interner the visited tree's
+   * identifier tokens were built from.
+   */
+  public SymbolTableBuilderVisitor(SymbolInterner symbols) {
+    symbolTable = new SymbolTable(symbols);
+  }
 
   public SymbolTable getSymbolTable() {
     return symbolTable;
@@ -30,19 +43,22 @@ public class SymbolTableBuilderVisitor extends GJVoidDepthFirst<ClassMethodConte
     return symbolTable.toString();
   }
 
+  private int symbol(Identifier identifier) {
+    return symbolTable.getSymbols().symbolOf(identifier.f0);
+  }
+
   @Override
   public void visit(MainClass n, ClassMethodContext associatedClassMethodContext) {
     NodeListOptional varDeclarations = n.f14;
     String className = n.f1.f0.toString();
     String mainMethodName = n.f6.toString();
     MJType mainMethodReturnType = VoidType.INSTANCE;
-    String mainMethodParamName = n.f11.f0.toString();
     PrimitiveType mainMethodParamType = PrimitiveType.STRING_ARRAY;
 
-    MethodInfo methodInfo = new MethodInfo(mainMethodName, mainMethodReturnType);
-    methodInfo.addParameter(mainMethodParamName, mainMethodParamType);
+    MethodInfo methodInfo = new MethodInfo(mainMethodName, mainMethodReturnType, symbolTable.getSymbols());
+    methodInfo.addParameter(symbol(n.f11), mainMethodParamType);
 
-    ClassInfo classInfo = new ClassInfo(className);
+    ClassInfo classInfo = new ClassInfo(className, symbolTable.getSymbols());
     classInfo.addMethod(mainMethodName, methodInfo);
 
     symbolTable.addClass(className, classInfo);
@@ -57,7 +73,7 @@ public class SymbolTableBuilderVisitor extends GJVoidDepthFirst<ClassMethodConte
     NodeListOptional classFields = n.f3;
     NodeListOptional methodDeclarations = n.f4;
 
-    ClassInfo classInfo = new ClassInfo(className);
+    ClassInfo classInfo = new ClassInfo(className, symbolTable.getSymbols());
 
     symbolTable.addClass(className, classInfo);
 
@@ -74,7 +90,7 @@ public class SymbolTableBuilderVisitor extends GJVoidDepthFirst<ClassMethodConte
     NodeListOptional classFields = n.f5;
     NodeListOptional methodDeclarations = n.f6;
 
-    ClassInfo classInfo = new ClassInfo(className);
+    ClassInfo classInfo = new ClassInfo(className, symbolTable.getSymbols());
     classInfo.setSuperClassName(superClassName);
 
     symbolTable.addClass(className, classInfo);
@@ -86,14 +102,14 @@ public class SymbolTableBuilderVisitor extends GJVoidDepthFirst<ClassMethodConte
 
   @Override
   public void visit(MethodDeclaration n, ClassMethodContext associatedClassMethodContext) {
-    MJType returnType = TypeFactory.getTypeFromNodeChoice(n.f1.f0);
+    MJType returnType = symbolTable.getTypeFactory().getTypeFromNodeChoice(n.f1.f0);
     String methodName = n.f2.f0.toString();
     ClassInfo classInfo = associatedClassMethodContext.getClassInfo();
     NodeOptional paramList = n.f4;
     NodeListOptional varList = n.f7;
 
-    MethodInfo methodInfo = new MethodInfo(methodName, returnType);
-    classInfo.addMethod(methodName, methodInfo);
+    MethodInfo methodInfo = new MethodInfo(methodName, returnType, symbolTable.getSymbols());
+    classInfo.addMethod(symbol(n.f2), methodInfo);
 
     ClassMethodContext classMethodContext = new ClassMethodContext(classInfo, methodInfo);
 
@@ -103,25 +119,24 @@ public class SymbolTableBuilderVisitor extends GJVoidDepthFirst<ClassMethodConte
 
   @Override
   public void visit(VarDeclaration n, ClassMethodContext associatedClassMethodContext) {
-    MJType varType = TypeFactory.getTypeFromNodeChoice(n.f0.f0);
+    MJType varType = symbolTable.getTypeFactory().getTypeFromNodeChoice(n.f0.f0);
     String varName = n.f1.f0.toString();
     ClassInfo classInfo = associatedClassMethodContext.getClassInfo();
     MethodInfo methodInfo = associatedClassMethodContext.getMethodInfo();
 
     boolean varIsClassField = !associatedClassMethodContext.containsMethodInfo();
     if (varIsClassField) {
-      classInfo.addField(varName, varType);
+      classInfo.addField(symbol(n.f1), varType);
     } else {
-      methodInfo.addLocalVariable(varName, varType);
+      methodInfo.addLocalVariable(symbol(n.f1), varType);
     }
   }
 
   @Override
   public void visit(FormalParameter n, ClassMethodContext associatedClassMethodContext) {
     MethodInfo methodInfo = associatedClassMethodContext.getMethodInfo();
-    MJType paramType = TypeFactory.getTypeFromNodeChoice(n.f0.f0);
-    String paramName = n.f1.f0.toString();
+    MJType paramType = symbolTable.getTypeFactory().getTypeFromNodeChoice(n.f0.f0);
 
-    methodInfo.addParameter(paramName, paramType);
+    methodInfo.addParameter(symbol(n.f1), paramType);
   }
 }
@@ -2,6 +2,7 @@ package myVisitor;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import IR.token.FunctionName;
@@ -20,7 +21,6 @@ import minijava.syntaxtree.ClassDeclaration;
 import minijava.syntaxtree.ClassExtendsDeclaration;
 import minijava.syntaxtree.CompareExpression;
 import minijava.syntaxtree.Expression;
-import minijava.syntaxtree.ExpressionList;
 import minijava.syntaxtree.ExpressionRest;
 import minijava.syntaxtree.FalseLiteral;
 import minijava.syntaxtree.FormalParameter;
@@ -46,6 +46,7 @@ import minijava.syntaxtree.TypeDeclaration;
 import minijava.syntaxtree.VarDeclaration;
 import minijava.syntaxtree.WhileStatement;
 import minijava.visitor.GJDepthFirst;
+import model.InstructionBuffer;
 import model.SparrowResult;
 import model.TranslationResult;
 import sparrow.Add;
@@ -56,7 +57,6 @@ import sparrow.ErrorMessage;
 import sparrow.FunctionDecl;
 import sparrow.Goto;
 import sparrow.IfGoto;
-import sparrow.Instruction;
 import sparrow.LabelInstr;
 import sparrow.LessThan;
 import sparrow.Load;
@@ -73,62 +73,104 @@ import symbolTable.MethodInfo;
 import symbolTable.SymbolTable;
 import type.ClassType;
 import type.MJType;
+import utils.IntMap;
 
 public class TranslationVisitor extends GJDepthFirst<TranslationResult, TranslationContext> {
+  // Called once at the start of main; returns the class table
+  private static final String CLASS_TABLE_FUNCTION = "vtables";
+
   private Program prog;
+  // Set by the main class, which is always visited first
+  private SymbolTable symbolTable;
+  private ClassInfo mainClassInfo;
+  // By class index, the classes some new expression creates
+  private final BitSet allocatedClasses = new BitSet();
+  private int callCount = 0;
+  private int devirtualizedCount = 0;
 
   public Program getProgram() {
     return prog;
   }
 
+  /**
+   * The number of method calls translated so far.
+   */
+  public int getCallCount() {
+    return callCount;
+  }
+
+  /**
+   * The number of those calls that class hierarchy analysis showed to have
+   * a single target, and so call it directly instead of through the
+   * vtable.
+   */
+  public int getDevirtualizedCount() {
+    return devirtualizedCount;
+  }
+
+  private static int symbol(minijava.syntaxtree.Identifier identifier, TranslationContext context) {
+    return context.getSymbolTable().getSymbols().symbolOf(identifier.f0);
+  }
+
   @Override
   public TranslationResult visit(Goal n, TranslationContext context) {
     MainClass mainClass = n.f0;
     NodeListOptional classes = n.f1;
 
-    TranslationResult mainClassTR = mainClass.accept(this, context);
-    List<FunctionDecl> mainClassFunction = mainClassTR.getFunctions();
-
-    List<FunctionDecl> classFunctions = new ArrayList<>();
+    List<TranslationResult> classResults = new ArrayList<>();
+    classResults.add(mainClass.accept(this, context));
     for (Node classNode : classes.nodes) {
-      TranslationResult classTR = classNode.accept(this, context);
-      classFunctions.addAll(classTR.getFunctions());
+      classResults.add(classNode.accept(this, context));
     }
 
+    return TranslationResult.ofProgram(buildProgram(classResults));
+  }
+
+  /**
+   * Assembles the program from the results of visiting the main class and
+   * then each class declaration, in order.
+   */
+  public Program buildProgram(List<TranslationResult> classResults) {
     List<FunctionDecl> allFunctions = new ArrayList<>();
-    allFunctions.addAll(mainClassFunction);
-    allFunctions.addAll(classFunctions);
+    for (TranslationResult classTR : classResults) {
+      allFunctions.addAll(classTR.getFunctions());
+    }
+    allFunctions.add(buildClassTable());
 
     prog = new Program(allFunctions);
-    return TranslationResult.ofProgram(prog);
+    return prog;
   }
 
   @Override
   public TranslationResult visit(MainClass n, TranslationContext context) {
     SymbolTable symbolTable = context.getSymbolTable();
-    String className = n.f1.f0.toString();
     NodeListOptional varDeclarations = n.f14;
     NodeListOptional statements = n.f15;
 
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, context));
     MethodInfo mainMethodInfo = classInfo.getMainMethodInfo();
     TranslationContext newContext = new TranslationContext(symbolTable, classInfo, mainMethodInfo);
+    this.symbolTable = symbolTable;
+    this.mainClassInfo = classInfo;
 
-    List<Instruction> instructions = new ArrayList<>();
+    Identifier classTableFunction = newContext.getNextVariable();
+    Identifier classTable = newContext.getNextVariable();
+    newContext.emit(new Move_Id_FuncName(classTableFunction, new FunctionName(CLASS_TABLE_FUNCTION)));
+    newContext.emit(new Call(classTable, classTableFunction, new ArrayList<>()));
+    newContext.setClassTable(classTable);
 
     for (Node varDeclNode : varDeclarations.nodes) {
       varDeclNode.accept(this, newContext);
     }
 
     for (Node statementNode : statements.nodes) {
-      TranslationResult statementTR = statementNode.accept(this, newContext);
-      instructions.addAll(statementTR.getSparrowResult().getInstructions());
+      statementNode.accept(this, newContext);
     }
 
     Identifier ret = newContext.getNextVariable();
-    instructions.add(new Move_Id_Integer(ret, 0));
+    newContext.emit(new Move_Id_Integer(ret, 0));
 
-    Block block = new Block(instructions, ret);
+    Block block = new Block(newContext.getInstructions().toList(), ret);
     FunctionName fname = new FunctionName("main");
     FunctionDecl f = new FunctionDecl(fname, new ArrayList<>(), block);
 
@@ -138,6 +180,48 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
     return TranslationResult.ofFunctions(funcs);
   }
 
+  /*
+   * The function main calls first: it builds the vtable of every class
+   * that is ever created, once, and the class table pointing to them, so
+   * that new only copies a pointer. It comes after everything else is
+   * translated, when those classes are known. Main itself is static, so
+   * the main class's vtable, if it is created, has no slot filled in.
+   */
+  private FunctionDecl buildClassTable() {
+    TranslationContext context = new TranslationContext(symbolTable, mainClassInfo, null);
+    List<ClassInfo> classes = symbolTable.getClasses();
+
+    Identifier classTableSize = context.getNextVariable();
+    Identifier classTable = context.getNextVariable();
+    context.emit(new Move_Id_Integer(classTableSize, classes.size() * 4));
+    context.emit(new Alloc(classTable, classTableSize));
+
+    for (int index = allocatedClasses.nextSetBit(0); index >= 0; index = allocatedClasses.nextSetBit(index + 1)) {
+      ClassInfo classInfo = classes.get(index);
+      Identifier vmtMemorySize = context.getNextVariable();
+      Identifier vmtPtr = context.getNextVariable();
+      context.emit(new Move_Id_Integer(vmtMemorySize, classInfo.getVtableBytes()));
+      context.emit(new Alloc(vmtPtr, vmtMemorySize));
+      context.emit(new Store(vmtPtr, 0, classTable));
+
+      if (classInfo != mainClassInfo) {
+        for (int slot = 0; slot < classInfo.getVtableSize(); slot++) {
+          ClassInfo owner = classInfo.getVtableOwner(slot);
+          MethodInfo methodInfo = owner.getMethodInfo(classInfo.getVtableMethod(slot));
+          Identifier functionPtr = context.getNextVariable();
+
+          context.emit(new Move_Id_FuncName(functionPtr, getFunctionName(owner, methodInfo)));
+          context.emit(new Store(vmtPtr, ClassInfo.getVtableSlotOffset(slot), functionPtr));
+        }
+      }
+
+      context.emit(new Store(classTable, index * 4, vmtPtr));
+    }
+
+    Block block = new Block(context.getInstructions().toList(), classTable);
+    return new FunctionDecl(new FunctionName(CLASS_TABLE_FUNCTION), new ArrayList<>(), block);
+  }
+
   @Override
   public TranslationResult visit(TypeDeclaration n, TranslationContext context) {
     return n.f0.accept(this, context);
@@ -146,10 +230,9 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
   @Override
   public TranslationResult visit(ClassDeclaration n, TranslationContext context) {
     SymbolTable symbolTable = context.getSymbolTable();
-    String className = n.f1.f0.toString();
     NodeListOptional methodDeclarations = n.f4;
 
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, context));
     TranslationContext newContext = new TranslationContext(symbolTable, classInfo, null);
 
     List<FunctionDecl> functions = new ArrayList<>();
@@ -164,10 +247,9 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
   @Override
   public TranslationResult visit(ClassExtendsDeclaration n, TranslationContext context) {
     SymbolTable symbolTable = context.getSymbolTable();
-    String className = n.f1.f0.toString();
     NodeListOptional methodDeclarations = n.f6;
 
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, context));
     TranslationContext newContext = new TranslationContext(symbolTable, classInfo, null);
 
     List<FunctionDecl> functions = new ArrayList<>();
@@ -184,10 +266,10 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
    **/
   @Override
   public TranslationResult visit(VarDeclaration n, TranslationContext context) {
-    String name = n.f1.f0.toString();
     if (context.getCurrentMethodInfo() != null) {
-      MJType type = context.getCurrentMethodInfo().getLocalVariableType(name);
-      context.addLocalVar(name, type);
+      int symbol = symbol(n.f1, context);
+      MJType type = context.getCurrentMethodInfo().getLocalVariableType(symbol);
+      context.addLocalVar(symbol, type);
     } // Class fields are put into the heap during symbol table construction
 
     return null;
@@ -195,10 +277,9 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
 
   @Override
   public TranslationResult visit(MethodDeclaration n, TranslationContext context) {
-    String methodName = n.f2.f0.toString();
     SymbolTable symbolTable = context.getSymbolTable();
     ClassInfo classInfo = context.getCurrentClassInfo();
-    MethodInfo methodInfo = classInfo.getMethodInfo(methodName);
+    MethodInfo methodInfo = classInfo.getMethodInfo(symbol(n.f2, context));
     NodeOptional formalParameters = n.f4;
     NodeListOptional varDeclarations = n.f7;
     NodeListOptional statements = n.f8;
@@ -210,23 +291,21 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
     formalParameters.accept(this, newContext);
     varDeclarations.accept(this, newContext);
 
-    List<Instruction> instructions = new ArrayList<>();
     for (Node statementNode : statements.nodes) {
-      TranslationResult statementTR = statementNode.accept(this, newContext);
-      instructions.addAll(statementTR.getSparrowResult().getInstructions());
+      statementNode.accept(this, newContext);
     }
 
-    SparrowResult returnExpressionSparrowResult = returnExpression.accept(this, newContext).getSparrowResult();
-    instructions.addAll(returnExpressionSparrowResult.getInstructions());
+    SparrowResult returnExpressionSparrowResult = translate(returnExpression, newContext);
 
-    Block block = new Block(instructions, returnExpressionSparrowResult.getResult());
+    Block block = new Block(newContext.getInstructions().toList(), returnExpressionSparrowResult.getResult());
     FunctionName fname = getFunctionName(classInfo, methodInfo);
 
     List<Identifier> formalParametersIdentifiers = new ArrayList<>();
     formalParametersIdentifiers.add(newContext.lookupVar("this"));
 
-    for (String paramName : methodInfo.getParameterNames()) {
-      Identifier id = newContext.lookupVar(paramName);
+    IntMap<MJType> parameters = methodInfo.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      Identifier id = newContext.lookupVar(parameters.keyAt(i));
       formalParametersIdentifiers.add(id);
     }
 
@@ -239,13 +318,17 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
 
   @Override
   public TranslationResult visit(FormalParameter n, TranslationContext context) {
-    String name = n.f1.f0.toString();
-    MJType type = context.getCurrentMethodInfo().getParameterType(name);
-    context.addLocalVar(name, type);
+    int symbol = symbol(n.f1, context);
+    MJType type = context.getCurrentMethodInfo().getParameterType(symbol);
+    context.addLocalVar(symbol, type);
 
     return null;
   }
 
+  /*
+   * Statements emit their instructions into the method's context and
+   * return null.
+   */
   @Override
   public TranslationResult visit(Statement n, TranslationContext context) {
     return n.f0.accept(this, context);
@@ -254,55 +337,47 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
   @Override
   public TranslationResult visit(minijava.syntaxtree.Block n, TranslationContext context) {
     NodeListOptional statements = n.f1;
-    List<Instruction> instructions = new ArrayList<>();
 
     for (Node statementNode : statements.nodes) {
-      TranslationResult statementTR = statementNode.accept(this, context);
-      instructions.addAll(statementTR.getSparrowResult().getInstructions());
+      statementNode.accept(this, context);
     }
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, null));
+    return null;
   }
 
   @Override
   public TranslationResult visit(AssignmentStatement n, TranslationContext context) {
-    String name = n.f0.f0.toString();
+    int symbol = symbol(n.f0, context);
     Expression expression = n.f2;
-    SparrowResult expressionSR = expression.accept(this, context).getSparrowResult();
-
-    List<Instruction> instructions = new ArrayList<>(expressionSR.getInstructions());
+    SparrowResult expressionSR = translate(expression, context);
 
-    if (context.hasVar(name)) {
-      Identifier id = context.lookupVar(name);
-      instructions.add(new Move_Id_Id(id, expressionSR.getResult()));
+    if (context.hasVar(symbol)) {
+      Identifier id = context.lookupVar(symbol);
+      context.emit(new Move_Id_Id(id, expressionSR.getResult()));
     } else {
       Identifier id = context.lookupVar("this");
       ClassInfo classInfo = context.getCurrentClassInfo();
-      int idFieldOffset = classInfo.getFieldOffset(name);
+      int idFieldOffset = classInfo.getFieldOffset(symbol);
 
-      instructions.add(new Store(id, idFieldOffset, expressionSR.getResult()));
+      context.emit(new Store(id, idFieldOffset, expressionSR.getResult()));
     }
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, null));
+    return null;
   }
 
   @Override
   public TranslationResult visit(ArrayAssignmentStatement n, TranslationContext context) {
-    SparrowResult arraySR = n.f0.accept(this, context).getSparrowResult();
+    SparrowResult arraySR = translate(n.f0, context);
     Identifier arrayPtr = arraySR.getResult();
 
     Expression indexExpression = n.f2;
     Expression valueExpression = n.f5;
 
-    List<Instruction> instructions = new ArrayList<>(arraySR.getInstructions());
-
-    SparrowResult indexSR = indexExpression.accept(this, context).getSparrowResult();
+    SparrowResult indexSR = translate(indexExpression, context);
     Identifier index = indexSR.getResult();
-    instructions.addAll(indexSR.getInstructions());
 
-    SparrowResult valueSR = valueExpression.accept(this, context).getSparrowResult();
+    SparrowResult valueSR = translate(valueExpression, context);
     Identifier value = valueSR.getResult();
-    instructions.addAll(valueSR.getInstructions());
 
     Identifier zero = context.getNextVariable();
     Identifier one = context.getNextVariable();
@@ -317,333 +392,382 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
     Label outOfBoundsLabel = TranslationContext.getNextUniqueLabel("ArrayIndexOutOfBoundsException");
     Label inBoundsLabel = TranslationContext.getNextUniqueLabel("inBounds");
 
-    instructions.add(new Move_Id_Integer(zero, 0));
-    instructions.add(new Move_Id_Integer(one, 1));
-    instructions.add(new Subtract(negativeOne, zero, one));
-    instructions.add(new Move_Id_Integer(four, 4));
-    instructions.add(new Load(arraySize, arrayPtr, 0));
-    instructions.add(new LessThan(indexIsNonNegative, negativeOne, index));
-    instructions.add(new LessThan(indexIsLessThanArraySize, index, arraySize));
-    instructions.add(new Multiply(indexInBounds, indexIsNonNegative, indexIsLessThanArraySize));
-    instructions.add(new IfGoto(indexInBounds, outOfBoundsLabel));
-    instructions.add(new Goto(inBoundsLabel));
-    instructions.add(new LabelInstr(outOfBoundsLabel));
-    instructions.add(new ErrorMessage(constant.ErrorMessage.arrayIndexOutOfBounds));
-    instructions.add(new LabelInstr(inBoundsLabel));
-    instructions.add(new Multiply(indexBytePos, index, four));
-    instructions.add(new Add(indexBytePos, indexBytePos, four));
-    instructions.add(new Add(arrayIndexAddress, arrayPtr, indexBytePos));
-    instructions.add(new Store(arrayIndexAddress, 0, value));
+    context.emit(new Move_Id_Integer(zero, 0));
+    context.emit(new Move_Id_Integer(one, 1));
+    context.emit(new Subtract(negativeOne, zero, one));
+    context.emit(new Move_Id_Integer(four, 4));
+    context.emit(new Load(arraySize, arrayPtr, 0));
+    context.emit(new LessThan(indexIsNonNegative, negativeOne, index));
+    context.emit(new LessThan(indexIsLessThanArraySize, index, arraySize));
+    context.emit(new Multiply(indexInBounds, indexIsNonNegative, indexIsLessThanArraySize));
+    context.emit(new IfGoto(indexInBounds, outOfBoundsLabel));
+    context.emit(new Goto(inBoundsLabel));
+    context.emit(new LabelInstr(outOfBoundsLabel));
+    context.emit(new ErrorMessage(constant.ErrorMessage.arrayIndexOutOfBounds));
+    context.emit(new LabelInstr(inBoundsLabel));
+    context.emit(new Multiply(indexBytePos, index, four));
+    context.emit(new Add(indexBytePos, indexBytePos, four));
+    context.emit(new Add(arrayIndexAddress, arrayPtr, indexBytePos));
+    context.emit(new Store(arrayIndexAddress, 0, value));
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, null));
+    return null;
   }
 
+  /*
+   * The labels are taken after both branches are translated, as the
+   * branches' own labels come first; the jumps to them are reserved slots
+   * filled in at the end.
+   */
   @Override
   public TranslationResult visit(IfStatement n, TranslationContext context) {
     Expression condition = n.f2;
     Statement thenStatement = n.f4;
     Statement elseStatement = n.f6;
+    InstructionBuffer instructions = context.getInstructions();
 
-    SparrowResult conditionSR = condition.accept(this, context).getSparrowResult();
+    SparrowResult conditionSR = translate(condition, context);
     Identifier conditionResult = conditionSR.getResult();
-    SparrowResult thenSR = thenStatement.accept(this, context).getSparrowResult();
-    SparrowResult elseSR = elseStatement.accept(this, context).getSparrowResult();
 
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.addAll(conditionSR.getInstructions());
+    int jumpToElse = instructions.reserve();
+    thenStatement.accept(this, context);
+    int jumpToEnd = instructions.reserve();
+    int elseStart = instructions.reserve();
+    elseStatement.accept(this, context);
 
     Label elseLabel = TranslationContext.getNextUniqueLabel("else");
     Label endLabel = TranslationContext.getNextUniqueLabel("end");
 
-    instructions.add(new IfGoto(conditionResult, elseLabel));
-    instructions.addAll(thenSR.getInstructions());
-    instructions.add(new Goto(endLabel));
-    instructions.add(new LabelInstr(elseLabel));
-    instructions.addAll(elseSR.getInstructions());
-    instructions.add(new LabelInstr(endLabel));
+    instructions.set(jumpToElse, new IfGoto(conditionResult, elseLabel));
+    instructions.set(jumpToEnd, new Goto(endLabel));
+    instructions.set(elseStart, new LabelInstr(elseLabel));
+    context.emit(new LabelInstr(endLabel));
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, null));
+    return null;
   }
 
   @Override
   public TranslationResult visit(WhileStatement n, TranslationContext context) {
     Expression condition = n.f2;
     Statement bodyStatement = n.f4;
+    InstructionBuffer instructions = context.getInstructions();
 
-    SparrowResult conditionSR = condition.accept(this, context).getSparrowResult();
+    int loopStart = instructions.reserve();
+    SparrowResult conditionSR = translate(condition, context);
     Identifier conditionResult = conditionSR.getResult();
-    SparrowResult bodySR = bodyStatement.accept(this, context).getSparrowResult();
-
-    List<Instruction> instructions = new ArrayList<>();
+    int jumpToEnd = instructions.reserve();
+    bodyStatement.accept(this, context);
 
     Label startLabel = TranslationContext.getNextUniqueLabel("whileStart");
     Label endLabel = TranslationContext.getNextUniqueLabel("whileEnd");
 
-    instructions.add(new LabelInstr(startLabel));
-    instructions.addAll(conditionSR.getInstructions());
-    instructions.add(new IfGoto(conditionResult, endLabel));
-    instructions.addAll(bodySR.getInstructions());
-    instructions.add(new Goto(startLabel));
-    instructions.add(new LabelInstr(endLabel));
+    instructions.set(loopStart, new LabelInstr(startLabel));
+    instructions.set(jumpToEnd, new IfGoto(conditionResult, endLabel));
+    context.emit(new Goto(startLabel));
+    context.emit(new LabelInstr(endLabel));
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, null));
+    return null;
   }
 
   @Override
   public TranslationResult visit(PrintStatement n, TranslationContext context) {
     Expression expression = n.f2;
 
-    SparrowResult expressionSR = expression.accept(this, context).getSparrowResult();
-    Identifier expressionResult = expressionSR.getResult();
-    List<Instruction> instructions = expressionSR.getInstructions();
-
-    Instruction printInstruction = new Print(expressionResult);
-    instructions.add(printInstruction);
+    SparrowResult expressionSR = translate(expression, context);
+    context.emit(new Print(expressionSR.getResult()));
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, null));
+    return null;
   }
 
-  @Override
-  public TranslationResult visit(Expression n, TranslationContext context) {
-    return n.f0.accept(this, context);
-  }
+  /*
+   * Translates an expression with an explicit stack, so deeply nested
+   * expressions do not overflow the Java stack. Every operand emits its
+   * instructions into the method's buffer, and a node's own instructions
+   * follow those of its operands, as they would in a recursive translation.
+   * Fresh variables and labels are still taken after the operands are
+   * translated, so the numbering is unchanged.
+   */
+  private class ExpressionTranslator extends ExpressionWalker<SparrowResult> {
+    private final TranslationContext context;
+    private final InstructionBuffer instructions;
+    // Positions of the instructions an and expression emits before and
+    // between its operands, filled in once its labels exist
+    private int[] andSlots = new int[8];
+    private int andSlotCount = 0;
+
+    ExpressionTranslator(TranslationContext context) {
+      this.context = context;
+      this.instructions = context.getInstructions();
+    }
 
-  @Override
-  public TranslationResult visit(AndExpression n, TranslationContext context) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
+    @Override
+    protected SparrowResult leaf(Node node) {
+      return translateLeaf(node, context);
+    }
 
-    SparrowResult leftSR = leftExpression.accept(this, context).getSparrowResult();
-    SparrowResult rightSR = rightExpression.accept(this, context).getSparrowResult();
+    @Override
+    protected void beforeOperand(Node node, int index) {
+      if (node instanceof AndExpression) {
+        if (andSlotCount == andSlots.length) {
+          andSlots = Arrays.copyOf(andSlots, andSlotCount * 2);
+        }
+        andSlots[andSlotCount++] = instructions.reserve();
+      }
+    }
 
-    Identifier zero = context.getNextVariable();
-    Identifier result = context.getNextVariable();
+    @Override
+    protected SparrowResult combine(Node node, List<SparrowResult> operands) {
+      if (node instanceof AndExpression) {
+        return and(operands.get(0), operands.get(1));
+      }
+      if (node instanceof CompareExpression) {
+        return compare(operands.get(0), operands.get(1));
+      }
+      if (node instanceof PlusExpression) {
+        Identifier id = context.getNextVariable();
+        instructions.add(new Add(id, operands.get(0).getResult(), operands.get(1).getResult()));
+        return new SparrowResult(id);
+      }
+      if (node instanceof MinusExpression) {
+        Identifier id = context.getNextVariable();
+        instructions.add(new Subtract(id, operands.get(0).getResult(), operands.get(1).getResult()));
+        return new SparrowResult(id);
+      }
+      if (node instanceof TimesExpression) {
+        Identifier id = context.getNextVariable();
+        instructions.add(new Multiply(id, operands.get(0).getResult(), operands.get(1).getResult()));
+        return new SparrowResult(id);
+      }
+      if (node instanceof ArrayLookup) {
+        return arrayLookup(operands.get(0), operands.get(1));
+      }
+      if (node instanceof ArrayLength) {
+        Identifier result = context.getNextVariable();
+        instructions.add(new Load(result, operands.get(0).getResult(), 0));
+        return new SparrowResult(result);
+      }
+      if (node instanceof ArrayAllocationExpression) {
+        return arrayAllocation(operands.get(0));
+      }
+      if (node instanceof NotExpression) {
+        Identifier result = context.getNextVariable();
+        Identifier one = context.getNextVariable();
+        instructions.add(new Move_Id_Integer(one, 1));
+        instructions.add(new Subtract(result, one, operands.get(0).getResult()));
+        return new SparrowResult(result);
+      }
+      return messageSend(symbol(((MessageSend) node).f2, context), operands);
+    }
 
-    Label falseLabel = TranslationContext.getNextUniqueLabel("andFalse");
-    Label endLabel = TranslationContext.getNextUniqueLabel("andEnd");
+    private SparrowResult and(SparrowResult leftSR, SparrowResult rightSR) {
+      Identifier zero = context.getNextVariable();
+      Identifier result = context.getNextVariable();
+
+      Label falseLabel = TranslationContext.getNextUniqueLabel("andFalse");
+      Label endLabel = TranslationContext.getNextUniqueLabel("andEnd");
+
+      int betweenOperands = andSlots[--andSlotCount];
+      int beforeOperands = andSlots[--andSlotCount];
+      instructions.set(beforeOperands, new Move_Id_Integer(zero, 0));
+      instructions.set(betweenOperands, new IfGoto(leftSR.getResult(), falseLabel));
+      instructions.add(new IfGoto(rightSR.getResult(), falseLabel));
+      instructions.add(new Move_Id_Integer(result, 1));
+      instructions.add(new Goto(endLabel));
+      instructions.add(new LabelInstr(falseLabel));
+      instructions.add(new Move_Id_Integer(result, 0));
+      instructions.add(new LabelInstr(endLabel));
+
+      return new SparrowResult(result);
+    }
 
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.add(new Move_Id_Integer(zero, 0));
-    instructions.addAll(leftSR.getInstructions());
-    instructions.add(new IfGoto(leftSR.getResult(), falseLabel));
-    instructions.addAll(rightSR.getInstructions());
-    instructions.add(new IfGoto(rightSR.getResult(), falseLabel));
-    instructions.add(new Move_Id_Integer(result, 1));
-    instructions.add(new Goto(endLabel));
-    instructions.add(new LabelInstr(falseLabel));
-    instructions.add(new Move_Id_Integer(result, 0));
-    instructions.add(new LabelInstr(endLabel));
+    private SparrowResult compare(SparrowResult leftSR, SparrowResult rightSR) {
+      Identifier result = context.getNextVariable();
+      instructions.add(new LessThan(result, leftSR.getResult(), rightSR.getResult()));
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, result));
-  }
+      return new SparrowResult(result);
+    }
 
-  @Override
-  public TranslationResult visit(CompareExpression n, TranslationContext context) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
+    private SparrowResult arrayLookup(SparrowResult arraySR, SparrowResult indexSR) {
+      Identifier arrayPtr = arraySR.getResult();
+      Identifier index = indexSR.getResult();
+
+      Identifier zero = context.getNextVariable();
+      Identifier one = context.getNextVariable();
+      Identifier negativeOne = context.getNextVariable();
+      Identifier four = context.getNextVariable();
+      Identifier arraySize = context.getNextVariable();
+      Identifier indexIsNonNegative = context.getNextVariable();
+      Identifier indexIsLessThanArraySize = context.getNextVariable();
+      Identifier indexInBounds = context.getNextVariable();
+      Identifier indexBytePos = context.getNextVariable();
+      Identifier arrayIndexAddress = context.getNextVariable();
+      Identifier result = context.getNextVariable();
+      Label outOfBoundsLabel = TranslationContext.getNextUniqueLabel("ArrayIndexOutOfBoundsException");
+      Label inBoundsLabel = TranslationContext.getNextUniqueLabel("inBounds");
+
+      instructions.add(new Move_Id_Integer(zero, 0));
+      instructions.add(new Move_Id_Integer(one, 1));
+      instructions.add(new Subtract(negativeOne, zero, one));
+      instructions.add(new Move_Id_Integer(four, 4));
+      instructions.add(new Load(arraySize, arrayPtr, 0));
+      instructions.add(new LessThan(indexIsNonNegative, negativeOne, index));
+      instructions.add(new LessThan(indexIsLessThanArraySize, index, arraySize));
+      instructions.add(new Multiply(indexInBounds, indexIsNonNegative, indexIsLessThanArraySize));
+      instructions.add(new IfGoto(indexInBounds, outOfBoundsLabel));
+      instructions.add(new Goto(inBoundsLabel));
+      instructions.add(new LabelInstr(outOfBoundsLabel));
+      instructions.add(new ErrorMessage(constant.ErrorMessage.arrayIndexOutOfBounds));
+      instructions.add(new LabelInstr(inBoundsLabel));
+      instructions.add(new Multiply(indexBytePos, index, four));
+      instructions.add(new Add(indexBytePos, indexBytePos, four));
+      instructions.add(new Add(arrayIndexAddress, arrayPtr, indexBytePos));
+      instructions.add(new Load(result, arrayIndexAddress, 0));
+
+      return new SparrowResult(result);
+    }
+
+    private SparrowResult arrayAllocation(SparrowResult expressionSR) {
+      Identifier sizeId = expressionSR.getResult();
+      Identifier arrayPtr = context.getNextVariable();
+      Identifier one = context.getNextVariable();
+      Identifier four = context.getNextVariable();
+      Identifier sizeIdPlusOne = context.getNextVariable();
+
+      instructions.add(new Move_Id_Integer(one, 1));
+      instructions.add(new Move_Id_Integer(four, 4));
+      instructions.add(new Add(sizeIdPlusOne, sizeId, one));
+      instructions.add(new Multiply(sizeIdPlusOne, sizeIdPlusOne, four));
+      instructions.add(new Alloc(arrayPtr, sizeIdPlusOne));
+      instructions.add(new Store(arrayPtr, 0, sizeId));
+
+      return new SparrowResult(arrayPtr);
+    }
 
-    SparrowResult leftSR = leftExpression.accept(this, context).getSparrowResult();
-    SparrowResult rightSR = rightExpression.accept(this, context).getSparrowResult();
-    Identifier result = context.getNextVariable();
+    /**
+     * operands holds the receiver followed by the arguments.
+     */
+    private SparrowResult messageSend(int methodSymbol, List<SparrowResult> operands) {
+      SymbolTable symbolTable = context.getSymbolTable();
+      SparrowResult objectSR = operands.get(0);
+      Identifier objectId = objectSR.getResult();
+
+      List<Identifier> args = new ArrayList<>();
+      for (SparrowResult operandSR : operands) {
+        args.add(operandSR.getResult());
+      }
 
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.addAll(leftSR.getInstructions());
-    instructions.addAll(rightSR.getInstructions());
-    instructions.add(new LessThan(result, leftSR.getResult(), rightSR.getResult()));
+      ClassType objType = (ClassType) objectSR.getType();
+      ClassInfo staticClass = symbolTable.getClassInfo(objType.getSymbol());
+
+      MethodInfo calledMethod = staticClass.getMethodInfo(methodSymbol);
+      int methodOffset = staticClass.getMethodOffset(methodSymbol);
+      ClassInfo singleTarget = staticClass.getSingleTarget(methodSymbol);
+
+      Label okLbl = TranslationContext.getNextUniqueLabel("objNotNull");
+      Label nullLbl = TranslationContext.getNextUniqueLabel("objNull");
+
+      instructions.add(new IfGoto(objectId, nullLbl));
+      instructions.add(new Goto(okLbl));
+      instructions.add(new LabelInstr(nullLbl));
+      instructions.add(new ErrorMessage(constant.ErrorMessage.nullPointer));
+      instructions.add(new LabelInstr(okLbl));
+
+      Identifier methodPtr;
+      callCount++;
+      if (singleTarget != null) {
+        // No subclass overrides the method, so call it directly
+        devirtualizedCount++;
+        methodPtr = context.getNextVariable();
+        instructions.add(new Move_Id_FuncName(methodPtr, getFunctionName(singleTarget, calledMethod)));
+      } else {
+        Identifier vmtPtr = context.getNextVariable();
+        instructions.add(new Load(vmtPtr, objectId, 0));
+
+        methodPtr = context.getNextVariable();
+        instructions.add(new Load(methodPtr, vmtPtr, methodOffset));
+      }
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, result));
-  }
+      Identifier result = context.getNextVariable();
+      instructions.add(new Call(result, methodPtr, args));
 
-  @Override
-  public TranslationResult visit(PlusExpression n, TranslationContext context) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
+      MJType returnType = calledMethod.getReturnType();
 
-    SparrowResult leftSR = leftExpression.accept(this, context).getSparrowResult();
-    SparrowResult rightSR = rightExpression.accept(this, context).getSparrowResult();
+      return new SparrowResult(result).withType(returnType);
+    }
+  }
 
-    Identifier id = context.getNextVariable();
-    Instruction addInstruction = new Add(id, leftSR.getResult(), rightSR.getResult());
+  /**
+   * Emits the instructions computing the expression into the context.
+   */
+  private SparrowResult translate(Node n, TranslationContext context) {
+    return new ExpressionTranslator(context).walk(n);
+  }
 
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.addAll(leftSR.getInstructions());
-    instructions.addAll(rightSR.getInstructions());
-    instructions.add(addInstruction);
-    SparrowResult sparrowResult = new SparrowResult(instructions, id);
+  private TranslationResult translateExpression(Node n, TranslationContext context) {
+    return TranslationResult.ofSparrowResult(translate(n, context));
+  }
 
-    return TranslationResult.ofSparrowResult(sparrowResult);
+  private SparrowResult translateLeaf(Node n, TranslationContext context) {
+    if (n instanceof IntegerLiteral) {
+      return integerLiteral((IntegerLiteral) n, context);
+    }
+    if (n instanceof TrueLiteral) {
+      return constant(1, context);
+    }
+    if (n instanceof FalseLiteral) {
+      return constant(0, context);
+    }
+    if (n instanceof minijava.syntaxtree.Identifier) {
+      return identifier((minijava.syntaxtree.Identifier) n, context);
+    }
+    if (n instanceof ThisExpression) {
+      return thisExpression(context);
+    }
+    return allocation((AllocationExpression) n, context);
   }
 
   @Override
-  public TranslationResult visit(MinusExpression n, TranslationContext context) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
+  public TranslationResult visit(Expression n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    SparrowResult leftSR = leftExpression.accept(this, context).getSparrowResult();
-    SparrowResult rightSR = rightExpression.accept(this, context).getSparrowResult();
+  @Override
+  public TranslationResult visit(AndExpression n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    Identifier id = context.getNextVariable();
-    Instruction minusInstruction = new Subtract(id, leftSR.getResult(), rightSR.getResult());
+  @Override
+  public TranslationResult visit(CompareExpression n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.addAll(leftSR.getInstructions());
-    instructions.addAll(rightSR.getInstructions());
-    instructions.add(minusInstruction);
-    SparrowResult sparrowResult = new SparrowResult(instructions, id);
+  @Override
+  public TranslationResult visit(PlusExpression n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    return TranslationResult.ofSparrowResult(sparrowResult);
+  @Override
+  public TranslationResult visit(MinusExpression n, TranslationContext context) {
+    return translateExpression(n, context);
   }
 
   @Override
   public TranslationResult visit(TimesExpression n, TranslationContext context) {
-    PrimaryExpression leftExpression = n.f0;
-    PrimaryExpression rightExpression = n.f2;
-
-    SparrowResult leftSR = leftExpression.accept(this, context).getSparrowResult();
-    SparrowResult rightSR = rightExpression.accept(this, context).getSparrowResult();
-
-    Identifier id = context.getNextVariable();
-    Instruction timesInstruction = new Multiply(id, leftSR.getResult(), rightSR.getResult());
-
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.addAll(leftSR.getInstructions());
-    instructions.addAll(rightSR.getInstructions());
-    instructions.add(timesInstruction);
-    SparrowResult sparrowResult = new SparrowResult(instructions, id);
-
-    return TranslationResult.ofSparrowResult(sparrowResult);
+    return translateExpression(n, context);
   }
 
   @Override
   public TranslationResult visit(ArrayLookup n, TranslationContext context) {
-    SparrowResult arraySR = n.f0.accept(this, context).getSparrowResult();
-    Identifier arrayPtr = arraySR.getResult();
-    PrimaryExpression indexExpression = n.f2;
-
-    List<Instruction> instructions = new ArrayList<>(arraySR.getInstructions());
-
-    SparrowResult indexSR = indexExpression.accept(this, context).getSparrowResult();
-    Identifier index = indexSR.getResult();
-    instructions.addAll(indexSR.getInstructions());
-
-    Identifier zero = context.getNextVariable();
-    Identifier one = context.getNextVariable();
-    Identifier negativeOne = context.getNextVariable();
-    Identifier four = context.getNextVariable();
-    Identifier arraySize = context.getNextVariable();
-    Identifier indexIsNonNegative = context.getNextVariable();
-    Identifier indexIsLessThanArraySize = context.getNextVariable();
-    Identifier indexInBounds = context.getNextVariable();
-    Identifier indexBytePos = context.getNextVariable();
-    Identifier arrayIndexAddress = context.getNextVariable();
-    Identifier result = context.getNextVariable();
-    Label outOfBoundsLabel = TranslationContext.getNextUniqueLabel("ArrayIndexOutOfBoundsException");
-    Label inBoundsLabel = TranslationContext.getNextUniqueLabel("inBounds");
-
-    instructions.add(new Move_Id_Integer(zero, 0));
-    instructions.add(new Move_Id_Integer(one, 1));
-    instructions.add(new Subtract(negativeOne, zero, one));
-    instructions.add(new Move_Id_Integer(four, 4));
-    instructions.add(new Load(arraySize, arrayPtr, 0));
-    instructions.add(new LessThan(indexIsNonNegative, negativeOne, index));
-    instructions.add(new LessThan(indexIsLessThanArraySize, index, arraySize));
-    instructions.add(new Multiply(indexInBounds, indexIsNonNegative, indexIsLessThanArraySize));
-    instructions.add(new IfGoto(indexInBounds, outOfBoundsLabel));
-    instructions.add(new Goto(inBoundsLabel));
-    instructions.add(new LabelInstr(outOfBoundsLabel));
-    instructions.add(new ErrorMessage(constant.ErrorMessage.arrayIndexOutOfBounds));
-    instructions.add(new LabelInstr(inBoundsLabel));
-    instructions.add(new Multiply(indexBytePos, index, four));
-    instructions.add(new Add(indexBytePos, indexBytePos, four));
-    instructions.add(new Add(arrayIndexAddress, arrayPtr, indexBytePos));
-    instructions.add(new Load(result, arrayIndexAddress, 0));
-
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, result));
+    return translateExpression(n, context);
   }
 
   @Override
   public TranslationResult visit(ArrayLength n, TranslationContext context) {
-    PrimaryExpression array = n.f0;
-
-    SparrowResult arraySR = array.accept(this, context).getSparrowResult();
-    Identifier arrayPtr = arraySR.getResult();
-
-    Identifier result = context.getNextVariable();
-
-    List<Instruction> instructions = new ArrayList<>(arraySR.getInstructions());
-    instructions.add(new Load(result, arrayPtr, 0));
-
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, result));
+    return translateExpression(n, context);
   }
 
   @Override
   public TranslationResult visit(MessageSend n, TranslationContext context) {
-    PrimaryExpression object = n.f0;
-    String methodName = n.f2.f0.toString();
-    NodeOptional arguments = n.f4;
-    SymbolTable symbolTable = context.getSymbolTable();
-
-    SparrowResult objectSR = object.accept(this, context).getSparrowResult();
-    Identifier objectId = objectSR.getResult();
-
-    List<Instruction> instructions = new ArrayList<>();
-    instructions.addAll(objectSR.getInstructions());
-
-    List<Identifier> argIds = new ArrayList<>();
-
-    if (arguments.present()) {
-      ExpressionList args = (ExpressionList) arguments.node;
-      Expression firstArg = args.f0;
-      NodeListOptional restArgs = args.f1;
-
-      SparrowResult firstArgSR = firstArg.accept(this, context).getSparrowResult();
-      argIds.add(firstArgSR.getResult());
-      instructions.addAll(firstArgSR.getInstructions());
-
-      for (Node argNode : restArgs.nodes) {
-        SparrowResult argSR = argNode.accept(this, context).getSparrowResult();
-        argIds.add(argSR.getResult());
-        instructions.addAll(argSR.getInstructions());
-      }
-    }
-
-    List<Identifier> args = new ArrayList<>();
-    args.add(objectId);
-    args.addAll(argIds);
-
-    ClassType objType = (ClassType) objectSR.getType();
-    ClassInfo dynamicClass = symbolTable.getClassInfo(objType.getName());
-
-    ClassInfo methodOwner = dynamicClass;
-    while (methodOwner != null && !methodOwner.getDeclaredMethods().contains(methodName)) {
-      String parentName = methodOwner.getSuperClassName();
-      methodOwner = parentName != null ? symbolTable.getClassInfo(parentName) : null;
-    }
-
-    MethodInfo calledMethod = methodOwner.getMethodInfo(methodName);
-    int methodOffset = dynamicClass.getMethodOffset(methodName);
-
-    Label okLbl = TranslationContext.getNextUniqueLabel("objNotNull");
-    Label nullLbl = TranslationContext.getNextUniqueLabel("objNull");
-
-    instructions.add(new IfGoto(objectId, nullLbl));
-    instructions.add(new Goto(okLbl));
-    instructions.add(new LabelInstr(nullLbl));
-    instructions.add(new ErrorMessage(constant.ErrorMessage.nullPointer));
-    instructions.add(new LabelInstr(okLbl));
-
-    Identifier vmtPtr = context.getNextVariable();
-    instructions.add(new Load(vmtPtr, objectId, 0));
-
-    Identifier methodPtr = context.getNextVariable();
-    instructions.add(new Load(methodPtr, vmtPtr, methodOffset));
-
-    Identifier result = context.getNextVariable();
-    instructions.add(new Call(result, methodPtr, args));
-
-    MJType returnType = calledMethod.getReturnType();
-
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, result).withType(returnType));
+    return translateExpression(n, context);
   }
 
   @Override
@@ -653,160 +777,121 @@ public class TranslationVisitor extends GJDepthFirst<TranslationResult, Translat
 
   @Override
   public TranslationResult visit(PrimaryExpression n, TranslationContext context) {
-    return n.f0.accept(this, context);
+    return translateExpression(n, context);
   }
 
   @Override
   public TranslationResult visit(IntegerLiteral n, TranslationContext context) {
-    int integer = Integer.parseInt(n.f0.toString());
-
-    Identifier id = context.getNextVariable();
-    Instruction moveInstruction = new Move_Id_Integer(id, integer);
+    return translateExpression(n, context);
+  }
 
-    List<Instruction> instructions = new ArrayList<>(Arrays.asList(moveInstruction));
-    SparrowResult sparrowResult = new SparrowResult(instructions, id);
+  @Override
+  public TranslationResult visit(TrueLiteral n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    return TranslationResult.ofSparrowResult(sparrowResult);
+  @Override
+  public TranslationResult visit(FalseLiteral n, TranslationContext context) {
+    return translateExpression(n, context);
   }
 
   @Override
-  public TranslationResult visit(TrueLiteral n, TranslationContext context) {
-    Identifier id = context.getNextVariable();
-    Instruction moveInstruction = new Move_Id_Integer(id, 1);
+  public TranslationResult visit(minijava.syntaxtree.Identifier n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    List<Instruction> instructions = new ArrayList<>(Arrays.asList(moveInstruction));
-    SparrowResult sparrowResult = new SparrowResult(instructions, id);
+  @Override
+  public TranslationResult visit(ThisExpression n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
 
-    return TranslationResult.ofSparrowResult(sparrowResult);
+  @Override
+  public TranslationResult visit(ArrayAllocationExpression n, TranslationContext context) {
+    return translateExpression(n, context);
   }
 
   @Override
-  public TranslationResult visit(FalseLiteral n, TranslationContext context) {
-    Identifier id = context.getNextVariable();
-    Instruction moveInstruction = new Move_Id_Integer(id, 0);
+  public TranslationResult visit(AllocationExpression n, TranslationContext context) {
+    return translateExpression(n, context);
+  }
+
+  private SparrowResult integerLiteral(IntegerLiteral n, TranslationContext context) {
+    return constant(Integer.parseInt(n.f0.toString()), context);
+  }
 
-    List<Instruction> instructions = new ArrayList<>(Arrays.asList(moveInstruction));
-    SparrowResult sparrowResult = new SparrowResult(instructions, id);
+  private SparrowResult constant(int value, TranslationContext context) {
+    Identifier id = context.getNextVariable();
+    context.emit(new Move_Id_Integer(id, value));
 
-    return TranslationResult.ofSparrowResult(sparrowResult);
+    return new SparrowResult(id);
   }
 
-  @Override
-  public TranslationResult visit(minijava.syntaxtree.Identifier n, TranslationContext context) {
-    String name = n.f0.toString();
+  private SparrowResult identifier(minijava.syntaxtree.Identifier n, TranslationContext context) {
+    int symbol = symbol(n, context);
     Identifier id;
 
-    List<Instruction> instructions = new ArrayList<>();
-    if (context.hasVar(name)) {
-      id = context.lookupVar(name);
-      MJType type = context.getVarType(name);
-      return TranslationResult.ofSparrowResult(new SparrowResult(instructions, id).withType(type));
+    if (context.hasVar(symbol)) {
+      id = context.lookupVar(symbol);
+      MJType type = context.getVarType(symbol);
+      return new SparrowResult(id).withType(type);
     }
 
     Identifier thisId = context.lookupVar("this");
     ClassInfo classInfo = context.getCurrentClassInfo();
-    int idFieldOffset = classInfo.getFieldOffset(name);
+    int idFieldOffset = classInfo.getFieldOffset(symbol);
 
     id = context.getNextVariable();
-    instructions.add(new Load(id, thisId, idFieldOffset));
+    context.emit(new Load(id, thisId, idFieldOffset));
 
-    MJType fieldType = classInfo.getFieldType(name);
+    MJType fieldType = classInfo.getFieldType(symbol);
 
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, id).withType(fieldType));
+    return new SparrowResult(id).withType(fieldType);
   }
 
-  @Override
-  public TranslationResult visit(ThisExpression n, TranslationContext context) {
+  private SparrowResult thisExpression(TranslationContext context) {
     Identifier thisId = context.lookupVar("this");
-    ClassType classType = new ClassType(context.getCurrentClassInfo().getClassName());
-
-    return TranslationResult.ofSparrowResult(new SparrowResult(new ArrayList<>(), thisId).withType(classType));
-  }
-
-  @Override
-  public TranslationResult visit(ArrayAllocationExpression n, TranslationContext context) {
-    Expression expression = n.f3;
-    SparrowResult expressionSR = expression.accept(this, context).getSparrowResult();
-
-    Identifier sizeId = expressionSR.getResult();
-    Identifier arrayPtr = context.getNextVariable();
-    Identifier one = context.getNextVariable();
-    Identifier four = context.getNextVariable();
-    Identifier sizeIdPlusOne = context.getNextVariable();
-
-    List<Instruction> instructions = new ArrayList<>(expressionSR.getInstructions());
+    ClassType classType = context.getSymbolTable().getTypeFactory()
+        .getClassType(context.getCurrentClassInfo().getClassSymbol());
 
-    instructions.add(new Move_Id_Integer(one, 1));
-    instructions.add(new Move_Id_Integer(four, 4));
-    instructions.add(new Add(sizeIdPlusOne, sizeId, one));
-    instructions.add(new Multiply(sizeIdPlusOne, sizeIdPlusOne, four));
-    instructions.add(new Alloc(arrayPtr, sizeIdPlusOne));
-    instructions.add(new Store(arrayPtr, 0, sizeId));
-
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, arrayPtr));
+    return new SparrowResult(thisId).withType(classType);
   }
 
-  @Override
-  public TranslationResult visit(AllocationExpression n, TranslationContext context) {
-    String className = n.f1.f0.toString();
+  private SparrowResult allocation(AllocationExpression n, TranslationContext context) {
     SymbolTable symbolTable = context.getSymbolTable();
-    ClassInfo classInfo = symbolTable.getClassInfo(className);
-
-    List<Instruction> instructions = new ArrayList<>();
+    ClassInfo classInfo = symbolTable.getClassInfo(symbol(n.f1, context));
 
     int fieldSize = classInfo.getFieldOffsetMaxBytes();
-    int vmtSize = classInfo.getVtableOffsets().size();
+    allocatedClasses.set(classInfo.getClassIndex());
 
     Identifier fieldsMemorySize = context.getNextVariable();
     Identifier fieldsTablePtr = context.getNextVariable();
-    Identifier vmtMemorySize = context.getNextVariable();
     Identifier vmtPtr = context.getNextVariable();
 
-    instructions.add(new Move_Id_Integer(fieldsMemorySize, (fieldSize)));
-    instructions.add(new Alloc(fieldsTablePtr, fieldsMemorySize));
-    instructions.add(new Move_Id_Integer(vmtMemorySize, (vmtSize) * 4));
-    instructions.add(new Alloc(vmtPtr, vmtMemorySize));
-
-    List<String> methodNames = new ArrayList<>(classInfo.getVtableOffsets().keySet());
-    for (String methodName : methodNames) {
-      int methodOffset = classInfo.getMethodOffset(methodName);
-      ClassInfo owner = classInfo;
-      while (owner != null && !owner.getDeclaredMethods().contains(methodName)) {
-        String parentName = owner.getSuperClassName();
-        owner = (parentName != null) ? symbolTable.getClassInfo(parentName) : null;
-      }
-
-      MethodInfo methodInfo = owner.getMethodInfo(methodName);
-      Identifier functionPtr = context.getNextVariable();
+    context.emit(new Move_Id_Integer(fieldsMemorySize, (fieldSize)));
+    context.emit(new Alloc(fieldsTablePtr, fieldsMemorySize));
 
-      instructions.add(new Move_Id_FuncName(functionPtr, getFunctionName(owner, methodInfo)));
-      instructions.add(new Store(vmtPtr, methodOffset, functionPtr));
+    Identifier classTable = context.getClassTable();
+    if (classTable == null) {
+      Identifier thisVmtPtr = context.getNextVariable();
+      classTable = context.getNextVariable();
+      context.emit(new Load(thisVmtPtr, context.lookupVar("this"), 0));
+      context.emit(new Load(classTable, thisVmtPtr, 0));
     }
+    context.emit(new Load(vmtPtr, classTable, classInfo.getClassIndex() * 4));
+    context.emit(new Store(fieldsTablePtr, 0, vmtPtr));
 
-    instructions.add(new Store(fieldsTablePtr, 0, vmtPtr));
-
-    MJType classType = new ClassType(className);
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, fieldsTablePtr).withType(classType));
+    MJType classType = symbolTable.getTypeFactory().getClassType(classInfo.getClassSymbol());
+    return new SparrowResult(fieldsTablePtr).withType(classType);
   }
 
   @Override
   public TranslationResult visit(NotExpression n, TranslationContext context) {
-    Expression expression = n.f1;
-    SparrowResult expressionSR = expression.accept(this, context).getSparrowResult();
-
-    Identifier result = context.getNextVariable();
-    Identifier one = context.getNextVariable();
-
-    List<Instruction> instructions = new ArrayList<>(expressionSR.getInstructions());
-    instructions.add(new Move_Id_Integer(one, 1));
-    instructions.add(new Subtract(result, one, expressionSR.getResult()));
-
-    return TranslationResult.ofSparrowResult(new SparrowResult(instructions, result));
+    return translateExpression(n, context);
   }
 
   @Override
   public TranslationResult visit(BracketExpression n, TranslationContext context) {
-    return n.f1.accept(this, context);
+    return translateExpression(n, context);
   }
 
   private FunctionName getFunctionName(ClassInfo classInfo, MethodInfo methodInfo) {
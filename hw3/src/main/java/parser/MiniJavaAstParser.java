@@ -0,0 +1,452 @@
+package parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import ast.ClassDecl;
+import ast.Expression;
+import ast.MainClass;
+import ast.MethodDecl;
+import ast.Program;
+import ast.Statement;
+import ast.TypeRef;
+import ast.VarDecl;
+import minijava.MiniJavaParserConstants;
+import minijava.ParseException;
+
+/**
+ * Hand-written recursive-descent parser for MiniJava that builds the compact
+ * ast.Program directly, without the JTB token and wrapper nodes.
+ *
+ * It accepts the same language as the JavaCC grammar: the syntactic
+ * lookahead there (e.g. PrimaryExpression() "&&" before AndExpression) is
+ * decided here by parsing the primary expression once and looking at the
+ * token after it. Use ast.JtbAdapter to run JTB visitors on the result.
+ */
+public class MiniJavaAstParser implements MiniJavaParserConstants {
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  private final MiniJavaLexer lexer;
+  private final int[] kinds;
+  private final String[] images;
+  private int position = 0;
+
+  private MiniJavaAstParser(char[] text, int length) throws ParseException {
+    lexer = new MiniJavaLexer(text, length);
+    kinds = lexer.kinds;
+    images = lexer.images;
+  }
+
+  public static Program parse(Reader reader) throws IOException, ParseException {
+    char[] text = new char[READ_BUFFER_SIZE];
+    int length = 0;
+    int read;
+    while ((read = reader.read(text, length, text.length - length)) != -1) {
+      length += read;
+      if (length == text.length) {
+        text = Arrays.copyOf(text, text.length * 2);
+      }
+    }
+    return new MiniJavaAstParser(text, length).goal();
+  }
+
+  public static Program parse(String source) throws ParseException {
+    return new MiniJavaAstParser(source.toCharArray(), source.length()).goal();
+  }
+
+  // Goal -> MainClass ( TypeDeclaration )* <EOF>
+  private Program goal() throws ParseException {
+    MainClass mainClass = mainClass();
+    List<ClassDecl> classes = new ArrayList<>();
+    while (kind(0) == CLASS) {
+      classes.add(typeDeclaration());
+    }
+    expect(EOF);
+    return new Program(mainClass, classes, lexer.symbols);
+  }
+
+  private MainClass mainClass() throws ParseException {
+    expect(CLASS);
+    String name = identifier();
+    expect(LBRACE);
+    expect(PUBLIC);
+    expect(STATIC);
+    expect(VOID);
+    expect(MAIN);
+    expect(LPAREN);
+    expect(STRING);
+    expect(LSQPAREN);
+    expect(RSQPAREN);
+    String argsName = identifier();
+    expect(RPAREN);
+    expect(LBRACE);
+    List<VarDecl> locals = varDeclarations();
+    List<Statement> body = statements();
+    expect(RBRACE);
+    expect(RBRACE);
+    return new MainClass(name, argsName, locals, body);
+  }
+
+  private ClassDecl typeDeclaration() throws ParseException {
+    expect(CLASS);
+    String name = identifier();
+    String superName = null;
+    if (kind(0) == EXTENDS) {
+      position++;
+      superName = identifier();
+    }
+
+    expect(LBRACE);
+    List<VarDecl> fields = new ArrayList<>();
+    while (kind(0) == INTEGER || kind(0) == BOOLEAN || kind(0) == IDENTIFIER) {
+      fields.add(varDeclaration());
+    }
+    List<MethodDecl> methods = new ArrayList<>();
+    while (kind(0) == PUBLIC) {
+      methods.add(methodDeclaration());
+    }
+    expect(RBRACE);
+    return new ClassDecl(name, superName, fields, methods);
+  }
+
+  private MethodDecl methodDeclaration() throws ParseException {
+    expect(PUBLIC);
+    TypeRef returnType = type();
+    String name = identifier();
+    expect(LPAREN);
+    List<VarDecl> parameters = Collections.emptyList();
+    if (kind(0) != RPAREN) {
+      parameters = new ArrayList<>();
+      parameters.add(new VarDecl(type(), identifier()));
+      while (kind(0) == MiniJavaLexer.COMMA) {
+        position++;
+        parameters.add(new VarDecl(type(), identifier()));
+      }
+    }
+    expect(RPAREN);
+    expect(LBRACE);
+    List<VarDecl> locals = varDeclarations();
+    List<Statement> body = statements();
+    expect(RETURN);
+    Expression returnValue = expression();
+    expect(SEMICOLON);
+    expect(RBRACE);
+    return new MethodDecl(returnType, name, parameters, locals, body, returnValue);
+  }
+
+  /*
+   * ( LOOKAHEAD(2) VarDeclaration() )*: a local starts with int or boolean,
+   * or with two identifiers (class type and name).
+   */
+  private List<VarDecl> varDeclarations() throws ParseException {
+    List<VarDecl> locals = new ArrayList<>();
+    while (kind(0) == INTEGER || kind(0) == BOOLEAN || (kind(0) == IDENTIFIER && kind(1) == IDENTIFIER)) {
+      locals.add(varDeclaration());
+    }
+    return locals;
+  }
+
+  private VarDecl varDeclaration() throws ParseException {
+    VarDecl decl = new VarDecl(type(), identifier());
+    expect(SEMICOLON);
+    return decl;
+  }
+
+  private TypeRef type() throws ParseException {
+    switch (kind(0)) {
+      case INTEGER:
+        position++;
+        if (kind(0) == LSQPAREN) {
+          position++;
+          expect(RSQPAREN);
+          return TypeRef.INT_ARRAY;
+        }
+        return TypeRef.INT;
+      case BOOLEAN:
+        position++;
+        return TypeRef.BOOLEAN;
+      case IDENTIFIER:
+        return TypeRef.ofClass(identifier());
+      default:
+        throw unexpected();
+    }
+  }
+
+  private List<Statement> statements() throws ParseException {
+    List<Statement> statements = new ArrayList<>();
+    while (isStatementStart(kind(0))) {
+      statements.add(statement());
+    }
+    return statements;
+  }
+
+  private static boolean isStatementStart(int kind) {
+    return kind == LBRACE || kind == IDENTIFIER || kind == IF || kind == WHILE || kind == PRINT;
+  }
+
+  private Statement statement() throws ParseException {
+    switch (kind(0)) {
+      case LBRACE: {
+        position++;
+        List<Statement> statements = statements();
+        expect(RBRACE);
+        return new Statement.Block(statements);
+      }
+      case IDENTIFIER: {
+        String name = identifier();
+        if (kind(0) == LSQPAREN) {
+          position++;
+          Expression index = expression();
+          expect(RSQPAREN);
+          expect(ASSIGN);
+          Expression value = expression();
+          expect(SEMICOLON);
+          return new Statement.ArrayAssign(name, index, value);
+        }
+        expect(ASSIGN);
+        Expression value = expression();
+        expect(SEMICOLON);
+        return new Statement.Assign(name, value);
+      }
+      case IF: {
+        position++;
+        expect(LPAREN);
+        Expression condition = expression();
+        expect(RPAREN);
+        Statement thenBranch = statement();
+        expect(ELSE);
+        Statement elseBranch = statement();
+        return new Statement.If(condition, thenBranch, elseBranch);
+      }
+      case WHILE: {
+        position++;
+        expect(LPAREN);
+        Expression condition = expression();
+        expect(RPAREN);
+        return new Statement.While(condition, statement());
+      }
+      case PRINT: {
+        position++;
+        expect(LPAREN);
+        Expression value = expression();
+        expect(RPAREN);
+        expect(SEMICOLON);
+        return new Statement.Print(value);
+      }
+      default:
+        throw unexpected();
+    }
+  }
+
+  /*
+   * Expressions nest through brackets, "!", "new int [ ]", operands and call
+   * arguments, so they are parsed with an explicit stack of Frames instead
+   * of recursion: arbitrarily deep expressions do not overflow the Java
+   * stack.
+   *
+   * Every compound expression starts with a primary expression; the token
+   * after it selects the production. Each Frame records what to do with the
+   * next completed primary expression (SUFFIX, RIGHT_OPERAND, INDEX) or the
+   * next completed expression (the others).
+   */
+  private static final int FRAME_SUFFIX = 0;
+  private static final int FRAME_RIGHT_OPERAND = 1;
+  private static final int FRAME_INDEX = 2;
+  private static final int FRAME_NEW_INT_ARRAY = 3;
+  private static final int FRAME_NOT = 4;
+  private static final int FRAME_BRACKET = 5;
+  private static final int FRAME_ARGUMENT = 6;
+
+  private static class Frame {
+    final int kind;
+    Expression.Operator operator;
+    Expression left; // Left operand, array or call receiver
+    String method;
+    List<Expression> arguments;
+
+    Frame(int kind) {
+      this.kind = kind;
+    }
+  }
+
+  private Expression expression() throws ParseException {
+    List<Frame> frames = new ArrayList<>();
+    frames.add(new Frame(FRAME_SUFFIX));
+
+    while (true) {
+      Expression value = primaryExpression(frames);
+
+      // Complete frames until one needs another primary expression
+      reduce: while (true) {
+        if (frames.isEmpty()) {
+          return value;
+        }
+
+        Frame frame = frames.remove(frames.size() - 1);
+        switch (frame.kind) {
+          case FRAME_SUFFIX:
+            Expression.Operator operator = operator(kind(0));
+            if (operator != null) {
+              position++;
+              Frame right = new Frame(FRAME_RIGHT_OPERAND);
+              right.operator = operator;
+              right.left = value;
+              frames.add(right);
+              break reduce;
+            }
+            if (kind(0) == LSQPAREN) {
+              position++;
+              Frame index = new Frame(FRAME_INDEX);
+              index.left = value;
+              frames.add(index);
+              break reduce;
+            }
+            if (kind(0) == DOT && kind(1) == LENGTH) {
+              position += 2;
+              value = new Expression.ArrayLength(value);
+            } else if (kind(0) == DOT && kind(1) == IDENTIFIER && kind(2) == LPAREN) {
+              position++;
+              String method = identifier();
+              position++;
+              if (kind(0) == RPAREN) {
+                position++;
+                value = new Expression.Call(value, method, Collections.emptyList());
+              } else {
+                Frame call = new Frame(FRAME_ARGUMENT);
+                call.left = value;
+                call.method = method;
+                call.arguments = new ArrayList<>();
+                frames.add(call);
+                frames.add(new Frame(FRAME_SUFFIX));
+                break reduce;
+              }
+            }
+            break;
+          case FRAME_RIGHT_OPERAND:
+            value = new Expression.Binary(frame.operator, frame.left, value);
+            break;
+          case FRAME_INDEX:
+            expect(RSQPAREN);
+            value = new Expression.ArrayLookup(frame.left, value);
+            break;
+          case FRAME_NEW_INT_ARRAY:
+            expect(RSQPAREN);
+            value = new Expression.NewIntArray(value);
+            break;
+          case FRAME_NOT:
+            value = new Expression.Not(value);
+            break;
+          case FRAME_BRACKET:
+            expect(RPAREN);
+            value = new Expression.Bracket(value);
+            break;
+          default:
+            frame.arguments.add(value);
+            if (kind(0) == MiniJavaLexer.COMMA) {
+              position++;
+              frames.add(frame);
+              frames.add(new Frame(FRAME_SUFFIX));
+              break reduce;
+            }
+            expect(RPAREN);
+            value = new Expression.Call(frame.left, frame.method, frame.arguments);
+        }
+      }
+    }
+  }
+
+  private static Expression.Operator operator(int kind) {
+    switch (kind) {
+      case AND:
+        return Expression.Operator.AND;
+      case LT:
+        return Expression.Operator.LESS_THAN;
+      case PLUS:
+        return Expression.Operator.PLUS;
+      case MINUS:
+        return Expression.Operator.MINUS;
+      case MiniJavaLexer.TIMES:
+        return Expression.Operator.TIMES;
+      default:
+        return null;
+    }
+  }
+
+  /*
+   * Consumes prefixes that open a nested expression, pushing a frame for
+   * each, up to the next primary expression without nested parts.
+   */
+  private Expression primaryExpression(List<Frame> frames) throws ParseException {
+    while (true) {
+      switch (kind(0)) {
+        case INTEGER_LITERAL:
+          return new Expression.IntegerLiteral(images[position++]);
+        case TRUE:
+          position++;
+          return Expression.BooleanLiteral.TRUE;
+        case FALSE:
+          position++;
+          return Expression.BooleanLiteral.FALSE;
+        case IDENTIFIER:
+          return new Expression.Identifier(identifier());
+        case THIS:
+          position++;
+          return Expression.This.INSTANCE;
+        case NEW:
+          position++;
+          if (kind(0) == INTEGER) {
+            position++;
+            expect(LSQPAREN);
+            frames.add(new Frame(FRAME_NEW_INT_ARRAY));
+            frames.add(new Frame(FRAME_SUFFIX));
+            break;
+          }
+          String className = identifier();
+          expect(LPAREN);
+          expect(RPAREN);
+          return new Expression.NewObject(className);
+        case NOT:
+          position++;
+          frames.add(new Frame(FRAME_NOT));
+          frames.add(new Frame(FRAME_SUFFIX));
+          break;
+        case LPAREN:
+          position++;
+          frames.add(new Frame(FRAME_BRACKET));
+          frames.add(new Frame(FRAME_SUFFIX));
+          break;
+        default:
+          throw unexpected();
+      }
+    }
+  }
+
+  private int kind(int ahead) {
+    return kinds[Math.min(position + ahead, lexer.count - 1)];
+  }
+
+  private void expect(int kind) throws ParseException {
+    if (kinds[position] != kind) {
+      throw unexpected();
+    }
+    if (kind != EOF) {
+      position++;
+    }
+  }
+
+  private String identifier() throws ParseException {
+    if (kinds[position] != IDENTIFIER) {
+      throw unexpected();
+    }
+    return images[position++];
+  }
+
+  private ParseException unexpected() {
+    return new ParseException("Encountered " + lexer.describe(position) + " at "
+        + lexer.position(lexer.starts[position]) + ".");
+  }
+}
@@ -1,53 +1,93 @@
 package symbolTable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
+import ast.SymbolInterner;
 import type.MJType;
+import utils.IntIntMap;
+import utils.IntMap;
 import constant.OutputMessage;
 
+/**
+ * Fields, methods and their offsets are keyed by SymbolInterner ids. The
+ * declared maps hold only what the class itself declares; the others also
+ * get the inherited members once SymbolTable.resolveInheritance has run,
+ * which also lays out the object and the vtable.
+ *
+ * Field offsets are 4 bytes per slot, the vtable pointer in slot 0. The
+ * vtable is a slot-indexed pair of arrays: the method symbol in each slot
+ * and the class whose declaration that slot calls. At run time the vtable
+ * starts with a pointer to the class table, the array of every class's
+ * vtable by class index, and its method slots follow.
+ */
 public class ClassInfo {
+  public static final int VTABLE_HEADER_BYTES = 4;
+
+  private static final String VMT_FIELD = "__vmt";
+  private static final int[] NO_SLOTS = new int[0];
+  private static final ClassInfo[] NO_OWNERS = new ClassInfo[0];
+
+  private final SymbolInterner symbols;
   private final String className;
+  private final int classSymbol;
+  private int classIndex = -1;
   private String superClassName = null;
-  private final Map<String, MJType> fields = new HashMap<>();
-  private final List<String> declaredFields = new ArrayList<>();
-  private final Map<String, Integer> fieldOffsets = new HashMap<>();
-  private final Map<String, MethodInfo> methods = new HashMap<>();
-  private final List<String> declaredMethods = new ArrayList<>();
-  private final Map<String, Integer> vtableOffsets = new HashMap<>();
-
-  public ClassInfo(String className) {
+  private int superClassSymbol = SymbolInterner.NONE;
+  private final IntMap<MJType> fields = new IntMap<>();
+  private final IntMap<MJType> declaredFields = new IntMap<>();
+  private final IntIntMap fieldOffsets = new IntIntMap();
+  private int fieldSlots = 0;
+  private final IntMap<MethodInfo> methods = new IntMap<>();
+  private final IntMap<MethodInfo> declaredMethods = new IntMap<>();
+  private final IntIntMap vtableOffsets = new IntIntMap();
+  private int[] vtableMethods = NO_SLOTS;
+  private ClassInfo[] vtableOwners = NO_OWNERS;
+  private int vtableSize = 0;
+  // By vtable slot, whether a subclass overrides the method; null while
+  // none does
+  private boolean[] overriddenSlots = null;
+
+  public ClassInfo(String className, SymbolInterner symbols) {
+    this.symbols = symbols;
     this.className = className;
+    this.classSymbol = symbols.intern(className);
 
-    fields.put("__vmt", null); // First field is always the vtable pointer
-    fieldOffsets.put("__vmt", 0);
+    int vmtSymbol = symbols.intern(VMT_FIELD);
+    fields.put(vmtSymbol, null); // First field is always the vtable pointer
+    addFieldSlot(vmtSymbol);
   }
 
   public void addField(String fieldName, MJType fieldType) {
-    if (fields.containsKey(fieldName)) {
+    addField(symbols.intern(fieldName), fieldType);
+  }
+
+  public void addField(int fieldSymbol, MJType fieldType) {
+    if (fields.containsKey(fieldSymbol)) {
       OutputMessage.outputErrorAndExit();
     }
 
-    declaredFields.add(fieldName);
-    fields.put(fieldName, fieldType);
+    declaredFields.put(fieldSymbol, fieldType);
+    fields.put(fieldSymbol, fieldType);
   }
 
   public void addMethod(String methodName, MethodInfo methodInfo) {
-    if (methods.containsKey(methodName)) {
+    addMethod(symbols.intern(methodName), methodInfo);
+  }
+
+  public void addMethod(int methodSymbol, MethodInfo methodInfo) {
+    if (methods.containsKey(methodSymbol)) {
       OutputMessage.outputErrorAndExit();
     }
 
-    methods.put(methodName, methodInfo);
-    declaredMethods.add(methodName);
+    methods.put(methodSymbol, methodInfo);
+    declaredMethods.put(methodSymbol, methodInfo);
   }
 
-  public List<String> getDeclaredFields() {
+  public IntMap<MJType> getDeclaredFields() {
     return declaredFields;
   }
 
-  public List<String> getDeclaredMethods() {
+  public IntMap<MethodInfo> getDeclaredMethods() {
     return declaredMethods;
   }
 
@@ -55,19 +95,43 @@ public class ClassInfo {
     return className;
   }
 
+  public int getClassSymbol() {
+    return classSymbol;
+  }
+
+  /**
+   * The position of the class in SymbolTable.getClasses(), and so of its
+   * vtable in the class table.
+   */
+  public int getClassIndex() {
+    return classIndex;
+  }
+
+  void setClassIndex(int classIndex) {
+    this.classIndex = classIndex;
+  }
+
   public String getSuperClassName() {
     return superClassName;
   }
 
+  /**
+   * SymbolInterner.NONE if the class extends nothing.
+   */
+  public int getSuperClassSymbol() {
+    return superClassSymbol;
+  }
+
   public void setSuperClassName(String superClassName) {
     if (this.superClassName != null) {
       OutputMessage.outputErrorAndExit();
     }
 
     this.superClassName = superClassName;
+    this.superClassSymbol = symbols.intern(superClassName);
   }
 
-  public Map<String, MJType> getFields() {
+  public IntMap<MJType> getFields() {
     return fields;
   }
 
@@ -76,33 +140,51 @@ public class ClassInfo {
   }
 
   public MJType getFieldType(String fieldName) {
-    if (fields.containsKey(fieldName)) {
-      return fields.get(fieldName);
-    }
+    return fields.get(symbols.lookup(fieldName));
+  }
 
-    return null;
+  public MJType getFieldType(int fieldSymbol) {
+    return fields.get(fieldSymbol);
   }
 
   public boolean containsField(String fieldName) {
-    return fields.containsKey(fieldName);
+    return fields.containsKey(symbols.lookup(fieldName));
+  }
+
+  public boolean containsField(int fieldSymbol) {
+    return fields.containsKey(fieldSymbol);
   }
 
   public int getFieldOffset(String fieldName) {
-    Integer offset = fieldOffsets.get(fieldName);
-    if (offset == null) {
+    int offset = fieldOffsets.get(symbols.lookup(fieldName), -1);
+    if (offset < 0) {
       System.err.println("Field '" + fieldName + "' not found in class " + className);
       OutputMessage.outputErrorAndExit();
     }
     return offset;
   }
 
-  public Map<String, MethodInfo> getMethods() {
+  public int getFieldOffset(int fieldSymbol) {
+    int offset = fieldOffsets.get(fieldSymbol, -1);
+    if (offset < 0) {
+      System.err.println("Field '" + symbols.getName(fieldSymbol) + "' not found in class " + className);
+      OutputMessage.outputErrorAndExit();
+    }
+    return offset;
+  }
+
+  public IntMap<MethodInfo> getMethods() {
     return methods;
   }
 
   public MethodInfo getMethodInfo(String methodName) {
-    if (methods.containsKey(methodName)) {
-      return methods.get(methodName);
+    return getMethodInfo(symbols.lookup(methodName));
+  }
+
+  public MethodInfo getMethodInfo(int methodSymbol) {
+    MethodInfo methodInfo = methods.get(methodSymbol);
+    if (methodInfo != null) {
+      return methodInfo;
     }
 
     OutputMessage.outputErrorAndExit();
@@ -110,38 +192,166 @@ public class ClassInfo {
   }
 
   public MethodInfo getMainMethodInfo() {
-    if (methods.containsKey("main")) {
-      return methods.get("main");
-    }
-
-    OutputMessage.outputErrorAndExit();
-    throw new AssertionError("Unreachable");
+    return getMethodInfo("main");
   }
 
   public int getMethodOffset(String methodName) {
-    Integer offset = vtableOffsets.get(methodName);
-    if (offset == null) {
+    int offset = vtableOffsets.get(symbols.lookup(methodName), -1);
+    if (offset < 0) {
       System.err.println("Method '" + methodName + "' not found in class " + className);
       OutputMessage.outputErrorAndExit();
     }
     return offset;
   }
 
+  public int getMethodOffset(int methodSymbol) {
+    int offset = vtableOffsets.get(methodSymbol, -1);
+    if (offset < 0) {
+      System.err.println("Method '" + symbols.getName(methodSymbol) + "' not found in class " + className);
+      OutputMessage.outputErrorAndExit();
+    }
+    return offset;
+  }
+
   public boolean containsMethod(String methodName) {
-    return methods.containsKey(methodName);
+    return methods.containsKey(symbols.lookup(methodName));
   }
 
-  public Map<String, Integer> getFieldOffsets() {
-    return fieldOffsets;
+  public boolean containsMethod(int methodSymbol) {
+    return methods.containsKey(methodSymbol);
   }
 
-  public Map<String, Integer> getVtableOffsets() {
-    return vtableOffsets;
+  public int getVtableSize() {
+    return vtableSize;
+  }
+
+  public int getVtableBytes() {
+    return VTABLE_HEADER_BYTES + vtableSize * 4;
+  }
+
+  public static int getVtableSlotOffset(int slot) {
+    return VTABLE_HEADER_BYTES + slot * 4;
+  }
+
+  /**
+   * The symbol of the method in the given vtable slot, at byte offset
+   * getVtableSlotOffset(slot).
+   */
+  public int getVtableMethod(int slot) {
+    return vtableMethods[slot];
+  }
+
+  /**
+   * The class, this one or a superclass, whose declaration of the method is
+   * the one the given vtable slot calls on instances of this class.
+   */
+  public ClassInfo getVtableOwner(int slot) {
+    return vtableOwners[slot];
+  }
+
+  public ClassInfo getMethodOwner(int methodSymbol) {
+    int offset = vtableOffsets.get(methodSymbol, -1);
+    if (offset < 0) {
+      System.err.println("Method '" + symbols.getName(methodSymbol) + "' not found in class " + className);
+      OutputMessage.outputErrorAndExit();
+    }
+    return vtableOwners[(offset - VTABLE_HEADER_BYTES) / 4];
+  }
+
+  /**
+   * The class whose declaration of the method every call on a receiver of
+   * this static type reaches, or null if a subclass overrides the method,
+   * so that the call has to go through the vtable. Known once
+   * SymbolTable.resolveInheritance has run.
+   */
+  public ClassInfo getSingleTarget(int methodSymbol) {
+    int slot = (getMethodOffset(methodSymbol) - VTABLE_HEADER_BYTES) / 4;
+    if (overriddenSlots != null && overriddenSlots[slot]) {
+      return null;
+    }
+    return vtableOwners[slot];
+  }
+
+  /**
+   * Records that a subclass overrides the method, and returns false if
+   * that was already known.
+   */
+  boolean markOverridden(int methodSymbol) {
+    int slot = (getMethodOffset(methodSymbol) - VTABLE_HEADER_BYTES) / 4;
+    if (overriddenSlots == null) {
+      overriddenSlots = new boolean[vtableSize];
+    }
+    if (overriddenSlots[slot]) {
+      return false;
+    }
+    overriddenSlots[slot] = true;
+    return true;
   }
 
   public int getFieldOffsetMaxBytes() {
-    return fieldOffsets.values().stream().max(Integer::compare)
-        .orElse(0) + 4;
+    return fieldSlots * 4;
+  }
+
+  /**
+   * Starts this class's layout as a copy of its superclass's.
+   */
+  void inheritLayout(ClassInfo superClassInfo) {
+    fieldOffsets.putAll(superClassInfo.fieldOffsets);
+    fieldSlots = superClassInfo.fieldSlots;
+    vtableOffsets.putAll(superClassInfo.vtableOffsets);
+    vtableMethods = Arrays.copyOf(superClassInfo.vtableMethods, superClassInfo.vtableSize);
+    vtableOwners = Arrays.copyOf(superClassInfo.vtableOwners, superClassInfo.vtableSize);
+    vtableSize = superClassInfo.vtableSize;
+  }
+
+  /**
+   * Gives the field the next slot, even if the name shadows an inherited
+   * field.
+   */
+  void addFieldSlot(int fieldSymbol) {
+    fieldOffsets.put(fieldSymbol, fieldSlots * 4);
+    fieldSlots++;
+  }
+
+  /**
+   * Points the method's vtable slot at owner's declaration, taking the next
+   * slot if no superclass declares the method.
+   */
+  void setVtableSlot(int methodSymbol, ClassInfo owner) {
+    int offset = vtableOffsets.get(methodSymbol, -1);
+    if (offset >= 0) {
+      vtableOwners[(offset - VTABLE_HEADER_BYTES) / 4] = owner;
+      return;
+    }
+
+    if (vtableSize == vtableMethods.length) {
+      int capacity = Math.max(2, vtableSize * 2);
+      vtableMethods = Arrays.copyOf(vtableMethods, capacity);
+      vtableOwners = Arrays.copyOf(vtableOwners, capacity);
+    }
+    vtableOffsets.put(methodSymbol, getVtableSlotOffset(vtableSize));
+    vtableMethods[vtableSize] = methodSymbol;
+    vtableOwners[vtableSize] = owner;
+    vtableSize++;
+  }
+
+  /**
+   * Bytes held by the member tables, the layout and the declared methods,
+   * not counting the ClassInfo object itself.
+   */
+  public long getFootprint() {
+    long bytes = fields.getFootprint() + declaredFields.getFootprint() + fieldOffsets.getFootprint()
+        + methods.getFootprint() + declaredMethods.getFootprint() + vtableOffsets.getFootprint();
+    if (vtableMethods != NO_SLOTS) {
+      bytes += 16 + 4L * vtableMethods.length + 16 + 4L * vtableOwners.length;
+    }
+    if (overriddenSlots != null) {
+      bytes += 16 + overriddenSlots.length;
+    }
+    for (int i = 0; i < declaredMethods.size(); i++) {
+      bytes += 32 + declaredMethods.valueAt(i).getFootprint();
+    }
+    return bytes;
   }
 
   @Override
@@ -152,12 +362,16 @@ public class ClassInfo {
       sb.append("', extends='").append(superClassName);
     }
     sb.append("', fields={");
-    fields.forEach((fieldName, fieldType) -> sb.append(fieldName).append(": ").append(fieldType).append(" (offset ")
-        .append(getFieldOffset(fieldName)).append("), "));
+    for (int i = 0; i < fields.size(); i++) {
+      sb.append(symbols.getName(fields.keyAt(i))).append(": ").append(fields.valueAt(i)).append(" (offset ")
+          .append(getFieldOffset(fields.keyAt(i))).append("), ");
+    }
     if (!fields.isEmpty())
       sb.setLength(sb.length() - 2);
     sb.append("}, methods={");
-    methods.forEach((methodName, methodInfo) -> sb.append(methodName).append(": ").append(methodInfo).append(", "));
+    for (int i = 0; i < methods.size(); i++) {
+      sb.append(symbols.getName(methods.keyAt(i))).append(": ").append(methods.valueAt(i)).append(", ");
+    }
     if (!methods.isEmpty())
       sb.setLength(sb.length() - 2);
     sb.append("}}");
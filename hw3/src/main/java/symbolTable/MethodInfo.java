@@ -1,21 +1,25 @@
 package symbolTable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
+import ast.SymbolInterner;
 import constant.OutputMessage;
 import type.MJType;
+import utils.IntMap;
 
+/**
+ * Parameters and local variables are keyed by their SymbolInterner ids;
+ * parameters keep their declaration order.
+ */
 public class MethodInfo {
+  private final SymbolInterner symbols;
   private String methodName;
   private MJType returnType;
-  private LinkedHashMap<String, MJType> parameters = new LinkedHashMap<String, MJType>();
-  private Map<String, MJType> localVariables = new HashMap<String, MJType>();
+  private IntMap<MJType> parameters = new IntMap<>();
+  private IntMap<MJType> localVariables = new IntMap<>();
 
-  public MethodInfo(String methodName, MJType returnType) {
+  public MethodInfo(String methodName, MJType returnType, SymbolInterner symbols) {
+    this.symbols = symbols;
     this.methodName = methodName;
     this.returnType = returnType;
   }
@@ -28,62 +32,82 @@ public class MethodInfo {
     return returnType;
   }
 
-  public LinkedHashMap<String, MJType> getParameters() {
+  public IntMap<MJType> getParameters() {
     return parameters;
   }
 
-  public List<String> getParameterNames() {
-    return new ArrayList<>(parameters.keySet());
-  }
-
   public List<MJType> getParameterTypes() {
-    return new ArrayList<>(parameters.values());
+    return parameters.values();
   }
 
   public Boolean hasParameter(String paramName) {
-    return parameters.containsKey(paramName);
+    return parameters.containsKey(symbols.lookup(paramName));
+  }
+
+  public boolean hasParameter(int paramSymbol) {
+    return parameters.containsKey(paramSymbol);
   }
 
   public MJType getParameterType(String paramName) {
-    if (parameters.containsKey(paramName)) {
-      return parameters.get(paramName);
-    }
+    return parameters.get(symbols.lookup(paramName));
+  }
 
-    return null;
+  public MJType getParameterType(int paramSymbol) {
+    return parameters.get(paramSymbol);
   }
 
   public void addParameter(String paramName, MJType paramType) {
-    if (parameters.containsKey(paramName)) {
+    addParameter(symbols.intern(paramName), paramType);
+  }
+
+  public void addParameter(int paramSymbol, MJType paramType) {
+    if (parameters.containsKey(paramSymbol)) {
       OutputMessage.outputErrorAndExit();
     }
-    parameters.put(paramName, paramType);
+    parameters.put(paramSymbol, paramType);
   }
 
-  public Map<String, MJType> getLocalVariables() {
+  public IntMap<MJType> getLocalVariables() {
     return localVariables;
   }
 
   public Boolean hasLocalVariable(String varName) {
-    return localVariables.containsKey(varName);
+    return localVariables.containsKey(symbols.lookup(varName));
+  }
+
+  public boolean hasLocalVariable(int varSymbol) {
+    return localVariables.containsKey(varSymbol);
   }
 
   public MJType getLocalVariableType(String varName) {
-    if (localVariables.containsKey(varName)) {
-      return localVariables.get(varName);
-    }
+    return localVariables.get(symbols.lookup(varName));
+  }
 
-    return null;
+  public MJType getLocalVariableType(int varSymbol) {
+    return localVariables.get(varSymbol);
   }
 
   public void addLocalVariable(String varName, MJType varType) {
-    if (parameters.containsKey(varName)) {
+    addLocalVariable(symbols.intern(varName), varType);
+  }
+
+  public void addLocalVariable(int varSymbol, MJType varType) {
+    if (parameters.containsKey(varSymbol)) {
       OutputMessage.outputErrorAndExit();
     }
 
-    if (localVariables.containsKey(varName)) {
+    if (localVariables.containsKey(varSymbol)) {
       OutputMessage.outputErrorAndExit();
     }
-    localVariables.put(varName, varType);
+    localVariables.put(varSymbol, varType);
+  }
+
+  /**
+   * Bytes held by the parameter and local variable tables, not counting
+   * the MethodInfo object itself or the shared types and names.
+   */
+  public long getFootprint() {
+    return parameters.getFootprint() + localVariables.getFootprint();
   }
 
   @Override
@@ -93,7 +117,9 @@ public class MethodInfo {
         .append("', returnType='").append(returnType)
         .append("', parameters={");
 
-    parameters.forEach((paramName, paramType) -> sb.append(paramName).append(": ").append(paramType).append(", "));
+    for (int i = 0; i < parameters.size(); i++) {
+      sb.append(symbols.getName(parameters.keyAt(i))).append(": ").append(parameters.valueAt(i)).append(", ");
+    }
 
     if (!parameters.isEmpty()) {
       sb.setLength(sb.length() - 2);
@@ -101,7 +127,10 @@ public class MethodInfo {
 
     sb.append("}, localVariables={");
 
-    localVariables.forEach((varName, varType) -> sb.append(varName).append(": ").append(varType).append(", "));
+    for (int i = 0; i < localVariables.size(); i++) {
+      sb.append(symbols.getName(localVariables.keyAt(i))).append(": ").append(localVariables.valueAt(i))
+          .append(", ");
+    }
 
     if (!localVariables.isEmpty()) {
       sb.setLength(sb.length() - 2);
@@ -1,30 +1,30 @@
 package type;
 
-import java.util.Objects;
-
 /**
  * Represents a user-defined class name used as a type in MiniJava.
  * For example, in "class A { B b; }", B is a ClassType.
+ *
+ * There is one instance per class name, from TypeFactory, so class types
+ * are equal exactly when they are the same object.
  */
 public class ClassType implements MJType {
   private final String name;
+  private final int symbol;
 
-  public ClassType(String name) {
+  ClassType(String name, int symbol) {
     this.name = name;
+    this.symbol = symbol;
   }
 
   public String getName() {
     return name;
   }
 
-  @Override
-  public boolean equals(Object o) {
-    return o instanceof ClassType && ((ClassType) o).name.equals(this.name);
-  }
-
-  @Override
-  public int hashCode() {
-    return Objects.hash(name);
+  /**
+   * The SymbolInterner id of the class name.
+   */
+  public int getSymbol() {
+    return symbol;
   }
 
   @Override
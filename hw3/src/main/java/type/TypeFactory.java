@@ -1,12 +1,43 @@
 package type;
 
+import java.util.Arrays;
+
+import ast.SymbolInterner;
 import constant.OutputMessage;
 import minijava.syntaxtree.Identifier;
 import minijava.syntaxtree.NodeChoice;
 
+/**
+ * Hands out the one ClassType of each class name of a program, indexed by
+ * the SymbolInterner id of the name. Together with the PrimitiveType and
+ * VoidType singletons, this makes every type canonical, so types are
+ * compared by reference.
+ */
 public class TypeFactory {
+  private final SymbolInterner symbols;
+  private ClassType[] classTypes = new ClassType[16];
+
+  public TypeFactory(SymbolInterner symbols) {
+    this.symbols = symbols;
+  }
+
+  public ClassType getClassType(String className) {
+    return getClassType(symbols.intern(className));
+  }
+
+  public ClassType getClassType(int classSymbol) {
+    if (classSymbol >= classTypes.length) {
+      classTypes = Arrays.copyOf(classTypes, Math.max(classTypes.length * 2, classSymbol + 1));
+    }
+    ClassType classType = classTypes[classSymbol];
+    if (classType == null) {
+      classType = new ClassType(symbols.getName(classSymbol), classSymbol);
+      classTypes[classSymbol] = classType;
+    }
+    return classType;
+  }
 
-  public static MJType getTypeFromNodeChoice(NodeChoice typeNode) {
+  public MJType getTypeFromNodeChoice(NodeChoice typeNode) {
     int which = typeNode.which;
     switch (which) {
       case 0:
@@ -17,7 +48,7 @@ public class TypeFactory {
         return PrimitiveType.INT;
       case 3: {
         Identifier identifier = (Identifier) typeNode.choice;
-        return new ClassType(identifier.f0.toString());
+        return getClassType(symbols.symbolOf(identifier.f0));
       }
       default:
         System.err.println("Invalid NodeChoice type: " + typeNode);
@@ -0,0 +1,138 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * IntMap with int values, such as offsets, so that neither keys nor values
+ * are boxed. Laid out the same way: insertion order, linear search while
+ * small, no removal.
+ */
+public class IntIntMap {
+  private static final int[] NO_ENTRIES = new int[0];
+
+  private int[] keys = NO_ENTRIES;
+  private int[] values = NO_ENTRIES;
+  private int size = 0;
+  // Open addressing over entry index + 1; 0 marks an empty slot. Null
+  // while the map is small.
+  private int[] table = null;
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(int key) {
+    return indexOf(key) >= 0;
+  }
+
+  /**
+   * Returns the value for key, or missing if there is none.
+   */
+  public int get(int key, int missing) {
+    int index = indexOf(key);
+    return index < 0 ? missing : values[index];
+  }
+
+  /**
+   * Returns the insertion index of key, or -1 if it is not in the map.
+   */
+  public int indexOf(int key) {
+    if (table == null) {
+      for (int index = 0; index < size; index++) {
+        if (keys[index] == key) {
+          return index;
+        }
+      }
+      return -1;
+    }
+    return table[slot(key)] - 1;
+  }
+
+  public int keyAt(int index) {
+    return keys[index];
+  }
+
+  public int valueAt(int index) {
+    return values[index];
+  }
+
+  /**
+   * Sets the value for key. A new key goes at the end of the iteration
+   * order; an existing key keeps its place.
+   */
+  public void put(int key, int value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      values[index] = value;
+      return;
+    }
+
+    if (size == keys.length) {
+      int capacity = size == 0 ? 2 : size * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    keys[size] = key;
+    values[size] = value;
+    size++;
+
+    if (table != null) {
+      table[slot(key)] = size;
+      if (size * 2 > table.length) {
+        rehash(table.length * 2);
+      }
+    } else if (size > IntMap.SMALL_SIZE) {
+      rehash(Integer.highestOneBit(size) * 4);
+    }
+  }
+
+  public void putAll(IntIntMap other) {
+    for (int i = 0; i < other.size; i++) {
+      put(other.keys[i], other.values[i]);
+    }
+  }
+
+  /**
+   * Bytes held by the map object and its arrays.
+   */
+  public long getFootprint() {
+    if (keys == NO_ENTRIES) {
+      return 32;
+    }
+    long bytes = 32 + 16 + 4L * keys.length + 16 + 4L * values.length;
+    if (table != null) {
+      bytes += 16 + 4L * table.length;
+    }
+    return bytes;
+  }
+
+  private int slot(int key) {
+    int mask = table.length - 1;
+    int slot = mix(key) & mask;
+    while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash(int capacity) {
+    table = new int[capacity];
+    int mask = table.length - 1;
+    for (int index = 0; index < size; index++) {
+      int slot = mix(keys[index]) & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = index + 1;
+    }
+  }
+
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
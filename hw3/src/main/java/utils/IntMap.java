@@ -0,0 +1,171 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Map from int keys, such as SymbolInterner ids, to values, without boxing
+ * the keys.
+ *
+ * Entries are kept in insertion order, which is also the iteration order:
+ * keyAt(i) and valueAt(i) for i below size(). Entries cannot be removed.
+ *
+ * Most maps in a symbol table hold a handful of entries, so an empty map
+ * allocates nothing and a small one is just its two entry arrays, searched
+ * linearly; the hash table is only built once the map outgrows
+ * SMALL_SIZE.
+ */
+public class IntMap<V> {
+  static final int SMALL_SIZE = 8;
+
+  private static final int[] NO_KEYS = new int[0];
+  private static final Object[] NO_VALUES = new Object[0];
+
+  private int[] keys = NO_KEYS;
+  private Object[] values = NO_VALUES;
+  private int size = 0;
+  // Open addressing over entry index + 1; 0 marks an empty slot. Null
+  // while the map is small.
+  private int[] table = null;
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(int key) {
+    return indexOf(key) >= 0;
+  }
+
+  /**
+   * Returns the value for key, or null if there is none.
+   */
+  public V get(int key) {
+    int index = indexOf(key);
+    return index < 0 ? null : valueAt(index);
+  }
+
+  /**
+   * Returns the insertion index of key, or -1 if it is not in the map.
+   */
+  public int indexOf(int key) {
+    if (table == null) {
+      for (int index = 0; index < size; index++) {
+        if (keys[index] == key) {
+          return index;
+        }
+      }
+      return -1;
+    }
+    return table[slot(key)] - 1;
+  }
+
+  public int keyAt(int index) {
+    return keys[index];
+  }
+
+  @SuppressWarnings("unchecked")
+  public V valueAt(int index) {
+    return (V) values[index];
+  }
+
+  /**
+   * Sets the value for key and returns the previous one. A new key goes at
+   * the end of the iteration order; an existing key keeps its place.
+   */
+  public V put(int key, V value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      V previous = valueAt(index);
+      values[index] = value;
+      return previous;
+    }
+
+    if (size == keys.length) {
+      int capacity = size == 0 ? 2 : size * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    keys[size] = key;
+    values[size] = value;
+    size++;
+
+    if (table != null) {
+      table[slot(key)] = size;
+      if (size * 2 > table.length) {
+        rehash(table.length * 2);
+      }
+    } else if (size > SMALL_SIZE) {
+      rehash(Integer.highestOneBit(size) * 4);
+    }
+    return null;
+  }
+
+  public V putIfAbsent(int key, V value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      return valueAt(index);
+    }
+    put(key, value);
+    return null;
+  }
+
+  public void putAll(IntMap<? extends V> other) {
+    for (int i = 0; i < other.size; i++) {
+      put(other.keys[i], other.valueAt(i));
+    }
+  }
+
+  public List<V> values() {
+    List<V> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(valueAt(i));
+    }
+    return list;
+  }
+
+  /**
+   * Bytes held by the map object and its arrays, not counting the values.
+   */
+  public long getFootprint() {
+    if (keys == NO_KEYS) {
+      return 32;
+    }
+    long bytes = 32 + 16 + 4L * keys.length + 16 + 4L * values.length;
+    if (table != null) {
+      bytes += 16 + 4L * table.length;
+    }
+    return bytes;
+  }
+
+  private int slot(int key) {
+    int mask = table.length - 1;
+    int slot = mix(key) & mask;
+    while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash(int capacity) {
+    table = new int[capacity];
+    int mask = table.length - 1;
+    for (int index = 0; index < size; index++) {
+      int slot = mix(keys[index]) & mask;
+      while (table[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = index + 1;
+    }
+  }
+
+  // Dense ids would otherwise fill runs of neighbouring slots
+  private static int mix(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
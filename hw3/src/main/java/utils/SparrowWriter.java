@@ -0,0 +1,51 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import IR.token.Identifier;
+import sparrow.Block;
+import sparrow.FunctionDecl;
+import sparrow.Instruction;
+import sparrow.Program;
+
+/**
+ * Writes a Sparrow program in exactly the text Program.toString gives.
+ *
+ * Program, FunctionDecl and Block build their text by String concatenation
+ * in a loop, copying everything written so far for every instruction;
+ * this writes each instruction's text straight to the output instead.
+ */
+public class SparrowWriter {
+  public static void write(Program program, Writer out) throws IOException {
+    for (FunctionDecl function : program.funDecls) {
+      write(function, out);
+    }
+  }
+
+  private static void write(FunctionDecl function, Writer out) throws IOException {
+    out.write("func ");
+    out.write(function.functionName.toString());
+    out.write('(');
+    boolean first = true;
+    for (Identifier parameter : function.formalParameters) {
+      if (!first) {
+        out.write(' ');
+      }
+      out.write(parameter.toString());
+      first = false;
+    }
+    out.write(")\n");
+    write(function.block, out);
+    out.write("\n\n");
+  }
+
+  private static void write(Block block, Writer out) throws IOException {
+    for (Instruction instruction : block.instructions) {
+      out.write(instruction.toString());
+      out.write('\n');
+    }
+    out.write("      return ");
+    out.write(String.valueOf(block.return_id));
+  }
+}
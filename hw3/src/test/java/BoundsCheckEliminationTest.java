@@ -0,0 +1,213 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import algorithm.BoundsCheckElimination;
+import algorithm.NullCheckElimination;
+import sparrow.FunctionDecl;
+import sparrow.Program;
+
+public class BoundsCheckEliminationTest {
+  private static final String OUT_OF_BOUNDS = "array index out of bounds";
+
+  /*
+   * Runs the program before and after the passes J2S runs, checking both
+   * print the expected lines.
+   */
+  private static BoundsCheckElimination translateAndRun(String source, String... expected) throws Exception {
+    Program program = Translation.of(source).program;
+    List<String> lines = Arrays.asList(expected);
+    assertEquals(lines, SparrowInterpreter.run(program));
+
+    NullCheckElimination nullCheckElimination = new NullCheckElimination();
+    BoundsCheckElimination boundsCheckElimination = new BoundsCheckElimination();
+    for (FunctionDecl function : program.funDecls) {
+      nullCheckElimination.run(function);
+      boundsCheckElimination.run(function);
+    }
+    assertEquals(lines, SparrowInterpreter.run(program));
+    return boundsCheckElimination;
+  }
+
+  private static String program(String fields, String body, String methods) {
+    return "class Main { public static void main(String[] args) { System.out.println(new T().run()); } }\n"
+        + "class T {\n"
+        + fields + "\n"
+        + "public int run() {\n"
+        + body + "\n"
+        + "}\n"
+        + methods + "\n"
+        + "}\n";
+  }
+
+  @Test
+  public void testLoopBoundedByLength() throws Exception {
+    String source = program("",
+        "int[] a; int i; int s; int t;"
+            + "a = new int[5]; i = 0;"
+            + "while (i < (a.length)) { a[i] = i; i = i + 1; }"
+            + "s = 0; i = 0;"
+            + "while (i < (a.length)) { t = a[i]; s = s + t; i = i + 1; }"
+            + "return s;",
+        "");
+    BoundsCheckElimination pass = translateAndRun(source, "10");
+    assertEquals(2, pass.getCheckCount());
+    assertEquals(2, pass.getRemovedCount());
+  }
+
+  @Test
+  public void testLoopBoundedPastLength() throws Exception {
+    String source = program("",
+        "int[] a; int i; int n; int t;"
+            + "a = new int[5]; n = a.length; n = n + 1; i = 0;"
+            + "while (i < n) { t = a[i]; System.out.println(i); i = i + 1; }"
+            + "return 0;",
+        "");
+    translateAndRun(source, "0", "1", "2", "3", "4", OUT_OF_BOUNDS);
+  }
+
+  @Test
+  public void testArrayShortenedInLoop() throws Exception {
+    String source = program("",
+        "int[] a; int i;"
+            + "a = new int[10]; i = 0;"
+            + "while (i < (a.length)) {"
+            + "  a[i] = i;"
+            + "  if (4 < i) { a = new int[3]; } else { }"
+            + "  a[i] = i;"
+            + "  System.out.println(i);"
+            + "  i = i + 1;"
+            + "}"
+            + "return 0;",
+        "");
+    translateAndRun(source, "0", "1", "2", "3", "4", OUT_OF_BOUNDS);
+  }
+
+  @Test
+  public void testArrayShortenedThroughCall() throws Exception {
+    String source = program("int[] a;",
+        "int i; int t; int x;"
+            + "a = new int[10]; i = 0;"
+            + "while (i < (a.length)) {"
+            + "  t = a[i];"
+            + "  x = this.shrink(i);"
+            + "  t = a[i];"
+            + "  System.out.println(i);"
+            + "  i = i + 1;"
+            + "}"
+            + "return 0;",
+        "public int shrink(int i) { if (2 < i) { a = new int[1]; } else { } return 0; }");
+    translateAndRun(source, "0", "1", "2", OUT_OF_BOUNDS);
+  }
+
+  @Test
+  public void testIndexCountingDown() throws Exception {
+    String source = program("",
+        "int[] a; int i; int j; int t; int s;"
+            + "a = new int[4]; i = 0;"
+            + "while (i < (a.length)) { a[i] = i; i = i + 1; }"
+            + "s = 0; j = a.length;"
+            + "while (0 < j) { i = j - 1; t = a[i]; s = s + t; j = j - 1; }"
+            + "System.out.println(s);"
+            + "i = 3;"
+            + "while (i < 5) { t = a[i]; System.out.println(t); i = i - 1; }"
+            + "return 0;",
+        "");
+    translateAndRun(source, "6", "3", "2", "1", "0", OUT_OF_BOUNDS);
+  }
+
+  @Test
+  public void testIndexSteppingByTwo() throws Exception {
+    String source = program("",
+        "int[] a; int i; int j; int t;"
+            + "a = new int[9]; i = 0;"
+            + "while (i < (a.length)) { a[i] = i; i = i + 2; }"
+            + "i = 0;"
+            + "while (i < (a.length)) { j = i + 1; t = a[j]; System.out.println(i); i = i + 2; }"
+            + "return 0;",
+        "");
+    translateAndRun(source, "0", "2", "4", "6", OUT_OF_BOUNDS);
+  }
+
+  @Test
+  public void testIndexOverflow() throws Exception {
+    String source = program("",
+        "int[] a; int i; int k; int t;"
+            + "a = new int[4]; i = 2147483645; k = 0;"
+            + "while (k < 3) { i = i + 1; k = k + 1; }"
+            + "System.out.println(i);"
+            + "t = a[i];"
+            + "return 0;",
+        "");
+    translateAndRun(source, "-2147483648", OUT_OF_BOUNDS);
+  }
+
+  @Test
+  public void testIndexOverflowInLoop() throws Exception {
+    String source = program("",
+        "int[] a; int i; int t;"
+            + "a = new int[4]; i = 2147483646;"
+            + "while (0 < i) { i = i + 1; }"
+            + "t = a[i];"
+            + "return 0;",
+        "");
+    translateAndRun(source, OUT_OF_BOUNDS);
+  }
+
+  /*
+   * A check in J2S's shape whose index is known non-negative only tests
+   * the upper bound afterwards.
+   */
+  @Test
+  public void testLowerBoundOfMinusOneDropped() throws Exception {
+    Program program = SparrowText.parse(check("zero = 0\n one = 1\n low = zero - one\n"));
+    BoundsCheckElimination pass = new BoundsCheckElimination();
+    pass.run(program.funDecls.get(0));
+    assertEquals(1, pass.getNarrowedCount());
+    assertEquals(Arrays.asList("0"), SparrowInterpreter.run(program));
+  }
+
+  /*
+   * A lower test against anything but -1 is not J2S's bounds check and
+   * must be left alone, even when the index is known non-negative.
+   */
+  @Test
+  public void testOtherLowerBoundKept() throws Exception {
+    for (String low : new String[] { "low = 0\n", "zero = 0\n low = zero - zero\n", "low = 1\n" }) {
+      Program program = SparrowText.parse(check(low));
+      BoundsCheckElimination pass = new BoundsCheckElimination();
+      pass.run(program.funDecls.get(0));
+      assertEquals(0, pass.getCheckCount());
+      assertEquals(Arrays.asList(OUT_OF_BOUNDS), SparrowInterpreter.run(program));
+    }
+  }
+
+  /*
+   * A one-element array indexed at 0, with a bounds check whose lower test
+   * is low < idx.
+   */
+  private static String check(String low) {
+    return "func Main()\n"
+        + " size = 8\n"
+        + " arr = alloc(size)\n"
+        + " one = 1\n"
+        + " [arr + 0] = one\n"
+        + " idx = 0\n"
+        + low
+        + " lower = low < idx\n"
+        + " len = [arr + 0]\n"
+        + " upper = idx < len\n"
+        + " ok = lower * upper\n"
+        + " if0 ok goto Oob\n"
+        + " goto InBounds\n"
+        + " Oob:\n"
+        + " error(\"" + OUT_OF_BOUNDS + "\")\n"
+        + " InBounds:\n"
+        + " print(idx)\n"
+        + " return idx\n";
+  }
+}
@@ -0,0 +1,71 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import symbolTable.ClassInfo;
+import symbolTable.SymbolTable;
+
+public class DevirtualizationTest {
+  /*
+   * foo is overridden two levels below A, in C; bar only in D, which is
+   * never instantiated; baz nowhere.
+   */
+  private static final String SOURCE =
+      "class Main { public static void main(String[] args) { System.out.println(new Test().run()); } }\n"
+          + "class Test {\n"
+          + "  public int run() {\n"
+          + "    A a; B b; C c; int x;\n"
+          + "    a = new A(); x = a.foo(); x = a.bar(); x = a.baz();\n"
+          + "    a = new B(); x = a.foo(); x = a.bar();\n"
+          + "    a = new C(); x = a.foo(); x = a.bar(); x = a.baz();\n"
+          + "    b = new C(); x = b.foo();\n"
+          + "    c = new C(); x = c.foo();\n"
+          + "    return 0;\n"
+          + "  }\n"
+          + "}\n"
+          + "class A {\n"
+          + "  public int foo() { System.out.println(1); return 1; }\n"
+          + "  public int bar() { System.out.println(10); return 10; }\n"
+          + "  public int baz() { int x; x = this.foo(); return x; }\n"
+          + "}\n"
+          + "class B extends A { }\n"
+          + "class C extends B { public int foo() { System.out.println(3); return 3; } }\n"
+          + "class D extends A { public int bar() { System.out.println(40); return 40; } }\n";
+
+  @Test
+  public void testSingleTargets() throws Exception {
+    SymbolTable symbolTable = Translation.of(SOURCE).symbolTable;
+    int foo = symbolTable.getSymbols().lookup("foo");
+    int bar = symbolTable.getSymbols().lookup("bar");
+    int baz = symbolTable.getSymbols().lookup("baz");
+    ClassInfo a = symbolTable.getClassInfo("A");
+    ClassInfo b = symbolTable.getClassInfo("B");
+    ClassInfo c = symbolTable.getClassInfo("C");
+    ClassInfo d = symbolTable.getClassInfo("D");
+
+    assertNull(a.getSingleTarget(foo));
+    assertNull(b.getSingleTarget(foo));
+    assertSame(c, c.getSingleTarget(foo));
+
+    assertNull(a.getSingleTarget(bar));
+    assertSame(a, b.getSingleTarget(bar));
+    assertSame(d, d.getSingleTarget(bar));
+
+    assertSame(a, a.getSingleTarget(baz));
+    assertSame(a, c.getSingleTarget(baz));
+  }
+
+  @Test
+  public void testOverriddenMethodsStayVirtual() throws Exception {
+    Translation translation = Translation.of(SOURCE);
+    assertEquals(Arrays.asList("1", "10", "1", "1", "10", "3", "10", "3", "3", "3", "0"),
+        SparrowInterpreter.run(translation.program));
+    // Only new Test().run(), the two calls of baz and c.foo() are direct
+    assertEquals(12, translation.translationVisitor.getCallCount());
+    assertEquals(4, translation.translationVisitor.getDevirtualizedCount());
+  }
+}
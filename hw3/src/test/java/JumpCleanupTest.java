@@ -0,0 +1,95 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import algorithm.JumpCleanup;
+import sparrow.FunctionDecl;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.Program;
+
+public class JumpCleanupTest {
+  private static List<String> labels(List<Instruction> instructions) {
+    List<String> labels = new ArrayList<>();
+    for (Instruction instruction : instructions) {
+      if (instruction instanceof LabelInstr) {
+        labels.add(((LabelInstr) instruction).label.toString());
+      }
+    }
+    return labels;
+  }
+
+  private static Program cleanUp(String text, String... expected) throws Exception {
+    Program program = SparrowText.parse(text);
+    List<String> lines = Arrays.asList(expected);
+    assertEquals(lines, SparrowInterpreter.run(program));
+    for (FunctionDecl function : program.funDecls) {
+      function.block.instructions = JumpCleanup.run(function.block.instructions);
+    }
+    assertEquals(lines, SparrowInterpreter.run(program));
+    return program;
+  }
+
+  @Test
+  public void testLabelsReferencedFromOtherBlocksSurvive() throws Exception {
+    Program program = cleanUp("func Main()\n"
+        + " i = 0\n"
+        + " one = 1\n"
+        + " three = 3\n"
+        + " goto Test\n"
+        + " Body:\n"
+        + " print(i)\n"
+        + " i = i + one\n"
+        + " Test:\n"
+        + " c = i < three\n"
+        + " if0 c goto Done\n"
+        + " goto Body\n"
+        + " Done:\n"
+        + " return i\n",
+        "0", "1", "2");
+    assertEquals(Arrays.asList("Body", "Test", "Done"), labels(program.funDecls.get(0).block.instructions));
+  }
+
+  @Test
+  public void testUnreachableCodeAndUnusedLabelsRemoved() throws Exception {
+    Program program = cleanUp("func Main()\n"
+        + " x = 1\n"
+        + " goto Next\n"
+        + " Next:\n"
+        + " Unused:\n"
+        + " print(x)\n"
+        + " goto End\n"
+        + " print(x)\n"
+        + " goto Dead\n"
+        + " Dead:\n"
+        + " print(x)\n"
+        + " End:\n"
+        + " return x\n",
+        "1");
+    // Both gotos end up jumping to the next instruction, so only the
+    // move and the print are left
+    List<Instruction> instructions = program.funDecls.get(0).block.instructions;
+    assertEquals(new ArrayList<String>(), labels(instructions));
+    assertEquals(2, instructions.size());
+  }
+
+  @Test
+  public void testErrorEndsReachableCode() throws Exception {
+    Program program = cleanUp("func Main()\n"
+        + " x = 0\n"
+        + " if0 x goto Fail\n"
+        + " print(x)\n"
+        + " Fail:\n"
+        + " error(\"null pointer\")\n"
+        + " print(x)\n"
+        + " Again:\n"
+        + " return x\n",
+        "null pointer");
+    assertEquals(Arrays.asList("Fail"), labels(program.funDecls.get(0).block.instructions));
+    assertEquals(5, program.funDecls.get(0).block.instructions.size());
+  }
+}
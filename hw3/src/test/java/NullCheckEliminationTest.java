@@ -0,0 +1,135 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import algorithm.NullCheckElimination;
+import sparrow.FunctionDecl;
+import sparrow.Program;
+
+public class NullCheckEliminationTest {
+  private static final String NULL_POINTER = "null pointer";
+
+  private static final String MAIN =
+      "class Main { public static void main(String[] args) { System.out.println(new T().run()); } }\n";
+
+  /*
+   * The U class the programs call through: get prints and returns its
+   * value, next returns the next U, null unless set.
+   */
+  private static final String U =
+      "class U {\n"
+          + "  int value; U next;\n"
+          + "  public int set(int v, U n) { value = v; next = n; return 0; }\n"
+          + "  public int get() { System.out.println(value); return value; }\n"
+          + "  public U next() { return next; }\n"
+          + "}\n";
+
+  /*
+   * Runs the program before and after the pass, checking both print the
+   * expected lines.
+   */
+  private static NullCheckElimination translateAndRun(String source, String... expected) throws Exception {
+    Program program = Translation.of(source).program;
+    List<String> lines = Arrays.asList(expected);
+    assertEquals(lines, SparrowInterpreter.run(program));
+
+    NullCheckElimination pass = new NullCheckElimination();
+    for (FunctionDecl function : program.funDecls) {
+      pass.run(function);
+    }
+    assertEquals(lines, SparrowInterpreter.run(program));
+    return pass;
+  }
+
+  @Test
+  public void testAllocatedReceiver() throws Exception {
+    NullCheckElimination pass = translateAndRun(MAIN
+        + "class T { public int run() { U u; int x; u = new U(); x = u.set(7, u); x = u.get(); return 0; } }\n"
+        + U,
+        "7", "0");
+    // new T().run() in main and both calls on u
+    assertEquals(3, pass.getRemovedCount());
+  }
+
+  @Test
+  public void testReceiverFromFieldKeepsCheck() throws Exception {
+    NullCheckElimination pass = translateAndRun(MAIN
+        + "class T { U u; public int run() { int x; x = u.get(); return 0; } }\n"
+        + U,
+        NULL_POINTER);
+    assertEquals(1, pass.getCheckCount() - pass.getRemovedCount());
+  }
+
+  @Test
+  public void testFieldClearedByCall() throws Exception {
+    translateAndRun(MAIN
+        + "class T {\n"
+        + "  U u; U none;\n"
+        + "  public int run() { int x; u = new U(); x = u.get(); x = this.clear(); x = u.get(); return 0; }\n"
+        + "  public int clear() { u = none; return 0; }\n"
+        + "}\n"
+        + U,
+        "0", NULL_POINTER);
+  }
+
+  @Test
+  public void testReassignedFromCallInLoop() throws Exception {
+    translateAndRun(MAIN
+        + "class T {\n"
+        + "  public int run() {\n"
+        + "    U u; U w; int i; int x;\n"
+        + "    w = new U(); x = w.set(2, w);\n"
+        + "    u = new U(); x = u.set(1, w);\n"
+        + "    i = 0;\n"
+        + "    while (i < 2) { x = u.get(); u = u.next(); i = i + 1; }\n"
+        + "    x = u.get();\n"
+        + "    u = new U();\n"
+        + "    i = 0;\n"
+        + "    while (i < 3) { x = u.get(); u = u.next(); i = i + 1; }\n"
+        + "    return 0;\n"
+        + "  }\n"
+        + "}\n"
+        + U,
+        "1", "2", "2", "0", NULL_POINTER);
+  }
+
+  @Test
+  public void testCopiesBetweenLocals() throws Exception {
+    NullCheckElimination pass = translateAndRun(MAIN
+        + "class T {\n"
+        + "  U none;\n"
+        + "  public int run() {\n"
+        + "    U u; U v; U w; int x;\n"
+        + "    u = new U(); x = u.set(3, u);\n"
+        + "    v = u; w = v;\n"
+        + "    x = w.get();\n"
+        + "    w = none; v = w; w = new U();\n"
+        + "    x = w.get();\n"
+        + "    x = v.get();\n"
+        + "    return 0;\n"
+        + "  }\n"
+        + "}\n"
+        + U,
+        "3", "0", NULL_POINTER);
+    // main's call, and the calls on u, w through copies of u, and the
+    // second new U(); v holds the field's null
+    assertEquals(4, pass.getRemovedCount());
+    assertEquals(5, pass.getCheckCount());
+  }
+
+  @Test
+  public void testReceiverKnownThroughThis() throws Exception {
+    NullCheckElimination pass = translateAndRun(MAIN
+        + "class T {\n"
+        + "  int count;\n"
+        + "  public int run() { T self; int x; x = this.step(); self = this; x = self.step(); return count; }\n"
+        + "  public int step() { count = count + 1; return count; }\n"
+        + "}\n",
+        "2");
+    assertEquals(3, pass.getCheckCount());
+    assertEquals(3, pass.getRemovedCount());
+  }
+}
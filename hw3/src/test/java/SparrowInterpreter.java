@@ -0,0 +1,213 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import IR.token.Identifier;
+import sparrow.Add;
+import sparrow.Alloc;
+import sparrow.Call;
+import sparrow.ErrorMessage;
+import sparrow.FunctionDecl;
+import sparrow.Goto;
+import sparrow.IfGoto;
+import sparrow.Instruction;
+import sparrow.LabelInstr;
+import sparrow.LessThan;
+import sparrow.Load;
+import sparrow.Move_Id_FuncName;
+import sparrow.Move_Id_Id;
+import sparrow.Move_Id_Integer;
+import sparrow.Multiply;
+import sparrow.Print;
+import sparrow.Program;
+import sparrow.Store;
+import sparrow.Subtract;
+
+/**
+ * Runs a translated Sparrow program and collects what it prints, so tests
+ * can check the passes over J2S's output without the course interpreter.
+ *
+ * An error instruction ends the run with its message as the last line of
+ * output. Anything a correct translation never does, such as a load
+ * outside its allocation or a read of an unset variable, fails the test
+ * with an AssertionError.
+ */
+final class SparrowInterpreter {
+  private static final int MAX_STEPS = 10_000_000;
+
+  private static final class Pointer {
+    final Object[] cells;
+    final int offset;
+
+    Pointer(Object[] cells, int offset) {
+      this.cells = cells;
+      this.offset = offset;
+    }
+  }
+
+  private static final class ProgramError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    ProgramError(String message) {
+      super(message);
+    }
+  }
+
+  private final Map<String, FunctionDecl> functions = new HashMap<>();
+  private final List<String> output = new ArrayList<>();
+  private int steps = 0;
+
+  private SparrowInterpreter(Program program) {
+    for (FunctionDecl function : program.funDecls) {
+      functions.put(function.functionName.toString(), function);
+    }
+  }
+
+  /**
+   * The lines the program prints, starting from its first function.
+   */
+  static List<String> run(Program program) {
+    SparrowInterpreter interpreter = new SparrowInterpreter(program);
+    try {
+      interpreter.call(program.funDecls.get(0), new ArrayList<>());
+    } catch (ProgramError e) {
+      interpreter.output.add(e.getMessage());
+    }
+    return interpreter.output;
+  }
+
+  private Object call(FunctionDecl function, List<Object> args) {
+    Map<String, Object> env = new HashMap<>();
+    for (int i = 0; i < function.formalParameters.size(); i++) {
+      env.put(function.formalParameters.get(i).toString(), args.get(i));
+    }
+
+    List<Instruction> instructions = function.block.instructions;
+    Map<String, Integer> labels = new HashMap<>();
+    for (int i = 0; i < instructions.size(); i++) {
+      if (instructions.get(i) instanceof LabelInstr) {
+        labels.put(((LabelInstr) instructions.get(i)).label.toString(), i);
+      }
+    }
+
+    int pc = 0;
+    while (pc < instructions.size()) {
+      if (++steps > MAX_STEPS) {
+        throw new AssertionError("Program did not finish within " + MAX_STEPS + " steps");
+      }
+      Instruction instruction = instructions.get(pc++);
+      if (instruction instanceof Add) {
+        Add add = (Add) instruction;
+        Object left = get(env, add.arg1);
+        if (left instanceof Pointer) {
+          Pointer pointer = (Pointer) left;
+          env.put(add.lhs.toString(), new Pointer(pointer.cells, pointer.offset + getInt(env, add.arg2)));
+        } else {
+          env.put(add.lhs.toString(), getInt(env, add.arg1) + getInt(env, add.arg2));
+        }
+      } else if (instruction instanceof Subtract) {
+        Subtract subtract = (Subtract) instruction;
+        env.put(subtract.lhs.toString(), getInt(env, subtract.arg1) - getInt(env, subtract.arg2));
+      } else if (instruction instanceof Multiply) {
+        Multiply multiply = (Multiply) instruction;
+        env.put(multiply.lhs.toString(), getInt(env, multiply.arg1) * getInt(env, multiply.arg2));
+      } else if (instruction instanceof LessThan) {
+        LessThan lessThan = (LessThan) instruction;
+        env.put(lessThan.lhs.toString(), getInt(env, lessThan.arg1) < getInt(env, lessThan.arg2) ? 1 : 0);
+      } else if (instruction instanceof Move_Id_Integer) {
+        Move_Id_Integer move = (Move_Id_Integer) instruction;
+        env.put(move.lhs.toString(), move.rhs);
+      } else if (instruction instanceof Move_Id_FuncName) {
+        Move_Id_FuncName move = (Move_Id_FuncName) instruction;
+        env.put(move.lhs.toString(), move.rhs.toString());
+      } else if (instruction instanceof Move_Id_Id) {
+        Move_Id_Id move = (Move_Id_Id) instruction;
+        env.put(move.lhs.toString(), get(env, move.rhs));
+      } else if (instruction instanceof Alloc) {
+        Alloc alloc = (Alloc) instruction;
+        int size = getInt(env, alloc.size);
+        if (size < 0 || size % 4 != 0) {
+          throw new AssertionError("Bad allocation size " + size);
+        }
+        Object[] cells = new Object[size / 4];
+        Arrays.fill(cells, 0);
+        env.put(alloc.lhs.toString(), new Pointer(cells, 0));
+      } else if (instruction instanceof Load) {
+        Load load = (Load) instruction;
+        Pointer pointer = getPointer(env, load.base);
+        env.put(load.lhs.toString(), pointer.cells[cell(pointer, load.offset)]);
+      } else if (instruction instanceof Store) {
+        Store store = (Store) instruction;
+        Pointer pointer = getPointer(env, store.base);
+        pointer.cells[cell(pointer, store.offset)] = get(env, store.rhs);
+      } else if (instruction instanceof Print) {
+        output.add(Integer.toString(getInt(env, ((Print) instruction).content)));
+      } else if (instruction instanceof ErrorMessage) {
+        String message = ((ErrorMessage) instruction).msg;
+        throw new ProgramError(message.substring(1, message.length() - 1));
+      } else if (instruction instanceof Goto) {
+        pc = target(labels, ((Goto) instruction).label.toString());
+      } else if (instruction instanceof IfGoto) {
+        IfGoto ifGoto = (IfGoto) instruction;
+        Object condition = get(env, ifGoto.condition);
+        if (condition instanceof Integer && (Integer) condition == 0) {
+          pc = target(labels, ifGoto.label.toString());
+        }
+      } else if (instruction instanceof Call) {
+        Call call = (Call) instruction;
+        Object callee = get(env, call.callee);
+        if (!(callee instanceof String) || !functions.containsKey(callee)) {
+          throw new AssertionError("Call through " + call.callee + ", which holds no function");
+        }
+        List<Object> values = new ArrayList<>();
+        for (Identifier arg : call.args) {
+          values.add(get(env, arg));
+        }
+        env.put(call.lhs.toString(), call(functions.get(callee), values));
+      }
+    }
+    return get(env, function.block.return_id);
+  }
+
+  private static int cell(Pointer pointer, int offset) {
+    int bytes = pointer.offset + offset;
+    if (bytes < 0 || bytes % 4 != 0 || bytes / 4 >= pointer.cells.length) {
+      throw new AssertionError("Access at byte " + bytes + " of a " + pointer.cells.length * 4 + " byte allocation");
+    }
+    return bytes / 4;
+  }
+
+  private static int target(Map<String, Integer> labels, String label) {
+    Integer index = labels.get(label);
+    if (index == null) {
+      throw new AssertionError("Jump to missing label " + label);
+    }
+    return index;
+  }
+
+  private static Object get(Map<String, Object> env, Identifier variable) {
+    Object value = env.get(variable.toString());
+    if (value == null) {
+      throw new AssertionError("Read of unset variable " + variable);
+    }
+    return value;
+  }
+
+  private static int getInt(Map<String, Object> env, Identifier variable) {
+    Object value = get(env, variable);
+    if (!(value instanceof Integer)) {
+      throw new AssertionError(variable + " does not hold an integer");
+    }
+    return (Integer) value;
+  }
+
+  private static Pointer getPointer(Map<String, Object> env, Identifier variable) {
+    Object value = get(env, variable);
+    if (!(value instanceof Pointer)) {
+      throw new AssertionError(variable + " does not hold a pointer");
+    }
+    return (Pointer) value;
+  }
+}
@@ -0,0 +1,30 @@
+import java.io.StringReader;
+
+import IR.ParseException;
+import IR.SparrowParser;
+import IR.visitor.SparrowConstructor;
+import sparrow.Program;
+
+/**
+ * Builds Sparrow programs from their text, for tests that feed a pass
+ * code J2S would not emit.
+ */
+final class SparrowText {
+  private static boolean parserCreated = false;
+
+  /*
+   * The JavaCC parser in the jar is static, so it is constructed once and
+   * re-initialized for every later input.
+   */
+  static Program parse(String text) throws ParseException {
+    if (parserCreated) {
+      SparrowParser.ReInit(new StringReader(text));
+    } else {
+      new SparrowParser(new StringReader(text));
+      parserCreated = true;
+    }
+    SparrowConstructor constructor = new SparrowConstructor();
+    SparrowParser.Program().accept(constructor);
+    return constructor.getProgram();
+  }
+}
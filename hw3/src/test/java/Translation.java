@@ -0,0 +1,40 @@
+import ast.ArenaJtbBridge;
+import ast.AstArena;
+import context.TranslationContext;
+import minijava.ParseException;
+import myVisitor.SymbolTableBuilderVisitor;
+import myVisitor.TranslationVisitor;
+import parser.MiniJavaAstParser;
+import sparrow.Program;
+import symbolTable.SymbolTable;
+
+/**
+ * A MiniJava source translated the way J2S does it, before any of the
+ * passes over the Sparrow program run.
+ */
+final class Translation {
+  final SymbolTable symbolTable;
+  final TranslationVisitor translationVisitor;
+  final Program program;
+
+  private Translation(SymbolTable symbolTable, TranslationVisitor translationVisitor, Program program) {
+    this.symbolTable = symbolTable;
+    this.translationVisitor = translationVisitor;
+    this.program = program;
+  }
+
+  static Translation of(String source) throws ParseException {
+    AstArena ast = AstArena.build(MiniJavaAstParser.parse(source));
+    SymbolTableBuilderVisitor symbolTableBuilderVisitor = new SymbolTableBuilderVisitor(ast.getSymbols());
+    ArenaJtbBridge.visitClasses(ast, symbolTableBuilderVisitor, null);
+
+    SymbolTable symbolTable = symbolTableBuilderVisitor.getSymbolTable();
+    symbolTable.resolveInheritance();
+
+    TranslationVisitor translationVisitor = new TranslationVisitor();
+    TranslationContext translationContext = new TranslationContext(symbolTable, null, null);
+    Program program = translationVisitor.buildProgram(
+        ArenaJtbBridge.visitClasses(ast, translationVisitor, translationContext));
+    return new Translation(symbolTable, translationVisitor, program);
+  }
+}
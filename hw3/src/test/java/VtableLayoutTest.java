@@ -0,0 +1,85 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import symbolTable.ClassInfo;
+import symbolTable.SymbolTable;
+
+public class VtableLayoutTest {
+  /*
+   * Every class but A is only created inside instance methods, one of
+   * them inherited (D runs C's make) and some overriding (C's make and
+   * next). id is overridden in every class, so all calls of it go through
+   * the vtable.
+   */
+  private static final String SOURCE =
+      "class Main { public static void main(String[] args) { System.out.println(new Test().run()); } }\n"
+          + "class Test {\n"
+          + "  public int run() {\n"
+          + "    A a; B b; int x;\n"
+          + "    a = new A(); x = a.id();\n"
+          + "    a = a.make(); x = a.id();\n"
+          + "    a = a.make(); x = a.id();\n"
+          + "    b = a.spawn(); x = b.id();\n"
+          + "    a = b.make(); x = a.id();\n"
+          + "    b = b.next(); x = b.id();\n"
+          + "    a = b.make(); x = a.id();\n"
+          + "    b = a.spawn(); b = b.next(); b = b.next(); x = b.id();\n"
+          + "    return x;\n"
+          + "  }\n"
+          + "}\n"
+          + "class A {\n"
+          + "  public A make() { return new B(); }\n"
+          + "  public int id() { System.out.println(1); return 1; }\n"
+          + "  public B spawn() { B b; b = new B(); return b.next(); }\n"
+          + "}\n"
+          + "class B extends A {\n"
+          + "  public int id() { System.out.println(2); return 2; }\n"
+          + "  public B next() { return new C(); }\n"
+          + "}\n"
+          + "class C extends B {\n"
+          + "  public A make() { return new A(); }\n"
+          + "  public int id() { System.out.println(3); return 3; }\n"
+          + "  public B next() { return new D(); }\n"
+          + "}\n"
+          + "class D extends C {\n"
+          + "  public int id() { System.out.println(4); return 4; }\n"
+          + "}\n";
+
+  @Test
+  public void testNewInsideInstanceMethods() throws Exception {
+    Translation translation = Translation.of(SOURCE);
+    assertEquals(Arrays.asList("1", "2", "2", "3", "1", "4", "1", "4", "4"),
+        SparrowInterpreter.run(translation.program));
+  }
+
+  @Test
+  public void testSlotsFollowTheClassTablePointer() throws Exception {
+    SymbolTable symbolTable = Translation.of(SOURCE).symbolTable;
+    ClassInfo a = symbolTable.getClassInfo("A");
+    ClassInfo b = symbolTable.getClassInfo("B");
+    ClassInfo c = symbolTable.getClassInfo("C");
+    ClassInfo d = symbolTable.getClassInfo("D");
+
+    assertEquals(ClassInfo.VTABLE_HEADER_BYTES, ClassInfo.getVtableSlotOffset(0));
+    for (ClassInfo classInfo : new ClassInfo[] { a, b, c, d }) {
+      assertEquals(ClassInfo.VTABLE_HEADER_BYTES + classInfo.getVtableSize() * 4, classInfo.getVtableBytes());
+    }
+
+    // Inherited methods keep their superclass's slot
+    int make = symbolTable.getSymbols().lookup("make");
+    int id = symbolTable.getSymbols().lookup("id");
+    int next = symbolTable.getSymbols().lookup("next");
+    assertEquals(a.getMethodOffset(make), d.getMethodOffset(make));
+    assertEquals(a.getMethodOffset(id), d.getMethodOffset(id));
+    assertEquals(b.getMethodOffset(next), d.getMethodOffset(next));
+
+    assertSame(a, b.getMethodOwner(make));
+    assertSame(c, d.getMethodOwner(make));
+    assertSame(d, d.getMethodOwner(id));
+    assertSame(c, d.getMethodOwner(next));
+  }
+}
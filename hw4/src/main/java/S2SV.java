@@ -1,18 +1,15 @@
-import java.io.InputStream;
-
-import IR.SparrowParser;
 import IR.visitor.SparrowConstructor;
 import algorithm.LinearScanRegisterAllocator;
 import model.FastLivelinessModel;
 import visitor.FastLivelinessVisitor;
 import visitor.TranslationVisitor;
 import IR.syntaxtree.Node;
+import parser.ReentrantSparrowParser;
+import utils.InputReader;
 
 public class S2SV {
   public static void main(String[] args) throws Exception {
-    InputStream in = System.in;
-    new SparrowParser(in);
-    Node root = SparrowParser.Program();
+    Node root = new ReentrantSparrowParser(InputReader.open(args)).Program();
     SparrowConstructor constructor = new SparrowConstructor();
     root.accept(constructor);
     sparrow.Program program = constructor.getProgram();
@@ -1,6 +1,3 @@
-import java.io.InputStream;
-
-import IR.SparrowParser;
 import IR.visitor.SparrowVConstructor;
 import model.TranslationContext;
 import IR.syntaxtree.Node;
@@ -9,13 +6,13 @@ import IR.registers.Registers;
 import sparrowv.Program;
 import visitor.CodeGenVisitor;
 import visitor.TranslationContextVisitor;
+import parser.ReentrantSparrowParser;
+import utils.InputReader;
 
 public class SV2V {
   public static void main(String[] args) throws Exception {
     Registers.SetRiscVregs();
-    InputStream in = System.in;
-    new SparrowParser(in);
-    Node root = SparrowParser.Program();
+    Node root = new ReentrantSparrowParser(InputReader.open(args)).Program();
     SparrowVConstructor constructor = new SparrowVConstructor();
     root.accept(constructor);
     Program program = constructor.getProgram();
@@ -0,0 +1,816 @@
+package parser;
+
+import IR.ParseException;
+import IR.SparrowParserConstants;
+import IR.Token;
+import IR.TokenMgrError;
+
+/**
+ * Instance-based copy of IR.SparrowParserTokenManager; see ReentrantSparrowParser.
+ */
+public class ReentrantSparrowTokenManager implements SparrowParserConstants
+{
+
+  /** Debug output. */
+  public java.io.PrintStream debugStream = System.out;
+  /** Set debug output. */
+  public void setDebugStream(java.io.PrintStream ds) { debugStream = ds; }
+private final int jjStopStringLiteralDfa_0(int pos, long active0)
+{
+   switch (pos)
+   {
+      case 0:
+         if ((active0 & 0x3fc00000L) != 0L)
+         {
+            jjmatchedKind = 31;
+            return 4;
+         }
+         return -1;
+      case 1:
+         if ((active0 & 0x3fc00000L) != 0L)
+         {
+            jjmatchedKind = 31;
+            jjmatchedPos = 1;
+            return 4;
+         }
+         return -1;
+      case 2:
+         if ((active0 & 0x800000L) != 0L)
+            return 4;
+         if ((active0 & 0x3f400000L) != 0L)
+         {
+            jjmatchedKind = 31;
+            jjmatchedPos = 2;
+            return 4;
+         }
+         return -1;
+      case 3:
+         if ((active0 & 0x3400000L) != 0L)
+            return 4;
+         if ((active0 & 0x3c000000L) != 0L)
+         {
+            jjmatchedKind = 31;
+            jjmatchedPos = 3;
+            return 4;
+         }
+         return -1;
+      case 4:
+         if ((active0 & 0x1c000000L) != 0L)
+            return 4;
+         if ((active0 & 0x20000000L) != 0L)
+         {
+            jjmatchedKind = 31;
+            jjmatchedPos = 4;
+            return 4;
+         }
+         return -1;
+      default :
+         return -1;
+   }
+}
+private final int jjStartNfa_0(int pos, long active0)
+{
+   return jjMoveNfa_0(jjStopStringLiteralDfa_0(pos, active0), pos + 1);
+}
+private int jjStopAtPos(int pos, int kind)
+{
+   jjmatchedKind = kind;
+   jjmatchedPos = pos;
+   return pos + 1;
+}
+private int jjMoveStringLiteralDfa0_0()
+{
+   switch(curChar)
+   {
+      case 40:
+         return jjStopAtPos(0, 9);
+      case 41:
+         return jjStopAtPos(0, 10);
+      case 42:
+         return jjStopAtPos(0, 36);
+      case 43:
+         return jjStopAtPos(0, 19);
+      case 45:
+         return jjStopAtPos(0, 20);
+      case 46:
+         return jjStopAtPos(0, 16);
+      case 58:
+         return jjStopAtPos(0, 35);
+      case 59:
+         return jjStopAtPos(0, 15);
+      case 60:
+         return jjStopAtPos(0, 18);
+      case 61:
+         return jjStopAtPos(0, 17);
+      case 64:
+         return jjStopAtPos(0, 21);
+      case 91:
+         return jjStopAtPos(0, 11);
+      case 93:
+         return jjStopAtPos(0, 12);
+      case 97:
+         return jjMoveStringLiteralDfa1_0(0x4000000L);
+      case 99:
+         return jjMoveStringLiteralDfa1_0(0x2000000L);
+      case 101:
+         return jjMoveStringLiteralDfa1_0(0x10000000L);
+      case 102:
+         return jjMoveStringLiteralDfa1_0(0x400000L);
+      case 103:
+         return jjMoveStringLiteralDfa1_0(0x1000000L);
+      case 105:
+         return jjMoveStringLiteralDfa1_0(0x800000L);
+      case 112:
+         return jjMoveStringLiteralDfa1_0(0x8000000L);
+      case 114:
+         return jjMoveStringLiteralDfa1_0(0x20000000L);
+      case 123:
+         return jjStopAtPos(0, 13);
+      case 125:
+         return jjStopAtPos(0, 14);
+      default :
+         return jjMoveNfa_0(0, 0);
+   }
+}
+private int jjMoveStringLiteralDfa1_0(long active0)
+{
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(0, active0);
+      return 1;
+   }
+   switch(curChar)
+   {
+      case 97:
+         return jjMoveStringLiteralDfa2_0(active0, 0x2000000L);
+      case 101:
+         return jjMoveStringLiteralDfa2_0(active0, 0x20000000L);
+      case 102:
+         return jjMoveStringLiteralDfa2_0(active0, 0x800000L);
+      case 108:
+         return jjMoveStringLiteralDfa2_0(active0, 0x4000000L);
+      case 111:
+         return jjMoveStringLiteralDfa2_0(active0, 0x1000000L);
+      case 114:
+         return jjMoveStringLiteralDfa2_0(active0, 0x18000000L);
+      case 117:
+         return jjMoveStringLiteralDfa2_0(active0, 0x400000L);
+      default :
+         break;
+   }
+   return jjStartNfa_0(0, active0);
+}
+private int jjMoveStringLiteralDfa2_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(0, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(1, active0);
+      return 2;
+   }
+   switch(curChar)
+   {
+      case 48:
+         if ((active0 & 0x800000L) != 0L)
+            return jjStartNfaWithStates_0(2, 23, 4);
+         break;
+      case 105:
+         return jjMoveStringLiteralDfa3_0(active0, 0x8000000L);
+      case 108:
+         return jjMoveStringLiteralDfa3_0(active0, 0x6000000L);
+      case 110:
+         return jjMoveStringLiteralDfa3_0(active0, 0x400000L);
+      case 114:
+         return jjMoveStringLiteralDfa3_0(active0, 0x10000000L);
+      case 116:
+         return jjMoveStringLiteralDfa3_0(active0, 0x21000000L);
+      default :
+         break;
+   }
+   return jjStartNfa_0(1, active0);
+}
+private int jjMoveStringLiteralDfa3_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(1, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(2, active0);
+      return 3;
+   }
+   switch(curChar)
+   {
+      case 99:
+         if ((active0 & 0x400000L) != 0L)
+            return jjStartNfaWithStates_0(3, 22, 4);
+         break;
+      case 108:
+         if ((active0 & 0x2000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 25, 4);
+         break;
+      case 110:
+         return jjMoveStringLiteralDfa4_0(active0, 0x8000000L);
+      case 111:
+         if ((active0 & 0x1000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 24, 4);
+         return jjMoveStringLiteralDfa4_0(active0, 0x14000000L);
+      case 117:
+         return jjMoveStringLiteralDfa4_0(active0, 0x20000000L);
+      default :
+         break;
+   }
+   return jjStartNfa_0(2, active0);
+}
+private int jjMoveStringLiteralDfa4_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(2, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(3, active0);
+      return 4;
+   }
+   switch(curChar)
+   {
+      case 99:
+         if ((active0 & 0x4000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 26, 4);
+         break;
+      case 114:
+         if ((active0 & 0x10000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 28, 4);
+         return jjMoveStringLiteralDfa5_0(active0, 0x20000000L);
+      case 116:
+         if ((active0 & 0x8000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 27, 4);
+         break;
+      default :
+         break;
+   }
+   return jjStartNfa_0(3, active0);
+}
+private int jjMoveStringLiteralDfa5_0(long old0, long active0)
+{
+   if (((active0 &= old0)) == 0L)
+      return jjStartNfa_0(3, old0);
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) {
+      jjStopStringLiteralDfa_0(4, active0);
+      return 5;
+   }
+   switch(curChar)
+   {
+      case 110:
+         if ((active0 & 0x20000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 29, 4);
+         break;
+      default :
+         break;
+   }
+   return jjStartNfa_0(4, active0);
+}
+private int jjStartNfaWithStates_0(int pos, int kind, int state)
+{
+   jjmatchedKind = kind;
+   jjmatchedPos = pos;
+   try { curChar = input_stream.readChar(); }
+   catch(java.io.IOException e) { return pos + 1; }
+   return jjMoveNfa_0(state, pos + 1);
+}
+static final long[] jjbitVec0 = {
+   0x1ff00000fffffffeL, 0xffffffffffffc000L, 0xffffffffL, 0x600000000000000L
+};
+static final long[] jjbitVec2 = {
+   0x0L, 0x0L, 0x0L, 0xff7fffffff7fffffL
+};
+static final long[] jjbitVec3 = {
+   0x0L, 0xffffffffffffffffL, 0xffffffffffffffffL, 0xffffffffffffffffL
+};
+static final long[] jjbitVec4 = {
+   0xffffffffffffffffL, 0xffffffffffffffffL, 0xffffL, 0x0L
+};
+static final long[] jjbitVec5 = {
+   0xffffffffffffffffL, 0xffffffffffffffffL, 0x0L, 0x0L
+};
+static final long[] jjbitVec6 = {
+   0x3fffffffffffL, 0x0L, 0x0L, 0x0L
+};
+static final long[] jjbitVec7 = {
+   0xfffffffffffffffeL, 0xffffffffffffffffL, 0xffffffffffffffffL, 0xffffffffffffffffL
+};
+static final long[] jjbitVec8 = {
+   0x0L, 0x0L, 0xffffffffffffffffL, 0xffffffffffffffffL
+};
+private int jjMoveNfa_0(int startState, int curPos)
+{
+   int startsAt = 0;
+   jjnewStateCnt = 30;
+   int i = 1;
+   jjstateSet[0] = startState;
+   int kind = 0x7fffffff;
+   for (;;)
+   {
+      if (++jjround == 0x7fffffff)
+         ReInitRounds();
+      if (curChar < 64)
+      {
+         long l = 1L << curChar;
+         do
+         {
+            switch(jjstateSet[--i])
+            {
+               case 0:
+                  if ((0x3fe000000000000L & l) != 0L)
+                  {
+                     if (kind > 30)
+                        kind = 30;
+                     jjCheckNAdd(1);
+                  }
+                  else if (curChar == 47)
+                     jjAddStates(0, 2);
+                  else if (curChar == 34)
+                     jjCheckNAddStates(3, 5);
+                  else if (curChar == 36)
+                  {
+                     if (kind > 31)
+                        kind = 31;
+                     jjCheckNAdd(4);
+                  }
+                  else if (curChar == 48)
+                  {
+                     if (kind > 30)
+                        kind = 30;
+                  }
+                  break;
+               case 1:
+                  if ((0x3ff000000000000L & l) == 0L)
+                     break;
+                  if (kind > 30)
+                     kind = 30;
+                  jjCheckNAdd(1);
+                  break;
+               case 2:
+                  if (curChar == 48 && kind > 30)
+                     kind = 30;
+                  break;
+               case 3:
+                  if (curChar != 36)
+                     break;
+                  if (kind > 31)
+                     kind = 31;
+                  jjCheckNAdd(4);
+                  break;
+               case 4:
+                  if ((0x3ff001000000000L & l) == 0L)
+                     break;
+                  if (kind > 31)
+                     kind = 31;
+                  jjCheckNAdd(4);
+                  break;
+               case 5:
+               case 10:
+                  if (curChar == 34)
+                     jjCheckNAddStates(3, 5);
+                  break;
+               case 6:
+                  if ((0xdfffdb1100000000L & l) != 0L)
+                     jjCheckNAddStates(3, 5);
+                  break;
+               case 7:
+                  if (curChar == 34 && kind > 34)
+                     kind = 34;
+                  break;
+               case 11:
+                  if (curChar == 47)
+                     jjAddStates(0, 2);
+                  break;
+               case 12:
+                  if (curChar == 47)
+                     jjCheckNAddStates(6, 8);
+                  break;
+               case 13:
+                  if ((0xffffffffffffdbffL & l) != 0L)
+                     jjCheckNAddStates(6, 8);
+                  break;
+               case 14:
+                  if ((0x2400L & l) != 0L && kind > 6)
+                     kind = 6;
+                  break;
+               case 15:
+                  if (curChar == 10 && kind > 6)
+                     kind = 6;
+                  break;
+               case 16:
+                  if (curChar == 13)
+                     jjstateSet[jjnewStateCnt++] = 15;
+                  break;
+               case 17:
+                  if (curChar == 42)
+                     jjCheckNAddTwoStates(18, 19);
+                  break;
+               case 18:
+                  if ((0xfffffbffffffffffL & l) != 0L)
+                     jjCheckNAddTwoStates(18, 19);
+                  break;
+               case 19:
+                  if (curChar == 42)
+                     jjCheckNAddStates(9, 11);
+                  break;
+               case 20:
+                  if ((0xffff7bffffffffffL & l) != 0L)
+                     jjCheckNAddTwoStates(21, 19);
+                  break;
+               case 21:
+                  if ((0xfffffbffffffffffL & l) != 0L)
+                     jjCheckNAddTwoStates(21, 19);
+                  break;
+               case 22:
+                  if (curChar == 47 && kind > 7)
+                     kind = 7;
+                  break;
+               case 23:
+                  if (curChar == 42)
+                     jjstateSet[jjnewStateCnt++] = 17;
+                  break;
+               case 24:
+                  if (curChar == 42)
+                     jjCheckNAddTwoStates(25, 26);
+                  break;
+               case 25:
+                  if ((0xfffffbffffffffffL & l) != 0L)
+                     jjCheckNAddTwoStates(25, 26);
+                  break;
+               case 26:
+                  if (curChar == 42)
+                     jjCheckNAddStates(12, 14);
+                  break;
+               case 27:
+                  if ((0xffff7bffffffffffL & l) != 0L)
+                     jjCheckNAddTwoStates(28, 26);
+                  break;
+               case 28:
+                  if ((0xfffffbffffffffffL & l) != 0L)
+                     jjCheckNAddTwoStates(28, 26);
+                  break;
+               case 29:
+                  if (curChar == 47 && kind > 8)
+                     kind = 8;
+                  break;
+               default : break;
+            }
+         } while(i != startsAt);
+      }
+      else if (curChar < 128)
+      {
+         long l = 1L << (curChar & 077);
+         do
+         {
+            switch(jjstateSet[--i])
+            {
+               case 0:
+               case 4:
+                  if ((0x7fffffe87fffffeL & l) == 0L)
+                     break;
+                  if (kind > 31)
+                     kind = 31;
+                  jjCheckNAdd(4);
+                  break;
+               case 6:
+                  if ((0x2ffffffeaffffffeL & l) != 0L)
+                     jjCheckNAddStates(3, 5);
+                  break;
+               case 8:
+                  if (curChar == 92)
+                     jjAddStates(15, 16);
+                  break;
+               case 9:
+                  if (curChar == 110)
+                     jjCheckNAddStates(3, 5);
+                  break;
+               case 13:
+                  jjAddStates(6, 8);
+                  break;
+               case 18:
+                  jjCheckNAddTwoStates(18, 19);
+                  break;
+               case 20:
+               case 21:
+                  jjCheckNAddTwoStates(21, 19);
+                  break;
+               case 25:
+                  jjCheckNAddTwoStates(25, 26);
+                  break;
+               case 27:
+               case 28:
+                  jjCheckNAddTwoStates(28, 26);
+                  break;
+               default : break;
+            }
+         } while(i != startsAt);
+      }
+      else
+      {
+         int hiByte = curChar >> 8;
+         int i1 = hiByte >> 6;
+         long l1 = 1L << (hiByte & 077);
+         int i2 = (curChar & 0xff) >> 6;
+         long l2 = 1L << (curChar & 077);
+         do
+         {
+            switch(jjstateSet[--i])
+            {
+               case 0:
+               case 4:
+                  if (!jjCanMove_0(hiByte, i1, i2, l1, l2))
+                     break;
+                  if (kind > 31)
+                     kind = 31;
+                  jjCheckNAdd(4);
+                  break;
+               case 6:
+                  if (jjCanMove_0(hiByte, i1, i2, l1, l2))
+                     jjAddStates(3, 5);
+                  break;
+               case 13:
+                  if (jjCanMove_1(hiByte, i1, i2, l1, l2))
+                     jjAddStates(6, 8);
+                  break;
+               case 18:
+                  if (jjCanMove_1(hiByte, i1, i2, l1, l2))
+                     jjCheckNAddTwoStates(18, 19);
+                  break;
+               case 20:
+               case 21:
+                  if (jjCanMove_1(hiByte, i1, i2, l1, l2))
+                     jjCheckNAddTwoStates(21, 19);
+                  break;
+               case 25:
+                  if (jjCanMove_1(hiByte, i1, i2, l1, l2))
+                     jjCheckNAddTwoStates(25, 26);
+                  break;
+               case 27:
+               case 28:
+                  if (jjCanMove_1(hiByte, i1, i2, l1, l2))
+                     jjCheckNAddTwoStates(28, 26);
+                  break;
+               default : break;
+            }
+         } while(i != startsAt);
+      }
+      if (kind != 0x7fffffff)
+      {
+         jjmatchedKind = kind;
+         jjmatchedPos = curPos;
+         kind = 0x7fffffff;
+      }
+      ++curPos;
+      if ((i = jjnewStateCnt) == (startsAt = 30 - (jjnewStateCnt = startsAt)))
+         return curPos;
+      try { curChar = input_stream.readChar(); }
+      catch(java.io.IOException e) { return curPos; }
+   }
+}
+static final int[] jjnextStates = {
+   12, 23, 24, 6, 7, 8, 13, 14, 16, 19, 20, 22, 26, 27, 29, 9, 
+   10, 
+};
+private static final boolean jjCanMove_0(int hiByte, int i1, int i2, long l1, long l2)
+{
+   switch(hiByte)
+   {
+      case 0:
+         return ((jjbitVec2[i2] & l2) != 0L);
+      case 48:
+         return ((jjbitVec3[i2] & l2) != 0L);
+      case 49:
+         return ((jjbitVec4[i2] & l2) != 0L);
+      case 51:
+         return ((jjbitVec5[i2] & l2) != 0L);
+      case 61:
+         return ((jjbitVec6[i2] & l2) != 0L);
+      default :
+         if ((jjbitVec0[i1] & l1) != 0L)
+            return true;
+         return false;
+   }
+}
+private static final boolean jjCanMove_1(int hiByte, int i1, int i2, long l1, long l2)
+{
+   switch(hiByte)
+   {
+      case 0:
+         return ((jjbitVec8[i2] & l2) != 0L);
+      default :
+         if ((jjbitVec7[i1] & l1) != 0L)
+            return true;
+         return false;
+   }
+}
+
+/** Token literal values. */
+public static final String[] jjstrLiteralImages = {
+"", null, null, null, null, null, null, null, null, "\50", "\51", "\133", 
+"\135", "\173", "\175", "\73", "\56", "\75", "\74", "\53", "\55", "\100", 
+"\146\165\156\143", "\151\146\60", "\147\157\164\157", "\143\141\154\154", "\141\154\154\157\143", 
+"\160\162\151\156\164", "\145\162\162\157\162", "\162\145\164\165\162\156", null, null, null, null, 
+null, "\72", "\52", };
+
+/** Lexer state names. */
+public static final String[] lexStateNames = {
+   "DEFAULT",
+};
+static final long[] jjtoToken = {
+   0x1cfffffe01L, 
+};
+static final long[] jjtoSkip = {
+   0x1feL, 
+};
+static final long[] jjtoSpecial = {
+   0x1c0L, 
+};
+protected ReentrantCharStream input_stream;
+private final int[] jjrounds = new int[30];
+private final int[] jjstateSet = new int[60];
+protected char curChar;
+/** Constructor. */
+public ReentrantSparrowTokenManager(ReentrantCharStream stream){
+   input_stream = stream;
+}
+
+/** Constructor. */
+public ReentrantSparrowTokenManager(ReentrantCharStream stream, int lexState){
+   this(stream);
+   SwitchTo(lexState);
+}
+
+/** Reinitialise parser. */
+public void ReInit(ReentrantCharStream stream)
+{
+   jjmatchedPos = jjnewStateCnt = 0;
+   curLexState = defaultLexState;
+   input_stream = stream;
+   ReInitRounds();
+}
+private void ReInitRounds()
+{
+   int i;
+   jjround = 0x80000001;
+   for (i = 30; i-- > 0;)
+      jjrounds[i] = 0x80000000;
+}
+
+/** Reinitialise parser. */
+public void ReInit(ReentrantCharStream stream, int lexState)
+{
+   ReInit(stream);
+   SwitchTo(lexState);
+}
+
+/** Switch to specified lex state. */
+public void SwitchTo(int lexState)
+{
+   if (lexState >= 1 || lexState < 0)
+      throw new TokenMgrError("Error: Ignoring invalid lexical state : " + lexState + ". State unchanged.", 2 /* TokenMgrError.INVALID_LEXICAL_STATE */);
+   else
+      curLexState = lexState;
+}
+
+protected Token jjFillToken()
+{
+   final Token t;
+   final String curTokenImage;
+   final int beginLine;
+   final int endLine;
+   final int beginColumn;
+   final int endColumn;
+   String im = jjstrLiteralImages[jjmatchedKind];
+   curTokenImage = (im == null) ? input_stream.GetImage() : im;
+   beginLine = input_stream.getBeginLine();
+   beginColumn = input_stream.getBeginColumn();
+   endLine = input_stream.getEndLine();
+   endColumn = input_stream.getEndColumn();
+   t = Token.newToken(jjmatchedKind, curTokenImage);
+
+   t.beginLine = beginLine;
+   t.endLine = endLine;
+   t.beginColumn = beginColumn;
+   t.endColumn = endColumn;
+
+   return t;
+}
+
+int curLexState = 0;
+int defaultLexState = 0;
+int jjnewStateCnt;
+int jjround;
+int jjmatchedPos;
+int jjmatchedKind;
+
+/** Get the next cs132.IR.token. */
+public Token getNextToken() 
+{
+  Token specialToken = null;
+  Token matchedToken;
+  int curPos = 0;
+
+  EOFLoop :
+  for (;;)
+  {
+   try
+   {
+      curChar = input_stream.BeginToken();
+   }
+   catch(java.io.IOException e)
+   {
+      jjmatchedKind = 0;
+      matchedToken = jjFillToken();
+      matchedToken.specialToken = specialToken;
+      return matchedToken;
+   }
+
+   try { input_stream.backup(0);
+      while (curChar <= 32 && (0x100003600L & (1L << curChar)) != 0L)
+         curChar = input_stream.BeginToken();
+   }
+   catch (java.io.IOException e1) { continue EOFLoop; }
+   jjmatchedKind = 0x7fffffff;
+   jjmatchedPos = 0;
+   curPos = jjMoveStringLiteralDfa0_0();
+   if (jjmatchedKind != 0x7fffffff)
+   {
+      if (jjmatchedPos + 1 < curPos)
+         input_stream.backup(curPos - jjmatchedPos - 1);
+      if ((jjtoToken[jjmatchedKind >> 6] & (1L << (jjmatchedKind & 077))) != 0L)
+      {
+         matchedToken = jjFillToken();
+         matchedToken.specialToken = specialToken;
+         return matchedToken;
+      }
+      else
+      {
+         if ((jjtoSpecial[jjmatchedKind >> 6] & (1L << (jjmatchedKind & 077))) != 0L)
+         {
+            matchedToken = jjFillToken();
+            if (specialToken == null)
+               specialToken = matchedToken;
+            else
+            {
+               matchedToken.specialToken = specialToken;
+               specialToken = (specialToken.next = matchedToken);
+            }
+         }
+         continue EOFLoop;
+      }
+   }
+   int error_line = input_stream.getEndLine();
+   int error_column = input_stream.getEndColumn();
+   String error_after = null;
+   boolean EOFSeen = false;
+   try { input_stream.readChar(); input_stream.backup(1); }
+   catch (java.io.IOException e1) {
+      EOFSeen = true;
+      error_after = curPos <= 1 ? "" : input_stream.GetImage();
+      if (curChar == '\n' || curChar == '\r') {
+         error_line++;
+         error_column = 0;
+      }
+      else
+         error_column++;
+   }
+   if (!EOFSeen) {
+      input_stream.backup(1);
+      error_after = curPos <= 1 ? "" : input_stream.GetImage();
+   }
+   throw new TokenMgrError(EOFSeen, curLexState, error_line, error_column, error_after, curChar, 0 /* TokenMgrError.LEXICAL_ERROR */);
+  }
+}
+
+private void jjCheckNAdd(int state)
+{
+   if (jjrounds[state] != jjround)
+   {
+      jjstateSet[jjnewStateCnt++] = state;
+      jjrounds[state] = jjround;
+   }
+}
+private void jjAddStates(int start, int end)
+{
+   do {
+      jjstateSet[jjnewStateCnt++] = jjnextStates[start];
+   } while (start++ != end);
+}
+private void jjCheckNAddTwoStates(int state1, int state2)
+{
+   jjCheckNAdd(state1);
+   jjCheckNAdd(state2);
+}
+
+private void jjCheckNAddStates(int start, int end)
+{
+   do {
+      jjCheckNAdd(jjnextStates[start]);
+   } while (start++ != end);
+}
+
+}
@@ -0,0 +1,32 @@
+package parser;
+
+import java.io.Reader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import IR.ParseException;
+import IR.syntaxtree.Program;
+
+/**
+ * Hands out ReentrantSparrowParser instances so that several threads can
+ * parse at the same time. Idle parsers are reset with ReInit and reused, which
+ * keeps their character buffers and lookahead tables.
+ */
+public class SparrowParserPool {
+  private final Queue<ReentrantSparrowParser> idle = new ConcurrentLinkedQueue<>();
+
+  public Program parse(Reader input) throws ParseException {
+    ReentrantSparrowParser parser = idle.poll();
+    if (parser == null) {
+      parser = new ReentrantSparrowParser(input);
+    } else {
+      parser.ReInit(input);
+    }
+
+    try {
+      return parser.Program();
+    } finally {
+      idle.offer(parser);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import IR.syntaxtree.Program;
+import IR.syntaxtree.NodeToken;
+import IR.visitor.DepthFirstVisitor;
+import parser.SparrowParserPool;
+import parser.ReentrantSparrowParser;
+
+public class ParserPoolTest {
+  private static final int THREADS = 8;
+  private static final int ROUNDS = 20;
+
+  private static List<String> readTestcases() throws IOException {
+    List<String> sources = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("testcases/hw5"), "*.sparrow-v")) {
+      for (Path file : files) {
+        sources.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+      }
+    }
+    return sources;
+  }
+
+  private static String tokens(Program program) {
+    StringBuilder sb = new StringBuilder();
+    program.accept(new DepthFirstVisitor() {
+      @Override
+      public void visit(NodeToken n) {
+        sb.append(n.tokenImage).append(' ').append(n.beginLine).append(':').append(n.beginColumn).append('\n');
+      }
+    });
+    return sb.toString();
+  }
+
+  @Test
+  public void testConcurrentParsesMatchSequential() throws Exception {
+    List<String> sources = readTestcases();
+    List<String> expected = new ArrayList<>();
+    for (String source : sources) {
+      expected.add(tokens(new ReentrantSparrowParser(new StringReader(source)).Program()));
+    }
+
+    SparrowParserPool pool = new SparrowParserPool();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int round = 0; round < ROUNDS; round++) {
+        for (String source : sources) {
+          results.add(executor.submit(() -> tokens(pool.parse(new StringReader(source)))));
+        }
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        assertEquals(expected.get(i % sources.size()), results.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}